@@ -324,16 +324,16 @@ legacy_version_hashes_before="$(mysql_query "
   WHERE problem_id = 9001;
 ")"
 
-printf 'Upgrading the populated schema through V13\n'
-run_flyway 13
+printf 'Upgrading the populated schema through V20\n'
+run_flyway 20
 
 flyway_versions="$(mysql_query "
   SELECT GROUP_CONCAT(version ORDER BY installed_rank SEPARATOR ',')
   FROM flyway_schema_history
   WHERE type = 'SQL' AND success = 1;
 ")"
-assert_equals "Flyway recorded successful V1-V13 migrations" \
-  "1,2,3,4,5,6,7,8,9,10,11,12,13" "$flyway_versions"
+assert_equals "Flyway recorded successful V1-V20 migrations" \
+  "1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20" "$flyway_versions"
 
 checker_backfill="$(mysql_query "
   SELECT GROUP_CONCAT(CONCAT(id, ':', checker) ORDER BY id SEPARATOR ',')
@@ -363,6 +363,117 @@ scoreboard_index_columns="$(mysql_query "
 assert_equals "V13 installs the exact contest scoreboard lookup index order" \
   "contest_id,is_deleted,create_time,id" "$scoreboard_index_columns"
 
+scoreboard_revision_column="$(mysql_query "
+  SELECT CONCAT(column_type, '|', is_nullable, '|', column_default)
+  FROM information_schema.columns
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name = 't_contest'
+    AND column_name = 'scoreboard_revision';
+")"
+assert_equals "V14 adds a non-null contest scoreboard revision starting at zero" \
+  "bigint|NO|0" "$scoreboard_revision_column"
+
+frozen_scoreboard_revision_column="$(mysql_query "
+  SELECT CONCAT(column_type, '|', is_nullable, '|', column_default)
+  FROM information_schema.columns
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name = 't_contest'
+    AND column_name = 'frozen_scoreboard_revision';
+")"
+assert_equals "V20 adds a non-null frozen scoreboard revision starting at zero" \
+  "bigint|NO|0" "$frozen_scoreboard_revision_column"
+
+outbox_shard_index_columns="$(mysql_query "
+  SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index SEPARATOR ',')
+  FROM information_schema.statistics
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name = 't_outbox_event'
+    AND index_name = 'idx_outbox_shard_pending';
+")"
+assert_equals "V15 installs the exact outbox shard claim index order" \
+  "shard,published_at,next_attempt_at,claimed_at,created_at" "$outbox_shard_index_columns"
+
+outbox_lease_tables="$(mysql_query "
+  SELECT GROUP_CONCAT(table_name ORDER BY table_name SEPARATOR ',')
+  FROM information_schema.tables
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name IN ('t_outbox_publisher', 't_outbox_shard_lease');
+")"
+assert_equals "V15 creates the outbox publisher and shard lease tables" \
+  "t_outbox_publisher,t_outbox_shard_lease" "$outbox_lease_tables"
+
+catalog_index_columns="$(mysql_query "
+  SELECT GROUP_CONCAT(
+    CONCAT(table_name, '.', index_name, ':', column_name)
+    ORDER BY table_name, index_name, seq_in_index SEPARATOR ','
+  )
+  FROM information_schema.statistics
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND index_name IN (
+      'idx_problem_catalog_difficulty',
+      'idx_problem_catalog_tag_problem',
+      'idx_problem_owner',
+      'idx_submission_user_problem'
+    );
+")"
+assert_equals "V16 installs the exact problem catalog listing index order" \
+  "t_problem.idx_problem_owner:create_user_id,t_problem.idx_problem_owner:problem_no,t_problem_catalog.idx_problem_catalog_difficulty:difficulty,t_problem_catalog.idx_problem_catalog_difficulty:problem_no,t_problem_catalog_tag.idx_problem_catalog_tag_problem:problem_id,t_submission.idx_submission_user_problem:user_id,t_submission.idx_submission_user_problem:problem_id,t_submission.idx_submission_user_problem:status" \
+  "$catalog_index_columns"
+
+catalog_rows="$(mysql_query "
+  SELECT COUNT(*) FROM t_problem_catalog WHERE problem_id IN (9001, 9002);
+")"
+assert_equals "V16 does not list problems whose published pointer V11 withdrew" \
+  "0" "$catalog_rows"
+
+catalog_source_column="$(mysql_query "
+  SELECT CONCAT(column_type, ':', is_nullable)
+  FROM information_schema.columns
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name = 't_problem_catalog'
+    AND column_name = 'source';
+")"
+assert_equals "V17 adds a nullable published source to the problem catalog" \
+  "varchar(255):YES" "$catalog_source_column"
+
+submission_feed_index_columns="$(mysql_query "
+  SELECT GROUP_CONCAT(CONCAT(index_name, ':', column_name) ORDER BY index_name, seq_in_index SEPARATOR ',')
+  FROM information_schema.statistics
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name = 't_submission'
+    AND index_name IN ('idx_submission_feed_problem', 'idx_submission_feed_user');
+")"
+assert_equals "V18 installs the exact submission feed index order" \
+  "idx_submission_feed_problem:problem_id,idx_submission_feed_problem:id,idx_submission_feed_problem:user_id,idx_submission_feed_problem:status,idx_submission_feed_problem:language,idx_submission_feed_problem:is_deleted,idx_submission_feed_user:user_id,idx_submission_feed_user:id,idx_submission_feed_user:problem_id,idx_submission_feed_user:status,idx_submission_feed_user:language,idx_submission_feed_user:is_deleted" \
+  "$submission_feed_index_columns"
+
+test_bundle_layout_column="$(mysql_query "
+  SELECT CONCAT(column_type, ':', is_nullable, ':', column_default)
+  FROM information_schema.columns
+  WHERE table_schema = '${MYSQL_DATABASE}'
+    AND table_name = 't_test_bundle'
+    AND column_name = 'layout';
+")"
+assert_equals "V19 keeps existing test bundles as ZIP archives" \
+  "varchar(16):NO:ARCHIVE" "$test_bundle_layout_column"
+
+test_bundle_file_key="$(mysql_query "
+  SELECT CONCAT(
+    (SELECT GROUP_CONCAT(column_name ORDER BY seq_in_index SEPARATOR ',')
+       FROM information_schema.statistics
+      WHERE table_schema = '${MYSQL_DATABASE}'
+        AND table_name = 't_test_bundle_file'
+        AND index_name = 'PRIMARY'),
+    ':',
+    (SELECT collation_name
+       FROM information_schema.columns
+      WHERE table_schema = '${MYSQL_DATABASE}'
+        AND table_name = 't_test_bundle_file'
+        AND column_name = 'path'));
+")"
+assert_equals "V19 keys test bundle files by version and case-sensitive path" \
+  "problem_version_id,path:utf8mb4_bin" "$test_bundle_file_key"
+
 category_slugs="$(mysql_query "
   SELECT GROUP_CONCAT(slug ORDER BY sort_order, slug SEPARATOR ',')
   FROM t_forum_category
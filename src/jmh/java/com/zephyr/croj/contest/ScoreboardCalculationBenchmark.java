@@ -0,0 +1,90 @@
+package com.zephyr.croj.contest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Full scoreboard recomputes: the reference and columnar calculators, and a projection cold load. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ScoreboardCalculationBenchmark {
+    @Param({"500", "5000"})
+    int participants;
+
+    @Param({"12"})
+    int problems;
+
+    @Param({"2", "8"})
+    int submissionsPerCell;
+
+    private SyntheticContest contest;
+    private List<ScoreboardProjection.Fact> acmProjectionFacts;
+    private List<ScoreboardProjection.Fact> oiProjectionFacts;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        contest = new SyntheticContest(participants, problems, submissionsPerCell, 20261001L);
+        acmProjectionFacts = contest.acmProjectionFacts();
+        oiProjectionFacts = contest.oiProjectionFacts();
+    }
+
+    @Benchmark
+    public AcmScoreboardCalculator.Scoreboard acmReference() {
+        return AcmScoreboardCalculator.calculate(
+                contest.participantIds, contest.acmProblems, contest.acmFacts,
+                SyntheticContest.STARTS_AT, SyntheticContest.ENDS_AT);
+    }
+
+    @Benchmark
+    public AcmScoreboardCalculator.Scoreboard acmColumnar() {
+        return ColumnarScoreboardCalculator.acm(
+                contest.participantIds, contest.acmProblems, contest.acmFacts,
+                SyntheticContest.STARTS_AT, SyntheticContest.ENDS_AT);
+    }
+
+    @Benchmark
+    public OiScoreboardCalculator.Scoreboard oiReference() {
+        return OiScoreboardCalculator.calculate(
+                contest.participantIds, contest.oiProblems, contest.oiFacts,
+                SyntheticContest.STARTS_AT, SyntheticContest.ENDS_AT);
+    }
+
+    @Benchmark
+    public OiScoreboardCalculator.Scoreboard oiColumnar() {
+        return ColumnarScoreboardCalculator.oi(
+                contest.participantIds, contest.oiProblems, contest.oiFacts,
+                SyntheticContest.STARTS_AT, SyntheticContest.ENDS_AT);
+    }
+
+    @Benchmark
+    public ContestScoreboardService.SnapshotPayload acmProjectionColdLoad() {
+        return coldLoad("ACM", acmProjectionFacts);
+    }
+
+    @Benchmark
+    public ContestScoreboardService.SnapshotPayload oiProjectionColdLoad() {
+        return coldLoad("OI", oiProjectionFacts);
+    }
+
+    private ContestScoreboardService.SnapshotPayload coldLoad(String ruleType, List<ScoreboardProjection.Fact> facts) {
+        var projection = ScoreboardProjection.create(
+                ruleType, contest.participantIds, contest.problems, SyntheticContest.STARTS_AT, SyntheticContest.ENDS_AT);
+        facts.forEach(projection::apply);
+        return projection.payload(contest.participantNames);
+    }
+}
@@ -0,0 +1,62 @@
+package com.zephyr.croj.contest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Jackson round trip of the stored public snapshot, as done by {@code readSnapshot}/{@code writeSnapshot}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ScoreboardSnapshotBenchmark {
+    @Param({"500", "5000"})
+    int participants;
+
+    @Param({"12"})
+    int problems;
+
+    @Param({"ACM", "OI"})
+    String ruleType;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private ContestScoreboardService.SnapshotPayload payload;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void generate() throws JsonProcessingException {
+        var contest = new SyntheticContest(participants, problems, 4, 20261002L);
+        var projection = ScoreboardProjection.create(
+                ruleType, contest.participantIds, contest.problems, SyntheticContest.STARTS_AT, SyntheticContest.ENDS_AT);
+        ("OI".equals(ruleType) ? contest.oiProjectionFacts() : contest.acmProjectionFacts()).forEach(projection::apply);
+        payload = projection.payload(contest.participantNames);
+        stored = ContestScoreboardService.encodeSnapshot(objectMapper, payload);
+    }
+
+    @Benchmark
+    public String write() throws JsonProcessingException {
+        return ContestScoreboardService.encodeSnapshot(objectMapper, payload);
+    }
+
+    @Benchmark
+    public ContestScoreboardService.SnapshotPayload read() throws JsonProcessingException {
+        return ContestScoreboardService.decodeSnapshot(objectMapper, ruleType, stored);
+    }
+}
@@ -0,0 +1,92 @@
+package com.zephyr.croj.contest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic contest of {@code participants × problems × submissionsPerCell} submissions, shaped
+ * like a regional: most cells see a few wrong attempts, a good share end in an accepted or
+ * full-score submission, and facts arrive in submission-ID order as the repository returns them.
+ */
+final class SyntheticContest {
+    static final Instant STARTS_AT = Instant.parse("2026-10-01T01:00:00Z");
+    static final Instant ENDS_AT = STARTS_AT.plus(Duration.ofHours(5));
+    private static final int[] FAILURES = {2, 3, 4, 5, 6, 8};
+
+    final List<Long> participantIds;
+    final Map<Long, String> participantNames;
+    final List<ContestRepository.ContestProblem> problems;
+    final List<AcmScoreboardCalculator.Problem> acmProblems;
+    final List<OiScoreboardCalculator.Problem> oiProblems;
+    final List<AcmScoreboardCalculator.SubmissionFact> acmFacts;
+    final List<OiScoreboardCalculator.SubmissionFact> oiFacts;
+
+    SyntheticContest(int participants, int problemCount, int submissionsPerCell, long seed) {
+        Random random = new Random(seed);
+        participantIds = new ArrayList<>(participants);
+        for (long userId = 1; userId <= participants; userId++) {
+            participantIds.add(10_000 + userId);
+        }
+        participantNames = participantIds.stream().collect(Collectors.toMap(Function.identity(), id -> "user" + id));
+        problems = new ArrayList<>(problemCount);
+        for (int index = 0; index < problemCount; index++) {
+            problems.add(new ContestRepository.ContestProblem(
+                    1_000 + index, 5_000 + index, label(index), 100, "{}", "{}"));
+        }
+        acmProblems = problems.stream()
+                .map(problem -> new AcmScoreboardCalculator.Problem(problem.problemId(), problem.label()))
+                .toList();
+        oiProblems = problems.stream()
+                .map(problem -> new OiScoreboardCalculator.Problem(problem.problemId(), problem.label(), problem.score()))
+                .toList();
+
+        long seconds = Duration.between(STARTS_AT, ENDS_AT).toSeconds();
+        List<Instant> times = new ArrayList<>();
+        List<long[]> cells = new ArrayList<>();
+        for (long userId : participantIds) {
+            for (var problem : problems) {
+                for (int attempt = 0; attempt < submissionsPerCell; attempt++) {
+                    times.add(STARTS_AT.plusMillis(random.nextLong(seconds * 1_000)));
+                    cells.add(new long[] {userId, problem.problemId(), random.nextInt(100)});
+                }
+            }
+        }
+        List<Integer> order = new ArrayList<>(times.size());
+        for (int index = 0; index < times.size(); index++) {
+            order.add(index);
+        }
+        order.sort((left, right) -> times.get(left).compareTo(times.get(right)));
+        acmFacts = new ArrayList<>(order.size());
+        oiFacts = new ArrayList<>(order.size());
+        long submissionId = 1;
+        for (int index : order) {
+            long[] cell = cells.get(index);
+            int roll = (int) cell[2];
+            acmFacts.add(new AcmScoreboardCalculator.SubmissionFact(
+                    submissionId, cell[0], cell[1], roll < 30 ? 1 : FAILURES[roll % FAILURES.length], times.get(index)));
+            oiFacts.add(new OiScoreboardCalculator.SubmissionFact(
+                    submissionId, cell[0], cell[1], roll < 10 ? null : roll + 1, times.get(index)));
+            submissionId++;
+        }
+        Collections.shuffle(participantIds, random);
+    }
+
+    List<ScoreboardProjection.Fact> acmProjectionFacts() {
+        return acmFacts.stream().map(ScoreboardProjection.Fact::of).toList();
+    }
+
+    List<ScoreboardProjection.Fact> oiProjectionFacts() {
+        return oiFacts.stream().map(ScoreboardProjection.Fact::of).toList();
+    }
+
+    private static String label(int index) {
+        return index < 26 ? String.valueOf((char) ('A' + index)) : "P" + index;
+    }
+}
@@ -5,6 +5,7 @@ import com.zephyr.croj.security.JwtAccessDeniedHandler;
 import com.zephyr.croj.security.JwtAuthenticationEntryPoint;
 import com.zephyr.croj.security.JwtAuthenticationFilter;
 import com.zephyr.croj.security.JudgeServiceTokenFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -94,6 +95,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        // SSE 等异步响应的后续派发沿用首次请求的鉴权结果
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
@@ -105,7 +108,7 @@ public class SecurityConfig {
                         .requestMatchers("/uploads/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/problem/*", "/problem/no/*").permitAll()
-                        .requestMatchers(HttpMethod.POST, "/problem/list").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/problem/list", "/problem/search").permitAll()
                         .requestMatchers(HttpMethod.GET, "/v1/contests/*/me").authenticated()
                         .requestMatchers(HttpMethod.GET,
                                 "/v1/forum/**",
@@ -123,7 +126,9 @@ public class SecurityConfig {
                                 "/email/code"
                         ).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .requestMatchers(HttpMethod.POST, "/internal/v1/judge-results")
+                        .requestMatchers(HttpMethod.POST, "/internal/v1/judge-results", "/internal/v1/judge-results/batch")
+                        .hasRole("JUDGE_SERVICE")
+                        .requestMatchers(HttpMethod.GET, "/internal/v1/problem-versions/*/test-bundle")
                         .hasRole("JUDGE_SERVICE")
                         .anyRequest().authenticated());
 
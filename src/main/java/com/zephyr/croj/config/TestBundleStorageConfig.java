@@ -3,12 +3,16 @@ package com.zephyr.croj.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zephyr.croj.config.properties.TestBundleProperties;
 import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.mapper.TestBundleFileMapper;
 import com.zephyr.croj.mapper.TestBundleMapper;
+import com.zephyr.croj.problem.S3MultipartUploader;
 import com.zephyr.croj.problem.S3TestBundleStorage;
+import com.zephyr.croj.problem.TestBundleCache;
 import com.zephyr.croj.problem.TestBundleService;
 import com.zephyr.croj.problem.TestBundleStorage;
 import com.zephyr.croj.problem.importer.ProblemImportStagingStorage;
 import com.zephyr.croj.problem.importer.S3ProblemImportStagingStorage;
+import java.io.IOException;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -42,24 +46,43 @@ public class TestBundleStorageConfig {
     }
 
     @Bean
-    TestBundleStorage testBundleStorage(S3Client testBundleS3Client, TestBundleProperties properties) {
-        return new S3TestBundleStorage(testBundleS3Client, properties);
+    S3MultipartUploader testBundleUploader(S3Client testBundleS3Client, TestBundleProperties properties) {
+        return new S3MultipartUploader(testBundleS3Client, properties);
+    }
+
+    @Bean
+    TestBundleStorage testBundleStorage(
+            S3Client testBundleS3Client,
+            TestBundleProperties properties,
+            S3MultipartUploader testBundleUploader) {
+        return new S3TestBundleStorage(testBundleS3Client, properties, testBundleUploader);
     }
 
     @Bean
     ProblemImportStagingStorage problemImportStagingStorage(
             S3Client testBundleS3Client,
-            TestBundleProperties properties) {
-        return new S3ProblemImportStagingStorage(testBundleS3Client, properties);
+            TestBundleProperties properties,
+            S3MultipartUploader testBundleUploader) {
+        return new S3ProblemImportStagingStorage(testBundleS3Client, properties, testBundleUploader);
     }
 
     @Bean
     TestBundleService testBundleService(
             TestBundleMapper bundles,
+            TestBundleFileMapper files,
             ProblemVersionMapper versions,
             TestBundleStorage storage,
             ObjectMapper objectMapper,
             TestBundleProperties properties) {
-        return new TestBundleService(bundles, versions, storage, objectMapper, properties);
+        return new TestBundleService(bundles, files, versions, storage, objectMapper, properties);
+    }
+
+    @Bean
+    TestBundleCache testBundleCache(
+            TestBundleMapper bundles,
+            TestBundleStorage storage,
+            TestBundleService testBundleService,
+            TestBundleProperties properties) throws IOException {
+        return new TestBundleCache(bundles, storage, testBundleService, properties);
     }
 }
@@ -0,0 +1,34 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.contest.scoreboard")
+public class ContestScoreboardProperties {
+
+    /** 内存榜单的空闲淘汰时间，同时是有订阅者的榜单与数据库修订号对账的周期。 */
+    @NotNull
+    private Duration stateTtl = Duration.ofSeconds(30);
+
+    /** 每个 SSE 订阅者最多积压的事件数；写满后丢弃积压并要求客户端重新同步。 */
+    @Min(1)
+    @Max(4096)
+    private int streamBufferSize = 64;
+
+    /** 单个 SSE 连接的最长存活时间；比赛结束时连接也会提前关闭。 */
+    @NotNull
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    @Min(1)
+    @Max(64)
+    private int streamSenderThreads = 4;
+}
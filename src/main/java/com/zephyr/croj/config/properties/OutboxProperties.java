@@ -24,12 +24,25 @@ public class OutboxProperties {
     @Max(500)
     private int batchSize = 50;
 
+    @NotNull
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration maxPollInterval = Duration.ofSeconds(5);
+
     @NotNull
     private Duration claimTimeout = Duration.ofSeconds(30);
 
     @NotNull
     private Duration publishTimeout = Duration.ofSeconds(5);
 
+    @Min(1)
+    @Max(1024)
+    private int shardCount = 16;
+
+    @NotNull
+    private Duration shardLease = Duration.ofSeconds(15);
+
     @AssertTrue(message = "claim-timeout must be positive and at least twice publish-timeout")
     public boolean isLeaseConfigurationSafe() {
         if (claimTimeout == null || publishTimeout == null || publishTimeout.isZero() || publishTimeout.isNegative()) {
@@ -37,4 +50,19 @@ public class OutboxProperties {
         }
         return claimTimeout.compareTo(publishTimeout.multipliedBy(2)) >= 0;
     }
+
+    @AssertTrue(message = "shard-lease must be at least two seconds")
+    public boolean isShardLeaseSafe() {
+        return shardLease != null && shardLease.toSeconds() >= 2;
+    }
+
+    @AssertTrue(message = "poll-interval must be positive, max-poll-interval at least poll-interval and at most half of shard-lease")
+    public boolean isSweepConfigurationSafe() {
+        if (pollInterval == null || maxPollInterval == null || shardLease == null
+                || pollInterval.isZero() || pollInterval.isNegative()) {
+            return false;
+        }
+        return maxPollInterval.compareTo(pollInterval) >= 0
+                && maxPollInterval.multipliedBy(2).compareTo(shardLease) <= 0;
+    }
 }
@@ -0,0 +1,37 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.problem.counters")
+public class ProblemCounterProperties {
+
+    /** 是否在内存中合并题目提交数/通过数增量后批量写回；关闭后每次提交和通过都在请求事务内直接更新 t_problem。 */
+    private boolean writeBehind = true;
+
+    /** 批量写回增量的间隔；进程正常关闭时也会写回一次。 */
+    @NotNull
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /** 按 t_submission 重新核对全部题目计数的间隔，用于修正进程崩溃时丢失的未写回增量；启动时也会核对一次。 */
+    @NotNull
+    private Duration reconcileInterval = Duration.ofHours(1);
+
+    @AssertTrue(message = "flush-interval must be positive")
+    public boolean isFlushIntervalPositive() {
+        return flushInterval != null && !flushInterval.isZero() && !flushInterval.isNegative();
+    }
+
+    @AssertTrue(message = "reconcile-interval must be positive")
+    public boolean isReconcileIntervalPositive() {
+        return reconcileInterval != null && !reconcileInterval.isZero() && !reconcileInterval.isNegative();
+    }
+}
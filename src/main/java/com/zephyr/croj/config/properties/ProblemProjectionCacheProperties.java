@@ -0,0 +1,32 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.problem.projection-cache")
+public class ProblemProjectionCacheProperties {
+
+    /** 进程内已发布题目投影缓存的容量上限，按解码后内容的估算字节数计；0 表示关闭本地缓存。 */
+    @Min(0)
+    private long maxBytes = 64L * 1024 * 1024;
+
+    /** 是否把已校验的投影写入 Redis，供其他副本跳过数据库读取与校验。 */
+    private boolean redisEnabled = false;
+
+    @NotNull
+    private Duration redisTtl = Duration.ofHours(24);
+
+    @AssertTrue(message = "redis-ttl must be positive")
+    public boolean isRedisTtlPositive() {
+        return redisTtl != null && !redisTtl.isZero() && !redisTtl.isNegative();
+    }
+}
@@ -0,0 +1,28 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.problem.search")
+public class ProblemSearchProperties {
+
+    /** 是否在进程内维护公开题目倒排索引；关闭后关键词搜索回退到数据库模糊匹配，且不返回分面统计。 */
+    private boolean enabled = true;
+
+    /** 全量重建索引的间隔，用于收敛其他副本发布、删除的题目以及标签改名。 */
+    @NotNull
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    @AssertTrue(message = "refresh-interval must be positive")
+    public boolean isRefreshIntervalPositive() {
+        return refreshInterval != null && !refreshInterval.isZero() && !refreshInterval.isNegative();
+    }
+}
@@ -0,0 +1,30 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.submission.admission")
+public class SubmissionAdmissionProperties {
+
+    /** 提交准入所需的用户、题目、比赛、报名和比赛题目版本在本进程内缓存的时间；0 表示不缓存，每次提交合并查询一次。 */
+    @NotNull
+    private Duration ttl = Duration.ofSeconds(5);
+
+    /** 每类缓存的最大条目数，超出时先清理过期条目，仍超出则整体清空。 */
+    @Min(1)
+    private int maxEntries = 100_000;
+
+    @AssertTrue(message = "ttl must not be negative")
+    public boolean isTtlNotNegative() {
+        return ttl != null && !ttl.isNegative();
+    }
+}
@@ -0,0 +1,30 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.submission.feed")
+public class SubmissionFeedProperties {
+
+    /** 提交记录列表展示的题号、题目标题和用户名在本进程内缓存的时间；题目发布或删除时立即失效，用户名最多滞后一个周期。 */
+    @NotNull
+    private Duration namesTtl = Duration.ofMinutes(10);
+
+    /** 题目名称和用户名缓存各自的最大条目数。 */
+    @Min(1)
+    private int maxEntries = 100_000;
+
+    @AssertTrue(message = "namesTtl must not be negative")
+    public boolean isNamesTtlNotNegative() {
+        return namesTtl != null && !namesTtl.isNegative();
+    }
+}
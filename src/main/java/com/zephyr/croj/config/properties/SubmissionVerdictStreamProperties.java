@@ -0,0 +1,33 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.submission.verdict-stream")
+public class SubmissionVerdictStreamProperties {
+
+    /** 是否通过 Redis pub/sub 把评测结果转发给其他实例上的订阅者；关闭后只推送给本实例的订阅者。 */
+    private boolean redisFanout = true;
+
+    /** 单个 SSE 连接的最长存活时间；订阅的提交全部出结果后连接会提前关闭。 */
+    @NotNull
+    private Duration timeout = Duration.ofMinutes(5);
+
+    /** 一个连接最多订阅的提交数。 */
+    @Min(1)
+    @Max(100)
+    private int maxSubmissions = 20;
+
+    @Min(1)
+    @Max(64)
+    private int senderThreads = 2;
+}
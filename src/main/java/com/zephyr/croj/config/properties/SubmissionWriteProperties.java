@@ -0,0 +1,39 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.submission.write")
+public class SubmissionWriteProperties {
+
+    /** 将并发提交合并到同一个数据库事务中写入；关闭时每次提交单独一个事务。 */
+    private boolean groupCommit = false;
+
+    /** 一个合并事务最多写入的提交数。 */
+    @Min(1)
+    @Max(1000)
+    private int maxBatchSize = 128;
+
+    /** 第一个提交到达后额外等待多久再写入；默认不等待，上一批写入期间到达的提交自然组成下一批。 */
+    @NotNull
+    private Duration maxDelay = Duration.ZERO;
+
+    /** 等待合并写入的提交上限，队列满时提交直接单独写入。 */
+    @Min(1)
+    private int queueCapacity = 10_000;
+
+    @AssertTrue(message = "max-delay must not be negative")
+    public boolean isMaxDelayNotNegative() {
+        return maxDelay != null && !maxDelay.isNegative();
+    }
+}
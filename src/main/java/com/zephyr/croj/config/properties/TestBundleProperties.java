@@ -2,8 +2,11 @@ package com.zephyr.croj.config.properties;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.net.URI;
+import java.nio.file.Path;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
@@ -17,12 +20,14 @@ public class TestBundleProperties {
     public static final long V1_MAX_BUNDLE_BYTES = 63L * 1024 * 1024;
     public static final int V1_MAX_CASES = 256;
     public static final int V1_MAX_COMPRESSION_RATIO = 200;
+    public static final long S3_MIN_PART_BYTES = 5L * 1024 * 1024;
 
     private boolean enabled;
     @NotBlank private String bucket = "coderushoj-test-bundles";
     @NotBlank private String region = "us-east-1";
     private URI endpoint;
     private boolean pathStyle = true;
+    private boolean caseBlobs;
     @Positive
     @Max(V1_MAX_ARCHIVE_BYTES)
     private long maxArchiveBytes = V1_MAX_ARCHIVE_BYTES;
@@ -45,4 +50,24 @@ public class TestBundleProperties {
     @Positive
     @Max(V1_MAX_COMPRESSION_RATIO)
     private int maxCompressionRatio = V1_MAX_COMPRESSION_RATIO;
+
+    @Positive
+    @Max(64)
+    private int validationThreads = 4;
+
+    @Min(S3_MIN_PART_BYTES)
+    private long multipartThresholdBytes = 16L * 1024 * 1024;
+
+    @Min(S3_MIN_PART_BYTES)
+    @Max(V1_MAX_ARCHIVE_BYTES)
+    private long multipartPartBytes = 8L * 1024 * 1024;
+
+    @Positive
+    @Max(32)
+    private int uploadThreads = 4;
+
+    @NotNull private Path cacheDirectory = Path.of(System.getProperty("java.io.tmpdir"), "croj-test-bundle-cache");
+
+    @Min(V1_MAX_ARCHIVE_BYTES)
+    private long cacheMaxBytes = 4L * 1024 * 1024 * 1024;
 }
@@ -0,0 +1,28 @@
+package com.zephyr.croj.config.properties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.submission.user-status")
+public class UserProblemStatusProperties {
+
+    /** 是否在 Redis 中维护每个用户的已尝试/已通过题目位图；关闭后每次都按当前页查询数据库。 */
+    private boolean enabled = true;
+
+    /** 位图自最近一次重建起的存活时间，到期后下次读取会从提交记录重建。 */
+    @NotNull
+    private Duration ttl = Duration.ofHours(6);
+
+    @AssertTrue(message = "ttl must be positive")
+    public boolean isTtlPositive() {
+        return ttl != null && !ttl.isZero() && !ttl.isNegative();
+    }
+}
@@ -12,7 +12,7 @@ import java.util.Map;
 import java.util.Set;
 
 public final class AcmScoreboardCalculator {
-    private static final Set<Integer> CONTESTANT_FAILURES = Set.of(
+    static final Set<Integer> CONTESTANT_FAILURES = Set.of(
             SubmissionStatusEnum.COMPILE_ERROR.getCode(),
             SubmissionStatusEnum.WRONG_ANSWER.getCode(),
             SubmissionStatusEnum.TIME_LIMIT_EXCEEDED.getCode(),
@@ -0,0 +1,245 @@
+package com.zephyr.croj.contest;
+
+import com.zephyr.croj.common.enums.SubmissionStatusEnum;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/** Incremental counterpart of {@link AcmScoreboardCalculator}. */
+final class AcmScoreboardProjection extends ScoreboardProjection {
+    private static final int ACCEPTED = SubmissionStatusEnum.ACCEPTED.getCode();
+    private static final Comparator<Instant> ACCEPTED_TIME = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final List<AcmScoreboardCalculator.Problem> problems;
+    private final Map<Long, Integer> problemIndexes = new HashMap<>();
+    private final Map<Long, Entry> entries = new LinkedHashMap<>();
+    private final FactKey[] firstAccepted;
+    private final long[] firstAcceptedBy;
+    private final OrderStatisticTree<Entry> ranking = new OrderStatisticTree<>(
+            Comparator.comparingInt((Entry entry) -> entry.solved)
+                    .reversed()
+                    .thenComparingInt(entry -> entry.penaltyMinutes)
+                    .thenComparing(entry -> entry.lastAcceptedAt, ACCEPTED_TIME)
+                    .thenComparingLong(entry -> entry.userId));
+
+    AcmScoreboardProjection(
+            List<Long> participantIds,
+            List<AcmScoreboardCalculator.Problem> problems,
+            Instant startsAt,
+            Instant cutoffAt) {
+        super(startsAt, cutoffAt);
+        if (participantIds == null || problems == null) {
+            throw new IllegalArgumentException("scoreboard inputs are required");
+        }
+        var labels = new HashSet<String>();
+        for (int index = 0; index < problems.size(); index++) {
+            AcmScoreboardCalculator.Problem problem = problems.get(index);
+            if (problemIndexes.put(problem.problemId(), index) != null || !labels.add(problem.label())) {
+                throw new IllegalArgumentException("participants, problem IDs, and problem labels must be unique");
+            }
+        }
+        for (Long userId : participantIds) {
+            Entry entry = new Entry(userId, problems.size());
+            if (entries.put(userId, entry) != null) {
+                throw new IllegalArgumentException("participants, problem IDs, and problem labels must be unique");
+            }
+            ranking.add(entry);
+        }
+        this.problems = List.copyOf(problems);
+        this.firstAccepted = new FactKey[problems.size()];
+        this.firstAcceptedBy = new long[problems.size()];
+    }
+
+    private AcmScoreboardProjection(AcmScoreboardProjection source, Instant cutoffAt) {
+        super(source, cutoffAt);
+        this.problems = source.problems;
+        this.problemIndexes.putAll(source.problemIndexes);
+        this.firstAccepted = source.firstAccepted.clone();
+        this.firstAcceptedBy = source.firstAcceptedBy.clone();
+        for (Entry original : source.entries.values()) {
+            Entry entry = new Entry(original);
+            entries.put(entry.userId, entry);
+            ranking.add(entry);
+        }
+    }
+
+    @Override
+    ScoreboardProjection widen(Instant cutoffAt) {
+        return new AcmScoreboardProjection(this, cutoffAt);
+    }
+
+    @Override
+    Integer maximumScore() {
+        return null;
+    }
+
+    @Override
+    int size() {
+        return ranking.size();
+    }
+
+    @Override
+    long userAt(int index) {
+        return ranking.get(index).userId;
+    }
+
+    @Override
+    int rank(long userId) {
+        Entry entry = entries.get(userId);
+        return entry == null ? 0 : ranking.indexOf(entry) + 1;
+    }
+
+    @Override
+    ContestScoreboardService.ScoreboardRow row(long userId, Map<Long, String> participantNames) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            throw new IllegalArgumentException("user is not ranked on this scoreboard");
+        }
+        return ContestScoreboardService.ScoreboardRow.fromAcm(
+                entry.row(ranking.indexOf(entry) + 1), participantNames);
+    }
+
+    @Override
+    int problemIndex(long problemId) {
+        return problemIndexes.getOrDefault(problemId, -1);
+    }
+
+    @Override
+    boolean applyInWindow(Fact fact) {
+        Entry entry = entries.get(fact.userId());
+        Integer index = problemIndexes.get(fact.problemId());
+        if (entry == null || index == null) {
+            return false;
+        }
+        Cell cell = entry.cells[index];
+        FactKey key = FactKey.of(fact);
+        if (fact.status() == ACCEPTED) {
+            if (cell.accepted != null && cell.accepted.compareTo(key) <= 0) {
+                return false;
+            }
+            ranking.remove(entry);
+            cell.accepted = key;
+            entry.recalculate();
+            ranking.add(entry);
+            if (firstAccepted[index] == null || key.compareTo(firstAccepted[index]) < 0) {
+                if (firstAccepted[index] != null && firstAcceptedBy[index] != entry.userId) {
+                    entries.get(firstAcceptedBy[index]).problemScores = null;
+                    rewritten(firstAcceptedBy[index]);
+                }
+                firstAccepted[index] = key;
+                firstAcceptedBy[index] = entry.userId;
+            }
+            return true;
+        }
+        if (!AcmScoreboardCalculator.CONTESTANT_FAILURES.contains(fact.status())
+                || (cell.accepted != null && cell.accepted.compareTo(key) < 0)
+                || !cell.failures.add(key)) {
+            return false;
+        }
+        ranking.remove(entry);
+        entry.recalculate();
+        ranking.add(entry);
+        return true;
+    }
+
+    @Override
+    ContestScoreboardService.SnapshotPayload materialize(Map<Long, String> participantNames) {
+        List<Entry> ordered = ranking.toList();
+        List<ContestScoreboardService.ScoreboardRow> rows = new ArrayList<>(ordered.size());
+        for (int index = 0; index < ordered.size(); index++) {
+            rows.add(ContestScoreboardService.ScoreboardRow.fromAcm(
+                    ordered.get(index).row(index + 1), participantNames));
+        }
+        return new ContestScoreboardService.SnapshotPayload(null, List.copyOf(rows));
+    }
+
+    private final class Entry {
+        private final long userId;
+        private final Cell[] cells;
+        private int solved;
+        private int penaltyMinutes;
+        private Instant lastAcceptedAt;
+        private List<AcmScoreboardCalculator.ProblemScore> problemScores;
+
+        private Entry(long userId, int problemCount) {
+            this.userId = userId;
+            this.cells = new Cell[problemCount];
+            for (int index = 0; index < problemCount; index++) {
+                cells[index] = new Cell();
+            }
+        }
+
+        private Entry(Entry source) {
+            this.userId = source.userId;
+            this.cells = new Cell[source.cells.length];
+            for (int index = 0; index < cells.length; index++) {
+                cells[index] = new Cell();
+                cells[index].failures.addAll(source.cells[index].failures);
+                cells[index].accepted = source.cells[index].accepted;
+            }
+            this.solved = source.solved;
+            this.penaltyMinutes = source.penaltyMinutes;
+            this.lastAcceptedAt = source.lastAcceptedAt;
+            this.problemScores = source.problemScores;
+        }
+
+        private void recalculate() {
+            solved = 0;
+            penaltyMinutes = 0;
+            lastAcceptedAt = null;
+            for (Cell cell : cells) {
+                if (cell.accepted == null) {
+                    continue;
+                }
+                solved++;
+                penaltyMinutes += cell.penaltyMinutes();
+                if (lastAcceptedAt == null || cell.accepted.submittedAt().isAfter(lastAcceptedAt)) {
+                    lastAcceptedAt = cell.accepted.submittedAt();
+                }
+            }
+            problemScores = null;
+        }
+
+        private AcmScoreboardCalculator.Row row(int rank) {
+            if (problemScores == null) {
+                List<AcmScoreboardCalculator.ProblemScore> scores = new ArrayList<>(cells.length);
+                for (int index = 0; index < cells.length; index++) {
+                    Cell cell = cells[index];
+                    AcmScoreboardCalculator.Problem problem = problems.get(index);
+                    scores.add(new AcmScoreboardCalculator.ProblemScore(
+                            problem.problemId(),
+                            problem.label(),
+                            cell.accepted != null,
+                            cell.wrongAttempts(),
+                            cell.accepted == null ? 0 : cell.penaltyMinutes(),
+                            cell.accepted == null ? null : cell.accepted.submittedAt(),
+                            cell.accepted != null && cell.accepted.equals(firstAccepted[index])));
+                }
+                problemScores = List.copyOf(scores);
+            }
+            return new AcmScoreboardCalculator.Row(
+                    rank, userId, solved, penaltyMinutes, lastAcceptedAt, problemScores);
+        }
+    }
+
+    private final class Cell {
+        private final TreeSet<FactKey> failures = new TreeSet<>();
+        private FactKey accepted;
+
+        private int wrongAttempts() {
+            return accepted == null ? failures.size() : failures.headSet(accepted).size();
+        }
+
+        private int penaltyMinutes() {
+            return Math.toIntExact(Duration.between(startsAt, accepted.submittedAt()).toMinutes())
+                    + wrongAttempts() * 20;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.zephyr.croj.contest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Array-based twin of {@link AcmScoreboardCalculator} and {@link OiScoreboardCalculator} with
+ * identical inputs, validation and output.
+ *
+ * <p>Participants and problems are mapped to dense indexes and every user/problem cell lives in a
+ * flat primitive array, so a recompute no longer groups facts into per-cell lists, boxes IDs or
+ * sorts the facts: the earliest accepted or best-scoring fact of a cell is found by comparing
+ * (time, submission ID) keys in place. Submission times are kept as nanosecond offsets from the
+ * contest start, which orders and truncates exactly like the {@link Instant} arithmetic of the
+ * reference calculators. Only the returned rows are allocated per participant.
+ */
+final class ColumnarScoreboardCalculator {
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final long NONE = Long.MAX_VALUE;
+
+    private ColumnarScoreboardCalculator() {}
+
+    static AcmScoreboardCalculator.Scoreboard acm(
+            List<Long> participantIds,
+            List<AcmScoreboardCalculator.Problem> problems,
+            List<AcmScoreboardCalculator.SubmissionFact> submissions,
+            Instant startsAt,
+            Instant cutoffAt) {
+        if (participantIds == null || problems == null || submissions == null || startsAt == null || cutoffAt == null) {
+            throw new IllegalArgumentException("scoreboard inputs are required");
+        }
+        LongIndex users = LongIndex.of(participantIds);
+        LongIndex problemIndexes = LongIndex.of(problems.stream().map(AcmScoreboardCalculator.Problem::problemId).toList());
+        if (users == null
+                || problemIndexes == null
+                || problems.stream().map(AcmScoreboardCalculator.Problem::label).distinct().count() != problems.size()) {
+            throw new IllegalArgumentException("participants, problem IDs, and problem labels must be unique");
+        }
+        int problemCount = problems.size();
+        int cellCount = Math.multiplyExact(participantIds.size(), problemCount);
+        int factCount = submissions.size();
+
+        int[] factCell = new int[factCount];
+        long[] factTime = new long[factCount];
+        long[] acceptedTime = filled(cellCount, NONE);
+        long[] acceptedId = new long[cellCount];
+        int[] acceptedFact = filled(cellCount, -1);
+        long[] firstTime = filled(problemCount, NONE);
+        long[] firstId = new long[problemCount];
+        for (int index = 0; index < factCount; index++) {
+            AcmScoreboardCalculator.SubmissionFact fact = submissions.get(index);
+            factCell[index] = -1;
+            if (fact.submittedAt().isBefore(startsAt) || !fact.submittedAt().isBefore(cutoffAt)) {
+                continue;
+            }
+            int user = users.get(fact.userId());
+            int problem = problemIndexes.get(fact.problemId());
+            if (user < 0 || problem < 0) {
+                continue;
+            }
+            int cell = user * problemCount + problem;
+            long time = offset(startsAt, fact.submittedAt());
+            factCell[index] = cell;
+            factTime[index] = time;
+            if (fact.status() == 1) {
+                if (before(time, fact.submissionId(), acceptedTime[cell], acceptedId[cell])) {
+                    acceptedTime[cell] = time;
+                    acceptedId[cell] = fact.submissionId();
+                    acceptedFact[cell] = index;
+                }
+                if (before(time, fact.submissionId(), firstTime[problem], firstId[problem])) {
+                    firstTime[problem] = time;
+                    firstId[problem] = fact.submissionId();
+                }
+            }
+        }
+        int[] wrongAttempts = new int[cellCount];
+        for (int index = 0; index < factCount; index++) {
+            int cell = factCell[index];
+            AcmScoreboardCalculator.SubmissionFact fact = submissions.get(index);
+            if (cell >= 0
+                    && AcmScoreboardCalculator.CONTESTANT_FAILURES.contains(fact.status())
+                    && before(factTime[index], fact.submissionId(), acceptedTime[cell], acceptedId[cell])) {
+                wrongAttempts[cell]++;
+            }
+        }
+
+        int userCount = participantIds.size();
+        int[] solved = new int[userCount];
+        int[] penalty = new int[userCount];
+        long[] lastTime = filled(userCount, NONE);
+        int[] lastFact = filled(userCount, -1);
+        int[] cellPenalty = new int[cellCount];
+        for (int user = 0; user < userCount; user++) {
+            for (int problem = 0; problem < problemCount; problem++) {
+                int cell = user * problemCount + problem;
+                if (acceptedFact[cell] < 0) {
+                    continue;
+                }
+                solved[user]++;
+                cellPenalty[cell] = Math.toIntExact(acceptedTime[cell] / NANOS_PER_MINUTE) + wrongAttempts[cell] * 20;
+                penalty[user] += cellPenalty[cell];
+                if (lastTime[user] == NONE || acceptedTime[cell] > lastTime[user]) {
+                    lastTime[user] = acceptedTime[cell];
+                    lastFact[user] = acceptedFact[cell];
+                }
+            }
+        }
+
+        long[] userIds = users.keysInInsertionOrder();
+        int[] order = sorted(userCount, (left, right) -> {
+            int comparison = Integer.compare(solved[right], solved[left]);
+            if (comparison == 0) {
+                comparison = Integer.compare(penalty[left], penalty[right]);
+            }
+            if (comparison == 0) {
+                comparison = Long.compare(lastTime[left], lastTime[right]);
+            }
+            return comparison != 0 ? comparison : Long.compare(userIds[left], userIds[right]);
+        });
+        List<AcmScoreboardCalculator.Row> rows = new ArrayList<>(userCount);
+        for (int position = 0; position < userCount; position++) {
+            int user = order[position];
+            AcmScoreboardCalculator.ProblemScore[] scores = new AcmScoreboardCalculator.ProblemScore[problemCount];
+            for (int problem = 0; problem < problemCount; problem++) {
+                int cell = user * problemCount + problem;
+                boolean accepted = acceptedFact[cell] >= 0;
+                AcmScoreboardCalculator.Problem pinned = problems.get(problem);
+                scores[problem] = new AcmScoreboardCalculator.ProblemScore(
+                        pinned.problemId(),
+                        pinned.label(),
+                        accepted,
+                        wrongAttempts[cell],
+                        cellPenalty[cell],
+                        accepted ? submissions.get(acceptedFact[cell]).submittedAt() : null,
+                        accepted && acceptedId[cell] == firstId[problem]);
+            }
+            rows.add(new AcmScoreboardCalculator.Row(
+                    position + 1,
+                    userIds[user],
+                    solved[user],
+                    penalty[user],
+                    lastFact[user] < 0 ? null : submissions.get(lastFact[user]).submittedAt(),
+                    List.of(scores)));
+        }
+        return new AcmScoreboardCalculator.Scoreboard(List.copyOf(rows));
+    }
+
+    static OiScoreboardCalculator.Scoreboard oi(
+            List<Long> participantIds,
+            List<OiScoreboardCalculator.Problem> problems,
+            List<OiScoreboardCalculator.SubmissionFact> submissions,
+            Instant startsAt,
+            Instant cutoffAt) {
+        if (participantIds == null
+                || problems == null
+                || submissions == null
+                || startsAt == null
+                || cutoffAt == null) {
+            throw new IllegalArgumentException("scoreboard inputs are required");
+        }
+        if (cutoffAt.isBefore(startsAt)) {
+            throw new IllegalArgumentException("scoreboard cutoff must not precede contest start");
+        }
+        LongIndex problemIndexes = new LongIndex(problems.size());
+        var labels = new HashSet<String>();
+        int maximumScore = 0;
+        for (int index = 0; index < problems.size(); index++) {
+            OiScoreboardCalculator.Problem problem = problems.get(index);
+            if (problem.maxScore() <= 0
+                    || !problemIndexes.put(problem.problemId(), index)
+                    || !labels.add(problem.label())) {
+                throw new IllegalArgumentException(
+                        "problem IDs and labels must be unique and maximum scores must be positive");
+            }
+            maximumScore = Math.addExact(maximumScore, problem.maxScore());
+        }
+        LongIndex users = LongIndex.of(participantIds);
+        if (users == null) {
+            throw new IllegalArgumentException("participant IDs must be unique");
+        }
+        int problemCount = problems.size();
+        int cellCount = Math.multiplyExact(participantIds.size(), problemCount);
+
+        int[] bestScore = filled(cellCount, -1);
+        long[] bestTime = filled(cellCount, NONE);
+        long[] bestId = new long[cellCount];
+        int[] bestFact = filled(cellCount, -1);
+        for (int index = 0; index < submissions.size(); index++) {
+            OiScoreboardCalculator.SubmissionFact fact = submissions.get(index);
+            if (fact.submittedAt().isBefore(startsAt) || !fact.submittedAt().isBefore(cutoffAt)) {
+                continue;
+            }
+            int user = users.get(fact.userId());
+            int problem = problemIndexes.get(fact.problemId());
+            if (user < 0 || problem < 0 || fact.score() == null) {
+                continue;
+            }
+            int score = fact.score();
+            if (score < 0 || score > problems.get(problem).maxScore()) {
+                throw new IllegalArgumentException("submission score is outside the pinned contest problem maximum");
+            }
+            int cell = user * problemCount + problem;
+            long time = offset(startsAt, fact.submittedAt());
+            if (score > bestScore[cell]
+                    || (score == bestScore[cell] && before(time, fact.submissionId(), bestTime[cell], bestId[cell]))) {
+                bestScore[cell] = score;
+                bestTime[cell] = time;
+                bestId[cell] = fact.submissionId();
+                bestFact[cell] = index;
+            }
+        }
+
+        int userCount = participantIds.size();
+        int[] total = new int[userCount];
+        int[] scored = new int[userCount];
+        long[] lastTime = filled(userCount, NONE);
+        int[] lastFact = filled(userCount, -1);
+        for (int user = 0; user < userCount; user++) {
+            for (int problem = 0; problem < problemCount; problem++) {
+                int cell = user * problemCount + problem;
+                int score = Math.max(bestScore[cell], 0);
+                total[user] = Math.addExact(total[user], score);
+                if (score > 0) {
+                    scored[user]++;
+                    if (lastTime[user] == NONE || bestTime[cell] > lastTime[user]) {
+                        lastTime[user] = bestTime[cell];
+                        lastFact[user] = bestFact[cell];
+                    }
+                }
+            }
+        }
+
+        long[] userIds = users.keysInInsertionOrder();
+        int[] order = sorted(userCount, (left, right) -> {
+            int comparison = Integer.compare(total[right], total[left]);
+            if (comparison == 0) {
+                comparison = Integer.compare(scored[right], scored[left]);
+            }
+            if (comparison == 0) {
+                comparison = Long.compare(lastTime[left], lastTime[right]);
+            }
+            return comparison != 0 ? comparison : Long.compare(userIds[left], userIds[right]);
+        });
+        List<OiScoreboardCalculator.Row> rows = new ArrayList<>(userCount);
+        for (int position = 0; position < userCount; position++) {
+            int user = order[position];
+            OiScoreboardCalculator.ProblemScore[] scores = new OiScoreboardCalculator.ProblemScore[problemCount];
+            for (int problem = 0; problem < problemCount; problem++) {
+                int cell = user * problemCount + problem;
+                OiScoreboardCalculator.Problem pinned = problems.get(problem);
+                boolean present = bestFact[cell] >= 0;
+                scores[problem] = new OiScoreboardCalculator.ProblemScore(
+                        pinned.problemId(),
+                        pinned.label(),
+                        pinned.maxScore(),
+                        Math.max(bestScore[cell], 0),
+                        present ? bestId[cell] : null,
+                        present ? submissions.get(bestFact[cell]).submittedAt() : null);
+            }
+            rows.add(new OiScoreboardCalculator.Row(
+                    position + 1,
+                    userIds[user],
+                    total[user],
+                    scored[user],
+                    lastFact[user] < 0 ? null : submissions.get(lastFact[user]).submittedAt(),
+                    List.of(scores)));
+        }
+        return new OiScoreboardCalculator.Scoreboard(maximumScore, List.copyOf(rows));
+    }
+
+    /** Nanoseconds from {@code startsAt} to {@code at}; both are inside one contest window. */
+    private static long offset(Instant startsAt, Instant at) {
+        return Math.addExact(
+                Math.multiplyExact(at.getEpochSecond() - startsAt.getEpochSecond(), 1_000_000_000L),
+                at.getNano() - startsAt.getNano());
+    }
+
+    /** Fact order shared with the reference calculators: submission time, then submission ID. */
+    private static boolean before(long time, long submissionId, long otherTime, long otherSubmissionId) {
+        return time < otherTime || (time == otherTime && submissionId < otherSubmissionId);
+    }
+
+    private static long[] filled(int length, long value) {
+        long[] values = new long[length];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    private static int[] filled(int length, int value) {
+        int[] values = new int[length];
+        Arrays.fill(values, value);
+        return values;
+    }
+
+    /** Stable merge sort of {@code 0..count-1} without boxing the indexes. */
+    private static int[] sorted(int count, IntBinaryOperator comparator) {
+        int[] order = new int[count];
+        for (int index = 0; index < count; index++) {
+            order[index] = index;
+        }
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, count);
+                int left = low;
+                int right = middle;
+                int target = low;
+                while (left < middle && right < high) {
+                    buffer[target++] = comparator.applyAsInt(order[right], order[left]) < 0
+                            ? order[right++]
+                            : order[left++];
+                }
+                while (left < middle) {
+                    buffer[target++] = order[left++];
+                }
+                while (right < high) {
+                    buffer[target++] = order[right++];
+                }
+                System.arraycopy(buffer, low, order, low, high - low);
+            }
+        }
+        return order;
+    }
+
+    /** Open-addressing map from IDs to their dense positions in the input list. */
+    private static final class LongIndex {
+        private final long[] keys;
+        private final int[] positions;
+        private final long[] ordered;
+        private final int mask;
+
+        LongIndex(int size) {
+            int capacity = Integer.highestOneBit(Math.max(2, size) * 2 - 1) << 1;
+            this.keys = new long[capacity];
+            this.positions = filled(capacity, -1);
+            this.ordered = new long[size];
+            this.mask = capacity - 1;
+        }
+
+        /** Returns {@code null} when {@code ids} contains a duplicate. */
+        static LongIndex of(List<Long> ids) {
+            LongIndex index = new LongIndex(ids.size());
+            for (int position = 0; position < ids.size(); position++) {
+                if (!index.put(ids.get(position), position)) {
+                    return null;
+                }
+            }
+            return index;
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                if (positions[slot] < 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return positions[slot];
+                }
+            }
+        }
+
+        long[] keysInInsertionOrder() {
+            return ordered;
+        }
+
+        /** Returns {@code false} when {@code key} is already present. */
+        boolean put(long key, int position) {
+            for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+                if (positions[slot] < 0) {
+                    keys[slot] = key;
+                    positions[slot] = position;
+                    ordered[position] = key;
+                    return true;
+                }
+                if (keys[slot] == key) {
+                    return false;
+                }
+            }
+        }
+
+        private int slot(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+    }
+}
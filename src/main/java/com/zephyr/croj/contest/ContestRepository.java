@@ -6,6 +6,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Objects;
@@ -70,6 +72,7 @@ public class ContestRepository {
     }
 
     public void register(long contestId, long userId, Long managedBy) {
+        bumpScoreboardRevision(contestId);
         jdbc.update(
                 """
                 INSERT INTO t_contest_registration
@@ -83,7 +86,7 @@ public class ContestRepository {
     }
 
     public int cancelRegistration(long contestId, long userId, Long managedBy) {
-        return jdbc.update(
+        int cancelled = jdbc.update(
                 """
                 UPDATE t_contest_registration
                 SET status='CANCELLED',updated_at=CURRENT_TIMESTAMP(3),managed_by=?
@@ -92,6 +95,10 @@ public class ContestRepository {
                 managedBy,
                 contestId,
                 userId);
+        if (cancelled > 0) {
+            bumpScoreboardRevision(contestId);
+        }
+        return cancelled;
     }
 
     public boolean isRegistered(long contestId, long userId) {
@@ -133,7 +140,9 @@ public class ContestRepository {
         return jdbc.update(
                 """
                 UPDATE t_contest SET title=?,description_markdown=?,rule_type=?,visibility=?,
-                  registration_opens_at=?,registration_closes_at=?,starts_at=?,freeze_at=?,ends_at=?
+                  registration_opens_at=?,registration_closes_at=?,starts_at=?,freeze_at=?,ends_at=?,
+                  scoreboard_revision=scoreboard_revision+1,
+                  frozen_scoreboard_revision=frozen_scoreboard_revision+1
                 WHERE id=? AND lifecycle='DRAFT'
                 """,
                 request.title().trim(),
@@ -163,6 +172,7 @@ public class ContestRepository {
     }
 
     public void replaceProblems(long contestId, List<ContestRequests.ProblemItem> problems) {
+        bumpScoreboardRevision(contestId);
         jdbc.update("DELETE FROM t_contest_problem WHERE contest_id=?", contestId);
         jdbc.batchUpdate(
                 "INSERT INTO t_contest_problem(contest_id,problem_id,problem_version_id,label,score) VALUES (?,?,?,?,?)",
@@ -458,6 +468,95 @@ public class ContestRepository {
                 Timestamp.from(cutoffExclusive));
     }
 
+    /** Re-reads one judged submission with the same filters as the scoreboard fact queries. */
+    Optional<ScoreboardProjection.Fact> scoreboardFact(long contestId, long submissionId) {
+        return jdbc.query(
+                        """
+                        SELECT id,user_id,problem_id,status,score,create_time FROM t_submission
+                        WHERE id=? AND contest_id=? AND is_deleted=0
+                          AND status IN (1,2,3,4,5,6,8)
+                        """,
+                        (result, row) -> new ScoreboardProjection.Fact(
+                                result.getLong("id"),
+                                result.getLong("user_id"),
+                                result.getLong("problem_id"),
+                                result.getInt("status"),
+                                nullableInteger(result, "score"),
+                                result.getTimestamp("create_time").toInstant()),
+                        submissionId,
+                        contestId)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Advances the contest's scoreboard revision inside the caller's transaction and returns the new
+     * value. Every write that can change a board (registration, problem arrangement, schedule, judge
+     * completion) bumps it, so the revision alone identifies the board content. The frozen revision
+     * moves with it except for verdicts on submissions created at or after {@code freeze_at}, which
+     * cannot change the frozen board.
+     */
+    public long bumpScoreboardRevision(long contestId) {
+        return bumpScoreboardRevision(contestId, 1);
+    }
+
+    /** Advances both revisions by {@code increments} at once and returns the last scoreboard revision. */
+    public long bumpScoreboardRevision(long contestId, int increments) {
+        jdbc.update(
+                """
+                UPDATE t_contest SET scoreboard_revision=scoreboard_revision+?,
+                  frozen_scoreboard_revision=frozen_scoreboard_revision+?
+                WHERE id=?
+                """,
+                increments,
+                increments,
+                contestId);
+        return scoreboardRevision(contestId);
+    }
+
+    /**
+     * Advances the revision once per judged submission and returns the last one; the frozen revision
+     * only counts the submissions created before the contest's {@code freeze_at}.
+     */
+    public long bumpScoreboardRevisionForJudged(long contestId, List<Long> submissionIds) {
+        List<Object> arguments = new ArrayList<>(submissionIds.size() + 2);
+        arguments.add(submissionIds.size());
+        arguments.addAll(submissionIds);
+        arguments.add(contestId);
+        jdbc.update(
+                """
+                UPDATE t_contest SET scoreboard_revision=scoreboard_revision+?,
+                  frozen_scoreboard_revision=frozen_scoreboard_revision+(
+                    SELECT COUNT(*) FROM t_submission s
+                    WHERE s.id IN (%s)
+                      AND (t_contest.freeze_at IS NULL OR s.create_time<t_contest.freeze_at))
+                WHERE id=?
+                """.formatted(String.join(",", Collections.nCopies(submissionIds.size(), "?"))),
+                arguments.toArray());
+        return scoreboardRevision(contestId);
+    }
+
+    /** The revision that identifies the board up to {@code freeze_at}. */
+    public long frozenScoreboardRevision(long contestId) {
+        return jdbc.query(
+                        "SELECT frozen_scoreboard_revision FROM t_contest WHERE id=?",
+                        (result, row) -> result.getLong("frozen_scoreboard_revision"),
+                        contestId)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    public long scoreboardRevision(long contestId) {
+        return jdbc.query(
+                        "SELECT scoreboard_revision FROM t_contest WHERE id=?",
+                        (result, row) -> result.getLong("scoreboard_revision"),
+                        contestId)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+    }
+
     public Optional<String> findScoreboardSnapshot(
             long contestId, String viewType, Instant cutoffExclusive, String sourceVersion) {
         return jdbc.query(
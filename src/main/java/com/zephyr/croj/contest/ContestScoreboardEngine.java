@@ -0,0 +1,258 @@
+package com.zephyr.croj.contest;
+
+import com.zephyr.croj.config.properties.ContestScoreboardProperties;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps one incrementally maintained board per contest in memory.
+ *
+ * <p>A board is loaded from the database on first read and afterwards fed by committed judge
+ * results, so reads no longer re-run the full scoreboard query. Contests with a freeze keep the
+ * frozen public board next to the live one, which makes the unfreeze at contest end a lookup
+ * instead of a recompute.
+ *
+ * <p>Every caller passes the contest's current scoreboard revision. A board whose revision is behind
+ * it missed a change, typically a registration or a judge result handled by another instance, and
+ * is reloaded; a board that nobody read or subscribed to for {@code app.contest.scoreboard.state-ttl}
+ * is dropped to bound memory.
+ */
+@Component
+@Slf4j
+public class ContestScoreboardEngine {
+    private final ContestRepository contests;
+    private final Clock clock;
+    private final Duration idleTtl;
+    private final TransactionTemplate loadTransaction;
+    private final ConcurrentMap<Long, LiveScoreboard> boards = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    @Autowired
+    public ContestScoreboardEngine(
+            ContestRepository contests,
+            ContestScoreboardProperties properties,
+            PlatformTransactionManager transactionManager) {
+        this(contests, Clock.systemUTC(), properties.getStateTtl(), loadTransaction(transactionManager));
+    }
+
+    public ContestScoreboardEngine(ContestRepository contests, Clock clock, Duration idleTtl) {
+        this(contests, clock, idleTtl, null);
+    }
+
+    private ContestScoreboardEngine(
+            ContestRepository contests, Clock clock, Duration idleTtl, TransactionTemplate loadTransaction) {
+        this.contests = contests;
+        this.clock = clock;
+        this.idleTtl = idleTtl;
+        this.loadTransaction = loadTransaction;
+    }
+
+    /**
+     * Returns the in-memory rows for {@code cutoffExclusive}, or empty when the caller must fall back
+     * to a database computation. With {@code loadIfAbsent} unset only an already resident board is
+     * consulted.
+     *
+     * @param revision the scoreboard revision the caller read; older boards are not served
+     */
+    Optional<LiveScoreboard.Read> read(
+            ContestRepository.ContestRecord contest,
+            Instant cutoffExclusive,
+            long revision,
+            boolean loadIfAbsent) {
+        return board(contest, cutoffExclusive, revision, loadIfAbsent).map(board -> board.read(cutoffExclusive));
+    }
+
+    /** Like {@link #read} but returns only the requested rows, taken directly from the ranking. */
+    Optional<LiveScoreboard.Window> window(
+            ContestRepository.ContestRecord contest,
+            Instant cutoffExclusive,
+            long revision,
+            boolean loadIfAbsent,
+            ContestScoreboardService.RowWindow request) {
+        return board(contest, cutoffExclusive, revision, loadIfAbsent)
+                .map(board -> board.window(cutoffExclusive, request));
+    }
+
+    private Optional<LiveScoreboard> board(
+            ContestRepository.ContestRecord contest,
+            Instant cutoffExclusive,
+            long revision,
+            boolean loadIfAbsent) {
+        if (cutoffExclusive.isBefore(contest.startsAt())) {
+            return Optional.empty();
+        }
+        if (!loadIfAbsent) {
+            LiveScoreboard board = boards.get(contest.id());
+            if (board == null || board.revision() < revision) {
+                return Optional.empty();
+            }
+            board.touch(clock.instant());
+            return Optional.of(board);
+        }
+        return loaded(contest, revision);
+    }
+
+    /** Resolves the frozen board into the final one, loading the contest board when needed. */
+    Optional<LiveScoreboard.Resolution> resolve(ContestRepository.ContestRecord contest, long revision) {
+        return loaded(contest, revision).map(LiveScoreboard::resolve);
+    }
+
+    /**
+     * Queues the public snapshot to {@code subscriber} and keeps it attached for deltas. Returns
+     * {@code false} when the board cannot be loaded.
+     */
+    boolean subscribe(
+            ContestRepository.ContestRecord contest,
+            long revision,
+            ScoreboardSubscriber subscriber,
+            Function<LiveScoreboard.Read, ContestScoreboardService.ScoreboardView> snapshot) {
+        return loaded(contest, revision).map(board -> board.attach(subscriber, snapshot)).orElse(false);
+    }
+
+    private Optional<LiveScoreboard> loaded(ContestRepository.ContestRecord contest, long revision) {
+        LiveScoreboard board = boards.compute(contest.id(), (ignored, current) -> {
+            if (current != null && !current.broken() && !(current.ready() && current.revision() < revision)) {
+                return current;
+            }
+            if (current != null) {
+                current.close();
+            }
+            return new LiveScoreboard(contest.id(), generations.incrementAndGet(), clock.instant());
+        });
+        if (!board.ready()) {
+            synchronized (board.loadLock) {
+                if (!board.ready()) {
+                    try {
+                        load(contest, board);
+                    } catch (RuntimeException exception) {
+                        drop(contest.id(), board);
+                        log.warn("contest scoreboard cold load failed: contestId={}", contest.id());
+                        log.debug("contest scoreboard cold load failure details", exception);
+                        return Optional.empty();
+                    }
+                }
+            }
+        }
+        if (board.revision() < revision) {
+            return Optional.empty();
+        }
+        board.touch(clock.instant());
+        return Optional.of(board);
+    }
+
+    /** Applies a committed judge result to the contest board if one is loaded or loading. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.contestId() == null || event.scoreboardRevision() == null) {
+            return;
+        }
+        LiveScoreboard board = boards.get(event.contestId());
+        if (board == null) {
+            return;
+        }
+        try {
+            board.accept(
+                    contests.scoreboardFact(event.contestId(), event.submissionId()).orElse(null),
+                    event.scoreboardRevision());
+        } catch (RuntimeException exception) {
+            drop(event.contestId(), board);
+            log.warn(
+                    "dropping in-memory contest scoreboard after a failed update: contestId={}, submissionId={}",
+                    event.contestId(),
+                    event.submissionId());
+            log.debug("contest scoreboard update failure details", exception);
+        }
+    }
+
+    /**
+     * Drops idle boards. Boards with stream subscribers stay resident but are checked against the
+     * database revision, so subscribers of a board that missed a change are asked to resynchronize.
+     */
+    @Scheduled(fixedDelayString = "${app.contest.scoreboard.state-ttl:PT30S}")
+    public void evictExpired() {
+        boards.forEach((contestId, board) -> {
+            if (board.hasSubscribers()) {
+                if (board.ready() && board.revision() < contests.scoreboardRevision(contestId)) {
+                    drop(contestId, board);
+                }
+            } else if (idle(board)) {
+                drop(contestId, board);
+            }
+        });
+    }
+
+    private void drop(long contestId, LiveScoreboard board) {
+        if (boards.remove(contestId, board)) {
+            board.close();
+        }
+    }
+
+    private void load(ContestRepository.ContestRecord contest, LiveScoreboard board) {
+        if (loadTransaction == null) {
+            install(contest, board);
+            return;
+        }
+        loadTransaction.executeWithoutResult(ignored -> install(contest, board));
+    }
+
+    private void install(ContestRepository.ContestRecord contest, LiveScoreboard board) {
+        long revision = contests.scoreboardRevision(contest.id());
+        var participants = contests.registeredParticipants(contest.id());
+        var problems = contests.listProblems(contest.id());
+        List<Long> participantIds = participants.stream().map(ContestRepository.Participant::userId).toList();
+        ScoreboardProjection live = ScoreboardProjection.create(
+                contest.ruleType(), participantIds, problems, contest.startsAt(), contest.endsAt());
+        ScoreboardProjection frozen = contest.freezeAt() != null
+                        && !contest.freezeAt().isBefore(contest.startsAt())
+                        && contest.freezeAt().isBefore(contest.endsAt())
+                ? ScoreboardProjection.create(
+                        contest.ruleType(), participantIds, problems, contest.startsAt(), contest.freezeAt())
+                : null;
+        List<ScoreboardProjection.Fact> facts = "OI".equalsIgnoreCase(contest.ruleType())
+                ? contests.oiSubmissionFacts(contest.id(), contest.endsAt()).stream()
+                        .map(ScoreboardProjection.Fact::of)
+                        .toList()
+                : contests.submissionFacts(contest.id(), contest.endsAt()).stream()
+                        .map(ScoreboardProjection.Fact::of)
+                        .toList();
+        Map<Long, String> participantNames = participants.stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        ContestRepository.Participant::userId,
+                        ContestRepository.Participant::username));
+        board.install(live, frozen, participantNames, revision, facts);
+    }
+
+    private boolean idle(LiveScoreboard board) {
+        return !clock.instant().isBefore(board.lastUsedAt().plus(idleTtl));
+    }
+
+    /**
+     * Cold loads run in their own read transaction that starts after the board is registered, so
+     * every judge result either commits before the read snapshot or reaches the load buffer.
+     */
+    private static TransactionTemplate loadTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -4,32 +4,36 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.Schema;
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.function.LongToIntFunction;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 @Slf4j
 public class ContestScoreboardService {
     private final ContestRepository contests;
     private final Clock clock;
+    private final ContestScoreboardEngine engine;
     private final ObjectMapper objectMapper;
+    private final ScoreboardStreams streams;
 
     @Autowired
-    public ContestScoreboardService(ContestRepository contests, ObjectMapper objectMapper) {
-        this(contests, Clock.systemUTC(), objectMapper);
+    public ContestScoreboardService(
+            ContestRepository contests,
+            ContestScoreboardEngine engine,
+            ObjectMapper objectMapper,
+            ScoreboardStreams streams) {
+        this(contests, Clock.systemUTC(), engine, objectMapper, streams);
     }
 
     public ContestScoreboardService(ContestRepository contests, Clock clock) {
@@ -37,39 +41,195 @@ public class ContestScoreboardService {
     }
 
     ContestScoreboardService(ContestRepository contests, Clock clock, ObjectMapper objectMapper) {
+        this(contests, clock, new ContestScoreboardEngine(contests, clock, Duration.ofSeconds(30)), objectMapper);
+    }
+
+    ContestScoreboardService(
+            ContestRepository contests, Clock clock, ContestScoreboardEngine engine, ObjectMapper objectMapper) {
+        this(contests, clock, engine, objectMapper, new ScoreboardStreams(64, Duration.ofMinutes(30), 1));
+    }
+
+    ContestScoreboardService(
+            ContestRepository contests,
+            Clock clock,
+            ContestScoreboardEngine engine,
+            ObjectMapper objectMapper,
+            ScoreboardStreams streams) {
         this.contests = contests;
         this.clock = clock;
+        this.engine = engine;
         this.objectMapper = objectMapper;
+        this.streams = streams;
     }
 
     @Transactional(isolation = Isolation.REPEATABLE_READ)
     public ScoreboardView publicScoreboard(long contestId, Long userId) {
+        ContestRepository.ContestRecord contest = readablePublicContest(contestId, userId);
+        ContestPhase phase = contest.phase(clock.instant());
+        return build(contest, publicCutoff(contest, phase), phase == ContestPhase.FROZEN, stablePublicCutoff(phase));
+    }
+
+    /** Returns one window of the public board, such as a page, the top rows or the rows around a user. */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public ScoreboardPage publicScoreboardRows(long contestId, Long userId, RowWindow window) {
+        ContestRepository.ContestRecord contest = readablePublicContest(contestId, userId);
+        ContestPhase phase = contest.phase(clock.instant());
+        return rows(
+                contest,
+                publicCutoff(contest, phase),
+                phase == ContestPhase.FROZEN,
+                stablePublicCutoff(phase),
+                window);
+    }
+
+    /**
+     * Streams the public board: one {@code snapshot} event, then a {@code delta} event with the
+     * changed rows for every judge result that moves the public board. A {@code resync} event asks
+     * the client to reconnect for a fresh snapshot. The stream closes at contest end; an ended
+     * contest, or a board whose state cannot be loaded, receives one snapshot and the stream then
+     * completes normally.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public SseEmitter stream(long contestId, Long userId) {
+        ContestRepository.ContestRecord contest = readablePublicContest(contestId, userId);
+        Instant now = clock.instant();
+        ContestPhase phase = contest.phase(now);
+        ScoreboardSubscriber subscriber = streams.open(Duration.between(now, contest.endsAt()));
+        if (phase == ContestPhase.RUNNING || phase == ContestPhase.FROZEN) {
+            boolean frozen = phase == ContestPhase.FROZEN;
+            Instant cutoff = frozen ? contest.freezeAt() : now;
+            long revision = contests.scoreboardRevision(contestId);
+            boolean attached = engine.subscribe(contest, revision, subscriber, read ->
+                    view(contest, cutoff, frozen, read.sourceVersion(), read.payload()));
+            if (attached) {
+                return subscriber.emitter();
+            }
+        }
+        subscriber.offer(ScoreboardSubscriber.SNAPSHOT, publicScoreboard(contestId, userId));
+        subscriber.finish();
+        return subscriber.emitter();
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public ScoreboardView administratorScoreboard(long contestId) {
         ContestRepository.ContestRecord contest = contests.findById(contestId)
                 .orElseThrow(ContestApiException::notFound);
-        ContestPhase phase = contest.phase(clock.instant());
-        if (!ContestPolicy.canReadScoreboard(phase)) {
+        return build(contest, administratorCutoff(contest), false, false);
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public ScoreboardPage administratorScoreboardRows(long contestId, RowWindow window) {
+        ContestRepository.ContestRecord contest = contests.findById(contestId)
+                .orElseThrow(ContestApiException::notFound);
+        return rows(contest, administratorCutoff(contest), false, false, window);
+    }
+
+    /**
+     * Replays every cell hidden by the freeze, bottom-up, for an ICPC-style award ceremony. Only
+     * available once the contest has ended.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public ScoreboardResolution resolution(long contestId) {
+        ContestRepository.ContestRecord contest = contests.findById(contestId)
+                .orElseThrow(ContestApiException::notFound);
+        if (contest.phase(clock.instant()) != ContestPhase.ENDED) {
+            throw ContestApiException.conflict("scoreboard resolution is available after the contest ends");
+        }
+        LiveScoreboard.Resolution resolution = engine.resolve(contest, contests.scoreboardRevision(contestId))
+                .orElseThrow(() -> new IllegalStateException("contest scoreboard state is unavailable"));
+        return new ScoreboardResolution(
+                contest.id(),
+                contest.ruleType(),
+                contest.freezeAt(),
+                contest.endsAt(),
+                resolution.sourceVersion(),
+                resolution.frozen().maximumScore(),
+                resolution.frozen().rows(),
+                resolution.steps());
+    }
+
+    private ContestRepository.ContestRecord readablePublicContest(long contestId, Long userId) {
+        ContestRepository.ContestRecord contest = contests.findById(contestId)
+                .orElseThrow(ContestApiException::notFound);
+        if (!ContestPolicy.canReadScoreboard(contest.phase(clock.instant()))) {
             throw ContestApiException.forbidden("scoreboard is hidden before the contest starts");
         }
         if ("PRIVATE".equals(contest.visibility())
                 && (userId == null || !contests.isRegistered(contestId, userId))) {
             throw ContestApiException.forbidden("private contest scoreboard requires registration");
         }
-        Instant cutoff = switch (phase) {
+        return contest;
+    }
+
+    /**
+     * Serves the board from memory when possible. Otherwise a stable cutoff is answered from the
+     * snapshot keyed by the contest's scoreboard revision (the frozen revision for the frozen board),
+     * which costs one indexed lookup and no fact scan; only a miss recomputes the board from the
+     * submission facts.
+     */
+    private Instant publicCutoff(ContestRepository.ContestRecord contest, ContestPhase phase) {
+        return switch (phase) {
             case FROZEN -> contest.freezeAt();
             case ENDED -> contest.endsAt();
             default -> clock.instant();
         };
-        boolean stablePublicCutoff = phase == ContestPhase.FROZEN || phase == ContestPhase.ENDED;
-        return build(contest, cutoff, phase == ContestPhase.FROZEN, stablePublicCutoff);
     }
 
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
-    public ScoreboardView administratorScoreboard(long contestId) {
-        ContestRepository.ContestRecord contest = contests.findById(contestId)
-                .orElseThrow(ContestApiException::notFound);
+    private boolean stablePublicCutoff(ContestPhase phase) {
+        return phase == ContestPhase.FROZEN || phase == ContestPhase.ENDED;
+    }
+
+    private Instant administratorCutoff(ContestRepository.ContestRecord contest) {
         Instant now = clock.instant();
-        Instant cutoff = now.isBefore(contest.endsAt()) ? now : contest.endsAt();
-        return build(contest, cutoff, false, false);
+        return now.isBefore(contest.endsAt()) ? now : contest.endsAt();
+    }
+
+    /**
+     * Answers a window from the in-memory ranking without materializing the other rows; the
+     * database path still builds the whole board and slices it.
+     */
+    private ScoreboardPage rows(
+            ContestRepository.ContestRecord contest,
+            Instant cutoffExclusive,
+            boolean frozen,
+            boolean cacheable,
+            RowWindow window) {
+        long revision = contests.scoreboardRevision(contest.id());
+        var live = engine.window(contest, cutoffExclusive, revision, !cacheable, window);
+        if (live.isPresent()) {
+            LiveScoreboard.Window rows = live.get();
+            return new ScoreboardPage(
+                    contest.id(),
+                    contest.ruleType(),
+                    cutoffExclusive,
+                    frozen,
+                    rows.sourceVersion(),
+                    rows.maximumScore(),
+                    rows.totalRows(),
+                    rows.offset(),
+                    rows.rows());
+        }
+        ScoreboardView board = fromDatabase(contest, cutoffExclusive, frozen, cacheable, revision);
+        List<ScoreboardRow> all = board.rows();
+        int from = window.start(all.size(), userId -> {
+            for (int index = 0; index < all.size(); index++) {
+                if (all.get(index).userId() == userId) {
+                    return index;
+                }
+            }
+            return -1;
+        });
+        int to = window.end(all.size(), from);
+        return new ScoreboardPage(
+                board.contestId(),
+                board.ruleType(),
+                board.cutoffExclusive(),
+                board.frozen(),
+                board.sourceVersion(),
+                board.maximumScore(),
+                all.size(),
+                from,
+                List.copyOf(all.subList(from, to)));
     }
 
     private ScoreboardView build(
@@ -77,37 +237,51 @@ public class ContestScoreboardService {
             Instant cutoffExclusive,
             boolean frozen,
             boolean cacheable) {
+        long revision = contests.scoreboardRevision(contest.id());
+        var live = engine.read(contest, cutoffExclusive, revision, !cacheable);
+        if (live.isPresent()) {
+            return view(contest, cutoffExclusive, frozen, live.get().sourceVersion(), live.get().payload());
+        }
+        return fromDatabase(contest, cutoffExclusive, frozen, cacheable, revision);
+    }
+
+    private ScoreboardView fromDatabase(
+            ContestRepository.ContestRecord contest,
+            Instant cutoffExclusive,
+            boolean frozen,
+            boolean cacheable,
+            long revision) {
+        // 冻结榜只依赖封榜前创建的提交，用封榜修订号做键，封榜后的判题不会使快照失效。
+        String sourceVersion = frozen
+                ? "frozen-revision:" + contests.frozenScoreboardRevision(contest.id())
+                : "revision:" + revision;
+        SnapshotPayload snapshot = cacheable ? readSnapshot(contest, cutoffExclusive, sourceVersion) : null;
+        if (snapshot != null) {
+            return view(contest, cutoffExclusive, frozen, sourceVersion, snapshot);
+        }
         var participants = contests.registeredParticipants(contest.id());
         var problems = contests.listProblems(contest.id());
-        SnapshotPayload snapshot;
-        String sourceVersion;
-        boolean snapshotComputed = false;
         if ("ACM".equalsIgnoreCase(contest.ruleType())) {
             var facts = contests.submissionFacts(contest.id(), cutoffExclusive);
-            sourceVersion = sourceVersion(participants, problems, facts, List.of());
-            snapshot = cacheable
-                    ? readSnapshot(contest, cutoffExclusive, sourceVersion)
-                    : null;
-            if (snapshot == null) {
-                snapshot = acmBoard(contest, participants, problems, facts, cutoffExclusive);
-                snapshotComputed = true;
-            }
+            snapshot = acmBoard(contest, participants, problems, facts, cutoffExclusive);
         } else if ("OI".equalsIgnoreCase(contest.ruleType())) {
             var facts = contests.oiSubmissionFacts(contest.id(), cutoffExclusive);
-            sourceVersion = sourceVersion(participants, problems, List.of(), facts);
-            snapshot = cacheable
-                    ? readSnapshot(contest, cutoffExclusive, sourceVersion)
-                    : null;
-            if (snapshot == null) {
-                snapshot = oiBoard(contest, participants, problems, facts, cutoffExclusive);
-                snapshotComputed = true;
-            }
+            snapshot = oiBoard(contest, participants, problems, facts, cutoffExclusive);
         } else {
             throw new IllegalStateException("persisted contest rule type is unsupported");
         }
-        if (cacheable && snapshotComputed) {
+        if (cacheable) {
             writeSnapshot(contest.id(), cutoffExclusive, sourceVersion, snapshot);
         }
+        return view(contest, cutoffExclusive, frozen, sourceVersion, snapshot);
+    }
+
+    private ScoreboardView view(
+            ContestRepository.ContestRecord contest,
+            Instant cutoffExclusive,
+            boolean frozen,
+            String sourceVersion,
+            SnapshotPayload snapshot) {
         return new ScoreboardView(
                 contest.id(),
                 contest.ruleType(),
@@ -127,7 +301,7 @@ public class ContestScoreboardService {
         var problems = pinnedProblems.stream()
                 .map(problem -> new AcmScoreboardCalculator.Problem(problem.problemId(), problem.label()))
                 .toList();
-        var board = AcmScoreboardCalculator.calculate(
+        var board = ColumnarScoreboardCalculator.acm(
                 participantIds(participants),
                 problems,
                 facts,
@@ -151,7 +325,7 @@ public class ContestScoreboardService {
                 .map(problem -> new OiScoreboardCalculator.Problem(
                         problem.problemId(), problem.label(), problem.score()))
                 .toList();
-        var board = OiScoreboardCalculator.calculate(
+        var board = ColumnarScoreboardCalculator.oi(
                 participantIds(participants),
                 problems,
                 facts,
@@ -181,18 +355,7 @@ public class ContestScoreboardService {
         return contests.findScoreboardSnapshot(contest.id(), "PUBLIC", cutoff, sourceVersion)
                 .flatMap(payload -> {
                     try {
-                        JsonNode root = objectMapper.readTree(payload);
-                        if (root.isTextual()) {
-                            root = objectMapper.readTree(root.textValue());
-                        }
-                        if (!root.isObject()) {
-                            throw new JsonProcessingException("scoreboard snapshot root must be an object") {};
-                        }
-                        SnapshotPayload snapshot = objectMapper.treeToValue(root, SnapshotPayload.class);
-                        if (!validSnapshot(contest.ruleType(), snapshot)) {
-                            throw new JsonProcessingException("scoreboard snapshot is semantically invalid") {};
-                        }
-                        return java.util.Optional.of(snapshot);
+                        return java.util.Optional.of(decodeSnapshot(objectMapper, contest.ruleType(), payload));
                     } catch (JsonProcessingException exception) {
                         log.warn("discarding unreadable contest scoreboard snapshot: contestId={}", contest.id());
                         log.debug("unreadable contest scoreboard snapshot details", exception);
@@ -202,7 +365,24 @@ public class ContestScoreboardService {
                 .orElse(null);
     }
 
-    private boolean validSnapshot(String ruleType, SnapshotPayload snapshot) {
+    /** Parses a stored snapshot, accepting the legacy double-encoded form, and validates it. */
+    static SnapshotPayload decodeSnapshot(ObjectMapper objectMapper, String ruleType, String payload)
+            throws JsonProcessingException {
+        JsonNode root = objectMapper.readTree(payload);
+        if (root.isTextual()) {
+            root = objectMapper.readTree(root.textValue());
+        }
+        if (!root.isObject()) {
+            throw new JsonProcessingException("scoreboard snapshot root must be an object") {};
+        }
+        SnapshotPayload snapshot = objectMapper.treeToValue(root, SnapshotPayload.class);
+        if (!validSnapshot(ruleType, snapshot)) {
+            throw new JsonProcessingException("scoreboard snapshot is semantically invalid") {};
+        }
+        return snapshot;
+    }
+
+    private static boolean validSnapshot(String ruleType, SnapshotPayload snapshot) {
         if (snapshot == null || snapshot.rows() == null) {
             return false;
         }
@@ -233,73 +413,20 @@ public class ContestScoreboardService {
         return true;
     }
 
-    private String sourceVersion(
-            List<ContestRepository.Participant> participants,
-            List<ContestRepository.ContestProblem> problems,
-            List<AcmScoreboardCalculator.SubmissionFact> acmFacts,
-            List<OiScoreboardCalculator.SubmissionFact> oiFacts) {
-        MessageDigest digest = sha256();
-        digestField(digest, "contest-scoreboard-v4");
-        participants.forEach(participant -> {
-            digestField(digest, "participant");
-            digestField(digest, participant.userId());
-            digestField(digest, participant.username());
-        });
-        problems.forEach(problem -> {
-            digestField(digest, "problem");
-            digestField(digest, problem.problemId());
-            digestField(digest, problem.problemVersionId());
-            digestField(digest, problem.label());
-            digestField(digest, problem.score());
-        });
-        acmFacts.forEach(fact -> {
-            digestField(digest, "acm-submission");
-            digestField(digest, fact.submissionId());
-            digestField(digest, fact.userId());
-            digestField(digest, fact.problemId());
-            digestField(digest, fact.status());
-            digestField(digest, fact.submittedAt().toEpochMilli());
-        });
-        oiFacts.forEach(fact -> {
-            digestField(digest, "oi-submission");
-            digestField(digest, fact.submissionId());
-            digestField(digest, fact.userId());
-            digestField(digest, fact.problemId());
-            digestField(digest, fact.score());
-            digestField(digest, fact.submittedAt().toEpochMilli());
-        });
-        return HexFormat.of().formatHex(digest.digest());
-    }
-
-    private MessageDigest sha256() {
-        try {
-            return MessageDigest.getInstance("SHA-256");
-        } catch (NoSuchAlgorithmException exception) {
-            throw new IllegalStateException("SHA-256 is unavailable", exception);
-        }
-    }
-
-    private void digestField(MessageDigest digest, Object value) {
-        if (value == null) {
-            digest.update((byte) 0);
-            return;
-        }
-        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
-        digest.update((byte) 1);
-        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
-        digest.update(bytes);
-    }
-
     private void writeSnapshot(
             long contestId, Instant cutoff, String sourceVersion, SnapshotPayload snapshot) {
         try {
             contests.saveScoreboardSnapshot(
-                    contestId, "PUBLIC", cutoff, sourceVersion, objectMapper.writeValueAsString(snapshot));
+                    contestId, "PUBLIC", cutoff, sourceVersion, encodeSnapshot(objectMapper, snapshot));
         } catch (JsonProcessingException exception) {
             log.warn("unable to serialize contest scoreboard snapshot: contestId={}", contestId);
         }
     }
 
+    static String encodeSnapshot(ObjectMapper objectMapper, SnapshotPayload snapshot) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(snapshot);
+    }
+
     record SnapshotPayload(Integer maximumScore, List<ScoreboardRow> rows) {}
 
     @Schema(
@@ -318,6 +445,115 @@ public class ContestScoreboardService {
             Integer maximumScore,
             List<ScoreboardRow> rows) {}
 
+    @Schema(description = "One window of a contest scoreboard; rows keep the full-board shape and ranks")
+    public record ScoreboardPage(
+            long contestId,
+            @Schema(description = "Scoring contract discriminator", allowableValues = {"ACM", "OI"})
+            String ruleType,
+            @Schema(description = "Exclusive submission cutoff; submissions exactly at this instant are excluded")
+            Instant cutoffExclusive,
+            @Schema(description = "Whether this is the frozen public view")
+            boolean frozen,
+            String sourceVersion,
+            @Schema(description = "OI total available score; null for ACM")
+            Integer maximumScore,
+            @Schema(description = "Number of ranked rows on the whole board")
+            int totalRows,
+            @Schema(description = "Zero-based position of the first returned row")
+            int offset,
+            List<ScoreboardRow> rows) {}
+
+    /**
+     * Which rows of a board to read. With {@code aroundUserId} set, {@code offset} is relative to
+     * that user's position; otherwise it is absolute.
+     */
+    public record RowWindow(Long aroundUserId, int offset, int limit) {
+        static final int MAX_PAGE_SIZE = 100;
+        static final int MAX_TOP = 200;
+        static final int MAX_RADIUS = 50;
+
+        public static RowWindow page(int page, int size) {
+            int safePage = Math.max(page, 1);
+            int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+            long offset = ((long) safePage - 1L) * safeSize;
+            return new RowWindow(null, (int) Math.min(offset, Integer.MAX_VALUE), safeSize);
+        }
+
+        public static RowWindow top(int count) {
+            return new RowWindow(null, 0, Math.min(Math.max(count, 1), MAX_TOP));
+        }
+
+        public static RowWindow around(long userId, int radius) {
+            int safeRadius = Math.min(Math.max(radius, 0), MAX_RADIUS);
+            return new RowWindow(userId, -safeRadius, 2 * safeRadius + 1);
+        }
+
+        /** Picks the around-user window first, then top-N, then a page. */
+        public static RowWindow of(Integer page, Integer size, Integer top, Long aroundUserId, Integer radius) {
+            if (aroundUserId != null) {
+                return around(aroundUserId, radius == null ? 10 : radius);
+            }
+            if (top != null) {
+                return top(top);
+            }
+            return page(page == null ? 1 : page, size == null ? 50 : size);
+        }
+
+        /**
+         * @param indexOf zero-based position of a user on the board, or -1 when the user is not ranked
+         */
+        int start(int totalRows, LongToIntFunction indexOf) {
+            if (aroundUserId == null) {
+                return Math.min(offset, totalRows);
+            }
+            int index = indexOf.applyAsInt(aroundUserId);
+            if (index < 0) {
+                throw ContestApiException.unprocessable("user is not ranked on this scoreboard");
+            }
+            return Math.max(0, index + offset);
+        }
+
+        int end(int totalRows, int start) {
+            return (int) Math.min(totalRows, (long) start + limit);
+        }
+    }
+
+    @Schema(description = "Rows of the public board changed by one judge result")
+    public record ScoreboardDelta(String sourceVersion, List<RowUpdate> updates) {}
+
+    @Schema(description = "One changed row; rows between previousRank and rank shift by one position")
+    public record RowUpdate(
+            @Schema(description = "Rank before the change; 0 when the row was not ranked")
+            int previousRank,
+            ScoreboardRow row) {}
+
+    @Schema(description = "Frozen public board followed by the ordered reveals that turn it into the final board")
+    public record ScoreboardResolution(
+            long contestId,
+            @Schema(description = "Scoring contract discriminator", allowableValues = {"ACM", "OI"})
+            String ruleType,
+            @Schema(description = "Exclusive cutoff of the frozen rows; null when the contest has no freeze")
+            Instant freezeAt,
+            Instant endsAt,
+            String sourceVersion,
+            @Schema(description = "OI total available score; null for ACM")
+            Integer maximumScore,
+            List<ScoreboardRow> frozenRows,
+            List<ResolverStep> steps) {}
+
+    @Schema(description = "One revealed cell and the participant row right after the reveal")
+    public record ResolverStep(
+            @Schema(description = "One-based reveal order")
+            int sequence,
+            long userId,
+            long problemId,
+            String label,
+            @Schema(description = "Rank before the reveal")
+            int previousRank,
+            @Schema(description = "Rank after the reveal")
+            int rank,
+            ScoreboardRow row) {}
+
     @Schema(description = "One ranked participant row with mutually exclusive ACM and OI metrics")
     public record ScoreboardRow(
             int rank,
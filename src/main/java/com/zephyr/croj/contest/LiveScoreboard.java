@@ -0,0 +1,285 @@
+package com.zephyr.croj.contest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * One loaded contest board. Facts that arrive while the cold load is still reading the database are
+ * buffered and replayed once the projection is installed; replay is safe because projections are
+ * idempotent per submission.
+ *
+ * <p>A contest with a freeze keeps two projections side by side: the public one stops at
+ * {@code freezeAt}, the live one runs to {@code endsAt}. Facts at or after the freeze are also kept
+ * in submission order so that the resolver can replay them onto a copy of the frozen board.
+ *
+ * <p>The board tracks the contest's scoreboard revision. Judge results carry the revision their
+ * transaction wrote; since revisions commit in order, the board advances over a contiguous run and
+ * parks early arrivals until the gap closes. A revision the board never hears about, such as a
+ * registration, leaves it behind the database, which the engine treats as stale.
+ */
+final class LiveScoreboard {
+    private final long contestId;
+    private final long generation;
+    private volatile Instant lastUsedAt;
+    /** Serializes cold loads without blocking fact buffering on the board monitor. */
+    final Object loadLock = new Object();
+    private ScoreboardProjection live;
+    private ScoreboardProjection frozen;
+    private final TreeMap<ScoreboardProjection.FactKey, ScoreboardProjection.Fact> postFreeze = new TreeMap<>();
+    private Map<Long, String> participantNames;
+    private List<Pending> pending = new ArrayList<>();
+    private final TreeSet<Long> aheadRevisions = new TreeSet<>();
+    private final List<ScoreboardSubscriber> subscribers = new ArrayList<>();
+    private boolean broken;
+    private long version;
+    private long revision;
+
+    LiveScoreboard(long contestId, long generation, Instant createdAt) {
+        this.contestId = contestId;
+        this.generation = generation;
+        this.lastUsedAt = createdAt;
+    }
+
+    long contestId() {
+        return contestId;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    Instant lastUsedAt() {
+        return lastUsedAt;
+    }
+
+    void touch(Instant now) {
+        lastUsedAt = now;
+    }
+
+    synchronized boolean ready() {
+        return live != null && !broken;
+    }
+
+    synchronized boolean broken() {
+        return broken;
+    }
+
+    /** The highest revision up to which every change is reflected. */
+    synchronized long revision() {
+        return revision;
+    }
+
+    synchronized boolean hasSubscribers() {
+        subscribers.removeIf(ScoreboardSubscriber::closed);
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * @param frozen the public projection up to the freeze, or {@code null} when the contest has none
+     * @param revision the scoreboard revision read in the same snapshot as {@code facts}
+     */
+    synchronized void install(
+            ScoreboardProjection live,
+            ScoreboardProjection frozen,
+            Map<Long, String> participantNames,
+            long revision,
+            List<ScoreboardProjection.Fact> facts) {
+        this.live = live;
+        this.frozen = frozen;
+        this.participantNames = participantNames;
+        this.revision = revision;
+        facts.forEach(fact -> applyToAll(fact, null));
+        pending.forEach(buffered -> {
+            if (buffered.fact() != null) {
+                applyToAll(buffered.fact(), null);
+            }
+            advance(buffered.revision());
+        });
+        this.pending = null;
+    }
+
+    /**
+     * Applies or buffers one judge result; a projection that rejects a fact is marked broken for
+     * reload.
+     *
+     * @param fact the scoreboard fact, or {@code null} when the result does not count
+     * @param revision the scoreboard revision written together with the result
+     */
+    synchronized boolean accept(ScoreboardProjection.Fact fact, long revision) {
+        if (broken) {
+            return false;
+        }
+        if (live == null) {
+            pending.add(new Pending(fact, revision));
+            return false;
+        }
+        advance(revision);
+        if (fact == null) {
+            return false;
+        }
+        try {
+            subscribers.removeIf(ScoreboardSubscriber::closed);
+            List<ContestScoreboardService.RowUpdate> updates = subscribers.isEmpty() ? null : new ArrayList<>();
+            boolean changed = applyToAll(fact, updates);
+            if (changed) {
+                version++;
+            }
+            if (updates != null && !updates.isEmpty()) {
+                var delta = new ContestScoreboardService.ScoreboardDelta(sourceVersion(), List.copyOf(updates));
+                subscribers.forEach(subscriber -> subscriber.offer(ScoreboardSubscriber.DELTA, delta));
+            }
+            return changed;
+        } catch (IllegalArgumentException exception) {
+            broken = true;
+            close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Queues the public snapshot to {@code subscriber} and registers it for the public deltas that
+     * follow, atomically with respect to incoming facts. Returns {@code false} when the board is not
+     * loaded.
+     */
+    synchronized boolean attach(
+            ScoreboardSubscriber subscriber,
+            Function<Read, ContestScoreboardService.ScoreboardView> snapshot) {
+        if (!ready()) {
+            return false;
+        }
+        Read read = new Read(sourceVersion(), visible().payload(participantNames));
+        subscriber.offer(ScoreboardSubscriber.SNAPSHOT, snapshot.apply(read));
+        subscribers.add(subscriber);
+        return true;
+    }
+
+    /** Asks every subscriber to resynchronize; called when this board is replaced or dropped. */
+    synchronized void close() {
+        subscribers.forEach(ScoreboardSubscriber::resync);
+        subscribers.clear();
+    }
+
+    /** Returns the rows for {@code cutoffExclusive}, or {@code null} when this window cannot answer it. */
+    synchronized Read read(Instant cutoffExclusive) {
+        ScoreboardProjection projection = projectionFor(cutoffExclusive);
+        if (projection == null) {
+            return null;
+        }
+        return new Read(sourceVersion(), projection.payload(participantNames));
+    }
+
+    /**
+     * Returns the requested slice of the rows for {@code cutoffExclusive} straight from the ranking,
+     * or {@code null} when this window cannot answer it.
+     */
+    synchronized Window window(Instant cutoffExclusive, ContestScoreboardService.RowWindow request) {
+        ScoreboardProjection projection = projectionFor(cutoffExclusive);
+        if (projection == null) {
+            return null;
+        }
+        int total = projection.size();
+        int from = request.start(
+                total, userId -> projection.rank(userId) - 1);
+        int to = request.end(total, from);
+        return new Window(
+                sourceVersion(),
+                projection.maximumScore(),
+                total,
+                from,
+                projection.rows(from, to, participantNames));
+    }
+
+    /**
+     * Replays the post-freeze log onto a copy of the frozen board. Returns {@code null} when the
+     * board is not loaded; a contest without a freeze resolves in zero steps.
+     */
+    synchronized Resolution resolve() {
+        if (!ready()) {
+            return null;
+        }
+        ScoreboardProjection start = frozen == null ? live : frozen;
+        var frozenPayload = start.payload(participantNames);
+        List<ContestScoreboardService.ResolverStep> steps = frozen == null
+                ? List.of()
+                : new ScoreboardResolver(frozen.widen(live.cutoffAt()), postFreeze.values(), participantNames)
+                        .resolve();
+        return new Resolution(sourceVersion(), frozenPayload, steps);
+    }
+
+    private void advance(long written) {
+        if (written <= revision) {
+            return;
+        }
+        aheadRevisions.add(written);
+        while (!aheadRevisions.isEmpty() && aheadRevisions.first() == revision + 1) {
+            revision = aheadRevisions.pollFirst();
+        }
+    }
+
+    private ScoreboardProjection projectionFor(Instant cutoffExclusive) {
+        if (!ready()) {
+            return null;
+        }
+        ScoreboardProjection projection = frozen != null && frozen.cutoffAt().equals(cutoffExclusive)
+                ? frozen
+                : live;
+        return projection.covers(cutoffExclusive) ? projection : null;
+    }
+
+    /** The projection public readers follow; it equals the live one until the freeze. */
+    private ScoreboardProjection visible() {
+        return frozen == null ? live : frozen;
+    }
+
+    /**
+     * @param visibleUpdates collects the row changes of the public projection, or {@code null} when
+     *     nobody listens
+     */
+    private boolean applyToAll(
+            ScoreboardProjection.Fact fact, List<ContestScoreboardService.RowUpdate> visibleUpdates) {
+        boolean changed;
+        if (visibleUpdates != null && frozen == null) {
+            var updates = live.applyTracked(fact, participantNames);
+            visibleUpdates.addAll(updates);
+            changed = !updates.isEmpty();
+        } else {
+            changed = live.apply(fact);
+        }
+        if (frozen != null) {
+            if (visibleUpdates != null) {
+                visibleUpdates.addAll(frozen.applyTracked(fact, participantNames));
+            } else {
+                frozen.apply(fact);
+            }
+            if (!fact.submittedAt().isBefore(frozen.cutoffAt()) && fact.submittedAt().isBefore(live.cutoffAt())) {
+                postFreeze.put(ScoreboardProjection.FactKey.of(fact), fact);
+            }
+        }
+        return changed;
+    }
+
+    private String sourceVersion() {
+        return "live:" + generation + ":" + version;
+    }
+
+    private record Pending(ScoreboardProjection.Fact fact, long revision) {}
+
+    record Read(String sourceVersion, ContestScoreboardService.SnapshotPayload payload) {}
+
+    record Window(
+            String sourceVersion,
+            Integer maximumScore,
+            int totalRows,
+            int offset,
+            List<ContestScoreboardService.ScoreboardRow> rows) {}
+
+    record Resolution(
+            String sourceVersion,
+            ContestScoreboardService.SnapshotPayload frozen,
+            List<ContestScoreboardService.ResolverStep> steps) {}
+}
@@ -0,0 +1,206 @@
+package com.zephyr.croj.contest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Incremental counterpart of {@link OiScoreboardCalculator}. */
+final class OiScoreboardProjection extends ScoreboardProjection {
+    private static final Comparator<Instant> IMPROVEMENT_TIME = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final List<OiScoreboardCalculator.Problem> problems;
+    private final Map<Long, Integer> problemIndexes = new HashMap<>();
+    private final Map<Long, Entry> entries = new LinkedHashMap<>();
+    private final int maximumScore;
+    private final OrderStatisticTree<Entry> ranking = new OrderStatisticTree<>(
+            Comparator.comparingInt((Entry entry) -> entry.totalScore)
+                    .reversed()
+                    .thenComparing(Comparator.comparingInt((Entry entry) -> entry.scoredProblems).reversed())
+                    .thenComparing(entry -> entry.lastImprovedAt, IMPROVEMENT_TIME)
+                    .thenComparingLong(entry -> entry.userId));
+
+    OiScoreboardProjection(
+            List<Long> participantIds,
+            List<OiScoreboardCalculator.Problem> problems,
+            Instant startsAt,
+            Instant cutoffAt) {
+        super(startsAt, cutoffAt);
+        if (participantIds == null || problems == null) {
+            throw new IllegalArgumentException("scoreboard inputs are required");
+        }
+        var labels = new HashSet<String>();
+        int total = 0;
+        for (int index = 0; index < problems.size(); index++) {
+            OiScoreboardCalculator.Problem problem = problems.get(index);
+            if (problem.maxScore() <= 0
+                    || problemIndexes.put(problem.problemId(), index) != null
+                    || !labels.add(problem.label())) {
+                throw new IllegalArgumentException(
+                        "problem IDs and labels must be unique and maximum scores must be positive");
+            }
+            total = Math.addExact(total, problem.maxScore());
+        }
+        for (Long userId : participantIds) {
+            Entry entry = new Entry(userId, problems.size());
+            if (entries.put(userId, entry) != null) {
+                throw new IllegalArgumentException("participant IDs must be unique");
+            }
+            ranking.add(entry);
+        }
+        this.problems = List.copyOf(problems);
+        this.maximumScore = total;
+    }
+
+    private OiScoreboardProjection(OiScoreboardProjection source, Instant cutoffAt) {
+        super(source, cutoffAt);
+        this.problems = source.problems;
+        this.problemIndexes.putAll(source.problemIndexes);
+        this.maximumScore = source.maximumScore;
+        for (Entry original : source.entries.values()) {
+            Entry entry = new Entry(original);
+            entries.put(entry.userId, entry);
+            ranking.add(entry);
+        }
+    }
+
+    @Override
+    ScoreboardProjection widen(Instant cutoffAt) {
+        return new OiScoreboardProjection(this, cutoffAt);
+    }
+
+    @Override
+    Integer maximumScore() {
+        return maximumScore;
+    }
+
+    @Override
+    int size() {
+        return ranking.size();
+    }
+
+    @Override
+    long userAt(int index) {
+        return ranking.get(index).userId;
+    }
+
+    @Override
+    int rank(long userId) {
+        Entry entry = entries.get(userId);
+        return entry == null ? 0 : ranking.indexOf(entry) + 1;
+    }
+
+    @Override
+    ContestScoreboardService.ScoreboardRow row(long userId, Map<Long, String> participantNames) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            throw new IllegalArgumentException("user is not ranked on this scoreboard");
+        }
+        return ContestScoreboardService.ScoreboardRow.fromOi(
+                entry.row(ranking.indexOf(entry) + 1), participantNames);
+    }
+
+    @Override
+    int problemIndex(long problemId) {
+        return problemIndexes.getOrDefault(problemId, -1);
+    }
+
+    @Override
+    boolean applyInWindow(Fact fact) {
+        Entry entry = entries.get(fact.userId());
+        Integer index = problemIndexes.get(fact.problemId());
+        if (entry == null || index == null || fact.score() == null) {
+            return false;
+        }
+        if (fact.score() < 0 || fact.score() > problems.get(index).maxScore()) {
+            throw new IllegalArgumentException("submission score is outside the pinned contest problem maximum");
+        }
+        Fact best = entry.best[index];
+        if (best != null
+                && (fact.score() < best.score()
+                        || (fact.score().equals(best.score())
+                                && FactKey.of(best).compareTo(FactKey.of(fact)) <= 0))) {
+            return false;
+        }
+        ranking.remove(entry);
+        entry.best[index] = fact;
+        entry.recalculate();
+        ranking.add(entry);
+        return true;
+    }
+
+    @Override
+    ContestScoreboardService.SnapshotPayload materialize(Map<Long, String> participantNames) {
+        List<Entry> ordered = ranking.toList();
+        List<ContestScoreboardService.ScoreboardRow> rows = new ArrayList<>(ordered.size());
+        for (int index = 0; index < ordered.size(); index++) {
+            rows.add(ContestScoreboardService.ScoreboardRow.fromOi(
+                    ordered.get(index).row(index + 1), participantNames));
+        }
+        return new ContestScoreboardService.SnapshotPayload(maximumScore, List.copyOf(rows));
+    }
+
+    private final class Entry {
+        private final long userId;
+        private final Fact[] best;
+        private int totalScore;
+        private int scoredProblems;
+        private Instant lastImprovedAt;
+        private List<OiScoreboardCalculator.ProblemScore> problemScores;
+
+        private Entry(long userId, int problemCount) {
+            this.userId = userId;
+            this.best = new Fact[problemCount];
+        }
+
+        private Entry(Entry source) {
+            this.userId = source.userId;
+            this.best = source.best.clone();
+            this.totalScore = source.totalScore;
+            this.scoredProblems = source.scoredProblems;
+            this.lastImprovedAt = source.lastImprovedAt;
+            this.problemScores = source.problemScores;
+        }
+
+        private void recalculate() {
+            totalScore = 0;
+            scoredProblems = 0;
+            lastImprovedAt = null;
+            for (Fact fact : best) {
+                if (fact == null || fact.score() == 0) {
+                    continue;
+                }
+                totalScore = Math.addExact(totalScore, fact.score());
+                scoredProblems++;
+                if (lastImprovedAt == null || fact.submittedAt().isAfter(lastImprovedAt)) {
+                    lastImprovedAt = fact.submittedAt();
+                }
+            }
+            problemScores = null;
+        }
+
+        private OiScoreboardCalculator.Row row(int rank) {
+            if (problemScores == null) {
+                List<OiScoreboardCalculator.ProblemScore> scores = new ArrayList<>(best.length);
+                for (int index = 0; index < best.length; index++) {
+                    Fact fact = best[index];
+                    OiScoreboardCalculator.Problem problem = problems.get(index);
+                    scores.add(new OiScoreboardCalculator.ProblemScore(
+                            problem.problemId(),
+                            problem.label(),
+                            problem.maxScore(),
+                            fact == null ? 0 : fact.score(),
+                            fact == null ? null : fact.submissionId(),
+                            fact == null ? null : fact.submittedAt()));
+                }
+                problemScores = List.copyOf(scores);
+            }
+            return new OiScoreboardCalculator.Row(
+                    rank, userId, totalScore, scoredProblems, lastImprovedAt, problemScores);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.zephyr.croj.contest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Size-augmented treap that answers rank and k-th queries in expected O(log n).
+ *
+ * <p>The comparator must be a strict total order over the stored values; a value must be removed
+ * before any field that the comparator reads is mutated, and re-added afterwards.
+ */
+final class OrderStatisticTree<T> {
+    private final Comparator<? super T> order;
+    private final SplittableRandom priorities = new SplittableRandom(0x5EEDL);
+    private Node<T> root;
+
+    OrderStatisticTree(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void add(T value) {
+        Node<T>[] parts = split(root, value, false);
+        if (parts[1] != null && order.compare(first(parts[1]).value, value) == 0) {
+            root = merge(parts[0], parts[1]);
+            throw new IllegalArgumentException("scoreboard rank keys must be unique");
+        }
+        root = merge(merge(parts[0], new Node<>(value, priorities.nextInt())), parts[1]);
+    }
+
+    boolean remove(T value) {
+        Node<T>[] lower = split(root, value, false);
+        Node<T>[] upper = split(lower[1], value, true);
+        boolean removed = upper[0] != null;
+        root = merge(lower[0], upper[1]);
+        return removed;
+    }
+
+    /** Returns the zero-based position of {@code value}, or -1 when it is absent. */
+    int indexOf(T value) {
+        int index = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int comparison = order.compare(value, node.value);
+            if (comparison == 0) {
+                return index + size(node.left);
+            }
+            if (comparison < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /** Returns the values at positions {@code [fromIndex, toIndex)}, clamped to the tree size. */
+    List<T> range(int fromIndex, int toIndex) {
+        int from = Math.max(fromIndex, 0);
+        int to = Math.min(toIndex, size());
+        List<T> values = new ArrayList<>(Math.max(to - from, 0));
+        collect(root, 0, from, to, values);
+        return values;
+    }
+
+    List<T> toList() {
+        return range(0, size());
+    }
+
+    private void collect(Node<T> node, int offset, int from, int to, List<T> values) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, offset, from, to, values);
+        if (position >= from && position < to) {
+            values.add(node.value);
+        }
+        collect(node.right, position + 1, from, to, values);
+    }
+
+    /**
+     * Splits into values ordered before {@code key} and the rest. With {@code inclusive}, values
+     * equal to {@code key} go to the left part instead.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<T>[] split(Node<T> node, T key, boolean inclusive) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        int comparison = order.compare(node.value, key);
+        if (comparison < 0 || (inclusive && comparison == 0)) {
+            Node<T>[] parts = split(node.right, key, inclusive);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, key, inclusive);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node<T> first(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
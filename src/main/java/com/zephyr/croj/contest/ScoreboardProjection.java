@@ -0,0 +1,220 @@
+package com.zephyr.croj.contest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintained ranking for one submission window {@code [startsAt, cutoffAt)}.
+ *
+ * <p>Terminal submission facts may arrive in any order and more than once; applying the same set
+ * of facts always yields the board that the matching batch calculator returns for that window.
+ * Instances are not thread-safe; {@link LiveScoreboard} serializes access.
+ */
+abstract sealed class ScoreboardProjection permits AcmScoreboardProjection, OiScoreboardProjection {
+    protected final Instant startsAt;
+    protected final Instant cutoffAt;
+    private Instant latestFactAt;
+    private ContestScoreboardService.SnapshotPayload payload;
+    private final List<Long> rewritten = new ArrayList<>();
+
+    ScoreboardProjection(Instant startsAt, Instant cutoffAt) {
+        if (startsAt == null || cutoffAt == null) {
+            throw new IllegalArgumentException("scoreboard inputs are required");
+        }
+        if (cutoffAt.isBefore(startsAt)) {
+            throw new IllegalArgumentException("scoreboard cutoff must not precede contest start");
+        }
+        this.startsAt = startsAt;
+        this.cutoffAt = cutoffAt;
+    }
+
+    /** Copies {@code source} into a window that ends at {@code cutoffAt}, which must not be earlier. */
+    ScoreboardProjection(ScoreboardProjection source, Instant cutoffAt) {
+        if (cutoffAt.isBefore(source.cutoffAt)) {
+            throw new IllegalArgumentException("a copied scoreboard window can only be widened");
+        }
+        this.startsAt = source.startsAt;
+        this.cutoffAt = cutoffAt;
+        this.latestFactAt = source.latestFactAt;
+    }
+
+    static ScoreboardProjection create(
+            String ruleType,
+            List<Long> participantIds,
+            List<ContestRepository.ContestProblem> problems,
+            Instant startsAt,
+            Instant cutoffAt) {
+        if ("ACM".equalsIgnoreCase(ruleType)) {
+            return new AcmScoreboardProjection(
+                    participantIds,
+                    problems.stream()
+                            .map(problem -> new AcmScoreboardCalculator.Problem(
+                                    problem.problemId(), problem.label()))
+                            .toList(),
+                    startsAt,
+                    cutoffAt);
+        }
+        if ("OI".equalsIgnoreCase(ruleType)) {
+            return new OiScoreboardProjection(
+                    participantIds,
+                    problems.stream()
+                            .map(problem -> new OiScoreboardCalculator.Problem(
+                                    problem.problemId(), problem.label(), problem.score()))
+                            .toList(),
+                    startsAt,
+                    cutoffAt);
+        }
+        throw new IllegalStateException("persisted contest rule type is unsupported");
+    }
+
+    /** Applies one terminal fact and reports whether any visible row changed. */
+    final boolean apply(Fact fact) {
+        rewritten.clear();
+        if (fact.submittedAt().isBefore(startsAt) || !fact.submittedAt().isBefore(cutoffAt)) {
+            return false;
+        }
+        if (latestFactAt == null || fact.submittedAt().isAfter(latestFactAt)) {
+            latestFactAt = fact.submittedAt();
+        }
+        boolean changed = applyInWindow(fact);
+        if (changed) {
+            payload = null;
+        }
+        return changed;
+    }
+
+    /**
+     * Applies one fact and describes every visible row change: the fact owner's move first, then
+     * rows rewritten in place as a side effect, such as a lost ACM first-accepted mark.
+     */
+    final List<ContestScoreboardService.RowUpdate> applyTracked(Fact fact, Map<Long, String> participantNames) {
+        int previousRank = rank(fact.userId());
+        if (!apply(fact)) {
+            return List.of();
+        }
+        List<ContestScoreboardService.RowUpdate> updates = new ArrayList<>(1 + rewritten.size());
+        updates.add(new ContestScoreboardService.RowUpdate(previousRank, row(fact.userId(), participantNames)));
+        for (long userId : rewritten) {
+            updates.add(new ContestScoreboardService.RowUpdate(rank(userId), row(userId, participantNames)));
+        }
+        return updates;
+    }
+
+    /** Records that applying the current fact also changed another participant's row. */
+    protected final void rewritten(long userId) {
+        rewritten.add(userId);
+    }
+
+    /**
+     * Whether this window answers a read at {@code cutoffExclusive}: either the read asks for the
+     * whole window, or no applied fact is at or after the earlier cutoff.
+     */
+    final boolean covers(Instant cutoffExclusive) {
+        if (cutoffExclusive.equals(cutoffAt)) {
+            return true;
+        }
+        return cutoffExclusive.isBefore(cutoffAt)
+                && !cutoffExclusive.isBefore(startsAt)
+                && (latestFactAt == null || latestFactAt.isBefore(cutoffExclusive));
+    }
+
+    /** Materialized rows, reused until the next visible change. */
+    final ContestScoreboardService.SnapshotPayload payload(Map<Long, String> participantNames) {
+        if (payload == null) {
+            payload = materialize(participantNames);
+        }
+        return payload;
+    }
+
+    /**
+     * Rows ranked {@code from + 1} through {@code to}. Reuses the materialized rows when they are
+     * current; otherwise only the requested slice is built from the ranking.
+     */
+    final List<ContestScoreboardService.ScoreboardRow> rows(int from, int to, Map<Long, String> participantNames) {
+        if (payload != null) {
+            return List.copyOf(payload.rows().subList(from, to));
+        }
+        List<ContestScoreboardService.ScoreboardRow> rows = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            rows.add(row(userAt(index), participantNames));
+        }
+        return List.copyOf(rows);
+    }
+
+    Instant cutoffAt() {
+        return cutoffAt;
+    }
+
+    /** Whether {@code userId} is ranked on this board. */
+    final boolean ranks(long userId) {
+        return rank(userId) > 0;
+    }
+
+    /** Returns an independent copy holding the same facts whose window ends at {@code cutoffAt}. */
+    abstract ScoreboardProjection widen(Instant cutoffAt);
+
+    abstract int size();
+
+    /** OI total available score; {@code null} for ACM. */
+    abstract Integer maximumScore();
+
+    /** Returns the user ranked at the zero-based {@code index}. */
+    abstract long userAt(int index);
+
+    /** Returns the one-based rank of {@code userId}, or 0 when the user is not a participant. */
+    abstract int rank(long userId);
+
+    /** Returns the current row of a ranked user. */
+    abstract ContestScoreboardService.ScoreboardRow row(long userId, Map<Long, String> participantNames);
+
+    /** Returns the column of {@code problemId} in board order, or -1 when it is not pinned. */
+    abstract int problemIndex(long problemId);
+
+    abstract boolean applyInWindow(Fact fact);
+
+    abstract ContestScoreboardService.SnapshotPayload materialize(Map<Long, String> participantNames);
+
+    /** Submission columns shared by ACM and OI scoring; status and score are read per rule. */
+    record Fact(
+            long submissionId,
+            long userId,
+            long problemId,
+            int status,
+            Integer score,
+            Instant submittedAt) {
+        static Fact of(AcmScoreboardCalculator.SubmissionFact fact) {
+            return new Fact(
+                    fact.submissionId(),
+                    fact.userId(),
+                    fact.problemId(),
+                    fact.status(),
+                    null,
+                    fact.submittedAt());
+        }
+
+        static Fact of(OiScoreboardCalculator.SubmissionFact fact) {
+            return new Fact(
+                    fact.submissionId(),
+                    fact.userId(),
+                    fact.problemId(),
+                    0,
+                    fact.score(),
+                    fact.submittedAt());
+        }
+    }
+
+    /** Submission order used by both rules: submission time, then submission ID. */
+    record FactKey(Instant submittedAt, long submissionId) implements Comparable<FactKey> {
+        static FactKey of(Fact fact) {
+            return new FactKey(fact.submittedAt(), fact.submissionId());
+        }
+
+        @Override
+        public int compareTo(FactKey other) {
+            int comparison = submittedAt.compareTo(other.submittedAt);
+            return comparison != 0 ? comparison : Long.compare(submissionId, other.submissionId);
+        }
+    }
+}
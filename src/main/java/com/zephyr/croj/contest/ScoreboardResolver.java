@@ -0,0 +1,74 @@
+package com.zephyr.croj.contest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ICPC-style unfreeze. Starting from the frozen board, the lowest-ranked participant with hidden
+ * cells reveals their leftmost hidden cell; when that moves them up, the participant who slid into
+ * the vacated position is considered next. Every reveal is one incremental update, so the whole
+ * ceremony costs O((participants + hidden cells) log participants) instead of one recompute per
+ * step, and the final state equals the live board.
+ */
+final class ScoreboardResolver {
+    private final ScoreboardProjection board;
+    private final Map<Long, String> participantNames;
+    private final Map<Long, TreeMap<Integer, List<ScoreboardProjection.Fact>>> hidden = new HashMap<>();
+
+    /**
+     * @param board a widened copy of the frozen projection; it is mutated while resolving
+     * @param postFreezeFacts facts at or after the freeze, in submission order
+     */
+    ScoreboardResolver(
+            ScoreboardProjection board,
+            Collection<ScoreboardProjection.Fact> postFreezeFacts,
+            Map<Long, String> participantNames) {
+        this.board = board;
+        this.participantNames = participantNames;
+        Map<Long, ContestScoreboardService.ScoreboardRow> frozenRows = new HashMap<>();
+        for (ScoreboardProjection.Fact fact : postFreezeFacts) {
+            int problemIndex = board.problemIndex(fact.problemId());
+            if (problemIndex < 0 || !board.ranks(fact.userId())) {
+                continue;
+            }
+            var frozenRow = frozenRows.computeIfAbsent(
+                    fact.userId(), userId -> board.row(userId, participantNames));
+            if (Boolean.TRUE.equals(frozenRow.problems().get(problemIndex).accepted())) {
+                continue;
+            }
+            hidden.computeIfAbsent(fact.userId(), ignored -> new TreeMap<>())
+                    .computeIfAbsent(problemIndex, ignored -> new ArrayList<>())
+                    .add(fact);
+        }
+    }
+
+    List<ContestScoreboardService.ResolverStep> resolve() {
+        List<ContestScoreboardService.ResolverStep> steps = new ArrayList<>();
+        int position = board.size() - 1;
+        while (position >= 0) {
+            long userId = board.userAt(position);
+            TreeMap<Integer, List<ScoreboardProjection.Fact>> cells = hidden.get(userId);
+            if (cells == null || cells.isEmpty()) {
+                position--;
+                continue;
+            }
+            var cell = cells.pollFirstEntry();
+            cell.getValue().forEach(board::apply);
+            var row = board.row(userId, participantNames);
+            var problem = row.problems().get(cell.getKey());
+            steps.add(new ContestScoreboardService.ResolverStep(
+                    steps.size() + 1,
+                    userId,
+                    problem.problemId(),
+                    problem.label(),
+                    position + 1,
+                    row.rank(),
+                    row));
+        }
+        return List.copyOf(steps);
+    }
+}
@@ -0,0 +1,65 @@
+package com.zephyr.croj.contest;
+
+import com.zephyr.croj.config.properties.ContestScoreboardProperties;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/** Creates scoreboard SSE subscribers and owns the small pool that writes to them. */
+@Component
+public class ScoreboardStreams implements DisposableBean {
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ExecutorService senders;
+
+    @Autowired
+    public ScoreboardStreams(ContestScoreboardProperties properties) {
+        this(properties.getStreamBufferSize(), properties.getStreamTimeout(), properties.getStreamSenderThreads());
+    }
+
+    public ScoreboardStreams(int bufferSize, Duration timeout, int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(
+                senderThreads,
+                senderThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "scoreboard-sse-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Opens a subscriber whose connection lasts at most {@code maximumLifetime}, capped by the
+     * configured stream timeout. A lifetime that has already run out, such as the rest of an ended
+     * contest, gets the configured timeout so the queued events can still be written.
+     */
+    ScoreboardSubscriber open(Duration maximumLifetime) {
+        Duration lifetime = maximumLifetime.isNegative() || maximumLifetime.isZero()
+                        || maximumLifetime.compareTo(timeout) > 0
+                ? timeout
+                : maximumLifetime;
+        return new ScoreboardSubscriber(emitter(Math.max(lifetime.toMillis(), 1L)), bufferSize, senders);
+    }
+
+    SseEmitter emitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @Override
+    public void destroy() {
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.zephyr.croj.contest;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One scoreboard SSE connection with a bounded outgoing buffer. Producers never block: when the
+ * buffer is full the pending events are discarded, a {@code resync} event is queued in their place
+ * and the stream is completed, so the client reconnects and starts from a fresh snapshot.
+ */
+@Slf4j
+final class ScoreboardSubscriber {
+    static final String SNAPSHOT = "snapshot";
+    static final String DELTA = "delta";
+    static final String RESYNC = "resync";
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Event> outgoing;
+    private final Executor senders;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closing;
+    private volatile boolean closed;
+
+    ScoreboardSubscriber(SseEmitter emitter, int bufferSize, Executor senders) {
+        this.emitter = emitter;
+        this.outgoing = new ArrayBlockingQueue<>(bufferSize);
+        this.senders = senders;
+        emitter.onCompletion(() -> closed = true);
+        emitter.onTimeout(() -> closed = true);
+        emitter.onError(ignored -> closed = true);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean closed() {
+        return closed || closing;
+    }
+
+    void offer(String name, Object data) {
+        if (closed()) {
+            return;
+        }
+        if (!outgoing.offer(new Event(name, data))) {
+            synchronized (this) {
+                outgoing.clear();
+                outgoing.offer(new Event(RESYNC, ""));
+                closing = true;
+            }
+        }
+        schedule();
+    }
+
+    /** Asks the client to reconnect, for example because the board it follows was reloaded. */
+    void resync() {
+        if (closed()) {
+            return;
+        }
+        synchronized (this) {
+            outgoing.clear();
+            outgoing.offer(new Event(RESYNC, ""));
+            closing = true;
+        }
+        schedule();
+    }
+
+    /** Completes the stream once the events already queued have been sent. */
+    void finish() {
+        if (closed()) {
+            return;
+        }
+        closing = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(this::drain);
+        } catch (RejectedExecutionException exception) {
+            draining.set(false);
+            closed = true;
+            emitter.complete();
+        }
+    }
+
+    private void drain() {
+        try {
+            Event event;
+            while (!closed && (event = outgoing.poll()) != null) {
+                emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+            }
+            if (closing && outgoing.isEmpty()) {
+                closed = true;
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException exception) {
+            closed = true;
+            log.debug("scoreboard stream subscriber went away", exception);
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && (closing || !outgoing.isEmpty())) {
+            schedule();
+        }
+    }
+
+    private record Event(String name, Object data) {}
+}
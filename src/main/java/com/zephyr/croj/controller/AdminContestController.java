@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -94,6 +95,31 @@ public class AdminContestController {
         return Result.success(scoreboards.administratorScoreboard(contestId));
     }
 
+    @GetMapping("/{contestId}/scoreboard/rows")
+    @Operation(
+            summary = "Read a window of the live administrator contest scoreboard",
+            description =
+                    "Same row selection as the public GET /v1/contests/{contestId}/scoreboard/rows (aroundUserId with radius, top, or page and size) over the live board without the freeze.")
+    public Result<ContestScoreboardService.ScoreboardPage> scoreboardRows(
+            @PathVariable long contestId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) Long aroundUserId,
+            @RequestParam(required = false) Integer radius) {
+        return Result.success(scoreboards.administratorScoreboardRows(
+                contestId, ContestScoreboardService.RowWindow.of(page, size, top, aroundUserId, radius)));
+    }
+
+    @GetMapping("/{contestId}/scoreboard/resolution")
+    @Operation(
+            summary = "Resolve the frozen contest scoreboard",
+            description =
+                    "Available after the contest ends. Returns the frozen public rows and the ordered ICPC-style reveals: the lowest-ranked participant with hidden cells reveals their leftmost hidden cell until none remain, ending at the final board.")
+    public Result<ContestScoreboardService.ScoreboardResolution> resolution(@PathVariable long contestId) {
+        return Result.success(scoreboards.resolution(contestId));
+    }
+
     private long administratorId() {
         Object value = request.getAttribute("userId");
         if (value instanceof Long id) {
@@ -4,6 +4,7 @@ import com.zephyr.croj.common.response.Result;
 import com.zephyr.croj.config.properties.TestBundleProperties;
 import com.zephyr.croj.problem.AdminTestBundleService;
 import com.zephyr.croj.problem.TestBundleApiException;
+import com.zephyr.croj.problem.TestBundleUpload;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -67,8 +68,10 @@ public class AdminTestBundleController {
         if (file.getSize() > properties.getMaxArchiveBytes()) {
             throw TestBundleApiException.payloadTooLarge();
         }
-        try {
-            return response(testBundles.upload(problemId, versionId, ifMatch, file.getBytes()));
+        // 先落盘再校验和上传，每个上传请求占用的堆内存与归档大小无关。
+        try (TestBundleUpload archive =
+                TestBundleUpload.spool(file.getInputStream(), properties.getMaxArchiveBytes())) {
+            return response(testBundles.upload(problemId, versionId, ifMatch, archive));
         } catch (IOException exception) {
             throw TestBundleApiException.badRequest("test bundle upload cannot be read");
         }
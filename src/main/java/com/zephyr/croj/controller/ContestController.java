@@ -1,6 +1,7 @@
 package com.zephyr.croj.controller;
 
 import com.zephyr.croj.common.response.Result;
+import com.zephyr.croj.contest.ContestApiException;
 import com.zephyr.croj.contest.ContestScoreboardService;
 import com.zephyr.croj.contest.ContestService;
 import com.zephyr.croj.model.dto.contest.ContestRequests;
@@ -9,6 +10,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/v1/contests")
@@ -89,6 +93,37 @@ public class ContestController {
         return Result.success(scoreboards.publicScoreboard(contestId, userId()));
     }
 
+    @GetMapping("/{contestId}/scoreboard/rows")
+    @Operation(
+            summary = "Read a window of the public contest scoreboard",
+            description =
+                    "Returns rows in the same shape and ranks as GET /scoreboard, plus totalRows and the zero-based offset of the first row. aroundMe (authenticated) or aroundUserId returns the rows within radius (default 10, at most 50) of that participant; top returns the first N rows (at most 200); otherwise page and size (default 1 and 50, at most 100) select a page. A user who is not ranked on the board yields 422.")
+    public Result<ContestScoreboardService.ScoreboardPage> scoreboardRows(
+            @PathVariable long contestId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) Long aroundUserId,
+            @RequestParam(defaultValue = "false") boolean aroundMe,
+            @RequestParam(required = false) Integer radius) {
+        Long caller = userId();
+        if (aroundMe && caller == null) {
+            throw new ContestApiException(HttpStatus.UNAUTHORIZED, "aroundMe requires authentication");
+        }
+        var window = ContestScoreboardService.RowWindow.of(
+                page, size, top, aroundMe ? caller : aroundUserId, radius);
+        return Result.success(scoreboards.publicScoreboardRows(contestId, caller, window));
+    }
+
+    @GetMapping(value = "/{contestId}/scoreboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream the public contest scoreboard",
+            description =
+                    "Server-sent events. The first event is a snapshot carrying the same board as GET /scoreboard; each following delta event lists the rows one judge result changed with their previous and new ranks. A resync event means the server dropped buffered updates or reloaded the board and the client must reconnect. The stream ends when the contest ends.")
+    public SseEmitter scoreboardStream(@PathVariable long contestId) {
+        return scoreboards.stream(contestId, userId());
+    }
+
     private Long userId() {
         Object value = request.getAttribute("userId");
         return value instanceof Long id ? id : null;
@@ -1,10 +1,13 @@
 package com.zephyr.croj.controller;
 
 import com.zephyr.croj.common.response.Result;
+import com.zephyr.croj.model.dto.JudgeResultBatchRequest;
 import com.zephyr.croj.model.dto.JudgeResultRequest;
+import com.zephyr.croj.model.vo.JudgeResultItemResponse;
 import com.zephyr.croj.model.vo.JudgeResultResponse;
 import com.zephyr.croj.service.JudgeResultService;
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -21,4 +24,9 @@ public class InternalJudgeResultController {
     public Result<JudgeResultResponse> ingest(@RequestBody @Valid JudgeResultRequest request) {
         return Result.success(service.ingest(request));
     }
+
+    @PostMapping("/batch")
+    public Result<List<JudgeResultItemResponse>> ingestAll(@RequestBody @Valid JudgeResultBatchRequest request) {
+        return Result.success(service.ingestAll(request.getResults()));
+    }
 }
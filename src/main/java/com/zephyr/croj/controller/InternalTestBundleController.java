@@ -0,0 +1,86 @@
+package com.zephyr.croj.controller;
+
+import com.zephyr.croj.model.entity.TestBundle;
+import com.zephyr.croj.problem.TestBundleCache;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/internal/v1/problem-versions/{versionId}/test-bundle")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.test-bundle", name = "enabled", havingValue = "true")
+public class InternalTestBundleController {
+    private final TestBundleCache cache;
+
+    /**
+     * Serves the version's archive from the local cache. The strong ETag is the archive SHA-256, so
+     * a judge that already holds it gets 304, and a single byte range resumes a broken download.
+     */
+    @GetMapping
+    public void download(
+            @PathVariable long versionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletResponse response) throws IOException {
+        TestBundle bundle = cache.find(versionId);
+        String etag = "\"" + bundle.getSha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long size = bundle.getSizeBytes();
+        long start = 0;
+        long length = size;
+        List<HttpRange> ranges = range == null || (ifRange != null && !ifRange.equals(etag))
+                ? List.of()
+                : parseRanges(range);
+        if (ranges.size() == 1) {
+            start = ranges.get(0).getRangeStart(size);
+            long end = ranges.get(0).getRangeEnd(size);
+            if (start >= size || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            length = end - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, size));
+        }
+        try (TestBundleCache.CachedBundle archive = cache.open(bundle)) {
+            response.setContentType("application/zip");
+            response.setContentLengthLong(length);
+            archive.transferTo(start, length, response.getOutputStream());
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    /** Malformed ranges are ignored and several ranges are answered with the whole archive. */
+    private static List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException exception) {
+            return List.of();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.zephyr.croj.model.dto.ProblemCreateDTO;
 import com.zephyr.croj.model.dto.ProblemQueryDTO;
 import com.zephyr.croj.model.dto.ProblemUpdateDTO;
 import com.zephyr.croj.model.vo.ProblemListItemVO;
+import com.zephyr.croj.model.vo.ProblemSearchVO;
 import com.zephyr.croj.model.vo.ProblemVO;
 import com.zephyr.croj.service.ProblemService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -111,6 +112,16 @@ public class ProblemController {
         return Result.success(problems);
     }
 
+    /**
+     * 搜索问题
+     */
+    @PostMapping("/search")
+    @Operation(summary = "搜索问题（含标签与难度分面）")
+    public Result<ProblemSearchVO> searchProblems(@RequestBody @Valid ProblemQueryDTO queryDTO) {
+        Long userId = getUserId();
+        return Result.success(problemService.searchProblems(queryDTO, userId));
+    }
+
     /**
      * 从请求中获取用户ID
      */
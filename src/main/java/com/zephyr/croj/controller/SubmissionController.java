@@ -2,20 +2,26 @@ package com.zephyr.croj.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.zephyr.croj.common.response.Result;
+import com.zephyr.croj.model.dto.SubmissionCursorQueryDTO;
 import com.zephyr.croj.model.dto.SubmissionDTO;
 import com.zephyr.croj.model.dto.SubmissionQueryDTO;
+import com.zephyr.croj.model.vo.SubmissionCursorVO;
 import com.zephyr.croj.model.vo.SubmissionVO;
 import com.zephyr.croj.service.SubmissionService;
+import com.zephyr.croj.submission.SubmissionVerdictStreams;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.util.List;
 
 /**
  * 提交记录控制器
@@ -28,6 +34,7 @@ import jakarta.validation.Valid;
 public class SubmissionController {
 
     private final SubmissionService submissionService;
+    private final SubmissionVerdictStreams verdictStreams;
     private final HttpServletRequest request;
 
     /**
@@ -58,6 +65,19 @@ public class SubmissionController {
         return Result.success(submission);
     }
 
+    /**
+     * 订阅自己提交的评测结果推送（SSE），代替轮询提交详情
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "订阅评测结果推送",
+            description = "Server-sent events。每个已订阅的提交出结果时推送一个 verdict 事件（submissionId、status、statusText、score），已出结果的提交立即推送；全部推送后连接关闭。连接超时或断开后，客户端应改为读取一次提交详情。",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    public SseEmitter streamVerdicts(@Parameter(description = "提交ID列表") @RequestParam List<Long> ids) {
+        return verdictStreams.subscribe(getUserId(), ids);
+    }
+
     /**
      * 获取提交列表
      */
@@ -72,6 +92,20 @@ public class SubmissionController {
         return Result.success(submissions);
     }
 
+    /**
+     * 按游标获取提交列表（不统计总数）
+     */
+    @PostMapping("/cursor")
+    @Operation(
+            summary = "按游标获取提交列表",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    public Result<SubmissionCursorVO> getSubmissionCursor(@RequestBody @Valid SubmissionCursorQueryDTO queryDTO) {
+        Long userId = getUserId();
+        SubmissionCursorVO submissions = submissionService.getSubmissionCursor(queryDTO, userId);
+        return Result.success(submissions);
+    }
+
     /**
      * 获取用户最佳提交（特定题目）
      */
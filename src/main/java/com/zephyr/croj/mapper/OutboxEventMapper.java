@@ -2,6 +2,9 @@ package com.zephyr.croj.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.zephyr.croj.model.entity.OutboxEvent;
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -10,16 +13,47 @@ import org.apache.ibatis.annotations.Update;
 @Mapper
 public interface OutboxEventMapper extends BaseMapper<OutboxEvent> {
 
+    /** Writes all events with one multi-row statement. */
+    @Insert("""
+            <script>
+            INSERT INTO t_outbox_event (id, aggregate_type, aggregate_id, shard, event_type, payload, attempts)
+            VALUES <foreach collection="events" item="event" separator=",">
+              (#{event.id}, #{event.aggregateType}, #{event.aggregateId}, #{event.shard}, #{event.eventType}, #{event.payload}, #{event.attempts})
+            </foreach>
+            </script>
+            """)
+    int insertAll(@Param("events") List<OutboxEvent> events);
+
     @Update("""
+            <script>
             UPDATE t_outbox_event
                SET claimed_by = #{claimId}, claimed_at = UTC_TIMESTAMP(3)
-             WHERE published_at IS NULL
-               AND (next_attempt_at IS NULL OR next_attempt_at <= UTC_TIMESTAMP(3))
-               AND (claimed_at IS NULL OR claimed_at < DATE_SUB(UTC_TIMESTAMP(3), INTERVAL #{claimTimeoutSeconds} SECOND))
+             WHERE shard IN <foreach collection="shards" item="shard" open="(" separator="," close=")">#{shard}</foreach>
+               AND published_at IS NULL
+               AND (next_attempt_at IS NULL OR next_attempt_at &lt;= UTC_TIMESTAMP(3))
+               AND (claimed_at IS NULL OR claimed_at &lt; DATE_SUB(UTC_TIMESTAMP(3), INTERVAL #{claimTimeoutSeconds} SECOND))
              ORDER BY created_at
-             LIMIT 1
+             LIMIT #{limit}
+            </script>
+            """)
+    int claimBatch(
+            @Param("shards") Collection<Integer> shards,
+            @Param("claimId") String claimId,
+            @Param("claimTimeoutSeconds") long claimTimeoutSeconds,
+            @Param("limit") int limit);
+
+    @Update("""
+            <script>
+            UPDATE t_outbox_event
+               SET claimed_by = #{claimId}, claimed_at = UTC_TIMESTAMP(3)
+             WHERE id IN <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+               AND published_at IS NULL
+               AND (next_attempt_at IS NULL OR next_attempt_at &lt;= UTC_TIMESTAMP(3))
+               AND (claimed_at IS NULL OR claimed_at &lt; DATE_SUB(UTC_TIMESTAMP(3), INTERVAL #{claimTimeoutSeconds} SECOND))
+            </script>
             """)
-    int claimNext(
+    int claimByIds(
+            @Param("ids") Collection<String> ids,
             @Param("claimId") String claimId,
             @Param("claimTimeoutSeconds") long claimTimeoutSeconds);
 
@@ -28,16 +62,28 @@ public interface OutboxEventMapper extends BaseMapper<OutboxEvent> {
              WHERE claimed_by = #{claimId} AND published_at IS NULL
              ORDER BY created_at
             """)
-    OutboxEvent findClaimed(@Param("claimId") String claimId);
+    List<OutboxEvent> findClaimed(@Param("claimId") String claimId);
 
     @Update("""
+            <script>
             UPDATE t_outbox_event
                SET published_at = UTC_TIMESTAMP(3), claimed_by = NULL, claimed_at = NULL, last_error = NULL
-             WHERE id = #{id} AND claimed_by = #{claimId} AND published_at IS NULL
+             WHERE claimed_by = #{claimId} AND published_at IS NULL
+               AND id IN <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+            </script>
             """)
     int markPublished(
-            @Param("id") String id,
-            @Param("claimId") String claimId);
+            @Param("claimId") String claimId,
+            @Param("ids") Collection<String> ids);
+
+    /** Moves pending rows written under a larger shard count into the current range. */
+    @Update("""
+            UPDATE t_outbox_event
+               SET shard = MOD(aggregate_id, #{shardCount})
+             WHERE published_at IS NULL AND shard >= #{shardCount}
+             LIMIT #{limit}
+            """)
+    int rehomeShards(@Param("shardCount") int shardCount, @Param("limit") int limit);
 
     @Update("""
             UPDATE t_outbox_event
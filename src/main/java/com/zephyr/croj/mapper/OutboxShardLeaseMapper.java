@@ -0,0 +1,92 @@
+package com.zephyr.croj.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.zephyr.croj.model.entity.OutboxShardLease;
+import java.util.List;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+@Mapper
+public interface OutboxShardLeaseMapper extends BaseMapper<OutboxShardLease> {
+
+    @Insert("""
+            <script>
+            INSERT IGNORE INTO t_outbox_shard_lease (shard)
+            VALUES <foreach collection="shards" item="shard" separator=",">(#{shard})</foreach>
+            </script>
+            """)
+    int ensureShards(@Param("shards") List<Integer> shards);
+
+    @Insert("""
+            INSERT INTO t_outbox_publisher (owner_id, heartbeat_at)
+            VALUES (#{ownerId}, UTC_TIMESTAMP(3))
+            ON DUPLICATE KEY UPDATE heartbeat_at = UTC_TIMESTAMP(3)
+            """)
+    int heartbeat(@Param("ownerId") String ownerId);
+
+    @Select("""
+            SELECT COUNT(*) FROM t_outbox_publisher
+             WHERE heartbeat_at > DATE_SUB(UTC_TIMESTAMP(3), INTERVAL #{leaseSeconds} SECOND)
+            """)
+    int countLivePublishers(@Param("leaseSeconds") long leaseSeconds);
+
+    @Delete("""
+            DELETE FROM t_outbox_publisher
+             WHERE heartbeat_at < DATE_SUB(UTC_TIMESTAMP(3), INTERVAL #{retentionSeconds} SECOND)
+            """)
+    int deleteStalePublishers(@Param("retentionSeconds") long retentionSeconds);
+
+    @Update("""
+            UPDATE t_outbox_shard_lease
+               SET lease_until = DATE_ADD(UTC_TIMESTAMP(3), INTERVAL #{leaseSeconds} SECOND)
+             WHERE owner_id = #{ownerId} AND shard < #{shardCount}
+            """)
+    int renew(
+            @Param("ownerId") String ownerId,
+            @Param("shardCount") int shardCount,
+            @Param("leaseSeconds") long leaseSeconds);
+
+    @Update("""
+            UPDATE t_outbox_shard_lease
+               SET owner_id = #{ownerId}, lease_until = DATE_ADD(UTC_TIMESTAMP(3), INTERVAL #{leaseSeconds} SECOND)
+             WHERE shard < #{shardCount}
+               AND (owner_id IS NULL OR lease_until IS NULL OR lease_until < UTC_TIMESTAMP(3))
+             ORDER BY shard
+             LIMIT #{limit}
+            """)
+    int acquire(
+            @Param("ownerId") String ownerId,
+            @Param("shardCount") int shardCount,
+            @Param("leaseSeconds") long leaseSeconds,
+            @Param("limit") int limit);
+
+    @Update("""
+            UPDATE t_outbox_shard_lease
+               SET owner_id = NULL, lease_until = NULL
+             WHERE owner_id = #{ownerId}
+             ORDER BY shard DESC
+             LIMIT #{limit}
+            """)
+    int release(@Param("ownerId") String ownerId, @Param("limit") int limit);
+
+    @Update("""
+            UPDATE t_outbox_shard_lease
+               SET owner_id = NULL, lease_until = NULL
+             WHERE owner_id = #{ownerId}
+            """)
+    int releaseAll(@Param("ownerId") String ownerId);
+
+    @Delete("DELETE FROM t_outbox_publisher WHERE owner_id = #{ownerId}")
+    int deletePublisher(@Param("ownerId") String ownerId);
+
+    @Select("""
+            SELECT shard FROM t_outbox_shard_lease
+             WHERE owner_id = #{ownerId} AND shard < #{shardCount} AND lease_until > UTC_TIMESTAMP(3)
+             ORDER BY shard
+            """)
+    List<Integer> ownedShards(@Param("ownerId") String ownerId, @Param("shardCount") int shardCount);
+}
@@ -18,10 +18,10 @@ import java.util.List;
 public interface ProblemMapper extends BaseMapper<Problem> {
 
     /**
-     * 获取题目列表，带标签和用户提交信息
+     * 获取题目列表；非管理员读取已发布目录 t_problem_catalog 并合并自己创建的题目
      *
      * @param page 分页参数
-     * @param keyword 关键字
+     * @param keyword 关键字，已去掉首尾空白并转义 LIKE 通配符；匹配题号、标题、来源和标签名
      * @param difficulty 难度
      * @param status 状态
      * @param tagIds 标签ID列表
@@ -36,45 +36,38 @@ public interface ProblemMapper extends BaseMapper<Problem> {
                                     @Param("userId") Long userId,
                                     @Param("canManageAll") boolean canManageAll);
 
-    @Select("SELECT * FROM t_problem WHERE id=#{problemId} AND is_deleted=0 FOR UPDATE")
-    Problem selectForUpdate(@Param("problemId") Long problemId);
-
-    @Select("""
-            SELECT CASE
-                     WHEN COUNT(*) = 0 THEN 0
-                     WHEN SUM(CASE WHEN status = 1 THEN 1 ELSE 0 END) > 0 THEN 1
-                     ELSE 2
-                   END
-            FROM t_submission
-            WHERE problem_id = #{problemId}
-              AND user_id = #{userId}
-              AND is_deleted = 0
-            """)
-    int getUserSubmitStatus(
-            @Param("problemId") Long problemId,
-            @Param("userId") Long userId);
-
     /**
-     * 通过题目编号查询题目
+     * 获取当前用户自己创建的全部匹配题目（实时字段，含私有草稿），按题号排序
      *
-     * @param problemNo 题目编号
-     * @return 题目
+     * @param keyword 关键字，已去掉首尾空白并转义 LIKE 通配符；匹配题号、标题、来源和标签名
+     * @param difficulty 难度
+     * @param status 状态
+     * @param tagIds 标签ID列表
+     * @param userId 当前用户ID
+     * @return 题目列表
      */
-    Problem getProblemByNo(@Param("problemNo") String problemNo);
+    List<ProblemVO> getOwnProblemList(@Param("keyword") String keyword,
+                                      @Param("difficulty") Integer difficulty,
+                                      @Param("status") Integer status,
+                                      @Param("tagIds") List<Long> tagIds,
+                                      @Param("userId") Long userId);
 
     /**
-     * 更新题目提交数
+     * 按题目ID读取公开目录行，已删除或已转为私有的题目不在结果中
      *
-     * @param problemId 题目ID
-     * @return 影响行数
+     * @param problemIds 题目ID列表，不能为空
+     * @return 题目列表，顺序不保证
      */
-    int incrementSubmitCount(@Param("problemId") Long problemId);
+    List<ProblemVO> getCatalogProblems(@Param("problemIds") List<Long> problemIds);
+
+    @Select("SELECT * FROM t_problem WHERE id=#{problemId} AND is_deleted=0 FOR UPDATE")
+    Problem selectForUpdate(@Param("problemId") Long problemId);
 
     /**
-     * 更新题目通过数
+     * 通过题目编号查询题目
      *
-     * @param problemId 题目ID
-     * @return 影响行数
+     * @param problemNo 题目编号
+     * @return 题目
      */
-    int incrementAcceptedCount(@Param("problemId") Long problemId);
+    Problem getProblemByNo(@Param("problemNo") String problemNo);
 }
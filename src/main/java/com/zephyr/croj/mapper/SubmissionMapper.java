@@ -4,9 +4,11 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.zephyr.croj.model.entity.Submission;
+import com.zephyr.croj.model.projection.ProblemUserStatusProjection;
 import com.zephyr.croj.model.vo.SubmissionVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
@@ -33,6 +35,32 @@ public interface SubmissionMapper extends BaseMapper<Submission> {
             @Param("judgeInfo") String judgeInfo,
             @Param("errorMessage") String errorMessage);
 
+    /**
+     * 按题目汇总用户的全部提交状态，用于重建用户题目状态位图
+     *
+     * @param userId 用户ID
+     * @return 题目ID与提交状态（1 已通过，2 尝试过）
+     */
+    @Select("""
+            SELECT problem_id AS problemId,
+                   MIN(CASE WHEN status = 1 THEN 1 ELSE 2 END) AS userStatus
+            FROM t_submission
+            WHERE user_id = #{userId} AND is_deleted = 0
+            GROUP BY problem_id
+            """)
+    List<ProblemUserStatusProjection> listUserProblemStatuses(@Param("userId") long userId);
+
+    /**
+     * 批量查询用户在指定题目上的提交状态，未提交过的题目不在结果中
+     *
+     * @param userId 用户ID
+     * @param problemIds 题目ID列表，不能为空
+     * @return 题目ID与提交状态（1 已通过，2 尝试过）
+     */
+    List<ProblemUserStatusProjection> listUserProblemStatusesIn(
+            @Param("userId") long userId,
+            @Param("problemIds") List<Long> problemIds);
+
     /**
      * 获取用户在某题目的最佳提交
      *
@@ -67,6 +95,24 @@ public interface SubmissionMapper extends BaseMapper<Submission> {
                                           @Param("language") String language,
                                           @Param("status") Integer status);
 
+    /**
+     * 按提交ID倒序游标分页查询提交记录，不统计总数，不关联题目和用户，也不读取代码、判题详情和错误信息
+     *
+     * @param userId 用户ID，可为null
+     * @param problemId 题目ID，可为null
+     * @param language 编程语言，可为null
+     * @param status 状态，可为null
+     * @param beforeId 只查询ID小于该值的提交，为null时从最新提交开始
+     * @param limit 最多返回条数
+     * @return 提交记录，按ID倒序
+     */
+    List<SubmissionVO> listSubmissionFeed(@Param("userId") Long userId,
+                                          @Param("problemId") Long problemId,
+                                          @Param("language") String language,
+                                          @Param("status") Integer status,
+                                          @Param("beforeId") Long beforeId,
+                                          @Param("limit") int limit);
+
     /**
      * 获取用户的提交统计
      *
@@ -0,0 +1,49 @@
+package com.zephyr.croj.mapper;
+
+import com.zephyr.croj.model.entity.TestBundleFile;
+import java.util.Collection;
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+@Mapper
+public interface TestBundleFileMapper {
+
+    @Select("""
+            <script>
+            SELECT sha256 FROM t_test_blob
+             WHERE sha256 IN <foreach collection="sha256s" item="sha256" open="(" separator="," close=")">#{sha256}</foreach>
+            </script>
+            """)
+    List<String> findStoredBlobs(@Param("sha256s") Collection<String> sha256s);
+
+    /** Registers blobs whose objects have been written; blobs registered by another upload are kept. */
+    @Insert("""
+            <script>
+            INSERT IGNORE INTO t_test_blob (sha256, size_bytes)
+            VALUES <foreach collection="files" item="file" separator=",">(#{file.blobSha256}, #{file.sizeBytes})</foreach>
+            </script>
+            """)
+    int registerBlobs(@Param("files") Collection<TestBundleFile> files);
+
+    @Insert("""
+            <script>
+            INSERT INTO t_test_bundle_file (problem_version_id, path, blob_sha256)
+            VALUES <foreach collection="files" item="file" separator=",">
+              (#{file.problemVersionId}, #{file.path}, #{file.blobSha256})
+            </foreach>
+            </script>
+            """)
+    int insertAll(@Param("files") List<TestBundleFile> files);
+
+    @Select("""
+            SELECT f.problem_version_id, f.path, f.blob_sha256, b.size_bytes
+              FROM t_test_bundle_file f
+              JOIN t_test_blob b ON b.sha256 = f.blob_sha256
+             WHERE f.problem_version_id = #{versionId}
+             ORDER BY f.path
+            """)
+    List<TestBundleFile> findByProblemVersionId(@Param("versionId") long versionId);
+}
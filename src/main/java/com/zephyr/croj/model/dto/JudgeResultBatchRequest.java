@@ -0,0 +1,13 @@
+package com.zephyr.croj.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class JudgeResultBatchRequest {
+    @NotEmpty @Size(max = 200)
+    private List<@Valid JudgeResultRequest> results;
+}
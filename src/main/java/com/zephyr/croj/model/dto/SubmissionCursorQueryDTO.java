@@ -0,0 +1,51 @@
+package com.zephyr.croj.model.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 提交记录游标分页查询参数数据传输对象
+ */
+@Data
+public class SubmissionCursorQueryDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 题目ID
+     */
+    private Long problemId;
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 提交状态：0-排队中，1-已通过，2-编译错误，3-答案错误，4-运行超时，5-内存超限，6-运行错误，7-系统错误
+     */
+    private Integer status;
+
+    /**
+     * 编程语言
+     */
+    private String language;
+
+    /**
+     * 游标：只返回ID小于该值的提交，为空时从最新提交开始
+     */
+    @Min(value = 1, message = "游标不能小于1")
+    private Long beforeId;
+
+    /**
+     * 每页数量
+     */
+    @Min(value = 1, message = "每页数量不能小于1")
+    @Max(value = 100, message = "每页数量不能大于100")
+    private int size = 10;
+}
@@ -14,6 +14,7 @@ public class OutboxEvent {
     private String id;
     private String aggregateType;
     private Long aggregateId;
+    private Integer shard;
     private String eventType;
     private String payload;
     private LocalDateTime createdAt;
@@ -0,0 +1,17 @@
+package com.zephyr.croj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+@Data
+@TableName("t_outbox_shard_lease")
+public class OutboxShardLease {
+
+    @TableId(type = IdType.INPUT)
+    private Integer shard;
+    private String ownerId;
+    private LocalDateTime leaseUntil;
+}
@@ -14,6 +14,7 @@ public class TestBundle {
     private Long id;
     private Long problemVersionId;
     private String objectKey;
+    private String layout;
     private String sha256;
     private Long sizeBytes;
     private String manifestJson;
@@ -0,0 +1,17 @@
+package com.zephyr.croj.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("t_test_bundle_file")
+public class TestBundleFile {
+    private Long problemVersionId;
+    private String path;
+    private String blobSha256;
+    private Long sizeBytes;
+}
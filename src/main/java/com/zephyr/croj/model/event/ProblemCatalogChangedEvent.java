@@ -0,0 +1,9 @@
+package com.zephyr.croj.model.event;
+
+/**
+ * 题目在公开目录中的条目或可见性已变更（发布新版本、删除等）；监听方应使用
+ * {@code @TransactionalEventListener}，仅在提交后重新读取该题目。
+ *
+ * @param problemId 题目ID
+ */
+public record ProblemCatalogChangedEvent(long problemId) {}
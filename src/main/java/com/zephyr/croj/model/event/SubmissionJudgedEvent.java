@@ -0,0 +1,18 @@
+package com.zephyr.croj.model.event;
+
+/**
+ * 评测结果已落库；监听方应使用 {@code @TransactionalEventListener}，仅在提交后读取最新状态。
+ *
+ * @param contestId 所属比赛；普通题库提交为空
+ * @param status 提交状态码，见 {@link com.zephyr.croj.common.enums.SubmissionStatusEnum}
+ * @param score OI 得分；ACM 提交为空
+ * @param scoreboardRevision 本次评测写入后的比赛榜单修订号；普通题库提交为空
+ */
+public record SubmissionJudgedEvent(
+        long submissionId,
+        long userId,
+        long problemId,
+        Long contestId,
+        int status,
+        Integer score,
+        Long scoreboardRevision) {}
@@ -0,0 +1,5 @@
+package com.zephyr.croj.model.projection;
+
+public record ProblemUserStatusProjection(
+        long problemId,
+        int userStatus) {}
@@ -0,0 +1,13 @@
+package com.zephyr.croj.model.vo;
+
+/**
+ * One item of a batched judge result ingestion.
+ *
+ * @param disposition {@code APPLIED}, {@code DUPLICATE} or {@code CONFLICT}
+ * @param message why a conflicting item was rejected; {@code null} otherwise
+ */
+public record JudgeResultItemResponse(String resultId, String disposition, String message) {
+    public static JudgeResultItemResponse conflict(String resultId, String message) {
+        return new JudgeResultItemResponse(resultId, "CONFLICT", message);
+    }
+}
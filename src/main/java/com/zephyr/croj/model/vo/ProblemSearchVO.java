@@ -0,0 +1,56 @@
+package com.zephyr.croj.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 题目搜索结果视图对象：当前页题目及全部匹配结果上的标签、难度分面统计
+ */
+@Data
+public class ProblemSearchVO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前页题目
+     */
+    private List<ProblemListItemVO> records;
+
+    /**
+     * 匹配总数
+     */
+    private long total;
+
+    /**
+     * 当前页码
+     */
+    private long current;
+
+    /**
+     * 每页数量
+     */
+    private long size;
+
+    /**
+     * 标签分面（不受标签筛选影响，按题目数降序）
+     */
+    private List<TagFacet> tagFacets;
+
+    /**
+     * 难度分面（不受难度筛选影响，按难度升序）
+     */
+    private List<DifficultyFacet> difficultyFacets;
+
+    /**
+     * 标签分面项
+     */
+    public record TagFacet(Long tagId, String name, int count) implements Serializable {}
+
+    /**
+     * 难度分面项
+     */
+    public record DifficultyFacet(Integer difficulty, int count) implements Serializable {}
+}
@@ -0,0 +1,26 @@
+package com.zephyr.croj.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 提交记录游标分页结果视图对象：不统计总数，按提交ID倒序
+ */
+@Data
+public class SubmissionCursorVO implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 当前页提交记录，不含代码、判题详情和错误信息
+     */
+    private List<SubmissionVO> records;
+
+    /**
+     * 下一页游标，作为下次请求的 beforeId；为 null 表示没有更多记录
+     */
+    private Long nextBeforeId;
+}
@@ -2,14 +2,18 @@ package com.zephyr.croj.outbox;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.config.properties.OutboxProperties;
 import com.zephyr.croj.mapper.OutboxEventMapper;
 import com.zephyr.croj.model.entity.OutboxEvent;
 import com.zephyr.croj.model.entity.Submission;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Component
 @RequiredArgsConstructor
@@ -17,19 +21,54 @@ public class DatabaseSubmissionOutbox implements SubmissionOutbox {
 
     private final OutboxEventMapper mapper;
     private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final OutboxWakeup wakeup;
 
     @Override
     public void enqueue(Submission submission) {
+        OutboxEvent event = event(submission);
+        if (mapper.insert(event) != 1) {
+            throw new IllegalStateException("Failed to persist submission outbox event");
+        }
+        signalAfterCommit(List.of(event.getId()));
+    }
+
+    @Override
+    public void enqueueAll(List<Submission> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> events = submissions.stream().map(this::event).toList();
+        if (mapper.insertAll(events) != events.size()) {
+            throw new IllegalStateException("Failed to persist submission outbox events");
+        }
+        signalAfterCommit(events.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private OutboxEvent event(Submission submission) {
         OutboxEvent event = new OutboxEvent();
         event.setId(UUID.randomUUID().toString());
         event.setAggregateType("SUBMISSION");
         event.setAggregateId(submission.getId());
+        event.setShard(Math.floorMod(submission.getId(), properties.getShardCount()));
         event.setEventType("SubmissionRequested");
         event.setPayload(serialize(event.getId(), submission));
         event.setAttempts(0);
-        if (mapper.insert(event) != 1) {
-            throw new IllegalStateException("Failed to persist submission outbox event");
+        return event;
+    }
+
+    /** Wakes the publisher once the events are visible to it; rolled-back events never signal. */
+    private void signalAfterCommit(List<String> eventIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventIds.forEach(wakeup::committed);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventIds.forEach(wakeup::committed);
+            }
+        });
     }
 
     private String serialize(String eventId, Submission submission) {
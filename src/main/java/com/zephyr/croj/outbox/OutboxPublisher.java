@@ -3,62 +3,241 @@ package com.zephyr.croj.outbox;
 import com.zephyr.croj.config.properties.OutboxProperties;
 import com.zephyr.croj.mapper.OutboxEventMapper;
 import com.zephyr.croj.model.entity.OutboxEvent;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
 import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.client.producer.SendStatus;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
 
+/**
+ * Drains the submission outbox in batches: one statement claims up to {@code batch-size} rows, all
+ * of them are sent to RocketMQ concurrently and the successful ones are marked published with one
+ * more statement. Failed or timed-out sends are released with a back-off and retried later, so
+ * delivery stays at-least-once; consumers deduplicate by {@code eventId}.
+ *
+ * <p>Rows are spread over {@code shard-count} shards by submission ID and a publisher only claims
+ * from the shards it holds a lease on, so replicas do not contend on the same pending rows.
+ *
+ * <p>Events are normally published right after their transaction commits: the outbox hands their
+ * IDs to {@link OutboxWakeup} and the publisher thread claims exactly those rows, whatever their
+ * shard. The shard sweep remains as the fallback for missed wakeups, retries and other replicas'
+ * events; it runs every {@code poll-interval} while it finds work and backs off exponentially to
+ * {@code max-poll-interval} while the outbox is empty.
+ */
 @Component
 @RequiredArgsConstructor
 @ConditionalOnProperty(prefix = "app.outbox", name = "enabled", matchIfMissing = true)
 @Slf4j
-public class OutboxPublisher {
+public class OutboxPublisher implements SmartLifecycle {
 
     private static final int MAX_ERROR_LENGTH = 1000;
 
     private final OutboxEventMapper mapper;
     private final RocketMQTemplate rocketMq;
     private final OutboxProperties properties;
+    private final OutboxShardLeases leases;
+    private final OutboxWakeup wakeup;
+    private volatile Thread worker;
 
-    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
-    public void publishPending() {
-        for (int index = 0; index < properties.getBatchSize(); index++) {
-            String claimId = UUID.randomUUID().toString();
-            if (mapper.claimNext(claimId, properties.getClaimTimeout().toSeconds()) == 0) {
-                return;
-            }
-            OutboxEvent event = mapper.findClaimed(claimId);
-            if (event == null) {
-                continue;
-            }
+    @Override
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        worker = new Thread(this::run, "outbox-publisher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread running;
+        synchronized (this) {
+            running = worker;
+            worker = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.interrupt();
+        try {
+            running.join(properties.getPublishTimeout().plusSeconds(1).toMillis());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        long pollNanos = properties.getPollInterval().toNanos();
+        long maxPollNanos = properties.getMaxPollInterval().toNanos();
+        long sweepDelay = pollNanos;
+        long nextSweep = System.nanoTime();
+        while (worker == Thread.currentThread()) {
             try {
-                SendResult result = rocketMq.syncSend(
-                        properties.getSubmissionTopic(),
-                        event.getPayload(),
-                        properties.getPublishTimeout().toMillis());
-                if (result == null || result.getSendStatus() != SendStatus.SEND_OK) {
-                    throw new IllegalStateException("RocketMQ send status: "
-                            + (result == null ? "UNKNOWN" : result.getSendStatus()));
+                List<String> committed = wakeup.await(Math.max(0L, nextSweep - System.nanoTime()));
+                if (!committed.isEmpty()) {
+                    publishCommitted(committed);
+                    sweepDelay = pollNanos;
+                    nextSweep = Math.min(nextSweep, System.nanoTime() + pollNanos);
+                }
+                if (System.nanoTime() - nextSweep >= 0) {
+                    sweepDelay = publishPending() > 0 ? pollNanos : Math.min(sweepDelay * 2, maxPollNanos);
+                    nextSweep = System.nanoTime() + sweepDelay;
                 }
-                mapper.markPublished(event.getId(), claimId);
+            } catch (InterruptedException exception) {
+                return;
             } catch (RuntimeException exception) {
-                int attempts = event.getAttempts() == null ? 0 : event.getAttempts();
-                long delaySeconds = Math.min(300L, 1L << Math.min(attempts, 8));
-                String error = exception.getMessage() == null
-                        ? exception.getClass().getSimpleName()
-                        : exception.getMessage();
-                mapper.releaseAfterFailure(
-                        event.getId(),
-                        claimId,
-                        delaySeconds,
-                        error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)));
-                log.warn("Outbox event {} publication failed; retry scheduled", event.getId(), exception);
+                log.warn("Outbox publication round failed; retrying after the poll interval", exception);
+                nextSweep = System.nanoTime() + pollNanos;
+            }
+        }
+    }
+
+    /** Publishes freshly committed events by ID, without waiting for the shard sweep. */
+    public void publishCommitted(List<String> eventIds) {
+        for (int from = 0; from < eventIds.size(); from += properties.getBatchSize()) {
+            List<String> chunk = eventIds.subList(from, Math.min(eventIds.size(), from + properties.getBatchSize()));
+            String claimId = UUID.randomUUID().toString();
+            if (mapper.claimByIds(chunk, claimId, properties.getClaimTimeout().toSeconds()) > 0) {
+                settle(claimId);
             }
         }
     }
+
+    /** Sweeps the owned shards until they are drained; returns the number of rows claimed. */
+    public int publishPending() {
+        List<Integer> shards = leases.refresh();
+        if (shards.isEmpty()) {
+            return 0;
+        }
+        if (shards.get(0) == 0) {
+            mapper.rehomeShards(properties.getShardCount(), properties.getBatchSize());
+        }
+        int total = 0;
+        int claimed;
+        do {
+            claimed = publishBatch(shards);
+            total += claimed;
+        } while (claimed >= properties.getBatchSize());
+        return total;
+    }
+
+    /** Claims, sends and settles one batch from {@code shards}; returns the number of rows claimed. */
+    private int publishBatch(List<Integer> shards) {
+        String claimId = UUID.randomUUID().toString();
+        int claimed = mapper.claimBatch(
+                shards, claimId, properties.getClaimTimeout().toSeconds(), properties.getBatchSize());
+        if (claimed > 0) {
+            settle(claimId);
+        }
+        return claimed;
+    }
+
+    /** Sends every row held by {@code claimId} and records each outcome. */
+    private void settle(String claimId) {
+        List<OutboxEvent> events = mapper.findClaimed(claimId);
+        List<CompletableFuture<SendResult>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(event));
+        }
+        awaitAll(sends);
+
+        List<String> published = new ArrayList<>(events.size());
+        for (int index = 0; index < events.size(); index++) {
+            OutboxEvent event = events.get(index);
+            RuntimeException failure = failure(sends.get(index));
+            if (failure == null) {
+                published.add(event.getId());
+            } else {
+                release(event, claimId, failure);
+            }
+        }
+        if (!published.isEmpty()) {
+            mapper.markPublished(claimId, published);
+        }
+    }
+
+    private CompletableFuture<SendResult> send(OutboxEvent event) {
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+        try {
+            rocketMq.asyncSend(
+                    properties.getSubmissionTopic(),
+                    event.getPayload(),
+                    new SendCallback() {
+                        @Override
+                        public void onSuccess(SendResult result) {
+                            future.complete(result);
+                        }
+
+                        @Override
+                        public void onException(Throwable exception) {
+                            future.completeExceptionally(exception);
+                        }
+                    },
+                    properties.getPublishTimeout().toMillis());
+        } catch (RuntimeException exception) {
+            future.completeExceptionally(exception);
+        }
+        return future;
+    }
+
+    /** Waits for every send of the batch, bounded by the publish timeout plus a small grace period. */
+    private void awaitAll(List<CompletableFuture<SendResult>> sends) {
+        long deadline = System.nanoTime() + properties.getPublishTimeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            // Individual outcomes are inspected per event; unfinished sends count as failures.
+        }
+    }
+
+    private RuntimeException failure(CompletableFuture<SendResult> send) {
+        if (!send.isDone()) {
+            return new IllegalStateException("RocketMQ send timed out");
+        }
+        try {
+            SendResult result = send.join();
+            if (result == null || result.getSendStatus() != SendStatus.SEND_OK) {
+                return new IllegalStateException("RocketMQ send status: "
+                        + (result == null ? "UNKNOWN" : result.getSendStatus()));
+            }
+            return null;
+        } catch (RuntimeException exception) {
+            Throwable cause = exception.getCause() == null ? exception : exception.getCause();
+            return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    private void release(OutboxEvent event, String claimId, RuntimeException exception) {
+        int attempts = event.getAttempts() == null ? 0 : event.getAttempts();
+        long delaySeconds = Math.min(300L, 1L << Math.min(attempts, 8));
+        String error = exception.getMessage() == null
+                ? exception.getClass().getSimpleName()
+                : exception.getMessage();
+        mapper.releaseAfterFailure(
+                event.getId(),
+                claimId,
+                delaySeconds,
+                error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)));
+        log.warn("Outbox event {} publication failed; retry scheduled", event.getId(), exception);
+    }
 }
@@ -0,0 +1,75 @@
+package com.zephyr.croj.outbox;
+
+import com.zephyr.croj.config.properties.OutboxProperties;
+import com.zephyr.croj.mapper.OutboxShardLeaseMapper;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database leases over the outbox shards. Every publisher heartbeats in {@code t_outbox_publisher},
+ * takes free or expired shards up to its fair share of the live publishers and hands surplus shards
+ * back, so replicas converge on disjoint shard sets and each submission's events are claimed by one
+ * replica at a time.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", matchIfMissing = true)
+@Slf4j
+public class OutboxShardLeases implements DisposableBean {
+
+    private final OutboxShardLeaseMapper mapper;
+    private final OutboxProperties properties;
+    private final String ownerId;
+    private volatile boolean shardsEnsured;
+
+    @Autowired
+    public OutboxShardLeases(OutboxShardLeaseMapper mapper, OutboxProperties properties) {
+        this(mapper, properties, UUID.randomUUID().toString());
+    }
+
+    OutboxShardLeases(OutboxShardLeaseMapper mapper, OutboxProperties properties, String ownerId) {
+        this.mapper = mapper;
+        this.properties = properties;
+        this.ownerId = ownerId;
+    }
+
+    /** Renews, rebalances and returns the shards this publisher currently owns. */
+    public List<Integer> refresh() {
+        int shardCount = properties.getShardCount();
+        long leaseSeconds = properties.getShardLease().toSeconds();
+        if (!shardsEnsured) {
+            mapper.ensureShards(IntStream.range(0, shardCount).boxed().toList());
+            shardsEnsured = true;
+        }
+        mapper.heartbeat(ownerId);
+        mapper.renew(ownerId, shardCount, leaseSeconds);
+        int publishers = Math.max(1, mapper.countLivePublishers(leaseSeconds));
+        int fairShare = (shardCount + publishers - 1) / publishers;
+        List<Integer> owned = mapper.ownedShards(ownerId, shardCount);
+        if (owned.size() > fairShare) {
+            mapper.release(ownerId, owned.size() - fairShare);
+            owned = mapper.ownedShards(ownerId, shardCount);
+        } else if (owned.size() < fairShare
+                && mapper.acquire(ownerId, shardCount, leaseSeconds, fairShare - owned.size()) > 0) {
+            owned = mapper.ownedShards(ownerId, shardCount);
+        }
+        mapper.deleteStalePublishers(leaseSeconds * 10);
+        return owned;
+    }
+
+    /** Hands every shard back so that the remaining publishers take over without waiting for expiry. */
+    @Override
+    public void destroy() {
+        try {
+            mapper.releaseAll(ownerId);
+            mapper.deletePublisher(ownerId);
+        } catch (RuntimeException exception) {
+            log.warn("Unable to release outbox shard leases for {}; they expire on their own", ownerId, exception);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.zephyr.croj.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands the IDs of freshly committed outbox events to the in-process publisher. The queue is
+ * bounded; an ID that does not fit, or that arrives while the publisher is disabled, is simply
+ * picked up by the next sweep.
+ */
+@Component
+public class OutboxWakeup {
+
+    private static final int CAPACITY = 10_000;
+
+    private final BlockingQueue<String> committed = new LinkedBlockingQueue<>(CAPACITY);
+
+    public void committed(String eventId) {
+        committed.offer(eventId);
+    }
+
+    /** Waits up to {@code timeoutNanos} for committed events and returns every ID queued so far. */
+    List<String> await(long timeoutNanos) throws InterruptedException {
+        String first = committed.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<String> eventIds = new ArrayList<>();
+        eventIds.add(first);
+        committed.drainTo(eventIds);
+        return eventIds;
+    }
+}
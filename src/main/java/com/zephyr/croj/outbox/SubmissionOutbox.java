@@ -1,8 +1,12 @@
 package com.zephyr.croj.outbox;
 
 import com.zephyr.croj.model.entity.Submission;
+import java.util.List;
 
 public interface SubmissionOutbox {
 
     void enqueue(Submission submission);
+
+    /** Enqueues every submission with a single statement in the caller's transaction. */
+    void enqueueAll(List<Submission> submissions);
 }
@@ -60,7 +60,7 @@ public class AdminTestBundleService {
     }
 
     @Transactional
-    public View upload(long problemId, long versionId, String ifMatch, byte[] archive) {
+    public View upload(long problemId, long versionId, String ifMatch, TestBundleUpload archive) {
         View current = load(problemId, versionId, true);
         assertPrecondition(ifMatch, current.etag());
         if (!"DRAFT".equals(current.state())) {
@@ -0,0 +1,137 @@
+package com.zephyr.croj.problem;
+
+import com.zephyr.croj.config.properties.ProblemSearchProperties;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the {@link ProblemSearchIndex} of this replica. The index is built on startup, patched after
+ * every committed catalog change made through this replica, and rebuilt on a fixed delay so that
+ * publications on other replicas and tag renames converge. Until the first build completes there
+ * is no index and callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class ProblemCatalogSearch {
+    private static final String ENTRIES = """
+            SELECT c.problem_id,c.problem_no,c.title,c.source,c.difficulty,c.create_user_id
+            FROM t_problem_catalog c
+            JOIN t_problem p ON p.id=c.problem_id
+            WHERE p.is_deleted=0 AND p.status=0
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final Object lock = new Object();
+    private volatile ProblemSearchIndex index;
+    /** Problems changed while a rebuild reads the catalog; re-read before the rebuild is installed. */
+    private Set<Long> changedDuringRefresh;
+
+    public ProblemCatalogSearch(JdbcTemplate jdbc, ProblemSearchProperties properties) {
+        this.jdbc = jdbc;
+        this.enabled = properties.isEnabled();
+    }
+
+    /** Returns the current index, or empty while it is disabled or not yet built. */
+    public Optional<ProblemSearchIndex> current() {
+        return Optional.ofNullable(index);
+    }
+
+    @Scheduled(fixedDelayString = "${app.problem.search.refresh-interval:PT1M}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            changedDuringRefresh = new HashSet<>();
+        }
+        ProblemSearchIndex rebuilt = null;
+        try {
+            rebuilt = ProblemSearchIndex.build(loadEntries(null), loadTagNames());
+        } catch (RuntimeException exception) {
+            log.warn("problem search index rebuild failed, keeping the previous index", exception);
+        }
+        synchronized (lock) {
+            Set<Long> changed = changedDuringRefresh;
+            changedDuringRefresh = null;
+            if (rebuilt == null) {
+                return;
+            }
+            for (Long problemId : changed) {
+                rebuilt = patch(rebuilt, problemId);
+            }
+            index = rebuilt;
+        }
+    }
+
+    /** Re-reads one problem after its catalog row or visibility changed. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProblemCatalogChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            if (changedDuringRefresh != null) {
+                changedDuringRefresh.add(event.problemId());
+            }
+            if (index != null) {
+                index = patch(index, event.problemId());
+            }
+        }
+    }
+
+    private ProblemSearchIndex patch(ProblemSearchIndex current, long problemId) {
+        try {
+            List<ProblemSearchIndex.Entry> entries = loadEntries(problemId);
+            return entries.isEmpty() ? current.without(problemId) : current.with(entries.get(0));
+        } catch (RuntimeException exception) {
+            log.warn("problem search index update failed until the next rebuild: problemId={}", problemId, exception);
+            return current;
+        }
+    }
+
+    private List<ProblemSearchIndex.Entry> loadEntries(Long problemId) {
+        Map<Long, List<Long>> tags = new HashMap<>();
+        jdbc.query(
+                problemId == null
+                        ? "SELECT problem_id,tag_id FROM t_problem_catalog_tag"
+                        : "SELECT problem_id,tag_id FROM t_problem_catalog_tag WHERE problem_id=?",
+                result -> {
+                    tags.computeIfAbsent(result.getLong("problem_id"), key -> new ArrayList<>())
+                            .add(result.getLong("tag_id"));
+                },
+                problemId == null ? new Object[0] : new Object[] {problemId});
+        return jdbc.query(
+                problemId == null ? ENTRIES : ENTRIES + " AND c.problem_id=?",
+                (result, row) -> new ProblemSearchIndex.Entry(
+                        result.getLong("problem_id"),
+                        result.getString("problem_no"),
+                        result.getString("title"),
+                        result.getString("source"),
+                        result.getInt("difficulty"),
+                        result.getLong("create_user_id"),
+                        tags.getOrDefault(result.getLong("problem_id"), List.of())),
+                problemId == null ? new Object[0] : new Object[] {problemId});
+    }
+
+    private Map<Long, String> loadTagNames() {
+        Map<Long, String> names = new HashMap<>();
+        jdbc.query(
+                "SELECT id,name FROM t_problem_tag WHERE is_deleted=0",
+                result -> {
+                    names.put(result.getLong("id"), result.getString("name"));
+                });
+        return names;
+    }
+}
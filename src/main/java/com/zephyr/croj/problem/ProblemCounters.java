@@ -0,0 +1,246 @@
+package com.zephyr.croj.problem;
+
+import com.zephyr.croj.config.properties.ProblemCounterProperties;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Submit and accept counters of {@code t_problem}, coalesced in memory instead of being incremented
+ * inside every submission and judge-result transaction, where all submissions of a hot problem
+ * queued on the same row lock.
+ *
+ * <p>Committed increments land in per-problem {@link LongAdder}s and a flusher writes the difference
+ * to what it already wrote as one batch per interval, in problem id order, and once more on
+ * shutdown. A failed batch is retried by the next flush. Deltas that were never written because the
+ * process died are repaired by {@link #reconcile()}, which recounts every problem from the
+ * {@code (problem_id, status)} index of {@code t_submission} on startup and periodically. Another
+ * replica's deltas still in memory at that moment are counted twice until the next reconciliation,
+ * so the error is bounded by one flush interval of submissions.
+ *
+ * <p>With write-behind disabled the counters are incremented directly in the caller's transaction.
+ */
+@Slf4j
+@Component
+public class ProblemCounters {
+    private static final String ADD = """
+            UPDATE t_problem SET submit_count=submit_count+?, accepted_count=accepted_count+? WHERE id=?
+            """;
+    private static final String RECOUNT = """
+            SELECT problem_id, COUNT(*) AS submitted, SUM(CASE WHEN status=1 THEN 1 ELSE 0 END) AS accepted
+            FROM t_submission
+            GROUP BY problem_id
+            """;
+    private static final String REPAIR = """
+            UPDATE t_problem SET submit_count=?, accepted_count=?
+            WHERE id=? AND submit_count=? AND accepted_count=?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate flushTransaction;
+    private final boolean writeBehind;
+    private final ConcurrentMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    @Autowired
+    public ProblemCounters(
+            JdbcTemplate jdbc, ProblemCounterProperties properties, PlatformTransactionManager transactionManager) {
+        this(jdbc, new TransactionTemplate(transactionManager), properties.isWriteBehind());
+    }
+
+    /** @param flushTransaction wraps every batch so that it is written completely or not at all */
+    public ProblemCounters(JdbcTemplate jdbc, TransactionTemplate flushTransaction, boolean writeBehind) {
+        this.jdbc = jdbc;
+        this.flushTransaction = flushTransaction;
+        this.writeBehind = writeBehind;
+    }
+
+    /** Counts a new submission once the surrounding transaction commits. */
+    public void submitted(long problemId) {
+        record(problemId, 1, 0);
+    }
+
+    /** Counts an accepted verdict once the surrounding transaction commits. */
+    public void accepted(long problemId) {
+        record(problemId, 0, 1);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.problem.counters.flush-interval:PT1S}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<Delta> deltas = new ArrayList<>();
+            pending.forEach((problemId, counters) -> {
+                Delta delta = counters.unwritten(problemId);
+                if (delta.submitted() != 0 || delta.accepted() != 0) {
+                    deltas.add(delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                return;
+            }
+            // 固定加锁顺序，避免多个副本的批次在 t_problem 行锁上互相死锁。
+            deltas.sort(Comparator.comparingLong(Delta::problemId));
+            try {
+                flushTransaction.executeWithoutResult(status -> jdbc.batchUpdate(
+                        ADD,
+                        deltas,
+                        deltas.size(),
+                        (statement, delta) -> {
+                            statement.setLong(1, delta.submitted());
+                            statement.setLong(2, delta.accepted());
+                            statement.setLong(3, delta.problemId());
+                        }));
+            } catch (RuntimeException exception) {
+                log.warn("problem counter flush failed, retrying with the next flush: problems={}",
+                        deltas.size(), exception);
+                return;
+            }
+            deltas.forEach(delta -> pending.get(delta.problemId()).written(delta));
+        }
+    }
+
+    /**
+     * Sets every drifted counter to its count in {@code t_submission}. The counts are read with a
+     * plain consistent read, so submissions are never blocked, and written back only if the counter
+     * still holds the value read next to them; a counter that a flush moved meanwhile, or whose
+     * problem recorded an increment while the counts were read, waits for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.problem.counters.reconcile-interval:PT1H}")
+    public void reconcile() {
+        if (!writeBehind) {
+            return;
+        }
+        synchronized (flushLock) {
+            try {
+                repair();
+            } catch (RuntimeException exception) {
+                log.warn("problem counter reconciliation failed", exception);
+            }
+        }
+    }
+
+    private void repair() {
+        // 先记下本进程的累计值：此前记录的增量对应的提交都已提交，必然包含在随后的计数中。
+        Map<Long, Delta> totals = new HashMap<>();
+        pending.forEach((problemId, counters) -> totals.put(problemId, counters.total(problemId)));
+        Map<Long, long[]> truth = new HashMap<>();
+        jdbc.query(RECOUNT, result -> {
+            truth.put(result.getLong("problem_id"), new long[] {result.getLong("submitted"), result.getLong("accepted")});
+        });
+        // 计数期间又记录了增量的题目：该提交可能已在计数中，但增量不在 totals 里，修复后 flush 会再加一次，留待下一轮。
+        Set<Long> moved = new HashSet<>();
+        pending.forEach((problemId, counters) -> {
+            if (!counters.total(problemId).equals(totals.get(problemId))) {
+                moved.add(problemId);
+            }
+        });
+        List<long[]> drifted = new ArrayList<>();
+        List<Long> settled = new ArrayList<>();
+        jdbc.query("SELECT id, submit_count, accepted_count FROM t_problem ORDER BY id", result -> {
+            long problemId = result.getLong("id");
+            if (moved.contains(problemId)) {
+                return;
+            }
+            long[] counted = truth.getOrDefault(problemId, new long[2]);
+            long submitted = result.getLong("submit_count");
+            long accepted = result.getLong("accepted_count");
+            if (submitted == counted[0] && accepted == counted[1]) {
+                settled.add(problemId);
+            } else {
+                drifted.add(new long[] {problemId, counted[0], counted[1], submitted, accepted});
+            }
+        });
+        int repaired = 0;
+        for (long[] row : drifted) {
+            if (jdbc.update(REPAIR, row[1], row[2], row[0], row[3], row[4]) > 0) {
+                settled.add(row[0]);
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            log.info("problem counters reconciled with t_submission: repaired={}", repaired);
+        }
+        for (Long problemId : settled) {
+            Pending counters = pending.get(problemId);
+            Delta total = totals.get(problemId);
+            if (counters != null && total != null) {
+                counters.writtenUpTo(total);
+            }
+        }
+    }
+
+    private void record(long problemId, int submitted, int accepted) {
+        if (!writeBehind) {
+            jdbc.update(ADD, submitted, accepted, problemId);
+            return;
+        }
+        Runnable add = () -> {
+            Pending counters = pending.computeIfAbsent(problemId, key -> new Pending());
+            if (submitted != 0) {
+                counters.submitted.add(submitted);
+            }
+            if (accepted != 0) {
+                counters.accepted.add(accepted);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add.run();
+            }
+        });
+    }
+
+    private record Delta(long problemId, long submitted, long accepted) {}
+
+    /**
+     * Counters only grow; the written totals are advanced by the flusher alone, under the flush lock.
+     * A sum that misses an increment still in flight picks it up on the next flush.
+     */
+    private static final class Pending {
+        final LongAdder submitted = new LongAdder();
+        final LongAdder accepted = new LongAdder();
+        long writtenSubmitted;
+        long writtenAccepted;
+
+        Delta total(long problemId) {
+            return new Delta(problemId, submitted.sum(), accepted.sum());
+        }
+
+        Delta unwritten(long problemId) {
+            return new Delta(problemId, submitted.sum() - writtenSubmitted, accepted.sum() - writtenAccepted);
+        }
+
+        void written(Delta delta) {
+            writtenSubmitted += delta.submitted();
+            writtenAccepted += delta.accepted();
+        }
+
+        void writtenUpTo(Delta total) {
+            writtenSubmitted = Math.max(writtenSubmitted, total.submitted());
+            writtenAccepted = Math.max(writtenAccepted, total.accepted());
+        }
+    }
+}
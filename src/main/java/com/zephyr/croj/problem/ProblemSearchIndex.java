@@ -0,0 +1,301 @@
+package com.zephyr.croj.problem;
+
+import java.text.Normalizer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable inverted index over the public problem catalog. A problem matches a keyword when its
+ * number, title or source contains the keyword, or when it carries a tag whose name does. Texts and
+ * keyword are NFKC-normalized and lower-cased, and the keyword is stripped; these folds approximate
+ * the case- and width-insensitive collation the SQL fallback relies on, so the two agree on ordinary
+ * titles but may differ on accents, which the collation also ignores.
+ *
+ * <p>Numbers, titles and sources are split into code point unigrams and bigrams, so CJK titles need
+ * no word segmentation; a keyword is looked up by intersecting the posting lists of its grams and
+ * every candidate is then checked for the whole keyword as a substring.
+ *
+ * <p>Documents are numbered in problem number order, so posting lists and results come out sorted
+ * without a final sort. Updates copy the index; the catalog changes only on publication.
+ */
+public final class ProblemSearchIndex {
+    private static final int[] NONE = new int[0];
+
+    private final List<Entry> entries;
+    private final Map<Long, Integer> ordinals;
+    private final String[] texts;
+    private final Map<String, int[]> postings;
+    private final Map<Long, int[]> tagPostings;
+    private final Map<Long, String> tagNames;
+    private final Map<Long, String> normalizedTagNames;
+
+    private ProblemSearchIndex(Collection<Entry> source, Map<Long, String> tagNames) {
+        List<Entry> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(Entry::problemNo).thenComparingLong(Entry::problemId));
+        this.entries = List.copyOf(sorted);
+        this.ordinals = new HashMap<>();
+        this.texts = new String[entries.size()];
+        Map<String, IntList> grams = new HashMap<>();
+        Map<Long, IntList> tags = new HashMap<>();
+        for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+            Entry entry = entries.get(ordinal);
+            ordinals.put(entry.problemId(), ordinal);
+            texts[ordinal] = normalize(entry.problemNo()) + '\n' + normalize(entry.title()) + '\n'
+                    + normalize(entry.source());
+            for (String gram : grams(texts[ordinal])) {
+                grams.computeIfAbsent(gram, key -> new IntList()).addOnce(ordinal);
+            }
+            for (Long tagId : entry.tagIds()) {
+                tags.computeIfAbsent(tagId, key -> new IntList()).addOnce(ordinal);
+            }
+        }
+        this.postings = new HashMap<>(grams.size() * 4 / 3 + 1);
+        grams.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        this.tagPostings = new HashMap<>();
+        tags.forEach((tagId, list) -> tagPostings.put(tagId, list.toArray()));
+        this.tagNames = Map.copyOf(tagNames);
+        this.normalizedTagNames = new HashMap<>();
+        tagNames.forEach((tagId, name) -> normalizedTagNames.put(tagId, normalize(name)));
+    }
+
+    public static ProblemSearchIndex build(Collection<Entry> entries, Map<Long, String> tagNames) {
+        return new ProblemSearchIndex(entries, tagNames);
+    }
+
+    /** Returns a copy in which {@code entry} replaces any entry of the same problem. */
+    public ProblemSearchIndex with(Entry entry) {
+        Map<Long, Entry> next = byProblem();
+        next.put(entry.problemId(), entry);
+        return new ProblemSearchIndex(next.values(), tagNames);
+    }
+
+    /** Returns a copy without {@code problemId}, or this index when it is not listed. */
+    public ProblemSearchIndex without(long problemId) {
+        if (!ordinals.containsKey(problemId)) {
+            return this;
+        }
+        Map<Long, Entry> next = byProblem();
+        next.remove(problemId);
+        return new ProblemSearchIndex(next.values(), tagNames);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Map<Long, String> tagNames() {
+        return tagNames;
+    }
+
+    /**
+     * Returns every match in problem number order together with facet counts over the keyword
+     * matches: difficulty counts honour the tag filter but not the difficulty filter, tag counts the
+     * other way round, so each facet shows what selecting another value of it would return.
+     */
+    public Result search(Query query) {
+        BitSet keywordMatches = keywordMatches(query.keyword());
+        BitSet tagFilter = null;
+        if (query.tagIds() != null && !query.tagIds().isEmpty()) {
+            tagFilter = new BitSet(entries.size());
+            for (Long tagId : query.tagIds()) {
+                for (int ordinal : tagPostings.getOrDefault(tagId, NONE)) {
+                    tagFilter.set(ordinal);
+                }
+            }
+        }
+        IntList matches = new IntList();
+        Map<Integer, Integer> difficultyCounts = new TreeMap<>();
+        Map<Long, Integer> tagCounts = new HashMap<>();
+        int ordinal = keywordMatches == null ? 0 : keywordMatches.nextSetBit(0);
+        while (ordinal >= 0 && ordinal < entries.size()) {
+            Entry entry = entries.get(ordinal);
+            if (query.excludedOwnerId() == null || entry.createUserId() != query.excludedOwnerId()) {
+                boolean difficultyMatches = query.difficulty() == null || entry.difficulty() == query.difficulty();
+                boolean tagMatches = tagFilter == null || tagFilter.get(ordinal);
+                if (tagMatches) {
+                    difficultyCounts.merge(entry.difficulty(), 1, Integer::sum);
+                }
+                if (difficultyMatches) {
+                    for (Long tagId : entry.tagIds()) {
+                        tagCounts.merge(tagId, 1, Integer::sum);
+                    }
+                }
+                if (difficultyMatches && tagMatches) {
+                    matches.add(ordinal);
+                }
+            }
+            ordinal = keywordMatches == null ? ordinal + 1 : keywordMatches.nextSetBit(ordinal + 1);
+        }
+        int[] ordered = matches.toArray();
+        List<Hit> hits = new AbstractList<>() {
+            @Override
+            public Hit get(int index) {
+                Entry entry = entries.get(ordered[index]);
+                return new Hit(entry.problemId(), entry.problemNo());
+            }
+
+            @Override
+            public int size() {
+                return ordered.length;
+            }
+        };
+        Map<Long, Integer> sortedTagCounts = new LinkedHashMap<>();
+        tagCounts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(count -> sortedTagCounts.put(count.getKey(), count.getValue()));
+        return new Result(hits, sortedTagCounts, difficultyCounts);
+    }
+
+    /** Returns {@code null} when the keyword is blank and every document matches. */
+    private BitSet keywordMatches(String keyword) {
+        String needle = normalize(keyword);
+        if (needle.isEmpty()) {
+            return null;
+        }
+        BitSet matches = new BitSet(entries.size());
+        List<int[]> lists = new ArrayList<>();
+        for (String gram : queryGrams(needle)) {
+            lists.add(postings.getOrDefault(gram, NONE));
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        for (int ordinal : intersect(lists)) {
+            if (texts[ordinal].contains(needle)) {
+                matches.set(ordinal);
+            }
+        }
+        normalizedTagNames.forEach((tagId, name) -> {
+            if (name.contains(needle)) {
+                for (int ordinal : tagPostings.getOrDefault(tagId, NONE)) {
+                    matches.set(ordinal);
+                }
+            }
+        });
+        return matches;
+    }
+
+    private Map<Long, Entry> byProblem() {
+        Map<Long, Entry> result = new HashMap<>();
+        entries.forEach(entry -> result.put(entry.problemId(), entry));
+        return result;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT).strip();
+        return normalized.replace('\n', ' ');
+    }
+
+    private static List<String> grams(String text) {
+        int[] codePoints = text.codePoints().toArray();
+        List<String> grams = new ArrayList<>(codePoints.length * 2);
+        for (int index = 0; index < codePoints.length; index++) {
+            if (codePoints[index] == '\n') {
+                continue;
+            }
+            grams.add(new String(codePoints, index, 1));
+            if (index + 1 < codePoints.length && codePoints[index + 1] != '\n') {
+                grams.add(new String(codePoints, index, 2));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> queryGrams(String needle) {
+        int[] codePoints = needle.codePoints().toArray();
+        if (codePoints.length == 1) {
+            return List.of(needle);
+        }
+        List<String> grams = new ArrayList<>(codePoints.length - 1);
+        for (int index = 0; index + 1 < codePoints.length; index++) {
+            grams.add(new String(codePoints, index, 2));
+        }
+        return grams;
+    }
+
+    private static int[] intersect(List<int[]> lists) {
+        int[] result = lists.get(0);
+        for (int list = 1; list < lists.size() && result.length > 0; list++) {
+            int[] other = lists.get(list);
+            int[] next = new int[result.length];
+            int size = 0;
+            int left = 0;
+            int right = 0;
+            while (left < result.length && right < other.length) {
+                if (result[left] < other[right]) {
+                    left++;
+                } else if (result[left] > other[right]) {
+                    right++;
+                } else {
+                    next[size++] = result[left];
+                    left++;
+                    right++;
+                }
+            }
+            result = Arrays.copyOf(next, size);
+        }
+        return result;
+    }
+
+    /** One public catalog row with its published tags. */
+    public record Entry(
+            long problemId,
+            String problemNo,
+            String title,
+            String source,
+            int difficulty,
+            long createUserId,
+            List<Long> tagIds) {
+        public Entry {
+            tagIds = tagIds == null ? List.of() : List.copyOf(tagIds);
+        }
+    }
+
+    /**
+     * @param tagIds matches problems carrying any of these tags; empty or {@code null} for no filter
+     * @param excludedOwnerId leaves out problems created by this user, whose own list is read live
+     */
+    public record Query(String keyword, Integer difficulty, List<Long> tagIds, Long excludedOwnerId) {}
+
+    public record Hit(long problemId, String problemNo) {}
+
+    /**
+     * @param tagCounts matches per tag id, most frequent first
+     * @param difficultyCounts matches per difficulty, in difficulty order
+     */
+    public record Result(List<Hit> hits, Map<Long, Integer> tagCounts, Map<Integer, Integer> difficultyCounts) {}
+
+    /** Growable int array; ordinals arrive in increasing order, so a posting list never repeats. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addOnce(int value) {
+            if (size == 0 || values[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -4,11 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zephyr.croj.common.enums.ResultCodeEnum;
 import com.zephyr.croj.common.exception.BusinessException;
 import com.zephyr.croj.model.entity.ProblemVersion;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,15 +19,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProblemVersionPublicationService {
     private final JdbcTemplate jdbc;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
 
     public ProblemVersionPublicationService(JdbcTemplate jdbc) {
-        this(jdbc, new ObjectMapper());
+        this(jdbc, new ObjectMapper(), event -> {});
     }
 
     @Autowired
-    public ProblemVersionPublicationService(JdbcTemplate jdbc, ObjectMapper objectMapper) {
+    public ProblemVersionPublicationService(
+            JdbcTemplate jdbc, ObjectMapper objectMapper, ApplicationEventPublisher events) {
         this.jdbc = jdbc;
         this.objectMapper = objectMapper;
+        this.events = events;
     }
 
     @Transactional
@@ -63,7 +68,7 @@ public class ProblemVersionPublicationService {
                         != 1) {
             throw new BusinessException(ResultCodeEnum.UPDATE_ERROR);
         }
-        switchVisibleTags(problemId, candidates.get(0));
+        List<Long> tagIds = switchVisibleTags(problemId, candidates.get(0));
         if (jdbc.update(
                         "UPDATE t_problem SET published_version_id=?,status=0 WHERE id=? AND is_deleted=0",
                         versionId,
@@ -71,6 +76,8 @@ public class ProblemVersionPublicationService {
                 != 1) {
             throw new BusinessException(ResultCodeEnum.UPDATE_ERROR);
         }
+        replaceCatalogEntry(problemId, versionId, candidates.get(0), tagIds);
+        events.publishEvent(new ProblemCatalogChangedEvent(problemId));
     }
 
     public void lockProblem(long problemId) {
@@ -100,7 +107,44 @@ public class ProblemVersionPublicationService {
         }
     }
 
-    private void switchVisibleTags(long problemId, PublicationCandidate candidate) {
+    /**
+     * Rewrites the problem's row in the public listing read model from the version being published,
+     * inside the publication transaction, so the listing never needs to look into version JSON.
+     */
+    private void replaceCatalogEntry(
+            long problemId, long versionId, PublicationCandidate candidate, List<Long> tagIds) {
+        String title;
+        String source;
+        int difficulty;
+        try {
+            var statement = objectMapper.readTree(candidate.statementJson());
+            title = statement.path("title").textValue();
+            source = statement.path("source").textValue();
+            difficulty = objectMapper.readTree(candidate.judgeConfigJson()).path("difficulty").intValue();
+        } catch (com.fasterxml.jackson.core.JsonProcessingException exception) {
+            throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY);
+        }
+        if (title == null) {
+            throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY);
+        }
+        jdbc.update("DELETE FROM t_problem_catalog_tag WHERE problem_id=?", problemId);
+        jdbc.update("DELETE FROM t_problem_catalog WHERE problem_id=?", problemId);
+        jdbc.update(
+                """
+                INSERT INTO t_problem_catalog(problem_id,problem_no,create_user_id,published_version_id,title,source,difficulty)
+                SELECT id,problem_no,create_user_id,?,?,?,? FROM t_problem WHERE id=? AND is_deleted=0
+                """,
+                versionId,
+                title,
+                source,
+                difficulty,
+                problemId);
+        for (Long tagId : tagIds) {
+            jdbc.update("INSERT INTO t_problem_catalog_tag(tag_id,problem_id) VALUES (?,?)", tagId, problemId);
+        }
+    }
+
+    private List<Long> switchVisibleTags(long problemId, PublicationCandidate candidate) {
         List<Long> tagIds = snapshotTagIds(candidate.statementJson());
         jdbc.update("DELETE FROM t_problem_tag_relation WHERE problem_id=?", problemId);
         for (Long tagId : tagIds) {
@@ -112,6 +156,7 @@ public class ProblemVersionPublicationService {
                 throw new BusinessException(ResultCodeEnum.UPDATE_ERROR);
             }
         }
+        return tagIds;
     }
 
     private List<Long> snapshotTagIds(String statementJson) {
@@ -0,0 +1,173 @@
+package com.zephyr.croj.problem;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.model.entity.ProblemVersion;
+import com.zephyr.croj.model.vo.ProblemTagVO;
+import com.zephyr.croj.model.vo.ProblemVO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validated, decoded public projection of one {@code PUBLISHED} problem version. Published versions
+ * are immutable, so an instance can be shared by every reader of that version.
+ */
+public record PublishedProblemProjection(
+        long versionId,
+        String title,
+        String description,
+        String inputDescription,
+        String outputDescription,
+        List<String> hints,
+        List<Map<String, String>> samples,
+        String source,
+        List<Tag> tags,
+        int timeLimit,
+        int memoryLimit,
+        Integer totalScore,
+        boolean specialJudge,
+        String specialJudgeLanguage,
+        int judgeMode,
+        String checker,
+        int difficulty,
+        long weightBytes) {
+
+    public record Tag(long id, String name, String color) {}
+
+    public PublishedProblemProjection {
+        hints = hints == null ? null : Collections.unmodifiableList(new ArrayList<>(hints));
+        if (samples != null) {
+            List<Map<String, String>> copies = new ArrayList<>(samples.size());
+            for (Map<String, String> sample : samples) {
+                copies.add(sample == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(sample)));
+            }
+            samples = Collections.unmodifiableList(copies);
+        }
+        tags = List.copyOf(tags);
+    }
+
+    /**
+     * Checks the version against {@link ProblemVersionProjectionContract} and decodes it.
+     *
+     * @throws IllegalArgumentException when the version is not a complete published projection
+     */
+    public static PublishedProblemProjection decode(ObjectMapper objectMapper, ProblemVersion version) {
+        if (version == null
+                || !"PUBLISHED".equals(version.getState())
+                || !Boolean.TRUE.equals(version.getProjectionComplete())) {
+            throw new IllegalArgumentException("problem version is not a complete published projection");
+        }
+        try {
+            new ProblemVersionProjectionContract(objectMapper).assertComplete(version);
+            JsonNode statement = objectMapper.readTree(version.getStatementJson());
+            JsonNode limits = objectMapper.readTree(version.getLimitsJson());
+            JsonNode judge = objectMapper.readTree(version.getJudgeConfigJson());
+            JsonNode source = statement.get("source");
+            JsonNode totalScore = limits.get("totalScore");
+            JsonNode specialJudgeLanguage = judge.get("specialJudgeLanguage");
+            return new PublishedProblemProjection(
+                    version.getId(),
+                    requiredText(statement, "title"),
+                    requiredText(statement, "description"),
+                    requiredText(statement, "inputDescription"),
+                    requiredText(statement, "outputDescription"),
+                    objectMapper.convertValue(statement.path("hints"), new TypeReference<List<String>>() {}),
+                    objectMapper.convertValue(
+                            statement.path("samples"), new TypeReference<List<Map<String, String>>>() {}),
+                    source == null || source.isNull() ? null : source.textValue(),
+                    requiredTags(statement),
+                    requiredInt(limits, "timeLimit"),
+                    requiredInt(limits, "memoryLimit"),
+                    totalScore == null || totalScore.isNull() ? null : totalScore.intValue(),
+                    judge.path("specialJudge").booleanValue(),
+                    specialJudgeLanguage == null || specialJudgeLanguage.isNull()
+                            ? null
+                            : specialJudgeLanguage.textValue(),
+                    requiredInt(judge, "judgeMode"),
+                    requiredText(judge, "checker"),
+                    requiredInt(judge, "difficulty"),
+                    // UTF-16 text of the decoded fields plus a fixed allowance for the object graph.
+                    2L * (version.getStatementJson().length()
+                            + version.getLimitsJson().length()
+                            + version.getJudgeConfigJson().length())
+                            + 512L);
+        } catch (JsonProcessingException | ProblemVersionProjectionContract.ContractViolation exception) {
+            throw new IllegalArgumentException("published problem snapshot is incomplete", exception);
+        }
+    }
+
+    /** Copies the projection onto {@code view}; mutable parts are copied so views stay independent. */
+    public void applyTo(ProblemVO view) {
+        view.setTitle(title);
+        view.setDescription(description);
+        view.setInputDescription(inputDescription);
+        view.setOutputDescription(outputDescription);
+        view.setHints(hints);
+        view.setSamples(samples);
+        view.setSource(source);
+        List<ProblemTagVO> tagViews = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            ProblemTagVO tagView = new ProblemTagVO();
+            tagView.setId(tag.id());
+            tagView.setName(tag.name());
+            tagView.setColor(tag.color());
+            tagViews.add(tagView);
+        }
+        view.setTags(tagViews);
+        view.setTimeLimit(timeLimit);
+        view.setMemoryLimit(memoryLimit);
+        view.setTotalScore(totalScore);
+        view.setIsSpecialJudge(specialJudge);
+        view.setSpecialJudgeLanguage(specialJudgeLanguage);
+        view.setJudgeMode(judgeMode);
+        view.setChecker(checker);
+        view.setDifficulty(difficulty);
+    }
+
+    private static String requiredText(JsonNode object, String field) {
+        JsonNode value = object == null ? null : object.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException("published problem snapshot is incomplete");
+        }
+        return value.textValue();
+    }
+
+    private static int requiredInt(JsonNode object, String field) {
+        JsonNode value = object == null ? null : object.get(field);
+        if (value == null || !value.isIntegralNumber() || !value.canConvertToInt()) {
+            throw new IllegalArgumentException("published problem snapshot is incomplete");
+        }
+        return value.intValue();
+    }
+
+    private static List<Tag> requiredTags(JsonNode statement) {
+        JsonNode tags = statement == null ? null : statement.get("tags");
+        if (tags == null || !tags.isArray()) {
+            throw new IllegalArgumentException("published problem snapshot is incomplete");
+        }
+        List<Tag> result = new ArrayList<>();
+        for (JsonNode tag : tags) {
+            JsonNode id = tag == null ? null : tag.get("id");
+            JsonNode name = tag == null ? null : tag.get("name");
+            JsonNode color = tag == null ? null : tag.get("color");
+            if (tag == null
+                    || !tag.isObject()
+                    || id == null
+                    || !id.isIntegralNumber()
+                    || !id.canConvertToLong()
+                    || name == null
+                    || !name.isTextual()
+                    || color == null
+                    || !color.isTextual()) {
+                throw new IllegalArgumentException("published problem snapshot is incomplete");
+            }
+            result.add(new Tag(id.longValue(), name.textValue(), color.textValue()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,198 @@
+package com.zephyr.croj.problem;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.config.properties.ProblemProjectionCacheProperties;
+import com.zephyr.croj.model.entity.ProblemVersion;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of decoded published projections keyed by problem version id. A published version never
+ * changes, so entries are never invalidated; they only leave the local tier when the byte budget
+ * is exceeded, least recently used first. The optional Redis tier holds the same decoded form so
+ * that a replica warming up skips the database read and the contract check.
+ */
+@Slf4j
+@Component
+public class PublishedProblemProjections {
+    static final String REDIS_KEY_PREFIX = "croj:problem-projection:v1:";
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final StringRedisTemplate redis;
+    private final Duration redisTtl;
+    private final LinkedHashMap<Long, PublishedProblemProjection> local = new LinkedHashMap<>(16, 0.75f, true);
+    private long localBytes;
+
+    @Autowired
+    public PublishedProblemProjections(
+            ObjectMapper objectMapper,
+            ProblemProjectionCacheProperties properties,
+            ObjectProvider<StringRedisTemplate> redis) {
+        this(
+                objectMapper,
+                properties.getMaxBytes(),
+                properties.isRedisEnabled() ? redis.getIfAvailable() : null,
+                properties.getRedisTtl());
+    }
+
+    /** @param redis the shared tier, or {@code null} to keep projections in this process only */
+    public PublishedProblemProjections(
+            ObjectMapper objectMapper, long maxBytes, StringRedisTemplate redis, Duration redisTtl) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.redis = redis;
+        this.redisTtl = redisTtl;
+    }
+
+    /**
+     * Returns the projection of one published version, or {@code null} when {@code loader} finds no
+     * such version.
+     *
+     * @throws IllegalArgumentException when the stored version is not a complete published projection
+     */
+    public PublishedProblemProjection get(long versionId, Function<Long, ProblemVersion> loader) {
+        return getAll(List.of(versionId), ids -> {
+            ProblemVersion version = loader.apply(versionId);
+            return version == null ? List.of() : List.of(version);
+        }).get(versionId);
+    }
+
+    /**
+     * Returns the projections of {@code versionIds}; only the ids missing from both tiers are passed
+     * to {@code loader}, in one call. Ids the loader does not return are absent from the result.
+     *
+     * @throws IllegalArgumentException when a loaded version is not a complete published projection
+     */
+    public Map<Long, PublishedProblemProjection> getAll(
+            Collection<Long> versionIds, Function<Collection<Long>, List<ProblemVersion>> loader) {
+        Map<Long, PublishedProblemProjection> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (local) {
+            for (Long versionId : new LinkedHashSet<>(versionIds)) {
+                PublishedProblemProjection cached = local.get(versionId);
+                if (cached != null) {
+                    result.put(versionId, cached);
+                } else {
+                    missing.add(versionId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        for (PublishedProblemProjection shared : readShared(missing)) {
+            result.put(shared.versionId(), shared);
+            remember(shared);
+        }
+        missing.removeIf(result::containsKey);
+        if (missing.isEmpty()) {
+            return result;
+        }
+        List<PublishedProblemProjection> decoded = new ArrayList<>();
+        for (ProblemVersion version : loader.apply(missing)) {
+            if (version == null || !missing.contains(version.getId())) {
+                continue;
+            }
+            PublishedProblemProjection projection = PublishedProblemProjection.decode(objectMapper, version);
+            result.put(projection.versionId(), projection);
+            remember(projection);
+            decoded.add(projection);
+        }
+        writeShared(decoded);
+        return result;
+    }
+
+    long localBytes() {
+        synchronized (local) {
+            return localBytes;
+        }
+    }
+
+    int localSize() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    private void remember(PublishedProblemProjection projection) {
+        if (projection.weightBytes() > maxBytes) {
+            return;
+        }
+        synchronized (local) {
+            PublishedProblemProjection previous = local.put(projection.versionId(), projection);
+            if (previous != null) {
+                localBytes -= previous.weightBytes();
+            }
+            localBytes += projection.weightBytes();
+            Iterator<PublishedProblemProjection> eldest = local.values().iterator();
+            while (localBytes > maxBytes && eldest.hasNext()) {
+                localBytes -= eldest.next().weightBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private List<PublishedProblemProjection> readShared(List<Long> versionIds) {
+        if (redis == null) {
+            return List.of();
+        }
+        List<String> values;
+        try {
+            values = redis.opsForValue().multiGet(versionIds.stream().map(id -> REDIS_KEY_PREFIX + id).toList());
+        } catch (RuntimeException exception) {
+            log.warn("problem projection cache read from redis failed, falling back to the database", exception);
+            return List.of();
+        }
+        if (values == null) {
+            return List.of();
+        }
+        List<PublishedProblemProjection> result = new ArrayList<>();
+        for (int index = 0; index < values.size() && index < versionIds.size(); index++) {
+            String value = values.get(index);
+            if (value == null) {
+                continue;
+            }
+            try {
+                PublishedProblemProjection projection = objectMapper.readValue(value, PublishedProblemProjection.class);
+                if (projection.versionId() == versionIds.get(index)) {
+                    result.add(projection);
+                }
+            } catch (JsonProcessingException exception) {
+                log.warn("ignoring unreadable problem projection {} in redis", versionIds.get(index), exception);
+            }
+        }
+        return result;
+    }
+
+    private void writeShared(List<PublishedProblemProjection> projections) {
+        if (redis == null) {
+            return;
+        }
+        for (PublishedProblemProjection projection : projections) {
+            try {
+                redis.opsForValue().set(
+                        REDIS_KEY_PREFIX + projection.versionId(),
+                        objectMapper.writeValueAsString(projection),
+                        redisTtl);
+            } catch (JsonProcessingException | RuntimeException exception) {
+                log.warn("problem projection cache write to redis failed", exception);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.zephyr.croj.problem;
+
+import com.zephyr.croj.config.properties.TestBundleProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
+import software.amazon.awssdk.services.s3.model.ListPartsResponse;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.Part;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Writes private objects to the test bundle bucket. Bodies below
+ * {@code multipart-threshold-bytes} are sent with one {@code PutObject}; larger ones are split into
+ * {@code multipart-part-bytes} parts that are uploaded on up to {@code upload-threads} connections,
+ * each with its SHA-256 checksum.
+ *
+ * <p>An upload that fails part way is left open rather than aborted. Writing the same key again
+ * resumes it: parts that S3 already holds with the same size and checksum are not sent again. The
+ * bucket should carry a lifecycle rule that aborts incomplete multipart uploads after a day.
+ *
+ * <p>Test bundle and case blob keys carry their SHA-256, so concurrent writers of one key, such as two
+ * attaches sharing a new case blob, write the same bytes and may resume the same upload. The writer that completes second gets
+ * {@code NoSuchUpload}; it succeeds when the object now exists with the expected size and metadata.
+ */
+public class S3MultipartUploader {
+    private final S3Client s3;
+    private final TestBundleProperties properties;
+    private final Executor parts;
+
+    public S3MultipartUploader(S3Client s3, TestBundleProperties properties) {
+        this(s3, properties, parts(properties.getUploadThreads()));
+    }
+
+    S3MultipartUploader(S3Client s3, TestBundleProperties properties, Executor parts) {
+        this.s3 = s3;
+        this.properties = properties;
+        this.parts = parts;
+    }
+
+    public void upload(String objectKey, String contentType, Map<String, String> metadata, Body body) {
+        if (body.size() < properties.getMultipartThresholdBytes()) {
+            s3.putObject(PutObjectRequest.builder()
+                            .bucket(properties.getBucket())
+                            .key(objectKey)
+                            .contentLength(body.size())
+                            .contentType(contentType)
+                            .metadata(metadata)
+                            .build(),
+                    body.requestBody());
+            return;
+        }
+        try {
+            uploadParts(objectKey, contentType, metadata, body);
+        } catch (NoSuchUploadException exception) {
+            // 另一个写入者续传了同一个未完成上传并先完成了它；对象已按相同内容写入即视为成功。
+            if (!written(objectKey, metadata, body.size())) {
+                throw exception;
+            }
+        }
+    }
+
+    private void uploadParts(String objectKey, String contentType, Map<String, String> metadata, Body body) {
+        String uploadId = pendingUpload(objectKey);
+        Map<Integer, Part> stored = uploadId == null ? Map.of() : storedParts(objectKey, uploadId);
+        if (uploadId == null) {
+            uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                            .bucket(properties.getBucket())
+                            .key(objectKey)
+                            .contentType(contentType)
+                            .metadata(metadata)
+                            .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+                            .build())
+                    .uploadId();
+        }
+        long partBytes = properties.getMultipartPartBytes();
+        int count = Math.toIntExact((body.size() + partBytes - 1) / partBytes);
+        List<CompletableFuture<CompletedPart>> uploads = new ArrayList<>(count);
+        for (int number = 1; number <= count; number++) {
+            long offset = (number - 1) * partBytes;
+            int length = (int) Math.min(partBytes, body.size() - offset);
+            int partNumber = number;
+            String id = uploadId;
+            uploads.add(CompletableFuture.supplyAsync(
+                    () -> uploadPart(objectKey, id, partNumber, body, offset, length, stored.get(partNumber)),
+                    parts));
+        }
+        List<CompletedPart> completed = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<CompletedPart> upload : uploads) {
+                completed.add(upload.join());
+            }
+        } catch (CompletionException exception) {
+            uploads.forEach(upload -> upload.cancel(false));
+            throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+        }
+        s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(properties.getBucket())
+                .key(objectKey)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                .build());
+    }
+
+    private CompletedPart uploadPart(
+            String objectKey, String uploadId, int partNumber, Body body, long offset, int length, Part stored) {
+        byte[] data = body.read(offset, length);
+        String checksum = Base64.getEncoder().encodeToString(sha256(data));
+        String eTag;
+        if (stored != null && stored.size() != null && stored.size() == length
+                && checksum.equals(stored.checksumSHA256())) {
+            eTag = stored.eTag();
+        } else {
+            eTag = s3.uploadPart(
+                            UploadPartRequest.builder()
+                                    .bucket(properties.getBucket())
+                                    .key(objectKey)
+                                    .uploadId(uploadId)
+                                    .partNumber(partNumber)
+                                    .contentLength((long) length)
+                                    .checksumSHA256(checksum)
+                                    .build(),
+                            RequestBody.fromBytes(data))
+                    .eTag();
+        }
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).checksumSHA256(checksum).build();
+    }
+
+    /** @return whether {@code objectKey} exists with {@code size} bytes and the given metadata */
+    private boolean written(String objectKey, Map<String, String> metadata, long size) {
+        try {
+            HeadObjectResponse head = s3.headObject(builder -> builder
+                    .bucket(properties.getBucket())
+                    .key(objectKey));
+            return head.contentLength() != null && head.contentLength() == size && head.metadata().equals(metadata);
+        } catch (NoSuchKeyException exception) {
+            return false;
+        }
+    }
+
+    /** @return the most recently started unfinished upload of exactly {@code objectKey}, if any */
+    private String pendingUpload(String objectKey) {
+        ListMultipartUploadsResponse response = s3.listMultipartUploads(builder -> builder
+                .bucket(properties.getBucket())
+                .prefix(objectKey));
+        return response.uploads().stream()
+                .filter(upload -> objectKey.equals(upload.key()))
+                .max(Comparator.comparing(
+                        MultipartUpload::initiated, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(MultipartUpload::uploadId)
+                .orElse(null);
+    }
+
+    private Map<Integer, Part> storedParts(String objectKey, String uploadId) {
+        Map<Integer, Part> stored = new HashMap<>();
+        Integer marker = null;
+        while (true) {
+            Integer after = marker;
+            ListPartsResponse response = s3.listParts(builder -> builder
+                    .bucket(properties.getBucket())
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .partNumberMarker(after));
+            response.parts().forEach(part -> stored.put(part.partNumber(), part));
+            if (!Boolean.TRUE.equals(response.isTruncated()) || response.nextPartNumberMarker() == null) {
+                return stored;
+            }
+            marker = response.nextPartNumberMarker();
+        }
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is unavailable", exception);
+        }
+    }
+
+    private static ExecutorService parts(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                30L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "test-bundle-upload-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** An object body that parts can be read from at any offset. */
+    public interface Body {
+        long size();
+
+        byte[] read(long offset, int length);
+
+        RequestBody requestBody();
+
+        static Body of(byte[] bytes) {
+            return new Body() {
+                @Override
+                public long size() {
+                    return bytes.length;
+                }
+
+                @Override
+                public byte[] read(long offset, int length) {
+                    return Arrays.copyOfRange(bytes, (int) offset, (int) offset + length);
+                }
+
+                @Override
+                public RequestBody requestBody() {
+                    return RequestBody.fromBytes(bytes);
+                }
+            };
+        }
+
+        static Body of(Path file, long sizeBytes) {
+            return new Body() {
+                @Override
+                public long size() {
+                    return sizeBytes;
+                }
+
+                @Override
+                public byte[] read(long offset, int length) {
+                    ByteBuffer buffer = ByteBuffer.allocate(length);
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        while (buffer.hasRemaining()) {
+                            if (channel.read(buffer, offset + buffer.position()) == -1) {
+                                throw new IOException("file ended before part " + offset + "+" + length);
+                            }
+                        }
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                    return buffer.array();
+                }
+
+                @Override
+                public RequestBody requestBody() {
+                    return RequestBody.fromFile(file);
+                }
+            };
+        }
+    }
+}
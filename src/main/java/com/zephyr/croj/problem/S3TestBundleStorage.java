@@ -1,26 +1,67 @@
 package com.zephyr.croj.problem;
 
 import com.zephyr.croj.config.properties.TestBundleProperties;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 
 @RequiredArgsConstructor
 public class S3TestBundleStorage implements TestBundleStorage {
+    private static final String CONTENT_TYPE = "application/zip";
+    private static final String BLOB_CONTENT_TYPE = "application/octet-stream";
+
     private final S3Client s3;
     private final TestBundleProperties properties;
+    private final S3MultipartUploader uploader;
 
     @Override
     public void put(String objectKey, byte[] archive, String sha256) {
-        PutObjectRequest request = PutObjectRequest.builder()
+        uploader.upload(objectKey, CONTENT_TYPE, Map.of("sha256", sha256), S3MultipartUploader.Body.of(archive));
+    }
+
+    @Override
+    public void put(String objectKey, Path archive, long sizeBytes, String sha256) {
+        uploader.upload(
+                objectKey, CONTENT_TYPE, Map.of("sha256", sha256), S3MultipartUploader.Body.of(archive, sizeBytes));
+    }
+
+    @Override
+    public InputStream get(String objectKey, long offset, long length) {
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
                 .bucket(properties.getBucket())
-                .key(objectKey)
-                .contentLength((long) archive.length)
-                .contentType("application/zip")
-                .metadata(Map.of("sha256", sha256))
-                .build();
-        s3.putObject(request, RequestBody.fromBytes(archive));
+                .key(objectKey);
+        if (offset > 0 || length >= 0) {
+            request.range(length < 0
+                    ? "bytes=%d-".formatted(offset)
+                    : "bytes=%d-%d".formatted(offset, offset + length - 1));
+        }
+        return s3.getObject(request.build());
+    }
+
+    @Override
+    public void putBlob(String sha256, byte[] contents) {
+        uploader.upload(
+                blobKey(sha256), BLOB_CONTENT_TYPE, Map.of("sha256", sha256), S3MultipartUploader.Body.of(contents));
+    }
+
+    @Override
+    public void putBlob(String sha256, Path contents, long sizeBytes) {
+        uploader.upload(
+                blobKey(sha256),
+                BLOB_CONTENT_TYPE,
+                Map.of("sha256", sha256),
+                S3MultipartUploader.Body.of(contents, sizeBytes));
+    }
+
+    @Override
+    public InputStream openBlob(String sha256) {
+        return get(blobKey(sha256), 0, -1);
+    }
+
+    static String blobKey(String sha256) {
+        return "test-blobs/" + sha256;
     }
 }
@@ -4,12 +4,17 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.attribute.FileTime;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +27,7 @@ import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 
 /** Writes reproducible TestBundle ZIPs using the metadata contract shared with Judging. */
 public final class TestBundleArchiveWriter {
+    private static final int WRITE_CHUNK_BYTES = 8192;
     private static final Instant ZIP_EPOCH = Instant.parse("1980-01-01T00:00:00Z");
     private static final ObjectMapper JSON =
             new ObjectMapper()
@@ -29,6 +35,30 @@ public final class TestBundleArchiveWriter {
                     .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
 
     public byte[] write(String canonicalManifestJson, Map<String, byte[]> files) {
+        if (files != null && files.values().stream().anyMatch(contents -> contents == null)) {
+            throw new IllegalArgumentException(
+                    "archive files must exactly match manifest references");
+        }
+        Map<String, Contents> sources = new HashMap<>();
+        if (files != null) {
+            files.forEach((name, contents) -> sources.put(name, () -> new ByteArrayInputStream(contents)));
+        }
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            write(canonicalManifestJson, files == null ? null : sources, output);
+            return output.toByteArray();
+        } catch (IOException exception) {
+            throw new IllegalStateException("cannot build deterministic TestBundle ZIP", exception);
+        }
+    }
+
+    /**
+     * Streams the same bytes as {@link #write(String, Map)}, opening each file only while its
+     * entry is written, so archives can be rebuilt from stored case files without holding them in
+     * memory.
+     */
+    public void write(String canonicalManifestJson, Map<String, Contents> files, OutputStream output)
+            throws IOException {
         if (canonicalManifestJson == null || files == null) {
             throw new IllegalArgumentException("manifest and files are required");
         }
@@ -42,22 +72,17 @@ public final class TestBundleArchiveWriter {
         }
         List<String> names = new ArrayList<>(referenced);
         names.sort(String::compareTo);
-        try {
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
-            try (ZipArchiveOutputStream zip = new ZipArchiveOutputStream(output)) {
-                zip.setUseZip64(Zip64Mode.Never);
-                zip.setEncoding(StandardCharsets.UTF_8.name());
-                zip.setLevel(Deflater.NO_COMPRESSION);
-                zip.setCreateUnicodeExtraFields(
-                        ZipArchiveOutputStream.UnicodeExtraFieldPolicy.NEVER);
-                writeEntry(zip, "manifest.json", manifest);
-                for (String name : names) {
-                    writeEntry(zip, name, files.get(name));
-                }
+        ZipArchiveOutputStream zip = new ZipArchiveOutputStream(new NonClosingOutputStream(output));
+        try (zip) {
+            zip.setUseZip64(Zip64Mode.Never);
+            zip.setEncoding(StandardCharsets.UTF_8.name());
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            zip.setCreateUnicodeExtraFields(
+                    ZipArchiveOutputStream.UnicodeExtraFieldPolicy.NEVER);
+            writeEntry(zip, "manifest.json", () -> new ByteArrayInputStream(manifest));
+            for (String name : names) {
+                writeEntry(zip, name, files.get(name));
             }
-            return output.toByteArray();
-        } catch (IOException exception) {
-            throw new IllegalStateException("cannot build deterministic TestBundle ZIP", exception);
         }
     }
 
@@ -115,7 +140,7 @@ public final class TestBundleArchiveWriter {
         }
     }
 
-    private void writeEntry(ZipArchiveOutputStream zip, String name, byte[] contents)
+    private void writeEntry(ZipArchiveOutputStream zip, String name, Contents contents)
             throws IOException {
         ZipArchiveEntry entry = new ZipArchiveEntry(name);
         entry.setMethod(ZipArchiveEntry.DEFLATED);
@@ -125,7 +150,44 @@ public final class TestBundleArchiveWriter {
         entry.setLastAccessTime(timestamp);
         entry.setCreationTime(timestamp);
         zip.putArchiveEntry(entry);
-        zip.write(contents);
+        // 固定 8 KiB 分块写入：Deflater 的输出只取决于内容，与来源流每次返回多少字节无关。
+        byte[] buffer = new byte[WRITE_CHUNK_BYTES];
+        try (InputStream input = contents.open()) {
+            int filled;
+            do {
+                filled = 0;
+                int read;
+                while (filled < buffer.length
+                        && (read = input.read(buffer, filled, buffer.length - filled)) != -1) {
+                    filled += read;
+                }
+                if (filled > 0) {
+                    zip.write(buffer, 0, filled);
+                }
+            } while (filled == buffer.length);
+        }
         zip.closeArchiveEntry();
     }
+
+    /** Opens the contents of one archive entry; each call returns a new stream. */
+    @FunctionalInterface
+    public interface Contents {
+        InputStream open() throws IOException;
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        private NonClosingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
@@ -0,0 +1,255 @@
+package com.zephyr.croj.problem;
+
+import com.zephyr.croj.config.properties.TestBundleProperties;
+import com.zephyr.croj.mapper.TestBundleMapper;
+import com.zephyr.croj.model.entity.TestBundle;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A local read-through copy of test bundle archives, one file per SHA-256 under
+ * {@code cache-directory}, evicted least recently used once {@code cache-max-bytes} is exceeded.
+ * Concurrent requests for an archive that is not cached yet share one download; ZIP bundles are
+ * read from object storage and case blob bundles are materialized, and either is only cached after
+ * its SHA-256 and size match the database.
+ */
+@Slf4j
+public class TestBundleCache {
+    private static final String SUFFIX = ".zip";
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final TestBundleMapper bundles;
+    private final TestBundleStorage storage;
+    private final TestBundleService service;
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, CompletableFuture<Void>> fetches = new ConcurrentHashMap<>();
+    private long cachedBytes;
+
+    public TestBundleCache(
+            TestBundleMapper bundles,
+            TestBundleStorage storage,
+            TestBundleService service,
+            TestBundleProperties properties) throws IOException {
+        this.bundles = bundles;
+        this.storage = storage;
+        this.service = service;
+        this.directory = properties.getCacheDirectory();
+        this.maxBytes = properties.getCacheMaxBytes();
+        Files.createDirectories(directory);
+        index();
+    }
+
+    /** @throws TestBundleApiException when the version has no test bundle */
+    public TestBundle find(long versionId) {
+        TestBundle bundle = bundles.findByProblemVersionId(versionId);
+        if (bundle == null) {
+            throw TestBundleApiException.notFound();
+        }
+        return bundle;
+    }
+
+    /** Opens the cached archive of {@code bundle}, downloading it first when it is not cached. */
+    public CachedBundle open(TestBundle bundle) throws IOException {
+        String sha256 = bundle.getSha256();
+        while (true) {
+            CachedBundle cached = openCached(sha256);
+            if (cached != null) {
+                return cached;
+            }
+            CompletableFuture<Void> fetch = new CompletableFuture<>();
+            CompletableFuture<Void> running = fetches.putIfAbsent(sha256, fetch);
+            if (running != null) {
+                await(running);
+                continue;
+            }
+            try {
+                cached = openCached(sha256);
+                if (cached == null) {
+                    download(bundle);
+                }
+                fetch.complete(null);
+            } catch (IOException | RuntimeException exception) {
+                fetch.completeExceptionally(exception);
+                throw exception;
+            } finally {
+                fetches.remove(sha256, fetch);
+            }
+            if (cached != null) {
+                return cached;
+            }
+        }
+    }
+
+    /**
+     * Opens the file while holding the lock eviction takes, so a returned channel always refers to a
+     * complete archive; evicting it afterwards only unlinks the name.
+     */
+    private synchronized CachedBundle openCached(String sha256) throws IOException {
+        Long size = entries.get(sha256);
+        if (size == null) {
+            return null;
+        }
+        try {
+            return new CachedBundle(sha256, size, FileChannel.open(file(sha256), StandardOpenOption.READ));
+        } catch (NoSuchFileException exception) {
+            entries.remove(sha256);
+            cachedBytes -= size;
+            return null;
+        }
+    }
+
+    private void download(TestBundle bundle) throws IOException {
+        String sha256 = bundle.getSha256();
+        Path partial = Files.createTempFile(directory, sha256 + "-", PARTIAL_SUFFIX);
+        try {
+            MessageDigest digest = sha256Digest();
+            try (OutputStream output =
+                    new DigestOutputStream(Files.newOutputStream(partial, StandardOpenOption.WRITE), digest)) {
+                if ("BLOBS".equals(bundle.getLayout())) {
+                    service.materialize(bundle, output);
+                } else {
+                    try (InputStream input = storage.get(bundle.getObjectKey(), 0, -1)) {
+                        input.transferTo(output);
+                    }
+                }
+            }
+            long size = Files.size(partial);
+            if (!HexFormat.of().formatHex(digest.digest()).equals(sha256) || size != bundle.getSizeBytes()) {
+                throw new IllegalStateException(
+                        "downloaded test bundle " + bundle.getId() + " does not match its recorded SHA-256");
+            }
+            Files.move(partial, file(sha256), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                if (entries.put(sha256, size) == null) {
+                    cachedBytes += size;
+                }
+                evict(sha256);
+            }
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /** Drops least recently used archives, never {@code keep}, until the cache fits its budget. */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file(entry.getKey()));
+            } catch (IOException exception) {
+                log.warn("cannot evict cached test bundle: sha256={}", entry.getKey(), exception);
+                continue;
+            }
+            cachedBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    /** Picks up archives cached before a restart, oldest first, and removes abandoned downloads. */
+    private synchronized void index() throws IOException {
+        List<Path> cached = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PARTIAL_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SUFFIX) && name.length() == 64 + SUFFIX.length()) {
+                    cached.add(file);
+                }
+            }
+        }
+        cached.sort(Comparator.comparing(TestBundleCache::lastModified));
+        for (Path file : cached) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+            cachedBytes += size;
+        }
+        evict(null);
+    }
+
+    private Path file(String sha256) {
+        return directory.resolve(sha256 + SUFFIX);
+    }
+
+    private static void await(CompletableFuture<Void> fetch) throws IOException {
+        try {
+            fetch.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is unavailable", exception);
+        }
+    }
+
+    /** An open, immutable cached archive; closing it releases the file. */
+    public record CachedBundle(String sha256, long size, FileChannel channel) implements Closeable {
+        /** Copies {@code length} bytes starting at {@code offset} to {@code output}. */
+        public void transferTo(long offset, long length, OutputStream output) throws IOException {
+            WritableByteChannel target = Channels.newChannel(output);
+            long sent = 0;
+            while (sent < length) {
+                long written = channel.transferTo(offset + sent, length - sent, target);
+                if (written <= 0) {
+                    throw new IOException("cached test bundle ended early: sha256=" + sha256);
+                }
+                sent += written;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -9,28 +9,50 @@ import com.zephyr.croj.common.enums.ResultCodeEnum;
 import com.zephyr.croj.common.exception.BusinessException;
 import com.zephyr.croj.config.properties.TestBundleProperties;
 import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.mapper.TestBundleFileMapper;
 import com.zephyr.croj.mapper.TestBundleMapper;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.TestBundle;
+import com.zephyr.croj.model.entity.TestBundleFile;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.CRC32;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.compress.archivers.zip.UnixStat;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -38,28 +60,80 @@ import org.apache.commons.compress.archivers.zip.ZipMethod;
 import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.springframework.transaction.annotation.Transactional;
 
-@RequiredArgsConstructor
 public class TestBundleService {
+    private static final String MANIFEST = "manifest.json";
+    private static final long IN_MEMORY_BLOB_BYTES = 1024L * 1024;
+
     private final TestBundleMapper bundles;
+    private final TestBundleFileMapper files;
     private final ProblemVersionMapper versions;
     private final TestBundleStorage storage;
     private final ObjectMapper objectMapper;
     private final TestBundleProperties properties;
+    private final Executor validators;
+
+    public TestBundleService(
+            TestBundleMapper bundles,
+            TestBundleFileMapper files,
+            ProblemVersionMapper versions,
+            TestBundleStorage storage,
+            ObjectMapper objectMapper,
+            TestBundleProperties properties) {
+        this(bundles, files, versions, storage, objectMapper, properties,
+                validators(properties.getValidationThreads()));
+    }
+
+    TestBundleService(
+            TestBundleMapper bundles,
+            TestBundleFileMapper files,
+            ProblemVersionMapper versions,
+            TestBundleStorage storage,
+            ObjectMapper objectMapper,
+            TestBundleProperties properties,
+            Executor validators) {
+        this.bundles = bundles;
+        this.files = files;
+        this.versions = versions;
+        this.storage = storage;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.validators = validators;
+    }
 
     @Transactional
     public TestBundle attach(long problemId, long versionId, byte[] archive, String manifestJson) {
+        return attach(problemId, versionId, new InMemoryArchive(archive), manifestJson);
+    }
+
+    @Transactional
+    public TestBundle attach(long problemId, long versionId, byte[] archive) {
+        InMemoryArchive source = new InMemoryArchive(archive);
+        return attach(problemId, versionId, source, extractManifest(source));
+    }
+
+    /** Attaches an archive spooled to disk; it is validated and stored without being read into memory. */
+    @Transactional
+    public TestBundle attach(long problemId, long versionId, TestBundleUpload archive) {
+        SpooledArchive source = new SpooledArchive(archive);
+        return attach(problemId, versionId, source, extractManifest(source));
+    }
+
+    private TestBundle attach(long problemId, long versionId, Archive archive, String manifestJson) {
         ProblemVersion version = versions.selectById(versionId);
         if (version == null
                 || !Long.valueOf(problemId).equals(version.getProblemId())
                 || !"DRAFT".equals(version.getState())) {
             throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY);
         }
-        if (archive == null || archive.length == 0 || archive.length > properties.getMaxArchiveBytes()) {
+        if (archive.size() == 0 || archive.size() > properties.getMaxArchiveBytes()) {
             throw invalidBundle("test bundle archive size is invalid");
         }
         String canonicalManifest = validateManifest(manifestJson, version);
-        validateArchive(archive, canonicalManifest);
-        String sha256 = sha256(archive);
+        List<TestBundleFile> caseFiles = validateArchive(archive, canonicalManifest, properties.isCaseBlobs());
+        if (properties.isCaseBlobs()) {
+            return attachBlobs(problemId, versionId, archive, canonicalManifest, caseFiles);
+        }
+        String sha256 = archive.sha256();
         String objectKey = "test-bundles/%d/%d/%s.zip".formatted(problemId, versionId, sha256);
 
         TestBundle existing = bundles.findByProblemVersionId(versionId);
@@ -70,12 +144,13 @@ public class TestBundleService {
             throw invalidBundle("problem version already has a different test bundle");
         }
 
-        storage.put(objectKey, archive, sha256);
+        archive.store(storage, objectKey, sha256);
         TestBundle bundle = new TestBundle();
         bundle.setProblemVersionId(versionId);
         bundle.setObjectKey(objectKey);
+        bundle.setLayout("ARCHIVE");
         bundle.setSha256(sha256);
-        bundle.setSizeBytes((long) archive.length);
+        bundle.setSizeBytes(archive.size());
         bundle.setManifestJson(canonicalManifest);
         bundle.setCreatedAt(LocalDateTime.now());
         if (bundles.insert(bundle) != 1) {
@@ -84,9 +159,159 @@ public class TestBundleService {
         return bundle;
     }
 
-    @Transactional
-    public TestBundle attach(long problemId, long versionId, byte[] archive) {
-        return attach(problemId, versionId, archive, extractManifest(archive));
+    /**
+     * Stores each case file once under its SHA-256 and records the version's file list instead of
+     * a ZIP object. The bundle's SHA-256 and size describe the archive {@link #materialize} rebuilds
+     * with {@link TestBundleArchiveWriter}, not the uploaded ZIP.
+     */
+    private TestBundle attachBlobs(
+            long problemId,
+            long versionId,
+            Archive archive,
+            String canonicalManifest,
+            List<TestBundleFile> caseFiles) {
+        byte[] manifest = canonicalManifest.getBytes(StandardCharsets.UTF_8);
+        Map<String, TestBundleFile> bundleFiles = new TreeMap<>();
+        for (TestBundleFile file : caseFiles) {
+            bundleFiles.put(file.getPath(), file);
+        }
+        bundleFiles.put(MANIFEST, new TestBundleFile(null, MANIFEST, sha256(manifest), (long) manifest.length));
+        bundleFiles.values().forEach(file -> file.setProblemVersionId(versionId));
+
+        DigestingOutputStream rebuilt = new DigestingOutputStream(OutputStream.nullOutputStream());
+        try (ZipFile zip = openArchive(archive)) {
+            Map<String, TestBundleArchiveWriter.Contents> contents = new HashMap<>();
+            for (TestBundleFile file : caseFiles) {
+                ZipArchiveEntry entry = zip.getEntry(file.getPath());
+                contents.put(file.getPath(), () -> zip.getInputStream(entry));
+            }
+            new TestBundleArchiveWriter().write(canonicalManifest, contents, rebuilt);
+        } catch (IOException | IllegalArgumentException exception) {
+            throw invalidBundle("test bundle ZIP archive is invalid");
+        }
+        String sha256 = rebuilt.sha256();
+        String objectKey = "test-bundles/%d/%d/%s.zip".formatted(problemId, versionId, sha256);
+
+        TestBundle existing = bundles.findByProblemVersionId(versionId);
+        if (existing != null) {
+            if (sha256.equals(existing.getSha256()) && objectKey.equals(existing.getObjectKey())) {
+                return existing;
+            }
+            throw invalidBundle("problem version already has a different test bundle");
+        }
+
+        Map<String, TestBundleFile> missing = new LinkedHashMap<>();
+        bundleFiles.values().forEach(file -> missing.putIfAbsent(file.getBlobSha256(), file));
+        files.findStoredBlobs(missing.keySet()).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            TestBundleFile manifestBlob = missing.remove(bundleFiles.get(MANIFEST).getBlobSha256());
+            if (manifestBlob != null) {
+                storage.putBlob(manifestBlob.getBlobSha256(), manifest);
+            }
+            storeBlobs(archive, new ArrayList<>(missing.values()));
+            if (manifestBlob != null) {
+                missing.put(manifestBlob.getBlobSha256(), manifestBlob);
+            }
+            files.registerBlobs(missing.values());
+        }
+
+        TestBundle bundle = new TestBundle();
+        bundle.setProblemVersionId(versionId);
+        bundle.setObjectKey(objectKey);
+        bundle.setLayout("BLOBS");
+        bundle.setSha256(sha256);
+        bundle.setSizeBytes(rebuilt.size());
+        bundle.setManifestJson(canonicalManifest);
+        bundle.setCreatedAt(LocalDateTime.now());
+        if (bundles.insert(bundle) != 1
+                || files.insertAll(new ArrayList<>(bundleFiles.values())) != bundleFiles.size()) {
+            throw new BusinessException(ResultCodeEnum.CREATE_ERROR);
+        }
+        return bundle;
+    }
+
+    /**
+     * Writes the deterministic archive of a bundle stored as case blobs. The written bytes are
+     * checked against the bundle's recorded SHA-256 and size; when they differ an
+     * {@link IllegalStateException} is thrown and the caller must discard what was written.
+     */
+    public void materialize(TestBundle bundle, OutputStream output) throws IOException {
+        if (!"BLOBS".equals(bundle.getLayout())) {
+            throw new IllegalArgumentException("test bundle is stored as a ZIP archive");
+        }
+        Map<String, TestBundleArchiveWriter.Contents> contents = new HashMap<>();
+        String manifestSha256 = null;
+        for (TestBundleFile file : files.findByProblemVersionId(bundle.getProblemVersionId())) {
+            String blob = file.getBlobSha256();
+            if (MANIFEST.equals(file.getPath())) {
+                manifestSha256 = blob;
+            } else {
+                contents.put(file.getPath(), () -> storage.openBlob(blob));
+            }
+        }
+        if (manifestSha256 == null) {
+            throw new IllegalStateException("test bundle " + bundle.getId() + " has no stored manifest");
+        }
+        String manifest;
+        try (InputStream input = storage.openBlob(manifestSha256)) {
+            manifest = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        DigestingOutputStream archive = new DigestingOutputStream(output);
+        new TestBundleArchiveWriter().write(manifest, contents, archive);
+        if (!archive.sha256().equals(bundle.getSha256()) || archive.size() != bundle.getSizeBytes()) {
+            throw new IllegalStateException(
+                    "materialized test bundle " + bundle.getId() + " does not match its recorded SHA-256");
+        }
+    }
+
+    /**
+     * Copies case files that object storage does not hold yet out of the archive, on up to
+     * {@code validation-threads} workers that each read through their own {@link ZipFile}.
+     */
+    private void storeBlobs(Archive archive, List<TestBundleFile> blobs) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            try (ZipFile zip = openArchive(archive)) {
+                int index;
+                while (failure.get() == null && (index = next.getAndIncrement()) < blobs.size()) {
+                    storeBlob(zip, blobs.get(index));
+                }
+            } catch (IOException exception) {
+                failure.compareAndSet(null, new UncheckedIOException(exception));
+            } catch (RuntimeException exception) {
+                failure.compareAndSet(null, exception);
+            }
+        };
+        int workers = Math.min(properties.getValidationThreads(), blobs.size());
+        List<CompletableFuture<Void>> helpers = new ArrayList<>();
+        for (int helper = 1; helper < workers; helper++) {
+            helpers.add(CompletableFuture.runAsync(worker, validators));
+        }
+        worker.run();
+        CompletableFuture.allOf(helpers.toArray(CompletableFuture[]::new)).join();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void storeBlob(ZipFile zip, TestBundleFile blob) throws IOException {
+        ZipArchiveEntry entry = zip.getEntry(blob.getPath());
+        if (blob.getSizeBytes() <= IN_MEMORY_BLOB_BYTES) {
+            try (InputStream input = zip.getInputStream(entry)) {
+                storage.putBlob(blob.getBlobSha256(), input.readAllBytes());
+            }
+            return;
+        }
+        Path spooled = Files.createTempFile("croj-test-blob-", ".bin");
+        try {
+            try (InputStream input = zip.getInputStream(entry)) {
+                Files.copy(input, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+            storage.putBlob(blob.getBlobSha256(), spooled, blob.getSizeBytes());
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
     }
 
     private String validateManifest(String manifestJson, ProblemVersion version) {
@@ -105,7 +330,11 @@ public class TestBundleService {
                 .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
     }
 
-    private void validateArchive(byte[] archive, String canonicalManifest) {
+    /**
+     * @return the archive's files other than {@code manifest.json} with their SHA-256, when
+     *     {@code digest} is set; otherwise an empty list
+     */
+    private List<TestBundleFile> validateArchive(Archive archive, String canonicalManifest, boolean digest) {
         assertZipSignature(archive);
         JsonNode manifestRoot;
         try {
@@ -120,50 +349,152 @@ public class TestBundleService {
                 specialJudge == null ? null : specialJudge.get("sourceSha256").textValue();
         Set<String> expectedEntries = expectedArchiveEntries(canonicalManifest);
         Set<String> names = new HashSet<>();
+        List<EntryCheck> checks = new ArrayList<>();
+        RuntimeException directoryFailure = null;
         long totalBytes = 0;
         int entries = 0;
+        // 中央目录按顺序检查；条目内容随后并行解压校验，错误仍按条目顺序报告第一个。
         try (ZipFile zip = openArchive(archive)) {
             Enumeration<ZipArchiveEntry> centralDirectory = zip.getEntries();
             while (centralDirectory.hasMoreElements()) {
                 ZipArchiveEntry entry = centralDirectory.nextElement();
                 entries++;
                 String name = entry.getName();
-                assertRegularReadableEntry(zip, entry);
-                if (!safeArchivePath(name) || !names.add(name)) {
-                    throw invalidBundle("test bundle contains an unsafe or duplicate ZIP entry");
-                }
-                if (!expectedEntries.remove(name)) {
-                    throw invalidBundle("test bundle contains an undeclared ZIP entry");
-                }
-                boolean manifest = "manifest.json".equals(name);
-                boolean checker = name.equals(checkerSource);
-                long entryLimit = manifest
-                        ? properties.getMaxManifestBytes()
-                        : checker
-                                ? TestBundleManifestContract.MAX_SPECIAL_JUDGE_SOURCE_BYTES
-                                : properties.getMaxCaseBytes();
-                assertCentralDirectoryLimits(entry, entryLimit);
-                totalBytes = Math.addExact(totalBytes, entry.getSize());
-                if (totalBytes > properties.getMaxUncompressedBytes()) {
-                    throw invalidBundle("test bundle ZIP contents exceed declared limits");
-                }
-                byte[] contents = readEntry(zip, entry, entryLimit, !manifest, manifest || checker);
-                if (manifest
-                        && !strictObjectMapper()
-                                .readTree(canonicalManifest)
-                                .equals(strictObjectMapper().readTree(contents))) {
-                    throw invalidBundle("manifest.json disagrees with database manifest");
-                }
-                if (checker && !checkerSourceSha256.equals(sha256(contents))) {
-                    throw invalidBundle("special judge source digest mismatch");
+                try {
+                    assertRegularReadableEntry(zip, entry);
+                    if (!safeArchivePath(name) || !names.add(name)) {
+                        throw invalidBundle("test bundle contains an unsafe or duplicate ZIP entry");
+                    }
+                    if (!expectedEntries.remove(name)) {
+                        throw invalidBundle("test bundle contains an undeclared ZIP entry");
+                    }
+                    boolean manifest = "manifest.json".equals(name);
+                    boolean checker = name.equals(checkerSource);
+                    long entryLimit = manifest
+                            ? properties.getMaxManifestBytes()
+                            : checker
+                                    ? TestBundleManifestContract.MAX_SPECIAL_JUDGE_SOURCE_BYTES
+                                    : properties.getMaxCaseBytes();
+                    assertCentralDirectoryLimits(entry, entryLimit);
+                    totalBytes = Math.addExact(totalBytes, entry.getSize());
+                    if (totalBytes > properties.getMaxUncompressedBytes()) {
+                        throw invalidBundle("test bundle ZIP contents exceed declared limits");
+                    }
+                    checks.add(new EntryCheck(name, entryLimit, entry.getSize(), manifest, checker));
+                } catch (ArithmeticException exception) {
+                    directoryFailure = invalidBundle("test bundle ZIP archive is invalid");
+                    break;
+                } catch (RuntimeException exception) {
+                    directoryFailure = exception;
+                    break;
                 }
             }
-        } catch (IOException | ArithmeticException exception) {
+        } catch (IOException exception) {
             throw invalidBundle("test bundle ZIP archive is invalid");
         }
+        String[] digests = digest ? new String[checks.size()] : null;
+        RuntimeException contentFailure =
+                validateEntries(archive, checks, canonicalManifest, checkerSourceSha256, digests);
+        if (contentFailure != null) {
+            throw contentFailure;
+        }
+        if (directoryFailure != null) {
+            throw directoryFailure;
+        }
         if (entries == 0 || !expectedEntries.isEmpty()) {
             throw invalidBundle("test bundle ZIP entries do not match the manifest");
         }
+        List<TestBundleFile> stored = new ArrayList<>();
+        for (int index = 0; digests != null && index < checks.size(); index++) {
+            EntryCheck check = checks.get(index);
+            if (!check.manifest()) {
+                stored.add(new TestBundleFile(null, check.name(), digests[index], check.sizeBytes()));
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Inflates and checks the entries on up to {@code validation-threads} workers, each reading
+     * through its own {@link ZipFile}. Workers take entries in central-directory order and stop past
+     * the earliest failure, so every entry before it is always checked. When {@code digests} is
+     * given, the SHA-256 of each checked entry is stored at its index.
+     *
+     * @return the failure of the first entry that fails, or {@code null}
+     */
+    private RuntimeException validateEntries(
+            Archive archive,
+            List<EntryCheck> checks,
+            String canonicalManifest,
+            String checkerSourceSha256,
+            String[] digests) {
+        RuntimeException[] failures = new RuntimeException[checks.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger firstFailure = new AtomicInteger(checks.size());
+        Runnable worker = () -> {
+            if (next.get() >= firstFailure.get()) {
+                return;
+            }
+            try (ZipFile zip = openArchive(archive)) {
+                int index;
+                while ((index = next.getAndIncrement()) < firstFailure.get()) {
+                    MessageDigest digest = digests == null ? null : sha256Digest();
+                    RuntimeException failure = validateEntry(
+                            zip, checks.get(index), canonicalManifest, checkerSourceSha256, digest);
+                    if (failure != null) {
+                        failures[index] = failure;
+                        firstFailure.accumulateAndGet(index, Math::min);
+                    } else if (digest != null) {
+                        digests[index] = HexFormat.of().formatHex(digest.digest());
+                    }
+                }
+            } catch (IOException exception) {
+                int index = next.getAndIncrement();
+                if (index < checks.size()) {
+                    failures[index] = invalidBundle("test bundle ZIP archive is invalid");
+                    firstFailure.accumulateAndGet(index, Math::min);
+                }
+            }
+        };
+        int workers = Math.min(properties.getValidationThreads(), checks.size());
+        List<CompletableFuture<Void>> helpers = new ArrayList<>();
+        for (int helper = 1; helper < workers; helper++) {
+            helpers.add(CompletableFuture.runAsync(worker, validators));
+        }
+        worker.run();
+        CompletableFuture.allOf(helpers.toArray(CompletableFuture[]::new)).join();
+        int first = firstFailure.get();
+        return first < checks.size() ? failures[first] : null;
+    }
+
+    private RuntimeException validateEntry(
+            ZipFile zip,
+            EntryCheck check,
+            String canonicalManifest,
+            String checkerSourceSha256,
+            MessageDigest digest) {
+        try {
+            ZipArchiveEntry entry = zip.getEntry(check.name());
+            if (entry == null) {
+                return invalidBundle("test bundle ZIP archive is invalid");
+            }
+            byte[] contents = readEntry(
+                    zip, entry, check.sizeLimit(), !check.manifest(), check.manifest() || check.checker(), digest);
+            if (check.manifest()
+                    && !strictObjectMapper()
+                            .readTree(canonicalManifest)
+                            .equals(strictObjectMapper().readTree(contents))) {
+                return invalidBundle("manifest.json disagrees with database manifest");
+            }
+            if (check.checker() && !checkerSourceSha256.equals(sha256(contents))) {
+                return invalidBundle("special judge source digest mismatch");
+            }
+            return null;
+        } catch (IOException | ArithmeticException exception) {
+            return invalidBundle("test bundle ZIP archive is invalid");
+        } catch (RuntimeException exception) {
+            return exception;
+        }
     }
 
     private Set<String> expectedArchiveEntries(String canonicalManifest) {
@@ -185,8 +516,8 @@ public class TestBundleService {
         }
     }
 
-    private String extractManifest(byte[] archive) {
-        if (archive == null || archive.length == 0 || archive.length > properties.getMaxArchiveBytes()) {
+    private String extractManifest(Archive archive) {
+        if (archive.size() == 0 || archive.size() > properties.getMaxArchiveBytes()) {
             throw invalidBundle("test bundle archive size is invalid");
         }
         assertZipSignature(archive);
@@ -208,25 +539,37 @@ public class TestBundleService {
                     manifest,
                     properties.getMaxManifestBytes(),
                     false,
-                    true));
+                    true,
+                    null));
         } catch (IOException | ArithmeticException exception) {
             throw invalidBundle("test bundle ZIP archive is invalid");
         }
     }
 
-    private ZipFile openArchive(byte[] archive) throws IOException {
+    private ZipFile openArchive(Archive archive) throws IOException {
         return ZipFile.builder()
-                .setSeekableByteChannel(new SeekableInMemoryByteChannel(archive))
+                .setSeekableByteChannel(archive.open())
                 .setMaxNumberOfDisks(1)
                 .get();
     }
 
-    private void assertZipSignature(byte[] archive) {
-        if (archive.length < 4
-                || archive[0] != 'P'
-                || archive[1] != 'K'
-                || archive[2] != 3
-                || archive[3] != 4) {
+    private void assertZipSignature(Archive archive) {
+        ByteBuffer signature = ByteBuffer.allocate(4);
+        try (SeekableByteChannel channel = archive.open()) {
+            while (signature.hasRemaining()) {
+                if (channel.read(signature) == -1) {
+                    break;
+                }
+            }
+        } catch (IOException exception) {
+            throw invalidBundle("test bundle ZIP archive is invalid");
+        }
+        byte[] head = signature.array();
+        if (signature.hasRemaining()
+                || head[0] != 'P'
+                || head[1] != 'K'
+                || head[2] != 3
+                || head[3] != 4) {
             throw invalidBundle("test bundle is not a ZIP archive");
         }
     }
@@ -267,7 +610,8 @@ public class TestBundleService {
             ZipArchiveEntry entry,
             long sizeLimit,
             boolean validateUtf8,
-            boolean capture) throws IOException {
+            boolean capture,
+            MessageDigest digest) throws IOException {
         ByteArrayOutputStream captured = capture ? new ByteArrayOutputStream() : null;
         CharsetDecoder decoder = validateUtf8 ? strictUtf8Decoder() : null;
         ByteBuffer pending = validateUtf8 ? ByteBuffer.allocate(8196) : null;
@@ -283,6 +627,9 @@ public class TestBundleService {
                     throw invalidBundle("test bundle ZIP contents exceed declared limits");
                 }
                 crc.update(buffer, 0, read);
+                if (digest != null) {
+                    digest.update(buffer, 0, read);
+                }
                 if (captured != null) {
                     captured.write(buffer, 0, read);
                 }
@@ -370,9 +717,13 @@ public class TestBundleService {
                 .noneMatch(segment -> segment.equals(".") || segment.equals("..") || segment.isBlank());
     }
 
-    private String sha256(byte[] bytes) {
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256Digest().digest(bytes));
+    }
+
+    private static MessageDigest sha256Digest() {
         try {
-            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException exception) {
             throw new IllegalStateException("SHA-256 is unavailable", exception);
         }
@@ -381,4 +732,110 @@ public class TestBundleService {
     private BusinessException invalidBundle(String message) {
         return new BusinessException(ResultCodeEnum.PARAM_ERROR.getCode(), message);
     }
+
+    private static ExecutorService validators(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                30L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "test-bundle-validator-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private record EntryCheck(String name, long sizeLimit, long sizeBytes, boolean manifest, boolean checker) {}
+
+    /** Counts and hashes the bytes written through it. */
+    private static final class DigestingOutputStream extends FilterOutputStream {
+        private final MessageDigest digest = sha256Digest();
+        private long size;
+
+        private DigestingOutputStream(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            out.write(value);
+            digest.update((byte) value);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            digest.update(bytes, offset, length);
+            size += length;
+        }
+
+        long size() {
+            return size;
+        }
+
+        String sha256() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    /** The archive being attached, held in memory or spooled to disk. */
+    private interface Archive {
+        long size();
+
+        SeekableByteChannel open() throws IOException;
+
+        String sha256();
+
+        void store(TestBundleStorage storage, String objectKey, String sha256);
+    }
+
+    private record InMemoryArchive(byte[] bytes) implements Archive {
+        @Override
+        public long size() {
+            return bytes == null ? 0 : bytes.length;
+        }
+
+        @Override
+        public SeekableByteChannel open() {
+            return new SeekableInMemoryByteChannel(bytes);
+        }
+
+        @Override
+        public String sha256() {
+            return TestBundleService.sha256(bytes);
+        }
+
+        @Override
+        public void store(TestBundleStorage storage, String objectKey, String sha256) {
+            storage.put(objectKey, bytes, sha256);
+        }
+    }
+
+    private record SpooledArchive(TestBundleUpload upload) implements Archive {
+        @Override
+        public long size() {
+            return upload.size();
+        }
+
+        @Override
+        public SeekableByteChannel open() throws IOException {
+            return upload.open();
+        }
+
+        @Override
+        public String sha256() {
+            return upload.sha256();
+        }
+
+        @Override
+        public void store(TestBundleStorage storage, String objectKey, String sha256) {
+            storage.put(objectKey, upload.path(), upload.size(), sha256);
+        }
+    }
 }
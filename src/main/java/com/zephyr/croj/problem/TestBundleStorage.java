@@ -1,5 +1,21 @@
 package com.zephyr.croj.problem;
 
+import java.io.InputStream;
+import java.nio.file.Path;
+
 public interface TestBundleStorage {
     void put(String objectKey, byte[] archive, String sha256);
+
+    /** Uploads {@code sizeBytes} from {@code archive} without reading the file into memory. */
+    void put(String objectKey, Path archive, long sizeBytes, String sha256);
+
+    /** Reads {@code length} bytes of {@code objectKey} from {@code offset}; a negative length reads to the end. */
+    InputStream get(String objectKey, long offset, long length);
+
+    /** Stores one test case file under its SHA-256; the object behind a digest never changes. */
+    void putBlob(String sha256, byte[] contents);
+
+    void putBlob(String sha256, Path contents, long sizeBytes);
+
+    InputStream openBlob(String sha256);
 }
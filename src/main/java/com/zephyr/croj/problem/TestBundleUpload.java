@@ -0,0 +1,87 @@
+package com.zephyr.croj.problem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * An uploaded TestBundle archive spooled to a temporary file, so that validating and storing it
+ * keeps a constant amount of heap per upload. The SHA-256 is computed while spooling; closing the
+ * upload deletes the file.
+ */
+public final class TestBundleUpload implements AutoCloseable {
+    private final Path path;
+    private final long size;
+    private final String sha256;
+
+    private TestBundleUpload(Path path, long size, String sha256) {
+        this.path = path;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    /**
+     * Copies {@code input} to a temporary file, reading at most {@code maxBytes}.
+     *
+     * @throws TestBundleApiException when the archive is larger than {@code maxBytes}
+     */
+    public static TestBundleUpload spool(InputStream input, long maxBytes) throws IOException {
+        Path path = Files.createTempFile("croj-test-bundle-", ".zip");
+        try {
+            MessageDigest digest = sha256Digest();
+            long size = 0;
+            byte[] buffer = new byte[64 * 1024];
+            try (OutputStream output = Files.newOutputStream(path, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw TestBundleApiException.payloadTooLarge();
+                    }
+                    digest.update(buffer, 0, read);
+                    output.write(buffer, 0, read);
+                }
+            }
+            return new TestBundleUpload(path, size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException exception) {
+            Files.deleteIfExists(path);
+            throw exception;
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public String sha256() {
+        return sha256;
+    }
+
+    FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is unavailable", exception);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.List;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -20,6 +21,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @RequiredArgsConstructor
 public class JudgeServiceTokenFilter extends OncePerRequestFilter {
     public static final String TOKEN_HEADER = "X-CROJ-Service-Token";
+    private static final Pattern TEST_BUNDLE_PATH =
+            Pattern.compile("/internal/v1/problem-versions/\\d+/test-bundle");
     private final JudgeResultProperties properties;
 
     @Override
@@ -28,8 +31,12 @@ public class JudgeServiceTokenFilter extends OncePerRequestFilter {
         if (!request.getContextPath().isEmpty() && requestPath.startsWith(request.getContextPath())) {
             requestPath = requestPath.substring(request.getContextPath().length());
         }
+        if ("GET".equals(request.getMethod())) {
+            return !TEST_BUNDLE_PATH.matcher(requestPath).matches();
+        }
         return !"POST".equals(request.getMethod())
-                || !"/internal/v1/judge-results".equals(requestPath);
+                || !("/internal/v1/judge-results".equals(requestPath)
+                        || "/internal/v1/judge-results/batch".equals(requestPath));
     }
 
     @Override
@@ -1,8 +1,13 @@
 package com.zephyr.croj.service;
 
 import com.zephyr.croj.model.dto.JudgeResultRequest;
+import com.zephyr.croj.model.vo.JudgeResultItemResponse;
 import com.zephyr.croj.model.vo.JudgeResultResponse;
+import java.util.List;
 
 public interface JudgeResultService {
     JudgeResultResponse ingest(JudgeResultRequest request);
+
+    /** Ingests results in order and reports each one as {@link #ingest} would, conflicts included. */
+    List<JudgeResultItemResponse> ingestAll(List<JudgeResultRequest> requests);
 }
@@ -8,6 +8,7 @@ import com.zephyr.croj.model.dto.ProblemQueryDTO;
 import com.zephyr.croj.model.dto.ProblemUpdateDTO;
 import com.zephyr.croj.model.entity.Problem;
 import com.zephyr.croj.model.vo.ProblemListItemVO;
+import com.zephyr.croj.model.vo.ProblemSearchVO;
 import com.zephyr.croj.model.vo.ProblemVO;
 
 /**
@@ -70,20 +71,13 @@ public interface ProblemService extends IService<Problem> {
     IPage<ProblemListItemVO> getProblemList(ProblemQueryDTO queryDTO, Long userId);
 
     /**
-     * 更新问题提交数
+     * 搜索题目，关键词匹配题号、标题、来源和标签名，并返回标签与难度分面统计
      *
-     * @param problemId 问题ID
-     * @return 是否成功
-     */
-    boolean incrementSubmitCount(Long problemId);
-
-    /**
-     * 更新问题通过数
-     *
-     * @param problemId 问题ID
-     * @return 是否成功
+     * @param queryDTO 查询条件
+     * @param userId 当前用户ID
+     * @return 搜索结果
      */
-    boolean incrementAcceptedCount(Long problemId);
+    ProblemSearchVO searchProblems(ProblemQueryDTO queryDTO, Long userId);
 
     /**
      * 检查用户是否有权限操作问题
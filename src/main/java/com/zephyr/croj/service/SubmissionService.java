@@ -2,11 +2,16 @@ package com.zephyr.croj.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.spring.service.IService;
+import com.zephyr.croj.model.dto.SubmissionCursorQueryDTO;
 import com.zephyr.croj.model.dto.SubmissionDTO;
 import com.zephyr.croj.model.dto.SubmissionQueryDTO;
 import com.zephyr.croj.model.entity.Submission;
+import com.zephyr.croj.model.vo.SubmissionCursorVO;
 import com.zephyr.croj.model.vo.SubmissionVO;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * 提交记录服务接口
  */
@@ -39,6 +44,15 @@ public interface SubmissionService extends IService<Submission> {
      */
     IPage<SubmissionVO> getSubmissionList(SubmissionQueryDTO queryDTO, Long userId);
 
+    /**
+     * 按游标查询提交列表，不统计总数，不返回代码、判题详情和错误信息
+     *
+     * @param queryDTO 查询条件
+     * @param userId 当前用户ID
+     * @return 当前页提交记录及下一页游标
+     */
+    SubmissionCursorVO getSubmissionCursor(SubmissionCursorQueryDTO queryDTO, Long userId);
+
     /**
      * 模拟判题（仅在没有实际判题系统时使用）
      *
@@ -70,4 +84,13 @@ public interface SubmissionService extends IService<Submission> {
      * @return 通过题目数
      */
     int countUserAcceptedProblems(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 批量获取用户在指定题目上的提交状态
+     *
+     * @param userId 用户ID，可为null
+     * @param problemIds 题目ID列表
+     * @return 题目ID与提交状态（1 已通过，2 尝试过），未提交过的题目不在结果中
+     */
+    Map<Long, Integer> getUserProblemStatuses(Long userId, Collection<Long> problemIds);
+}
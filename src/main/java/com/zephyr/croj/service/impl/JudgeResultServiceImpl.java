@@ -5,38 +5,99 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zephyr.croj.common.enums.JudgeResultStatus;
 import com.zephyr.croj.common.enums.SubmissionStatusEnum;
 import com.zephyr.croj.common.exception.JudgeResultConflictException;
+import com.zephyr.croj.contest.ContestRepository;
 import com.zephyr.croj.mapper.JudgeAttemptMapper;
 import com.zephyr.croj.mapper.JudgeResultReceiptMapper;
-import com.zephyr.croj.mapper.ProblemMapper;
 import com.zephyr.croj.mapper.ProblemVersionMapper;
 import com.zephyr.croj.mapper.SubmissionMapper;
 import com.zephyr.croj.model.dto.JudgeResultRequest;
 import com.zephyr.croj.model.entity.JudgeResultReceipt;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.Submission;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import com.zephyr.croj.model.vo.JudgeResultItemResponse;
 import com.zephyr.croj.model.vo.JudgeResultResponse;
+import com.zephyr.croj.problem.ProblemCounters;
 import com.zephyr.croj.service.JudgeResultService;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.HexFormat;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class JudgeResultServiceImpl implements JudgeResultService {
     private static final int MAX_ERROR_MESSAGE = 16_000;
+    private static final String SELECT_RECEIPTS = """
+            SELECT result_id, submission_id, attempt_no, payload_sha256
+            FROM t_judge_result_receipt WHERE result_id IN (%s)
+            """;
+    private static final String LOCK_OPEN_ATTEMPTS = """
+            SELECT submission_id, attempt_no FROM t_judge_attempt
+            WHERE submission_id IN (%s) AND status IN ('QUEUED', 'RUNNING')
+            FOR UPDATE
+            """;
+    private static final String LOCK_SUBMISSIONS = """
+            SELECT id, user_id, problem_id, problem_version_id, contest_id, status FROM t_submission
+            WHERE id IN (%s) AND is_deleted = 0
+            FOR UPDATE
+            """;
+    private static final String SELECT_VERSIONS = """
+            SELECT id, problem_id, state, limits_json, judge_config_json
+            FROM t_problem_version WHERE id IN (%s)
+            """;
+    private static final String INSERT_RECEIPT = """
+            INSERT INTO t_judge_result_receipt
+              (result_id, submission_id, attempt_no, payload_sha256, final_status)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+    private static final String COMPLETE_ATTEMPT = """
+            UPDATE t_judge_attempt
+            SET status = ?, result_json = ?,
+                started_at = COALESCE(started_at, CURRENT_TIMESTAMP(3)),
+                finished_at = CURRENT_TIMESTAMP(3)
+            WHERE submission_id = ? AND attempt_no = ?
+              AND status IN ('QUEUED', 'RUNNING')
+            """;
+    private static final String COMPLETE_SUBMISSION = """
+            UPDATE t_submission
+            SET status = ?, run_time = ?, memory = ?,
+                score = ?, judge_info = ?, error_message = ?,
+                update_time = CURRENT_TIMESTAMP(3)
+            WHERE id = ? AND status = 0 AND is_deleted = 0
+            """;
 
     private final SubmissionMapper submissions;
     private final JudgeAttemptMapper attempts;
     private final JudgeResultReceiptMapper receipts;
-    private final ProblemMapper problems;
+    private final ProblemCounters problemCounters;
     private final ProblemVersionMapper versions;
     private final ObjectMapper objectMapper;
+    private final ContestRepository contests;
+    private final ApplicationEventPublisher events;
+    private final JdbcTemplate jdbc;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -81,13 +142,251 @@ public class JudgeResultServiceImpl implements JudgeResultService {
                 errorMessage(request, status)) != 1) {
             throw new JudgeResultConflictException("submission terminal state won the update race");
         }
-        if (status == JudgeResultStatus.ACCEPTED
-                && problems.incrementAcceptedCount(submission.getProblemId()) != 1) {
-            throw new IllegalStateException("failed to update accepted submission counter");
+        if (status == JudgeResultStatus.ACCEPTED) {
+            problemCounters.accepted(submission.getProblemId());
         }
+        Long scoreboardRevision = submission.getContestId() == null
+                ? null
+                : contests.bumpScoreboardRevisionForJudged(
+                        submission.getContestId(), List.of(request.getSubmissionId()));
+        events.publishEvent(new SubmissionJudgedEvent(
+                request.getSubmissionId(),
+                submission.getUserId(),
+                submission.getProblemId(),
+                submission.getContestId(),
+                status.submissionCode(),
+                request.getScore(),
+                scoreboardRevision));
         return new JudgeResultResponse("APPLIED");
     }
 
+    /**
+     * Applies a batch in one transaction with one statement per table. The outcome of every item is
+     * the one {@link #ingest} would report for it, in order: a {@code resultId} already received (here
+     * or earlier in the batch) is a duplicate or a conflict, and a submission completed earlier in the
+     * batch is terminal for later items. If the batch transaction fails as a whole, for example
+     * because a concurrent single ingest claimed one of its receipts, every item is retried through
+     * {@link #ingest} in its own transaction.
+     */
+    @Override
+    public List<JudgeResultItemResponse> ingestAll(List<JudgeResultRequest> requests) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            return transaction.execute(status -> applyAll(requests));
+        } catch (RuntimeException exception) {
+            log.warn("batched ingestion of {} judge results failed, applying them one by one", requests.size(), exception);
+        }
+        List<JudgeResultItemResponse> responses = new ArrayList<>(requests.size());
+        for (JudgeResultRequest request : requests) {
+            try {
+                JudgeResultResponse response = transaction.execute(status -> ingest(request));
+                responses.add(new JudgeResultItemResponse(request.getResultId(), response.disposition(), null));
+            } catch (JudgeResultConflictException exception) {
+                responses.add(JudgeResultItemResponse.conflict(request.getResultId(), exception.getMessage()));
+            }
+        }
+        return responses;
+    }
+
+    private List<JudgeResultItemResponse> applyAll(List<JudgeResultRequest> requests) {
+        JudgeResultItemResponse[] responses = new JudgeResultItemResponse[requests.size()];
+        List<Prepared> prepared = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            JudgeResultRequest request = requests.get(index);
+            try {
+                JudgeResultStatus status = validate(request);
+                String resultJson = canonicalPayload(request, status);
+                prepared.add(new Prepared(index, request, status, resultJson, sha256(resultJson)));
+            } catch (JudgeResultConflictException exception) {
+                responses[index] = JudgeResultItemResponse.conflict(request.getResultId(), exception.getMessage());
+            }
+        }
+        if (prepared.isEmpty()) {
+            return List.of(responses);
+        }
+
+        // 与单条回传相同的加锁顺序：先 attempt 后 submission；收件记录在应用时插入。
+        Set<Long> submissionIds = new HashSet<>();
+        Set<String> resultIds = new HashSet<>();
+        prepared.forEach(item -> {
+            submissionIds.add(item.request().getSubmissionId());
+            resultIds.add(item.request().getResultId());
+        });
+        Map<String, Receipt> receipts = new HashMap<>();
+        jdbc.query(
+                SELECT_RECEIPTS.formatted(placeholders(resultIds.size())),
+                (RowCallbackHandler) result -> receipts.put(result.getString("result_id"), new Receipt(
+                        result.getLong("submission_id"),
+                        result.getInt("attempt_no"),
+                        result.getString("payload_sha256"))),
+                resultIds.toArray());
+        Set<AttemptKey> openAttempts = new HashSet<>();
+        jdbc.query(
+                LOCK_OPEN_ATTEMPTS.formatted(placeholders(submissionIds.size())),
+                (RowCallbackHandler) result -> openAttempts.add(
+                        new AttemptKey(result.getLong("submission_id"), result.getInt("attempt_no"))),
+                submissionIds.toArray());
+        Map<Long, Locked> submissions = new HashMap<>();
+        jdbc.query(
+                LOCK_SUBMISSIONS.formatted(placeholders(submissionIds.size())),
+                (RowCallbackHandler) result -> submissions.put(result.getLong("id"), new Locked(
+                        result.getLong("user_id"),
+                        result.getLong("problem_id"),
+                        result.getObject("problem_version_id", Long.class),
+                        result.getObject("contest_id", Long.class),
+                        result.getInt("status"))),
+                submissionIds.toArray());
+        Set<Long> versionIds = new HashSet<>();
+        submissions.values().forEach(submission -> {
+            if (submission.problemVersionId() != null) {
+                versionIds.add(submission.problemVersionId());
+            }
+        });
+        Map<Long, VersionCheck> versionChecks = new HashMap<>();
+        if (!versionIds.isEmpty()) {
+            jdbc.query(
+                    SELECT_VERSIONS.formatted(placeholders(versionIds.size())),
+                    (RowCallbackHandler) result -> versionChecks.put(result.getLong("id"), versionCheck(
+                            result.getLong("problem_id"),
+                            result.getString("state"),
+                            result.getString("limits_json"),
+                            result.getString("judge_config_json"))),
+                    versionIds.toArray());
+        }
+
+        List<Applied> applied = new ArrayList<>();
+        Set<Long> completed = new HashSet<>();
+        for (Prepared item : prepared) {
+            JudgeResultRequest request = item.request();
+            try {
+                Receipt existing = receipts.get(request.getResultId());
+                if (existing != null) {
+                    if (request.getSubmissionId().equals(existing.submissionId())
+                            && request.getAttemptNo().equals(existing.attemptNo())
+                            && constantTimeEquals(item.payloadHash(), existing.payloadSha256())) {
+                        responses[item.index()] = new JudgeResultItemResponse(request.getResultId(), "DUPLICATE", null);
+                        continue;
+                    }
+                    throw new JudgeResultConflictException("resultId was already used for a different payload");
+                }
+                Locked submission = submissions.get(request.getSubmissionId());
+                if (submission == null
+                        || !SubmissionStatusEnum.PENDING.getCode().equals(submission.status())
+                        || completed.contains(request.getSubmissionId())) {
+                    throw new JudgeResultConflictException("submission is missing or already terminal");
+                }
+                if (submission.problemVersionId() == null) {
+                    throw new JudgeResultConflictException("submission has no immutable problem version");
+                }
+                VersionCheck version = versionChecks.get(submission.problemVersionId());
+                if (version == null
+                        || version.problemId() != submission.problemId()
+                        || !"PUBLISHED".equals(version.state())) {
+                    throw new JudgeResultConflictException("immutable problem version is unavailable");
+                }
+                if (version.failure() != null) {
+                    throw version.failure();
+                }
+                checkScore(request, item.status(), version.config());
+                if (!openAttempts.remove(new AttemptKey(request.getSubmissionId(), request.getAttemptNo()))) {
+                    throw new JudgeResultConflictException("judge attempt is missing, stale, or already terminal");
+                }
+                receipts.put(request.getResultId(), new Receipt(
+                        request.getSubmissionId(), request.getAttemptNo(), item.payloadHash()));
+                completed.add(request.getSubmissionId());
+                applied.add(new Applied(item, submission));
+                responses[item.index()] = new JudgeResultItemResponse(request.getResultId(), "APPLIED", null);
+            } catch (JudgeResultConflictException exception) {
+                responses[item.index()] = JudgeResultItemResponse.conflict(request.getResultId(), exception.getMessage());
+            }
+        }
+        if (!applied.isEmpty()) {
+            write(applied);
+        }
+        return List.of(responses);
+    }
+
+    private void write(List<Applied> applied) {
+        jdbc.batchUpdate(INSERT_RECEIPT, applied, applied.size(), (statement, item) -> {
+            JudgeResultRequest request = item.prepared().request();
+            statement.setString(1, request.getResultId());
+            statement.setLong(2, request.getSubmissionId());
+            statement.setInt(3, request.getAttemptNo());
+            statement.setString(4, item.prepared().payloadHash());
+            statement.setString(5, item.prepared().status().name());
+        });
+        requireOneRowEach(jdbc.batchUpdate(COMPLETE_ATTEMPT, applied, applied.size(), (statement, item) -> {
+            JudgeResultRequest request = item.prepared().request();
+            statement.setString(1, item.prepared().status().name());
+            statement.setString(2, item.prepared().resultJson());
+            statement.setLong(3, request.getSubmissionId());
+            statement.setInt(4, request.getAttemptNo());
+        }));
+        requireOneRowEach(jdbc.batchUpdate(COMPLETE_SUBMISSION, applied, applied.size(), (statement, item) -> {
+            JudgeResultRequest request = item.prepared().request();
+            statement.setInt(1, item.prepared().status().submissionCode());
+            statement.setInt(2, request.getTimeUsedMillis());
+            statement.setInt(3, request.getMemoryUsedKb());
+            statement.setObject(4, request.getScore(), Types.INTEGER);
+            statement.setString(5, item.prepared().resultJson());
+            statement.setString(6, errorMessage(request, item.prepared().status()));
+            statement.setLong(7, request.getSubmissionId());
+        }));
+
+        // 每场比赛的榜单修订号一次性递增本批结果数，并按顺序分配给各条结果，保持修订号连续。
+        Map<Long, List<Long>> perContest = new TreeMap<>();
+        applied.forEach(item -> {
+            if (item.submission().contestId() != null) {
+                perContest.computeIfAbsent(item.submission().contestId(), contestId -> new ArrayList<>())
+                        .add(item.prepared().request().getSubmissionId());
+            }
+        });
+        Map<Long, Long> nextRevision = new HashMap<>();
+        perContest.forEach((contestId, judged) -> nextRevision.put(
+                contestId, contests.bumpScoreboardRevisionForJudged(contestId, judged) - judged.size() + 1));
+        for (Applied item : applied) {
+            JudgeResultRequest request = item.prepared().request();
+            if (item.prepared().status() == JudgeResultStatus.ACCEPTED) {
+                problemCounters.accepted(item.submission().problemId());
+            }
+            Long contestId = item.submission().contestId();
+            Long scoreboardRevision = contestId == null ? null : nextRevision.merge(contestId, 1L, Long::sum) - 1;
+            events.publishEvent(new SubmissionJudgedEvent(
+                    request.getSubmissionId(),
+                    item.submission().userId(),
+                    item.submission().problemId(),
+                    contestId,
+                    item.prepared().status().submissionCode(),
+                    request.getScore(),
+                    scoreboardRevision));
+        }
+    }
+
+    private VersionCheck versionCheck(long problemId, String state, String limitsJson, String judgeConfigJson) {
+        if (!"PUBLISHED".equals(state)) {
+            return new VersionCheck(problemId, state, null, null);
+        }
+        try {
+            return new VersionCheck(problemId, state, scoreConfig(limitsJson, judgeConfigJson), null);
+        } catch (JudgeResultConflictException exception) {
+            return new VersionCheck(problemId, state, null, exception);
+        }
+    }
+
+    private static void requireOneRowEach(int[][] counts) {
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+                    throw new IllegalStateException("batched judge result update lost its compare-and-set");
+                }
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
     private JudgeResultStatus validate(JudgeResultRequest request) {
         JudgeResultStatus status = JudgeResultStatus.parse(request.getStatus());
         if (status == JudgeResultStatus.ACCEPTED && request.getExitCode() != 0) {
@@ -121,9 +420,14 @@ public class JudgeResultServiceImpl implements JudgeResultService {
                 || !"PUBLISHED".equals(version.getState())) {
             throw new JudgeResultConflictException("immutable problem version is unavailable");
         }
+        checkScore(request, status, scoreConfig(version.getLimitsJson(), version.getJudgeConfigJson()));
+    }
+
+    /** Reads the judge mode and, for OI, the total score pinned by an immutable problem version. */
+    private ScoreConfig scoreConfig(String limitsJson, String judgeConfigJson) {
         try {
-            var limits = objectMapper.readTree(version.getLimitsJson());
-            var judge = objectMapper.readTree(version.getJudgeConfigJson());
+            var limits = objectMapper.readTree(limitsJson);
+            var judge = objectMapper.readTree(judgeConfigJson);
             if (limits == null
                     || !limits.isObject()
                     || judge == null
@@ -133,35 +437,40 @@ public class JudgeResultServiceImpl implements JudgeResultService {
             }
             int judgeMode = judge.path("judgeMode").intValue();
             if (judgeMode == 0) {
-                if (request.getScore() != null) {
-                    throw new JudgeResultConflictException("ACM result must not contain a score");
-                }
-                return;
+                return new ScoreConfig(null);
             }
             if (judgeMode != 1
                     || !limits.path("totalScore").isIntegralNumber()
                     || limits.path("totalScore").intValue() <= 0) {
                 throw new JudgeResultConflictException("immutable judge score config is invalid");
             }
-            int immutableTotal = limits.path("totalScore").intValue();
-            if (status == JudgeResultStatus.SYSTEM_ERROR && request.getScore() == null) {
-                return;
-            }
-            if (request.getScore() == null
-                    || !Integer.valueOf(immutableTotal).equals(request.getTotalScore())) {
-                throw new JudgeResultConflictException(
-                        "OI result totalScore disagrees with the immutable problem version");
-            }
-            boolean fullScore = request.getScore().equals(request.getTotalScore());
-            if ((status == JudgeResultStatus.ACCEPTED) != fullScore) {
-                throw new JudgeResultConflictException(
-                        "OI ACCEPTED status must exactly match a full score");
-            }
+            return new ScoreConfig(limits.path("totalScore").intValue());
         } catch (JsonProcessingException | IllegalArgumentException exception) {
             throw new JudgeResultConflictException("immutable judge score config is invalid");
         }
     }
 
+    private void checkScore(JudgeResultRequest request, JudgeResultStatus status, ScoreConfig config) {
+        if (config.totalScore() == null) {
+            if (request.getScore() != null) {
+                throw new JudgeResultConflictException("ACM result must not contain a score");
+            }
+            return;
+        }
+        if (status == JudgeResultStatus.SYSTEM_ERROR && request.getScore() == null) {
+            return;
+        }
+        if (request.getScore() == null || !config.totalScore().equals(request.getTotalScore())) {
+            throw new JudgeResultConflictException(
+                    "OI result totalScore disagrees with the immutable problem version");
+        }
+        boolean fullScore = request.getScore().equals(request.getTotalScore());
+        if ((status == JudgeResultStatus.ACCEPTED) != fullScore) {
+            throw new JudgeResultConflictException(
+                    "OI ACCEPTED status must exactly match a full score");
+        }
+    }
+
     private String canonicalPayload(JudgeResultRequest request, JudgeResultStatus status) {
         Map<String, Object> payload = new LinkedHashMap<>();
         payload.put("resultId", request.getResultId());
@@ -215,4 +524,20 @@ public class JudgeResultServiceImpl implements JudgeResultService {
     private String nullToEmpty(String value) {
         return value == null ? "" : value;
     }
+
+    private record ScoreConfig(Integer totalScore) {}
+
+    private record Prepared(
+            int index, JudgeResultRequest request, JudgeResultStatus status, String resultJson, String payloadHash) {}
+
+    private record Receipt(long submissionId, int attemptNo, String payloadSha256) {}
+
+    private record AttemptKey(long submissionId, int attemptNo) {}
+
+    private record Locked(long userId, long problemId, Long problemVersionId, Long contestId, int status) {}
+
+    private record VersionCheck(
+            long problemId, String state, ScoreConfig config, JudgeResultConflictException failure) {}
+
+    private record Applied(Prepared prepared, Locked submission) {}
 }
@@ -15,25 +15,32 @@ import com.zephyr.croj.model.dto.ProblemUpdateDTO;
 import com.zephyr.croj.model.entity.Problem;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.User;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
 import com.zephyr.croj.model.projection.ProblemTagProjection;
 import com.zephyr.croj.model.vo.ProblemListItemVO;
+import com.zephyr.croj.model.vo.ProblemSearchVO;
 import com.zephyr.croj.model.vo.ProblemTagVO;
 import com.zephyr.croj.model.vo.ProblemVO;
+import com.zephyr.croj.problem.ProblemCatalogSearch;
+import com.zephyr.croj.problem.ProblemSearchIndex;
 import com.zephyr.croj.problem.ProblemVersionProjectionContract;
+import com.zephyr.croj.problem.PublishedProblemProjections;
+import com.zephyr.croj.problem.PublishedProblemProjection;
 import com.zephyr.croj.service.ProblemService;
 import com.zephyr.croj.service.ProblemTagService;
 import com.zephyr.croj.service.UserService;
+import com.zephyr.croj.submission.UserProblemStatuses;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.time.LocalDateTime;
@@ -43,6 +50,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -58,6 +66,10 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
     private final UserService userService;
     private final ProblemVersionMapper problemVersions;
     private final ObjectMapper objectMapper;
+    private final PublishedProblemProjections publishedProjections;
+    private final UserProblemStatuses userProblemStatuses;
+    private final ProblemCatalogSearch catalogSearch;
+    private final ApplicationEventPublisher events;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -176,6 +188,12 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
                 problemVersions.findLatestVersionNumber(problem.getId()) + 1,
                 requestedTagIds);
 
+        // 未版本化的公开题目编辑后转为私有草稿，需要从目录搜索索引中移除
+        if (!Objects.equals(stableStatus, problem.getStatus())
+                || !Objects.equals(stablePublishedVersionId, problem.getPublishedVersionId())) {
+            events.publishEvent(new ProblemCatalogChangedEvent(problem.getId()));
+        }
+
         return true;
     }
 
@@ -201,6 +219,7 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
 
         // 删除标签关联
         problemTagService.deleteProblemTags(id);
+        events.publishEvent(new ProblemCatalogChangedEvent(id));
 
         return true;
     }
@@ -223,7 +242,7 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
         ProblemVO vo = convertToVO(problem);
         boolean publishedProjection = problem.getPublishedVersionId() != null && !canEdit;
         if (problem.getPublishedVersionId() != null && !canEdit) {
-            applyPublishedSnapshot(vo, problemVersions.selectById(problem.getPublishedVersionId()));
+            applyPublishedSnapshot(vo, publishedProjection(problem.getPublishedVersionId()));
         }
 
         if (!publishedProjection) {
@@ -254,7 +273,7 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
         ProblemVO vo = convertToVO(problem);
         boolean publishedProjection = problem.getPublishedVersionId() != null && !canEdit;
         if (problem.getPublishedVersionId() != null && !canEdit) {
-            applyPublishedSnapshot(vo, problemVersions.selectById(problem.getPublishedVersionId()));
+            applyPublishedSnapshot(vo, publishedProjection(problem.getPublishedVersionId()));
         }
 
         if (!publishedProjection) {
@@ -269,22 +288,134 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
 
     @Override
     public IPage<ProblemListItemVO> getProblemList(ProblemQueryDTO queryDTO, Long userId) {
-        // 创建分页对象
-        Page<ProblemVO> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
-
         // 查询条件
         String keyword = queryDTO.getKeyword();
         Integer difficulty = queryDTO.getDifficulty();
         Integer status = queryDTO.getStatus();
         List<Long> tagIds = queryDTO.getTagIds();
 
-        // 查询问题列表
         User viewer = userId == null ? null : userService.getById(userId);
         boolean canManageAll = isAdministrator(viewer);
-        IPage<ProblemVO> problemPage =
-                baseMapper.getProblemList(page, keyword, difficulty, status, tagIds, userId, canManageAll);
+
+        // 非管理员的关键词查询走内存目录索引，索引尚未建好时回退到数据库
+        Optional<ProblemSearchIndex> index = canManageAll || !StringUtils.hasText(keyword)
+                ? Optional.empty()
+                : catalogSearch.current();
+        if (index.isPresent()) {
+            ProblemSearchIndex.Result matches = index.get().search(searchQuery(queryDTO, userId));
+            return toListItems(searchPage(matches, queryDTO, userId), userId);
+        }
+
+        // 查询问题列表
+        Page<ProblemVO> page = new Page<>(queryDTO.getCurrent(), queryDTO.getSize());
+        IPage<ProblemVO> problemPage = baseMapper.getProblemList(
+                page, likeKeyword(keyword), difficulty, status, tagIds, userId, canManageAll);
         applyPublishedSnapshots(problemPage.getRecords(), userId, canManageAll);
+        return toListItems(problemPage, userId);
+    }
+
+    @Override
+    public ProblemSearchVO searchProblems(ProblemQueryDTO queryDTO, Long userId) {
+        User viewer = userId == null ? null : userService.getById(userId);
+        Optional<ProblemSearchIndex> index = isAdministrator(viewer) ? Optional.empty() : catalogSearch.current();
+
+        ProblemSearchVO result = new ProblemSearchVO();
+        IPage<ProblemListItemVO> page;
+        if (index.isPresent()) {
+            ProblemSearchIndex.Result matches = index.get().search(searchQuery(queryDTO, userId));
+            page = toListItems(searchPage(matches, queryDTO, userId), userId);
+            Map<Long, String> tagNames = index.get().tagNames();
+            result.setTagFacets(matches.tagCounts().entrySet().stream()
+                    .map(count -> new ProblemSearchVO.TagFacet(
+                            count.getKey(), tagNames.get(count.getKey()), count.getValue()))
+                    .toList());
+            result.setDifficultyFacets(matches.difficultyCounts().entrySet().stream()
+                    .map(count -> new ProblemSearchVO.DifficultyFacet(count.getKey(), count.getValue()))
+                    .toList());
+        } else {
+            // 管理员或索引未就绪：与列表相同的数据库查询，不提供分面统计
+            page = getProblemList(queryDTO, userId);
+            result.setTagFacets(List.of());
+            result.setDifficultyFacets(List.of());
+        }
+        result.setRecords(page.getRecords());
+        result.setTotal(page.getTotal());
+        result.setCurrent(page.getCurrent());
+        result.setSize(page.getSize());
+        return result;
+    }
+
+    private ProblemSearchIndex.Query searchQuery(ProblemQueryDTO queryDTO, Long userId) {
+        return new ProblemSearchIndex.Query(
+                queryDTO.getKeyword(), queryDTO.getDifficulty(), queryDTO.getTagIds(), userId);
+    }
+
+    /**
+     * 索引命中的公开题目与自己创建的题目按题号合并后分页；公开题目只按主键读取当前页，
+     * 提交数等计数仍取自 t_problem。
+     *
+     * <p>其他副本删除或转为私有的题目在下次全量重建前仍可能命中索引。当前页读不到的命中会从总数中扣除，
+     * 并立即从本副本索引中移除；其他页上的过期命中在被翻到或重建之前仍计入总数，当前页也会少于 size 条。
+     */
+    private IPage<ProblemVO> searchPage(ProblemSearchIndex.Result matches, ProblemQueryDTO queryDTO, Long userId) {
+        Integer status = queryDTO.getStatus();
+        List<ProblemSearchIndex.Hit> publicHits = status == null || status == 0 ? matches.hits() : List.of();
+        List<ProblemVO> own = userId == null
+                ? List.of()
+                : baseMapper.getOwnProblemList(
+                        likeKeyword(queryDTO.getKeyword()), queryDTO.getDifficulty(), status, queryDTO.getTagIds(),
+                        userId);
+
+        long from = (queryDTO.getCurrent() - 1) * queryDTO.getSize();
+        long to = from + queryDTO.getSize();
+        List<Object> slice = new ArrayList<>();
+        int publicIndex = 0;
+        int ownIndex = 0;
+        for (long position = 0; position < to && (publicIndex < publicHits.size() || ownIndex < own.size()); position++) {
+            boolean takePublic = ownIndex >= own.size()
+                    || publicIndex < publicHits.size()
+                    && publicHits.get(publicIndex).problemNo().compareTo(own.get(ownIndex).getProblemNo()) <= 0;
+            Object next = takePublic ? publicHits.get(publicIndex++).problemId() : own.get(ownIndex++);
+            if (position >= from) {
+                slice.add(next);
+            }
+        }
+
+        List<Long> publicIds = slice.stream().filter(Long.class::isInstance).map(Long.class::cast).toList();
+        Map<Long, ProblemVO> hydrated = publicIds.isEmpty()
+                ? Map.of()
+                : baseMapper.getCatalogProblems(publicIds).stream()
+                        .collect(Collectors.toMap(ProblemVO::getId, view -> view));
+        List<ProblemVO> records = new ArrayList<>(slice.size());
+        int stale = 0;
+        for (Object item : slice) {
+            ProblemVO view = item instanceof Long id ? hydrated.get(id) : (ProblemVO) item;
+            if (view != null) {
+                records.add(view);
+            } else {
+                stale++;
+                events.publishEvent(new ProblemCatalogChangedEvent((Long) item));
+            }
+        }
+        applyPublishedSnapshots(records, userId, false);
+
+        IPage<ProblemVO> page = new Page<>(
+                queryDTO.getCurrent(), queryDTO.getSize(), publicHits.size() + own.size() - stale);
+        page.setRecords(records);
+        return page;
+    }
 
+    /**
+     * 数据库模糊匹配使用的关键词：与目录搜索索引一样去掉首尾空白，并把 LIKE 通配符当作普通字符。
+     */
+    private static String likeKeyword(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        return keyword.strip().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private IPage<ProblemListItemVO> toListItems(IPage<ProblemVO> problemPage, Long userId) {
         // 获取所有问题ID
         List<Long> problemIds = problemPage.getRecords().stream()
                 .map(ProblemVO::getId)
@@ -296,6 +427,11 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
             allTags = problemTagService.getTagsByProblemIds(problemIds);
         }
 
+        // 当前页的用户提交状态
+        Map<Long, Integer> userStatuses = userId == null
+                ? Map.of()
+                : userProblemStatuses.statuses(userId, problemIds);
+
         // 标签按问题ID分组
         Map<Long, List<ProblemTagVO>> tagMap = allTags.stream()
                 .collect(Collectors.groupingBy(
@@ -327,7 +463,7 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
                             : problem.getTags());
 
                     // 设置用户提交状态
-                    itemVO.setUserStatus(problem.getUserStatus());
+                    itemVO.setUserStatus(userStatuses.getOrDefault(problem.getId(), 0));
 
                     return itemVO;
                 })
@@ -340,16 +476,6 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
         return result;
     }
 
-    @Override
-    public boolean incrementSubmitCount(Long problemId) {
-        return baseMapper.incrementSubmitCount(problemId) > 0;
-    }
-
-    @Override
-    public boolean incrementAcceptedCount(Long problemId) {
-        return baseMapper.incrementAcceptedCount(problemId) > 0;
-    }
-
     @Override
     public boolean checkPermission(Long problemId, Long userId) {
         if (userId == null) {
@@ -398,7 +524,7 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
         if (userId == null) {
             return 0;
         }
-        return baseMapper.getUserSubmitStatus(problemId, userId);
+        return userProblemStatuses.statuses(userId, List.of(problemId)).getOrDefault(problemId, 0);
     }
 
     /**
@@ -426,99 +552,31 @@ public class ProblemServiceImpl extends ServiceImpl<ProblemMapper, Problem> impl
         if (versionIds.isEmpty()) {
             return;
         }
-        Map<Long, ProblemVersion> snapshots = problemVersions.selectBatchIds(versionIds).stream()
-                .collect(Collectors.toMap(ProblemVersion::getId, version -> version));
+        Map<Long, PublishedProblemProjection> snapshots;
+        try {
+            snapshots = publishedProjections.getAll(versionIds, problemVersions::selectBatchIds);
+        } catch (IllegalArgumentException exception) {
+            throw new BusinessException(ResultCodeEnum.SYSTEM_ERROR);
+        }
         views.stream()
                 .filter(view -> view.getPublishedVersionId() != null)
                 .filter(view -> !Objects.equals(view.getCreateUserId(), userId))
                 .forEach(view -> applyPublishedSnapshot(view, snapshots.get(view.getPublishedVersionId())));
     }
 
-    private void applyPublishedSnapshot(ProblemVO view, ProblemVersion version) {
-        if (version == null
-                || !"PUBLISHED".equals(version.getState())
-                || !Boolean.TRUE.equals(version.getProjectionComplete())) {
-            throw new BusinessException(ResultCodeEnum.SYSTEM_ERROR);
-        }
-        try {
-            new ProblemVersionProjectionContract(objectMapper).assertComplete(version);
-            JsonNode statement = objectMapper.readTree(version.getStatementJson());
-            JsonNode limits = objectMapper.readTree(version.getLimitsJson());
-            JsonNode judge = objectMapper.readTree(version.getJudgeConfigJson());
-            view.setTitle(requiredText(statement, "title"));
-            view.setDescription(requiredText(statement, "description"));
-            view.setInputDescription(requiredText(statement, "inputDescription"));
-            view.setOutputDescription(requiredText(statement, "outputDescription"));
-            view.setHints(objectMapper.convertValue(
-                    statement.path("hints"), new TypeReference<List<String>>() {}));
-            view.setSamples(objectMapper.convertValue(
-                    statement.path("samples"), new TypeReference<List<Map<String, String>>>() {}));
-            JsonNode source = statement.get("source");
-            view.setSource(source == null || source.isNull() ? null : source.textValue());
-            view.setTags(requiredTags(statement));
-            view.setTimeLimit(requiredInt(limits, "timeLimit"));
-            view.setMemoryLimit(requiredInt(limits, "memoryLimit"));
-            JsonNode totalScore = limits.get("totalScore");
-            view.setTotalScore(totalScore == null || totalScore.isNull() ? null : totalScore.intValue());
-            view.setIsSpecialJudge(judge.path("specialJudge").booleanValue());
-            JsonNode specialJudgeLanguage = judge.get("specialJudgeLanguage");
-            view.setSpecialJudgeLanguage(specialJudgeLanguage == null || specialJudgeLanguage.isNull()
-                    ? null
-                    : specialJudgeLanguage.textValue());
-            view.setJudgeMode(requiredInt(judge, "judgeMode"));
-            view.setChecker(requiredText(judge, "checker"));
-            view.setDifficulty(requiredInt(judge, "difficulty"));
-        } catch (JsonProcessingException
-                | IllegalArgumentException
-                | ProblemVersionProjectionContract.ContractViolation exception) {
+    private void applyPublishedSnapshot(ProblemVO view, PublishedProblemProjection projection) {
+        if (projection == null) {
             throw new BusinessException(ResultCodeEnum.SYSTEM_ERROR);
         }
+        projection.applyTo(view);
     }
 
-    private String requiredText(JsonNode object, String field) {
-        JsonNode value = object == null ? null : object.get(field);
-        if (value == null || !value.isTextual()) {
-            throw new IllegalArgumentException("published problem snapshot is incomplete");
-        }
-        return value.textValue();
-    }
-
-    private int requiredInt(JsonNode object, String field) {
-        JsonNode value = object == null ? null : object.get(field);
-        if (value == null || !value.isIntegralNumber() || !value.canConvertToInt()) {
-            throw new IllegalArgumentException("published problem snapshot is incomplete");
-        }
-        return value.intValue();
-    }
-
-    private List<ProblemTagVO> requiredTags(JsonNode statement) {
-        JsonNode tags = statement == null ? null : statement.get("tags");
-        if (tags == null || !tags.isArray()) {
-            throw new IllegalArgumentException("published problem snapshot is incomplete");
-        }
-        List<ProblemTagVO> result = new ArrayList<>();
-        for (JsonNode tag : tags) {
-            JsonNode id = tag == null ? null : tag.get("id");
-            JsonNode name = tag == null ? null : tag.get("name");
-            JsonNode color = tag == null ? null : tag.get("color");
-            if (tag == null
-                    || !tag.isObject()
-                    || id == null
-                    || !id.isIntegralNumber()
-                    || !id.canConvertToLong()
-                    || name == null
-                    || !name.isTextual()
-                    || color == null
-                    || !color.isTextual()) {
-                throw new IllegalArgumentException("published problem snapshot is incomplete");
-            }
-            ProblemTagVO view = new ProblemTagVO();
-            view.setId(id.longValue());
-            view.setName(name.textValue());
-            view.setColor(color.textValue());
-            result.add(view);
+    private PublishedProblemProjection publishedProjection(Long versionId) {
+        try {
+            return publishedProjections.get(versionId, problemVersions::selectById);
+        } catch (IllegalArgumentException exception) {
+            throw new BusinessException(ResultCodeEnum.SYSTEM_ERROR);
         }
-        return List.copyOf(result);
     }
 
     /**
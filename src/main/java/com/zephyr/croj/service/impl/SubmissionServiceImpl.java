@@ -6,27 +6,29 @@ import com.baomidou.mybatisplus.spring.service.impl.ServiceImpl;
 import com.zephyr.croj.common.enums.ResultCodeEnum;
 import com.zephyr.croj.common.enums.SubmissionStatusEnum;
 import com.zephyr.croj.common.exception.BusinessException;
-import com.zephyr.croj.contest.ContestService;
 import com.zephyr.croj.mapper.SubmissionMapper;
-import com.zephyr.croj.mapper.JudgeAttemptMapper;
-import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.model.dto.SubmissionCursorQueryDTO;
 import com.zephyr.croj.model.dto.SubmissionDTO;
 import com.zephyr.croj.model.dto.SubmissionQueryDTO;
-import com.zephyr.croj.model.entity.Problem;
 import com.zephyr.croj.model.entity.Submission;
-import com.zephyr.croj.model.entity.JudgeAttempt;
 import com.zephyr.croj.model.entity.User;
+import com.zephyr.croj.model.vo.SubmissionCursorVO;
 import com.zephyr.croj.model.vo.SubmissionVO;
-import com.zephyr.croj.outbox.SubmissionOutbox;
-import com.zephyr.croj.service.ProblemService;
+import com.zephyr.croj.problem.ProblemCounters;
 import com.zephyr.croj.service.SubmissionService;
 import com.zephyr.croj.service.UserService;
+import com.zephyr.croj.submission.SubmissionAdmission;
+import com.zephyr.croj.submission.SubmissionDisplayNames;
+import com.zephyr.croj.submission.SubmissionWriter;
+import com.zephyr.croj.submission.UserProblemStatuses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -37,73 +39,34 @@ import java.util.Objects;
 public class SubmissionServiceImpl extends ServiceImpl<SubmissionMapper, Submission> implements SubmissionService {
 
     private final UserService userService;
-    private final ProblemService problemService;
-    private final SubmissionOutbox submissionOutbox;
-    private final JudgeAttemptMapper judgeAttempts;
-    private final ContestService contestService;
-    private final ProblemVersionMapper problemVersions;
+    private final UserProblemStatuses userProblemStatuses;
+    private final ProblemCounters problemCounters;
+    private final SubmissionAdmission submissionAdmission;
+    private final SubmissionWriter submissionWriter;
+    private final SubmissionDisplayNames submissionDisplayNames;
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public Long submitCode(SubmissionDTO dto, Long userId) {
-        // 检查用户是否存在
-        User user = userService.getById(userId);
-        if (user == null) {
-            throw new BusinessException(ResultCodeEnum.USER_NOT_EXIST);
-        }
-
-        // 检查题目是否存在
-        Problem problem = problemService.getById(dto.getProblemId());
-        if (problem == null) {
-            throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_EXIST);
-        }
+        // 用户、题目、比赛阶段、报名和判题版本一并校验，缓存未命中时只查询一次数据库
+        long problemVersionId = submissionAdmission.admit(userId, dto.getProblemId(), dto.getContestId());
 
         // 创建提交记录
         Submission submission = new Submission();
         submission.setProblemId(dto.getProblemId());
-        if (dto.getContestId() != null) {
-            // 比赛授权和锁定版本均由比赛聚合决定，不受题库当前可见性影响。
-            submission.setContestId(dto.getContestId());
-            submission.setProblemVersionId(
-                    contestService.validateSubmission(dto.getContestId(), userId, dto.getProblemId()));
-        } else {
-            // 题库提交仍遵守题目的当前公开状态和所有权。
-            if (!problem.getStatus().equals(0) && !problemService.checkPermission(problem.getId(), userId)) {
-                throw new BusinessException(ResultCodeEnum.FORBIDDEN);
-            }
-            Long publishedVersionId = problem.getPublishedVersionId();
-            if (publishedVersionId == null
-                    || !problemVersions.isJudgeReady(problem.getId(), publishedVersionId)) {
-                throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY);
-            }
-            submission.setProblemVersionId(publishedVersionId);
-        }
+        submission.setContestId(dto.getContestId());
+        submission.setProblemVersionId(problemVersionId);
         submission.setUserId(userId);
         submission.setLanguage(dto.getLanguage());
         submission.setCode(dto.getCode());
         submission.setStatus(SubmissionStatusEnum.PENDING.getCode()); // 状态设为排队中
 
-        // 保存提交记录
-        boolean saved = save(submission);
-        if (!saved) {
-            throw new BusinessException(ResultCodeEnum.CREATE_ERROR);
-        }
+        // 提交记录、首个判题尝试和 outbox 事件在同一事务中批量写入并提交；开启 group commit 时与并发提交合并为一个事务。
+        submissionWriter.write(submission);
 
-        // 更新题目提交数
-        if (!problemService.incrementSubmitCount(dto.getProblemId())) {
-            throw new BusinessException(ResultCodeEnum.UPDATE_ERROR);
-        }
-
-        JudgeAttempt attempt = new JudgeAttempt();
-        attempt.setSubmissionId(submission.getId());
-        attempt.setAttemptNo(1);
-        attempt.setStatus("QUEUED");
-        if (judgeAttempts.insert(attempt) != 1) {
-            throw new BusinessException(ResultCodeEnum.CREATE_ERROR);
-        }
-
-        // 与提交记录处于同一数据库事务；消息由独立发布器可靠投递。
-        submissionOutbox.enqueue(submission);
+        // 以下状态更新均发生在提交记录已提交之后
+        userProblemStatuses.submitted(userId, submission.getProblemId());
+        // 题目提交数在事务提交后合并写回，不在请求事务内争抢 t_problem 行锁
+        problemCounters.submitted(submission.getProblemId());
 
         return submission.getId();
     }
@@ -169,6 +132,53 @@ public class SubmissionServiceImpl extends ServiceImpl<SubmissionMapper, Submiss
         return submissionPage;
     }
 
+    @Override
+    public SubmissionCursorVO getSubmissionCursor(SubmissionCursorQueryDTO queryDTO, Long userId) {
+        // 权限规则与分页列表一致：非管理员只能查看自己的提交
+        User user = userService.getById(userId);
+        boolean isAdmin = user != null && (user.getRole() == 1 || user.getRole() == 2);
+        if (!isAdmin && queryDTO.getUserId() != null && !queryDTO.getUserId().equals(userId)) {
+            throw new BusinessException(ResultCodeEnum.FORBIDDEN);
+        }
+        Long effectiveUserId = isAdmin ? queryDTO.getUserId() : userId;
+
+        // 多取一条用于判断是否还有下一页，不执行 COUNT
+        int size = queryDTO.getSize();
+        List<SubmissionVO> records = baseMapper.listSubmissionFeed(
+                effectiveUserId,
+                queryDTO.getProblemId(),
+                queryDTO.getLanguage(),
+                queryDTO.getStatus(),
+                queryDTO.getBeforeId(),
+                size + 1
+        );
+        boolean hasMore = records.size() > size;
+        if (hasMore) {
+            records = records.subList(0, size);
+        }
+
+        // 题号、标题和用户名从缓存批量补全，不在列表查询中关联题目表和用户表
+        Map<Long, SubmissionDisplayNames.ProblemName> problems =
+                submissionDisplayNames.problems(records.stream().map(SubmissionVO::getProblemId).toList());
+        Map<Long, String> usernames =
+                submissionDisplayNames.usernames(records.stream().map(SubmissionVO::getUserId).toList());
+        for (SubmissionVO vo : records) {
+            SubmissionStatusEnum statusEnum = SubmissionStatusEnum.getByCode(vo.getStatus());
+            vo.setStatusText(statusEnum != null ? statusEnum.getDesc() : "未知状态");
+            SubmissionDisplayNames.ProblemName problem = problems.get(vo.getProblemId());
+            if (problem != null) {
+                vo.setProblemNo(problem.problemNo());
+                vo.setProblemTitle(problem.title());
+            }
+            vo.setUsername(usernames.get(vo.getUserId()));
+        }
+
+        SubmissionCursorVO cursor = new SubmissionCursorVO();
+        cursor.setRecords(records);
+        cursor.setNextBeforeId(hasMore ? records.get(records.size() - 1).getId() : null);
+        return cursor;
+    }
+
     /**
      * 将提交记录转换为VO
      */
@@ -203,6 +213,14 @@ public class SubmissionServiceImpl extends ServiceImpl<SubmissionMapper, Submiss
         return baseMapper.countUserAcceptedProblems(userId);
     }
 
+    @Override
+    public Map<Long, Integer> getUserProblemStatuses(Long userId, Collection<Long> problemIds) {
+        if (userId == null) {
+            return Map.of();
+        }
+        return userProblemStatuses.statuses(userId, problemIds);
+    }
+
     @Override
     @Async
     public void mockJudge(Long submissionId) {
@@ -0,0 +1,45 @@
+package com.zephyr.croj.submission;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A map whose entries are trusted for a fixed time and which never grows past its bound: when full,
+ * expired entries are dropped first and, if that is not enough, everything is. Times are
+ * {@link System#nanoTime()} readings supplied by the caller.
+ */
+final class ExpiringCache<K, V> {
+    private final ConcurrentMap<K, Timed<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    ExpiringCache(long ttlNanos, int maxEntries) {
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    V get(K key, long now) {
+        Timed<V> timed = entries.get(key);
+        return timed == null || now - timed.expiresAt() >= 0 ? null : timed.value();
+    }
+
+    void put(K key, V value, long now) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(timed -> now - timed.expiresAt() >= 0);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Timed<>(Objects.requireNonNull(value), now + ttlNanos));
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    private record Timed<V>(V value, long expiresAt) {}
+}
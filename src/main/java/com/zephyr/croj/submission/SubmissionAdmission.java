@@ -0,0 +1,244 @@
+package com.zephyr.croj.submission;
+
+import com.zephyr.croj.common.enums.ResultCodeEnum;
+import com.zephyr.croj.common.enums.UserRoleEnum;
+import com.zephyr.croj.common.exception.BusinessException;
+import com.zephyr.croj.config.properties.SubmissionAdmissionProperties;
+import com.zephyr.croj.contest.ContestApiException;
+import com.zephyr.croj.contest.ContestPhase;
+import com.zephyr.croj.contest.ContestPolicy;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Decides whether a user may submit to a problem, in practice or in a contest, and which problem
+ * version the submission is judged against.
+ *
+ * <p>Everything the decision needs (the user's role, the problem's visibility and judge-ready
+ * published version, the contest schedule, the registration and the contest's pinned version) is
+ * kept for a short TTL per entity, so that a burst of submissions costs no reads at all. On any miss
+ * the whole picture is read back with one query. The contest phase is always evaluated against the
+ * current clock, so a cached contest still opens and closes on time; registrations are cached only
+ * once granted. Problems are evicted as soon as publication or deletion changes them; everything
+ * else may lag by at most one TTL.
+ */
+@Component
+public class SubmissionAdmission {
+    private static final String LOAD = """
+            SELECT u.role,
+                   p.id AS problem_id, p.status AS problem_status, p.create_user_id, p.published_version_id,
+                   (SELECT COUNT(*) FROM t_problem_version pv
+                    JOIN t_test_bundle tb ON tb.problem_version_id=pv.id
+                    WHERE pv.problem_id=p.id AND pv.id=p.published_version_id AND pv.state='PUBLISHED'
+                   ) AS published_ready,
+                   c.id AS contest_id, c.lifecycle, c.registration_opens_at, c.registration_closes_at,
+                   c.starts_at, c.freeze_at, c.ends_at,
+                   (SELECT COUNT(*) FROM t_contest_registration r
+                    WHERE r.contest_id=c.id AND r.user_id=u.id AND r.status='REGISTERED'
+                   ) AS registered,
+                   cp.problem_version_id AS contest_version_id,
+                   (SELECT COUNT(*) FROM t_problem_version pv
+                    JOIN t_test_bundle tb ON tb.problem_version_id=pv.id
+                    WHERE pv.problem_id=p.id AND pv.id=cp.problem_version_id AND pv.state='PUBLISHED'
+                   ) AS contest_version_ready
+            FROM t_user u
+            LEFT JOIN t_problem p ON p.id=? AND p.is_deleted=0
+            LEFT JOIN t_contest c ON c.id=?
+            LEFT JOIN t_contest_problem cp ON cp.contest_id=c.id AND cp.problem_id=?
+            WHERE u.id=? AND u.is_deleted=0
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final Clock clock;
+    private final ExpiringCache<Long, Integer> roles;
+    private final ExpiringCache<Long, ProblemGate> problems;
+    private final ExpiringCache<Long, ContestGate> contests;
+    private final ExpiringCache<Pair, Boolean> registrations;
+    private final ExpiringCache<Pair, VersionGate> arrangements;
+
+    @Autowired
+    public SubmissionAdmission(JdbcTemplate jdbc, Clock clock, SubmissionAdmissionProperties properties) {
+        this(jdbc, clock, properties.getTtl(), properties.getMaxEntries());
+    }
+
+    /** @param ttl how long each entity is trusted; {@link Duration#ZERO} reads every decision from the database */
+    public SubmissionAdmission(JdbcTemplate jdbc, Clock clock, Duration ttl, int maxEntries) {
+        this.jdbc = jdbc;
+        this.clock = clock;
+        long ttlNanos = ttl.toNanos();
+        this.roles = new ExpiringCache<>(ttlNanos, maxEntries);
+        this.problems = new ExpiringCache<>(ttlNanos, maxEntries);
+        this.contests = new ExpiringCache<>(ttlNanos, maxEntries);
+        this.registrations = new ExpiringCache<>(ttlNanos, maxEntries);
+        this.arrangements = new ExpiringCache<>(ttlNanos, maxEntries);
+    }
+
+    /**
+     * @return the problem version the submission is judged against
+     * @throws BusinessException when the user or problem does not exist, or a practice submission is
+     *     not allowed or not judge ready
+     * @throws ContestApiException when a contest submission is not allowed
+     */
+    public long admit(long userId, long problemId, Long contestId) {
+        Snapshot snapshot = cached(userId, problemId, contestId);
+        if (snapshot == null) {
+            snapshot = load(userId, problemId, contestId);
+        }
+        if (snapshot.role() == null) {
+            throw new BusinessException(ResultCodeEnum.USER_NOT_EXIST);
+        }
+        ProblemGate problem = snapshot.problem();
+        if (problem == null) {
+            throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_EXIST);
+        }
+        if (contestId != null) {
+            // 比赛授权和锁定版本均由比赛聚合决定，不受题库当前可见性影响。
+            if (snapshot.contest() == null) {
+                throw ContestApiException.notFound();
+            }
+            ContestPhase phase = snapshot.contest().phase(clock.instant());
+            if ((phase != ContestPhase.RUNNING && phase != ContestPhase.FROZEN) || !snapshot.registered()) {
+                throw ContestApiException.forbidden("contest submission requires an active registration and running contest");
+            }
+            VersionGate arranged = snapshot.arranged();
+            if (arranged == null) {
+                throw ContestApiException.unprocessable("problem is not arranged in this contest");
+            }
+            if (!arranged.judgeReady()) {
+                throw ContestApiException.unprocessable("contest problem version is not judge ready");
+            }
+            return arranged.versionId();
+        }
+        // 题库提交仍遵守题目的当前公开状态和所有权。
+        if (problem.status() != 0 && !isAdministrator(snapshot.role()) && problem.createUserId() != userId) {
+            throw new BusinessException(ResultCodeEnum.FORBIDDEN);
+        }
+        if (problem.publishedVersionId() == null || !problem.judgeReady()) {
+            throw new BusinessException(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY);
+        }
+        return problem.publishedVersionId();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProblemCatalogChangedEvent event) {
+        problems.remove(event.problemId());
+    }
+
+    private Snapshot cached(long userId, long problemId, Long contestId) {
+        long now = System.nanoTime();
+        Integer role = roles.get(userId, now);
+        ProblemGate problem = problems.get(problemId, now);
+        if (role == null || problem == null) {
+            return null;
+        }
+        if (contestId == null) {
+            return new Snapshot(role, problem, null, false, null);
+        }
+        ContestGate contest = contests.get(contestId, now);
+        Boolean registered = registrations.get(new Pair(contestId, userId), now);
+        VersionGate arranged = arrangements.get(new Pair(contestId, problemId), now);
+        if (contest == null || registered == null || arranged == null) {
+            return null;
+        }
+        return new Snapshot(role, problem, contest, true, arranged);
+    }
+
+    private Snapshot load(long userId, long problemId, Long contestId) {
+        List<Snapshot> rows = jdbc.query(LOAD, this::mapSnapshot, problemId, contestId, problemId, userId);
+        if (rows.isEmpty()) {
+            return new Snapshot(null, null, null, false, null);
+        }
+        Snapshot snapshot = rows.get(0);
+        long now = System.nanoTime();
+        roles.put(userId, snapshot.role(), now);
+        if (snapshot.problem() != null) {
+            problems.put(problemId, snapshot.problem(), now);
+        }
+        if (contestId != null && snapshot.contest() != null) {
+            contests.put(contestId, snapshot.contest(), now);
+            if (snapshot.registered()) {
+                registrations.put(new Pair(contestId, userId), Boolean.TRUE, now);
+            }
+            if (snapshot.arranged() != null) {
+                arrangements.put(new Pair(contestId, problemId), snapshot.arranged(), now);
+            }
+        }
+        return snapshot;
+    }
+
+    private Snapshot mapSnapshot(ResultSet result, int row) throws SQLException {
+        ProblemGate problem = null;
+        result.getLong("problem_id");
+        if (!result.wasNull()) {
+            long publishedVersionId = result.getLong("published_version_id");
+            problem = new ProblemGate(
+                    result.getInt("problem_status"),
+                    result.getLong("create_user_id"),
+                    result.wasNull() ? null : publishedVersionId,
+                    result.getInt("published_ready") == 1);
+        }
+        ContestGate contest = null;
+        VersionGate arranged = null;
+        result.getLong("contest_id");
+        if (!result.wasNull()) {
+            contest = new ContestGate(
+                    result.getString("lifecycle"),
+                    instant(result, "registration_opens_at"),
+                    instant(result, "registration_closes_at"),
+                    instant(result, "starts_at"),
+                    instant(result, "freeze_at"),
+                    instant(result, "ends_at"));
+            long versionId = result.getLong("contest_version_id");
+            if (!result.wasNull()) {
+                arranged = new VersionGate(versionId, problem != null && result.getInt("contest_version_ready") == 1);
+            }
+        }
+        return new Snapshot(
+                result.getInt("role"),
+                problem,
+                contest,
+                result.getInt("registered") > 0,
+                arranged);
+    }
+
+    private static Instant instant(ResultSet result, String column) throws SQLException {
+        Timestamp value = result.getTimestamp(column);
+        return value == null ? null : value.toInstant();
+    }
+
+    private static boolean isAdministrator(int role) {
+        return UserRoleEnum.SUPER_ADMIN.getCode().equals(role) || UserRoleEnum.ADMIN.getCode().equals(role);
+    }
+
+    private record Snapshot(
+            Integer role, ProblemGate problem, ContestGate contest, boolean registered, VersionGate arranged) {}
+
+    private record ProblemGate(int status, long createUserId, Long publishedVersionId, boolean judgeReady) {}
+
+    private record ContestGate(
+            String lifecycle,
+            Instant registrationOpensAt,
+            Instant registrationClosesAt,
+            Instant startsAt,
+            Instant freezeAt,
+            Instant endsAt) {
+        ContestPhase phase(Instant now) {
+            return ContestPolicy.phase(
+                    lifecycle, registrationOpensAt, registrationClosesAt, startsAt, freezeAt, endsAt, now);
+        }
+    }
+
+    private record VersionGate(long versionId, boolean judgeReady) {}
+
+    private record Pair(long first, long second) {}
+}
@@ -0,0 +1,94 @@
+package com.zephyr.croj.submission;
+
+import com.zephyr.croj.config.properties.SubmissionFeedProperties;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Resolves the problem numbers, problem titles and usernames shown next to submissions, so that
+ * listing submissions does not join {@code t_problem} and {@code t_user} for every row. Names are
+ * kept for a TTL and whatever a page misses is read with one {@code IN} query per table. Problems are
+ * evicted as soon as publication or deletion changes them; a renamed user may lag by one TTL.
+ */
+@Component
+public class SubmissionDisplayNames {
+    private static final String SELECT_PROBLEMS = "SELECT id, problem_no, title FROM t_problem WHERE id IN (%s)";
+    private static final String SELECT_USERS = "SELECT id, username FROM t_user WHERE id IN (%s)";
+    private static final RowMapper<Named<ProblemName>> PROBLEM = (result, row) -> new Named<>(
+            result.getLong("id"), new ProblemName(result.getString("problem_no"), result.getString("title")));
+    private static final RowMapper<Named<String>> USER =
+            (result, row) -> new Named<>(result.getLong("id"), result.getString("username"));
+
+    private final JdbcTemplate jdbc;
+    private final ExpiringCache<Long, ProblemName> problems;
+    private final ExpiringCache<Long, String> usernames;
+
+    @Autowired
+    public SubmissionDisplayNames(JdbcTemplate jdbc, SubmissionFeedProperties properties) {
+        this.jdbc = jdbc;
+        long ttlNanos = properties.getNamesTtl().toNanos();
+        this.problems = new ExpiringCache<>(ttlNanos, properties.getMaxEntries());
+        this.usernames = new ExpiringCache<>(ttlNanos, properties.getMaxEntries());
+    }
+
+    /** @return names of the problems that exist, deleted ones included */
+    public Map<Long, ProblemName> problems(Collection<Long> problemIds) {
+        return resolve(problemIds, problems, SELECT_PROBLEMS, PROBLEM);
+    }
+
+    /** @return usernames of the users that exist, deleted ones included */
+    public Map<Long, String> usernames(Collection<Long> userIds) {
+        return resolve(userIds, usernames, SELECT_USERS, USER);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProblemCatalogChangedEvent event) {
+        problems.remove(event.problemId());
+    }
+
+    private <V> Map<Long, V> resolve(
+            Collection<Long> ids, ExpiringCache<Long, V> cache, String select, RowMapper<Named<V>> mapper) {
+        Map<Long, V> resolved = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        for (Long id : ids) {
+            if (id == null || resolved.containsKey(id)) {
+                continue;
+            }
+            V value = cache.get(id, now);
+            if (value == null) {
+                missing.add(id);
+            } else {
+                resolved.put(id, value);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        String placeholders = String.join(",", Collections.nCopies(missing.size(), "?"));
+        List<Named<V>> rows = jdbc.query(select.formatted(placeholders), mapper, missing.toArray());
+        now = System.nanoTime();
+        for (Named<V> row : rows) {
+            if (row.value() != null) {
+                resolved.put(row.id(), row.value());
+                cache.put(row.id(), row.value(), now);
+            }
+        }
+        return resolved;
+    }
+
+    public record ProblemName(String problemNo, String title) {}
+
+    private record Named<V>(long id, V value) {}
+}
@@ -0,0 +1,318 @@
+package com.zephyr.croj.submission;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.common.enums.ResultCodeEnum;
+import com.zephyr.croj.common.enums.SubmissionStatusEnum;
+import com.zephyr.croj.common.exception.BusinessException;
+import com.zephyr.croj.config.properties.SubmissionVerdictStreamProperties;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes verdicts to submitters over SSE so that clients stop polling for them. A client subscribes
+ * to some of its own submissions and receives one {@code verdict} event per submission as soon as
+ * the judge result commits; the stream completes once every subscribed submission has a verdict.
+ *
+ * <p>Verdicts are delivered to this replica's subscribers directly and published on a Redis channel
+ * for the other replicas, which ignore their own messages. A subscription is registered before the
+ * submissions are read, so a verdict committed in between is either read or pushed, never lost.
+ * Without Redis each replica only serves the verdicts it ingests itself; clients that time out
+ * should read the submission once instead.
+ */
+@Slf4j
+@Component
+public class SubmissionVerdictStreams implements SmartLifecycle {
+    static final String CHANNEL = "croj:submission-verdicts:v1";
+    static final String VERDICT = "verdict";
+
+    private static final String SELECT = "SELECT id, user_id, status, score FROM t_submission WHERE is_deleted = 0 AND id IN (%s)";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redis;
+    private final int maxSubmissions;
+    private final Supplier<SseEmitter> emitters;
+    private final Executor senders;
+    private final String origin = UUID.randomUUID().toString();
+    private final ConcurrentMap<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private volatile RedisMessageListenerContainer listener;
+    private volatile boolean running;
+
+    @Autowired
+    public SubmissionVerdictStreams(
+            JdbcTemplate jdbc,
+            ObjectMapper objectMapper,
+            SubmissionVerdictStreamProperties properties,
+            ObjectProvider<StringRedisTemplate> redis) {
+        this(
+                jdbc,
+                objectMapper,
+                properties.isRedisFanout() ? redis.getIfAvailable() : null,
+                properties.getMaxSubmissions(),
+                () -> new SseEmitter(Math.max(properties.getTimeout().toMillis(), 1L)),
+                senders(properties.getSenderThreads()));
+    }
+
+    /** @param redis the channel shared with the other replicas, or {@code null} to push locally only */
+    SubmissionVerdictStreams(
+            JdbcTemplate jdbc,
+            ObjectMapper objectMapper,
+            StringRedisTemplate redis,
+            int maxSubmissions,
+            Supplier<SseEmitter> emitters,
+            Executor senders) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.redis = redis;
+        this.maxSubmissions = maxSubmissions;
+        this.emitters = emitters;
+        this.senders = senders;
+    }
+
+    /**
+     * Opens a stream of verdicts for the given submissions of {@code userId}. Submissions that were
+     * already judged are sent right away.
+     *
+     * @throws BusinessException when a submission does not exist or belongs to someone else
+     */
+    public SseEmitter subscribe(long userId, Collection<Long> submissionIds) {
+        List<Long> ids = submissionIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty() || ids.size() > maxSubmissions) {
+            throw new BusinessException(
+                    ResultCodeEnum.PARAM_ERROR.getCode(), "每个连接需订阅 1 到 " + maxSubmissions + " 个提交");
+        }
+        Subscription subscription = new Subscription(emitters.get(), ids);
+        // 先登记再读取：读取之后才提交的评测结果一定会推送到这里。
+        for (Long id : ids) {
+            subscribers.compute(id, (key, current) -> {
+                Set<Subscription> set = current == null ? ConcurrentHashMap.newKeySet() : current;
+                set.add(subscription);
+                return set;
+            });
+        }
+        Map<Long, Row> rows;
+        try {
+            rows = jdbc.query(
+                            SELECT.formatted(String.join(",", Collections.nCopies(ids.size(), "?"))),
+                            (result, index) -> new Row(
+                                    result.getLong("id"),
+                                    result.getLong("user_id"),
+                                    result.getInt("status"),
+                                    result.getObject("score", Integer.class)),
+                            ids.toArray())
+                    .stream()
+                    .collect(Collectors.toMap(Row::id, Function.identity()));
+            for (Long id : ids) {
+                Row row = rows.get(id);
+                if (row == null) {
+                    throw new BusinessException(ResultCodeEnum.NOT_FOUND);
+                }
+                if (row.userId() != userId) {
+                    throw new BusinessException(ResultCodeEnum.FORBIDDEN);
+                }
+            }
+        } catch (RuntimeException exception) {
+            subscription.close();
+            throw exception;
+        }
+        for (Row row : rows.values()) {
+            if (!SubmissionStatusEnum.PENDING.getCode().equals(row.status())) {
+                subscription.deliver(Verdict.of(row.id(), row.status(), row.score()));
+            }
+        }
+        return subscription.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        Verdict verdict = Verdict.of(event.submissionId(), event.status(), event.score());
+        deliver(verdict);
+        if (redis == null || listener == null) {
+            return;
+        }
+        try {
+            redis.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Broadcast(origin, verdict)));
+        } catch (JsonProcessingException | RuntimeException exception) {
+            log.warn("submission verdict broadcast failed, other replicas will not push {}", event.submissionId(), exception);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (redis == null) {
+            return;
+        }
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redis.getRequiredConnectionFactory());
+        container.addMessageListener(this::onBroadcast, new ChannelTopic(CHANNEL));
+        try {
+            container.afterPropertiesSet();
+            container.start();
+            listener = container;
+        } catch (RuntimeException exception) {
+            log.warn("submission verdict channel unavailable, verdicts are pushed to local subscribers only", exception);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        RedisMessageListenerContainer container = listener;
+        listener = null;
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception exception) {
+                log.debug("submission verdict channel did not close cleanly", exception);
+            }
+        }
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void onBroadcast(Message message, byte[] pattern) {
+        Broadcast broadcast;
+        try {
+            broadcast = objectMapper.readValue(message.getBody(), Broadcast.class);
+        } catch (IOException exception) {
+            log.warn("ignoring malformed submission verdict broadcast", exception);
+            return;
+        }
+        if (!origin.equals(broadcast.origin()) && broadcast.verdict() != null) {
+            deliver(broadcast.verdict());
+        }
+    }
+
+    private void deliver(Verdict verdict) {
+        Set<Subscription> waiting = subscribers.remove(verdict.submissionId());
+        if (waiting != null) {
+            waiting.forEach(subscription -> subscription.deliver(verdict));
+        }
+    }
+
+    private static ExecutorService senders(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "submission-verdict-sse-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /** The payload of one {@code verdict} event. */
+    public record Verdict(long submissionId, int status, String statusText, Integer score) {
+        static Verdict of(long submissionId, int status, Integer score) {
+            SubmissionStatusEnum statusEnum = SubmissionStatusEnum.getByCode(status);
+            return new Verdict(submissionId, status, statusEnum != null ? statusEnum.getDesc() : "未知状态", score);
+        }
+    }
+
+    record Broadcast(String origin, Verdict verdict) {}
+
+    private record Row(long id, long userId, int status, Integer score) {}
+
+    /** One SSE connection; each subscribed submission is sent at most once. */
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final List<Long> ids;
+        private final Set<Long> remaining = ConcurrentHashMap.newKeySet();
+        private int sent;
+        private boolean closed;
+
+        Subscription(SseEmitter emitter, List<Long> ids) {
+            this.emitter = emitter;
+            this.ids = ids;
+            this.remaining.addAll(ids);
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(ignored -> close());
+        }
+
+        void deliver(Verdict verdict) {
+            if (!remaining.remove(verdict.submissionId())) {
+                return;
+            }
+            try {
+                senders.execute(() -> send(verdict));
+            } catch (RejectedExecutionException exception) {
+                close();
+                emitter.complete();
+            }
+        }
+
+        private synchronized void send(Verdict verdict) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(VERDICT).data(verdict));
+            } catch (IOException | IllegalStateException exception) {
+                close();
+                log.debug("submission verdict subscriber went away", exception);
+                return;
+            }
+            if (++sent == ids.size()) {
+                close();
+                emitter.complete();
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (Long id : ids) {
+                subscribers.computeIfPresent(id, (key, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+}
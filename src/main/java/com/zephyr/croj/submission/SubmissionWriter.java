@@ -0,0 +1,241 @@
+package com.zephyr.croj.submission;
+
+import com.zephyr.croj.common.enums.ResultCodeEnum;
+import com.zephyr.croj.common.exception.BusinessException;
+import com.zephyr.croj.config.properties.SubmissionWriteProperties;
+import com.zephyr.croj.model.entity.Submission;
+import com.zephyr.croj.outbox.SubmissionOutbox;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes new submissions together with their first judge attempt and their outbox event. Each of
+ * the three tables is written with one batched statement per transaction, however many submissions
+ * the transaction carries.
+ *
+ * <p>With group commit enabled, callers hand their submission to a single writer thread and wait.
+ * The thread takes everything queued so far (optionally lingering for {@code max-delay}) and commits
+ * it as one transaction, so a burst of submissions costs three statements and one commit per batch
+ * instead of per submission. If a batch fails, its submissions are retried one per transaction so
+ * that a single bad row only fails its own caller. Without group commit, or while the writer is not
+ * running, every submission is written in its own transaction on the calling thread.
+ */
+@Slf4j
+@Component
+public class SubmissionWriter implements SmartLifecycle {
+    private static final String INSERT_SUBMISSION = """
+            INSERT INTO t_submission (problem_id, problem_version_id, contest_id, user_id, language, code, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_ATTEMPT =
+            "INSERT INTO t_judge_attempt (submission_id, attempt_no, status) VALUES (?, 1, 'QUEUED')";
+
+    private final JdbcTemplate jdbc;
+    private final SubmissionOutbox outbox;
+    private final TransactionTemplate transaction;
+    private final SubmissionWriteProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private volatile Thread worker;
+
+    @Autowired
+    public SubmissionWriter(
+            JdbcTemplate jdbc,
+            SubmissionOutbox outbox,
+            PlatformTransactionManager transactionManager,
+            SubmissionWriteProperties properties) {
+        this(jdbc, outbox, new TransactionTemplate(transactionManager), properties);
+    }
+
+    public SubmissionWriter(
+            JdbcTemplate jdbc,
+            SubmissionOutbox outbox,
+            TransactionTemplate transaction,
+            SubmissionWriteProperties properties) {
+        this.jdbc = jdbc;
+        this.outbox = outbox;
+        this.transaction = transaction;
+        this.properties = properties;
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Persists and commits the submission and sets its generated id. Must not be called inside a
+     * transaction: the rows are committed on their own, possibly by another thread.
+     */
+    public void write(Submission submission) {
+        if (worker == null) {
+            writeAlone(submission);
+            return;
+        }
+        Pending pending = new Pending(submission, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            writeAlone(submission);
+            return;
+        }
+        // 写入线程在入队后停止时，由调用方自行写入尚未被取走的提交。
+        if (worker == null && queue.remove(pending)) {
+            writeAlone(submission);
+            return;
+        }
+        try {
+            pending.done().join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (worker != null || !properties.isGroupCommit()) {
+            return;
+        }
+        worker = new Thread(this::run, "submission-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread running;
+        synchronized (this) {
+            running = worker;
+            worker = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.interrupt();
+        try {
+            running.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long maxDelayNanos = properties.getMaxDelay().toNanos();
+        while (worker == Thread.currentThread()) {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize && deadline - System.nanoTime() > 0) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException exception) {
+                flush(batch);
+                return;
+            }
+            flush(batch);
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Submission> submissions = batch.stream().map(Pending::submission).toList();
+        try {
+            transaction.executeWithoutResult(status -> insert(submissions));
+            batch.forEach(pending -> pending.done().complete(null));
+            return;
+        } catch (RuntimeException exception) {
+            if (batch.size() == 1) {
+                batch.get(0).done().completeExceptionally(exception);
+                return;
+            }
+            log.warn("group commit of {} submissions failed, writing them one by one", batch.size(), exception);
+        }
+        for (Pending pending : batch) {
+            try {
+                writeAlone(pending.submission());
+                pending.done().complete(null);
+            } catch (RuntimeException exception) {
+                pending.done().completeExceptionally(exception);
+            }
+        }
+    }
+
+    private void writeAlone(Submission submission) {
+        submission.setId(null);
+        transaction.executeWithoutResult(status -> insert(List.of(submission)));
+    }
+
+    private void insert(List<Submission> submissions) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SUBMISSION, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        Submission submission = submissions.get(index);
+                        statement.setLong(1, submission.getProblemId());
+                        statement.setLong(2, submission.getProblemVersionId());
+                        statement.setObject(3, submission.getContestId(), Types.BIGINT);
+                        statement.setLong(4, submission.getUserId());
+                        statement.setString(5, submission.getLanguage());
+                        statement.setString(6, submission.getCode());
+                        statement.setInt(7, submission.getStatus());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return submissions.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != submissions.size()) {
+            throw new BusinessException(ResultCodeEnum.CREATE_ERROR);
+        }
+        for (int index = 0; index < submissions.size(); index++) {
+            Number id = (Number) generated.get(index).values().iterator().next();
+            submissions.get(index).setId(id.longValue());
+        }
+        jdbc.batchUpdate(
+                INSERT_ATTEMPT,
+                submissions,
+                submissions.size(),
+                (statement, submission) -> statement.setLong(1, submission.getId()));
+        outbox.enqueueAll(submissions);
+    }
+
+    private record Pending(Submission submission, CompletableFuture<Void> done) {}
+}
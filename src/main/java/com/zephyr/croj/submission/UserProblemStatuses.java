@@ -0,0 +1,231 @@
+package com.zephyr.croj.submission;
+
+import com.zephyr.croj.common.enums.SubmissionStatusEnum;
+import com.zephyr.croj.config.properties.UserProblemStatusProperties;
+import com.zephyr.croj.mapper.SubmissionMapper;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import com.zephyr.croj.model.projection.ProblemUserStatusProjection;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-user record of which problems were attempted and which were solved, kept as one Redis bitmap
+ * per user so that status badges cost a single key read regardless of the user's history.
+ *
+ * <p>Bit 0 marks a bitmap rebuilt from the submission table; problem {@code n} owns bit
+ * {@code 2n+2} (attempted) and bit {@code 2n+3} (solved). Bits only ever go from 0 to 1, so the
+ * rebuild ORs into whatever incremental updates arrived meanwhile instead of overwriting them, and
+ * an incremental update that lands before the rebuild is not lost. A bitmap without bit 0 is a miss.
+ * Updates are applied after commit; when Redis is unavailable the statuses of the requested
+ * problems are read from the database instead.
+ */
+@Slf4j
+@Component
+public class UserProblemStatuses {
+    static final String KEY_PREFIX = "croj:user-problems:v1:{";
+    /** Keeps a bitmap at most 4 MiB; larger ids are answered from the database. */
+    static final long MAX_PROBLEM_ID = (1L << 24) - 1;
+
+    private static final byte[] REBUILD_SCRIPT = """
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', 60000)
+            redis.call('BITOP', 'OR', KEYS[1], KEYS[1], KEYS[2])
+            redis.call('DEL', KEYS[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MARK_SCRIPT = """
+            for index = 2, #ARGV do
+              redis.call('SETBIT', KEYS[1], ARGV[index], 1)
+            end
+            if redis.call('PTTL', KEYS[1]) < 0 then
+              redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final SubmissionMapper submissions;
+    private final StringRedisTemplate redis;
+    private final Duration ttl;
+
+    @Autowired
+    public UserProblemStatuses(
+            SubmissionMapper submissions,
+            UserProblemStatusProperties properties,
+            ObjectProvider<StringRedisTemplate> redis) {
+        this(submissions, properties.isEnabled() ? redis.getIfAvailable() : null, properties.getTtl());
+    }
+
+    /** @param redis the bitmap store, or {@code null} to read every status from the database */
+    public UserProblemStatuses(SubmissionMapper submissions, StringRedisTemplate redis, Duration ttl) {
+        this.submissions = submissions;
+        this.redis = redis;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the status of each attempted problem among {@code problemIds}: 1 when solved, 2 when
+     * attempted but not solved. Problems the user never submitted to are absent.
+     */
+    public Map<Long, Integer> statuses(long userId, Collection<Long> problemIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(problemIds));
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        if (redis == null || ids.stream().anyMatch(id -> id == null || id < 0 || id > MAX_PROBLEM_ID)) {
+            return fromDatabase(userId, ids);
+        }
+        byte[] bitmap;
+        try {
+            bitmap = redis.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(key(userId)));
+        } catch (RuntimeException exception) {
+            log.warn("user problem status read from redis failed, falling back to the database", exception);
+            return fromDatabase(userId, ids);
+        }
+        if (bitmap == null || !test(bitmap, 0)) {
+            bitmap = rebuild(userId);
+        }
+        Map<Long, Integer> result = new HashMap<>();
+        for (Long id : ids) {
+            if (test(bitmap, solvedBit(id))) {
+                result.put(id, 1);
+            } else if (test(bitmap, attemptedBit(id))) {
+                result.put(id, 2);
+            }
+        }
+        return result;
+    }
+
+    /** Records a new submission once the surrounding transaction commits. */
+    public void submitted(long userId, long problemId) {
+        afterCommit(() -> mark(userId, problemId, false));
+    }
+
+    /** Records a committed verdict; an accepted one marks the problem solved. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        mark(event.userId(), event.problemId(), SubmissionStatusEnum.ACCEPTED.getCode().equals(event.status()));
+    }
+
+    /**
+     * Encodes one user's full history as a ready bitmap. Problems beyond {@link #MAX_PROBLEM_ID} are
+     * left out; {@link #statuses} never answers them from a bitmap.
+     */
+    static byte[] encode(List<ProblemUserStatusProjection> rows) {
+        List<ProblemUserStatusProjection> addressable = rows.stream()
+                .filter(row -> row.problemId() >= 0 && row.problemId() <= MAX_PROBLEM_ID)
+                .toList();
+        long highest = addressable.stream().mapToLong(row -> solvedBit(row.problemId())).max().orElse(0);
+        byte[] bitmap = new byte[(int) (highest >>> 3) + 1];
+        set(bitmap, 0);
+        for (ProblemUserStatusProjection row : addressable) {
+            set(bitmap, attemptedBit(row.problemId()));
+            if (row.userStatus() == 1) {
+                set(bitmap, solvedBit(row.problemId()));
+            }
+        }
+        return bitmap;
+    }
+
+    static long attemptedBit(long problemId) {
+        return 2 * problemId + 2;
+    }
+
+    static long solvedBit(long problemId) {
+        return 2 * problemId + 3;
+    }
+
+    static byte[] key(long userId) {
+        return (KEY_PREFIX + userId + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] rebuild(long userId) {
+        byte[] bitmap = encode(submissions.listUserProblemStatuses(userId));
+        byte[] scratch = (KEY_PREFIX + userId + "}:rebuild").getBytes(StandardCharsets.UTF_8);
+        try {
+            redis.execute((RedisCallback<Object>) connection -> connection.scriptingCommands().eval(
+                    REBUILD_SCRIPT, ReturnType.INTEGER, 2, key(userId), scratch, bitmap, millis()));
+        } catch (RuntimeException exception) {
+            log.warn("user problem status rebuild in redis failed: userId={}", userId, exception);
+        }
+        return bitmap;
+    }
+
+    private void mark(long userId, long problemId, boolean solved) {
+        if (redis == null || problemId < 0 || problemId > MAX_PROBLEM_ID) {
+            return;
+        }
+        List<byte[]> args = new ArrayList<>();
+        args.add(key(userId));
+        args.add(millis());
+        args.add(Long.toString(attemptedBit(problemId)).getBytes(StandardCharsets.UTF_8));
+        if (solved) {
+            args.add(Long.toString(solvedBit(problemId)).getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            redis.execute((RedisCallback<Object>) connection -> connection.scriptingCommands().eval(
+                    MARK_SCRIPT, ReturnType.INTEGER, 1, args.toArray(byte[][]::new)));
+        } catch (RuntimeException exception) {
+            log.warn("user problem status update in redis failed, invalidating: userId={}, problemId={}",
+                    userId, problemId, exception);
+            invalidate(userId);
+        }
+    }
+
+    private void invalidate(long userId) {
+        try {
+            redis.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(key(userId)));
+        } catch (RuntimeException exception) {
+            log.debug("user problem status invalidation failed: userId={}", userId, exception);
+        }
+    }
+
+    private Map<Long, Integer> fromDatabase(long userId, List<Long> problemIds) {
+        Map<Long, Integer> result = new HashMap<>();
+        for (ProblemUserStatusProjection row : submissions.listUserProblemStatusesIn(userId, problemIds)) {
+            result.put(row.problemId(), row.userStatus());
+        }
+        return result;
+    }
+
+    private byte[] millis() {
+        return Long.toString(ttl.toMillis()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean test(byte[] bitmap, long bit) {
+        long index = bit >>> 3;
+        return index < bitmap.length && (bitmap[(int) index] & (0x80 >>> (bit & 7))) != 0;
+    }
+
+    private static void set(byte[] bitmap, long bit) {
+        bitmap[(int) (bit >>> 3)] |= (byte) (0x80 >>> (bit & 7));
+    }
+}
@@ -0,0 +1,2 @@
+ALTER TABLE `t_contest`
+  ADD COLUMN `scoreboard_revision` BIGINT NOT NULL DEFAULT 0 AFTER `ends_at`;
@@ -0,0 +1,20 @@
+ALTER TABLE `t_outbox_event`
+  ADD COLUMN `shard` SMALLINT NOT NULL DEFAULT 0 AFTER `aggregate_id`,
+  ADD INDEX `idx_outbox_shard_pending` (`shard`, `published_at`, `next_attempt_at`, `claimed_at`, `created_at`);
+
+UPDATE `t_outbox_event` SET `shard` = MOD(`aggregate_id`, 16) WHERE `published_at` IS NULL;
+
+CREATE TABLE `t_outbox_shard_lease` (
+  `shard` SMALLINT NOT NULL,
+  `owner_id` VARCHAR(64) NULL,
+  `lease_until` DATETIME(3) NULL,
+  PRIMARY KEY (`shard`),
+  KEY `idx_outbox_shard_owner` (`owner_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_outbox_publisher` (
+  `owner_id` VARCHAR(64) NOT NULL,
+  `heartbeat_at` DATETIME(3) NOT NULL,
+  PRIMARY KEY (`owner_id`),
+  KEY `idx_outbox_publisher_heartbeat` (`heartbeat_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
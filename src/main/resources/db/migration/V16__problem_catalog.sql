@@ -0,0 +1,58 @@
+CREATE TABLE `t_problem_catalog` (
+  `problem_id` BIGINT NOT NULL,
+  `problem_no` VARCHAR(20) NOT NULL,
+  `create_user_id` BIGINT NOT NULL,
+  `published_version_id` BIGINT NULL,
+  `title` VARCHAR(255) NOT NULL,
+  `difficulty` TINYINT NOT NULL,
+  `updated_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`problem_id`),
+  UNIQUE KEY `uk_problem_catalog_no` (`problem_no`),
+  KEY `idx_problem_catalog_difficulty` (`difficulty`, `problem_no`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE `t_problem_catalog_tag` (
+  `tag_id` BIGINT NOT NULL,
+  `problem_id` BIGINT NOT NULL,
+  PRIMARY KEY (`tag_id`, `problem_id`),
+  KEY `idx_problem_catalog_tag_problem` (`problem_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO `t_problem_catalog`
+  (`problem_id`, `problem_no`, `create_user_id`, `published_version_id`, `title`, `difficulty`)
+SELECT p.`id`,
+       p.`problem_no`,
+       p.`create_user_id`,
+       pv.`id`,
+       JSON_UNQUOTE(JSON_EXTRACT(pv.`statement_json`, '$.title')),
+       CAST(JSON_UNQUOTE(JSON_EXTRACT(pv.`judge_config_json`, '$.difficulty')) AS UNSIGNED)
+FROM `t_problem` p
+JOIN `t_problem_version` pv ON pv.`id` = p.`published_version_id`
+WHERE p.`is_deleted` = 0;
+
+-- Public problems created before versioning have no snapshot; their live row is what readers see.
+INSERT INTO `t_problem_catalog`
+  (`problem_id`, `problem_no`, `create_user_id`, `published_version_id`, `title`, `difficulty`)
+SELECT p.`id`, p.`problem_no`, p.`create_user_id`, NULL, p.`title`, p.`difficulty`
+FROM `t_problem` p
+WHERE p.`is_deleted` = 0
+  AND p.`status` = 0
+  AND p.`published_version_id` IS NULL;
+
+INSERT INTO `t_problem_catalog_tag` (`tag_id`, `problem_id`)
+SELECT DISTINCT published_tag.`tag_id`, c.`problem_id`
+FROM `t_problem_catalog` c
+JOIN `t_problem_version` pv ON pv.`id` = c.`published_version_id`,
+     JSON_TABLE(pv.`statement_json`, '$.tags[*]' COLUMNS(`tag_id` BIGINT PATH '$.id')) AS published_tag;
+
+INSERT INTO `t_problem_catalog_tag` (`tag_id`, `problem_id`)
+SELECT DISTINCT r.`tag_id`, c.`problem_id`
+FROM `t_problem_catalog` c
+JOIN `t_problem_tag_relation` r ON r.`problem_id` = c.`problem_id`
+WHERE c.`published_version_id` IS NULL;
+
+ALTER TABLE `t_problem`
+  ADD INDEX `idx_problem_owner` (`create_user_id`, `problem_no`);
+
+ALTER TABLE `t_submission`
+  ADD INDEX `idx_submission_user_problem` (`user_id`, `problem_id`, `status`);
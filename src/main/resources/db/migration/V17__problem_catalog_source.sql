@@ -0,0 +1,13 @@
+ALTER TABLE `t_problem_catalog`
+  ADD COLUMN `source` VARCHAR(255) NULL AFTER `title`;
+
+UPDATE `t_problem_catalog` c
+JOIN `t_problem_version` pv ON pv.`id` = c.`published_version_id`
+SET c.`source` = JSON_UNQUOTE(JSON_EXTRACT(pv.`statement_json`, '$.source'))
+WHERE JSON_TYPE(JSON_EXTRACT(pv.`statement_json`, '$.source')) = 'STRING';
+
+-- Listings without a snapshot show the live row, as in V16.
+UPDATE `t_problem_catalog` c
+JOIN `t_problem` p ON p.`id` = c.`problem_id`
+SET c.`source` = p.`source`
+WHERE c.`published_version_id` IS NULL;
@@ -0,0 +1,5 @@
+-- Keyset listing of submissions (newest first, before a given id) per user and per problem.
+-- The trailing filter columns let the id scan be answered from the index alone.
+ALTER TABLE `t_submission`
+  ADD INDEX `idx_submission_feed_user` (`user_id`, `id`, `problem_id`, `status`, `language`, `is_deleted`),
+  ADD INDEX `idx_submission_feed_problem` (`problem_id`, `id`, `user_id`, `status`, `language`, `is_deleted`);
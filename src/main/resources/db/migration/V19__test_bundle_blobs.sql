@@ -0,0 +1,21 @@
+-- Content-addressed test case files shared by every problem version that uses them.
+-- A BLOBS bundle has no ZIP object of its own: its archive is rebuilt from t_test_bundle_file.
+ALTER TABLE `t_test_bundle`
+  ADD COLUMN `layout` VARCHAR(16) NOT NULL DEFAULT 'ARCHIVE' AFTER `object_key`,
+  ADD CONSTRAINT `chk_test_bundle_layout` CHECK (`layout` IN ('ARCHIVE', 'BLOBS'));
+
+CREATE TABLE `t_test_blob` (
+  `sha256` CHAR(64) NOT NULL,
+  `size_bytes` BIGINT NOT NULL,
+  `created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (`sha256`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Archive paths are case-sensitive, so the path column compares bytes.
+CREATE TABLE `t_test_bundle_file` (
+  `problem_version_id` BIGINT NOT NULL,
+  `path` VARCHAR(512) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+  `blob_sha256` CHAR(64) NOT NULL,
+  PRIMARY KEY (`problem_version_id`, `path`),
+  KEY `idx_test_bundle_file_blob` (`blob_sha256`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
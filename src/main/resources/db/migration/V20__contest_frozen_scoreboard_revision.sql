@@ -0,0 +1,2 @@
+ALTER TABLE `t_contest`
+  ADD COLUMN `frozen_scoreboard_revision` BIGINT NOT NULL DEFAULT 0 AFTER `scoreboard_revision`;
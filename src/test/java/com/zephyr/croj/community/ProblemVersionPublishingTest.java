@@ -9,6 +9,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
@@ -23,6 +24,7 @@ import com.zephyr.croj.common.exception.BusinessException;
 import com.zephyr.croj.model.entity.Problem;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.User;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
 import com.zephyr.croj.model.projection.ProblemTagProjection;
 import com.zephyr.croj.service.ProblemTagService;
 import com.zephyr.croj.service.UserService;
@@ -31,16 +33,23 @@ import com.zephyr.croj.model.dto.ProblemQueryDTO;
 import com.zephyr.croj.model.vo.ProblemListItemVO;
 import com.zephyr.croj.model.vo.ProblemTagVO;
 import com.zephyr.croj.model.vo.ProblemVO;
+import com.zephyr.croj.problem.ProblemCatalogSearch;
+import com.zephyr.croj.problem.ProblemSearchIndex;
+import com.zephyr.croj.problem.PublishedProblemProjections;
+import com.zephyr.croj.submission.UserProblemStatuses;
 import org.apache.ibatis.annotations.Select;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,11 +58,23 @@ class ProblemVersionPublishingTest {
     @Mock private ProblemVersionMapper versions;
     @Mock private ProblemTagService tags;
     @Mock private UserService users;
+    @Mock private UserProblemStatuses statuses;
+    @Mock private ProblemCatalogSearch catalogSearch;
+    @Mock private ApplicationEventPublisher events;
     private ProblemServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        service = new ProblemServiceImpl(tags, users, versions, new ObjectMapper());
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = new ProblemServiceImpl(
+                tags,
+                users,
+                versions,
+                objectMapper,
+                new PublishedProblemProjections(objectMapper, 1 << 20, null, Duration.ofHours(1)),
+                statuses,
+                catalogSearch,
+                events);
         ReflectionTestUtils.setField(service, "baseMapper", problems);
     }
 
@@ -213,6 +234,29 @@ class ProblemVersionPublishingTest {
         assertEquals(2, replacement.getValue().getVersionNo());
         assertEquals(true, replacement.getValue().getStatementJson().contains("Two Sum revised"));
         assertEquals(true, replacement.getValue().getJudgeConfigJson().contains("\"difficulty\":1"));
+        verify(events, never()).publishEvent(any(ProblemCatalogChangedEvent.class));
+    }
+
+    @Test
+    void editingAnUnversionedPublicProblemTakesItOutOfTheSearchCatalog() {
+        User admin = new User();
+        admin.setId(2L);
+        admin.setRole(1);
+        when(users.getById(2L)).thenReturn(admin);
+        when(problems.selectForUpdate(11L)).thenReturn(problem(11L, 0, null));
+        when(problems.updateById(any(Problem.class))).thenReturn(1);
+        when(versions.findLatestVersionNumber(11L)).thenReturn(0);
+        when(versions.insert(any(ProblemVersion.class))).thenReturn(1);
+        ProblemUpdateDTO request = new ProblemUpdateDTO();
+        request.setId(11L);
+        request.setTitle("Two Sum revised");
+
+        service.updateProblem(request, 2L);
+
+        ArgumentCaptor<Problem> updated = ArgumentCaptor.forClass(Problem.class);
+        verify(problems).updateById(updated.capture());
+        assertEquals(1, updated.getValue().getStatus());
+        verify(events).publishEvent(new ProblemCatalogChangedEvent(11L));
     }
 
     @Test
@@ -274,7 +318,7 @@ class ProblemVersionPublishingTest {
         editedDraft.setTotalScore(300);
         when(problems.selectById(11L)).thenReturn(editedDraft);
         when(versions.selectById(23L)).thenReturn(publishedVersion(23L, "Published title", 1000, 256, 1, 0, 100));
-        when(problems.getUserSubmitStatus(11L, 7L)).thenReturn(1);
+        when(statuses.statuses(7L, List.of(11L))).thenReturn(Map.of(11L, 1));
         User administrator = new User();
         administrator.setId(9L);
         administrator.setRole(1);
@@ -299,6 +343,7 @@ class ProblemVersionPublishingTest {
         assertEquals("Draft title", administratorView.getTitle());
         assertEquals(2200, administratorView.getTimeLimit());
         assertEquals(3, administratorView.getDifficulty());
+        verify(versions, times(1)).selectById(23L);
     }
 
     @Test
@@ -406,31 +451,123 @@ class ProblemVersionPublishingTest {
         String mapper = new String(
                 getClass().getResourceAsStream("/mapper/ProblemMapper.xml").readAllBytes(),
                 StandardCharsets.UTF_8);
+        String own = mapper.substring(
+                mapper.indexOf("<sql id=\"ownProblems\""),
+                mapper.indexOf("</sql>"));
+        String list = mapper.substring(
+                mapper.indexOf("<select id=\"getProblemList\""),
+                mapper.indexOf("<select id=\"getProblemByNo\""));
+
+        assertEquals(true, list.contains("FROM t_problem_catalog c"));
+        assertEquals(true, list.contains("AND p.status = 0"));
+        assertEquals(true, list.contains("AND c.create_user_id &lt;&gt; #{userId}"));
+        assertEquals(true, own.contains("AND p.create_user_id = #{userId}"));
+        assertEquals(true, list.contains("UNION ALL\n                    <include refid=\"ownProblems\"/>"));
+        assertEquals(true, list.contains("FROM t_problem_catalog_tag ct"));
+        assertEquals(false, list.contains("JSON_EXTRACT"));
+        assertEquals(false, list.contains("JSON_TABLE"));
+        assertEquals(false, list.contains("t_problem_version"));
+        assertEquals(false, list.contains("t_submission"));
+    }
 
-        assertEquals(true, mapper.contains("p.status = 0 OR p.create_user_id = #{userId}"));
-        assertEquals(
-                true,
-                occurrences(mapper, "JSON_EXTRACT(pv.statement_json, '$.title')") >= 2);
-        assertEquals(
-                true,
-                occurrences(mapper, "JSON_EXTRACT(pv.judge_config_json, '$.difficulty')") >= 2);
-        assertEquals(true, mapper.contains("JSON_TABLE"));
-        assertEquals(true, mapper.contains("$.tags[*]"));
+    @Test
+    void publicListLooksUpSubmissionStatusOnlyForTheReturnedPage() {
+        User reader = new User();
+        reader.setId(7L);
+        reader.setRole(0);
+        when(users.getById(7L)).thenReturn(reader);
+        Page<ProblemVO> page = new Page<>(1, 20, 2);
+        page.setRecords(List.of(listed(11L, 8L), listed(12L, 7L)));
+        when(problems.getProblemList(
+                        any(Page.class), eq(null), eq(null), eq(null), anyList(), eq(7L), eq(false)))
+                .thenReturn(page);
+        when(versions.selectBatchIds(anyList()))
+                .thenReturn(List.of(publishedVersion(23L, "Published title", 1000, 256, 1, 0, 100)));
+        when(statuses.statuses(7L, List.of(11L, 12L))).thenReturn(Map.of(12L, 1));
+        ProblemQueryDTO query = new ProblemQueryDTO();
+        query.setCurrent(1);
+        query.setSize(20);
+        query.setTagIds(List.of());
+
+        IPage<ProblemListItemVO> result = service.getProblemList(query, 7L);
+
+        assertEquals(List.of(0, 1), result.getRecords().stream().map(ProblemListItemVO::getUserStatus).toList());
+        assertEquals(List.of("Published title", "Draft title"),
+                result.getRecords().stream().map(ProblemListItemVO::getTitle).toList());
     }
 
     @Test
-    void problemDetailsUseTheSubmissionStatusMapperContract() throws Exception {
-        Select statusQuery = ProblemMapper.class
-                .getMethod("getUserSubmitStatus", Long.class, Long.class)
-                .getAnnotation(Select.class);
+    void keywordListMergesIndexedPublicHitsWithOwnProblemsAndReadsOnlyThePage() {
+        User reader = new User();
+        reader.setId(7L);
+        reader.setRole(0);
+        when(users.getById(7L)).thenReturn(reader);
+        when(catalogSearch.current()).thenReturn(Optional.of(ProblemSearchIndex.build(List.of(
+                new ProblemSearchIndex.Entry(11L, "P1001", "Two Sum", null, 1, 8L, List.of()),
+                new ProblemSearchIndex.Entry(13L, "P1003", "Sum Tree", null, 2, 8L, List.of()),
+                new ProblemSearchIndex.Entry(14L, "P1004", "Shortest Path", null, 2, 8L, List.of())), Map.of())));
+        ProblemVO own = listed(12L, 7L);
+        own.setProblemNo("P1002");
+        when(problems.getOwnProblemList("sum", null, null, List.of(), 7L)).thenReturn(List.of(own));
+        ProblemVO third = listed(13L, 8L);
+        third.setProblemNo("P1003");
+        when(problems.getCatalogProblems(List.of(13L))).thenReturn(List.of(third));
+        when(versions.selectBatchIds(anyList()))
+                .thenReturn(List.of(publishedVersion(23L, "Sum Tree", 1000, 256, 2, 0, 100)));
+        ProblemQueryDTO query = new ProblemQueryDTO();
+        query.setKeyword("sum");
+        query.setCurrent(2);
+        query.setSize(2);
+        query.setTagIds(List.of());
+
+        IPage<ProblemListItemVO> result = service.getProblemList(query, 7L);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of("P1003"), result.getRecords().stream().map(ProblemListItemVO::getProblemNo).toList());
+        assertEquals("Sum Tree", result.getRecords().get(0).getTitle());
+        verify(problems, never()).getProblemList(
+                any(Page.class), any(), any(), any(), anyList(), any(), anyBoolean());
+    }
+
+    @Test
+    void indexedHitsThatNoLongerReadBackAreLeftOutOfTheTotalAndReindexed() {
+        User reader = new User();
+        reader.setId(7L);
+        reader.setRole(0);
+        when(users.getById(7L)).thenReturn(reader);
+        when(catalogSearch.current()).thenReturn(Optional.of(ProblemSearchIndex.build(List.of(
+                new ProblemSearchIndex.Entry(11L, "P1001", "Two Sum", null, 1, 8L, List.of()),
+                new ProblemSearchIndex.Entry(13L, "P1003", "Sum Tree", null, 2, 8L, List.of())), Map.of())));
+        when(problems.getOwnProblemList("sum", null, null, List.of(), 7L)).thenReturn(List.of());
+        ProblemVO first = listed(11L, 8L);
+        first.setProblemNo("P1001");
+        first.setPublishedVersionId(null);
+        // 13 在其他副本上转为私有，索引尚未重建
+        when(problems.getCatalogProblems(List.of(11L, 13L))).thenReturn(List.of(first));
+        ProblemQueryDTO query = new ProblemQueryDTO();
+        query.setKeyword("sum");
+        query.setCurrent(1);
+        query.setSize(20);
+        query.setTagIds(List.of());
+
+        IPage<ProblemListItemVO> result = service.getProblemList(query, 7L);
 
-        String sql = String.join(" ", statusQuery.value());
-        assertEquals(true, sql.contains("t_submission"));
-        assertEquals(true, sql.contains("status = 1"));
+        assertEquals(1, result.getTotal());
+        assertEquals(List.of("P1001"), result.getRecords().stream().map(ProblemListItemVO::getProblemNo).toList());
+        verify(events).publishEvent(new ProblemCatalogChangedEvent(13L));
     }
 
-    private int occurrences(String value, String needle) {
-        return (value.length() - value.replace(needle, "").length()) / needle.length();
+    private ProblemVO listed(long id, long createUserId) {
+        ProblemVO view = new ProblemVO();
+        view.setId(id);
+        view.setTitle("Draft title");
+        view.setDifficulty(3);
+        view.setStatus(0);
+        view.setCreateUserId(createUserId);
+        view.setPublishedVersionId(23L);
+        view.setSubmitCount(0);
+        view.setAcceptedCount(0);
+        return view;
     }
 
     private Problem problem(long id, int status, Long publishedVersionId) {
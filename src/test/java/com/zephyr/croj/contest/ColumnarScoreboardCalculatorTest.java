@@ -0,0 +1,109 @@
+package com.zephyr.croj.contest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ColumnarScoreboardCalculatorTest {
+    private static final Instant START = Instant.parse("2026-07-10T10:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2026-07-10T12:00:00Z");
+    private static final int[] STATUSES = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    @Test
+    void acmBoardIsIdenticalToTheReferenceCalculator() {
+        Random random = new Random(20260801L);
+        for (int round = 0; round < 100; round++) {
+            List<Long> participants = participants(random);
+            var problems = List.of(
+                    new AcmScoreboardCalculator.Problem(41L, "A"),
+                    new AcmScoreboardCalculator.Problem(42L, "B"),
+                    new AcmScoreboardCalculator.Problem(43L, "C"));
+            List<AcmScoreboardCalculator.SubmissionFact> facts = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                facts.add(new AcmScoreboardCalculator.SubmissionFact(
+                        random.nextInt(3) == 0 ? id : 1_000 - id,
+                        1 + random.nextInt(25),
+                        41 + random.nextInt(4),
+                        STATUSES[random.nextInt(STATUSES.length)],
+                        time(random)));
+            }
+
+            assertEquals(
+                    AcmScoreboardCalculator.calculate(participants, problems, facts, START, CUTOFF),
+                    ColumnarScoreboardCalculator.acm(participants, problems, facts, START, CUTOFF));
+        }
+    }
+
+    @Test
+    void oiBoardIsIdenticalToTheReferenceCalculator() {
+        Random random = new Random(20260802L);
+        for (int round = 0; round < 100; round++) {
+            List<Long> participants = participants(random);
+            var problems = List.of(
+                    new OiScoreboardCalculator.Problem(41L, "A", 100),
+                    new OiScoreboardCalculator.Problem(42L, "B", 40),
+                    new OiScoreboardCalculator.Problem(43L, "C", 7));
+            List<OiScoreboardCalculator.SubmissionFact> facts = new ArrayList<>();
+            for (long id = 1; id <= 200; id++) {
+                int problem = random.nextInt(4);
+                facts.add(new OiScoreboardCalculator.SubmissionFact(
+                        random.nextInt(3) == 0 ? id : 1_000 - id,
+                        1 + random.nextInt(25),
+                        41 + problem,
+                        random.nextInt(10) == 0 ? null : random.nextInt(new int[] {101, 41, 8, 50}[problem]),
+                        time(random)));
+            }
+
+            assertEquals(
+                    OiScoreboardCalculator.calculate(participants, problems, facts, START, CUTOFF),
+                    ColumnarScoreboardCalculator.oi(participants, problems, facts, START, CUTOFF));
+        }
+    }
+
+    @Test
+    void invalidInputsAreRejectedLikeTheReferenceCalculators() {
+        var duplicateLabels = List.of(
+                new AcmScoreboardCalculator.Problem(41L, "A"), new AcmScoreboardCalculator.Problem(42L, "A"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ColumnarScoreboardCalculator.acm(List.of(1L), duplicateLabels, List.of(), START, CUTOFF));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ColumnarScoreboardCalculator.acm(List.of(1L, 1L), List.of(), List.of(), START, CUTOFF));
+        var problems = List.of(new OiScoreboardCalculator.Problem(41L, "A", 10));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ColumnarScoreboardCalculator.oi(
+                        List.of(1L),
+                        problems,
+                        List.of(new OiScoreboardCalculator.SubmissionFact(1L, 1L, 41L, 11, START)),
+                        START,
+                        CUTOFF));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ColumnarScoreboardCalculator.oi(List.of(1L), problems, List.of(), CUTOFF, START));
+    }
+
+    /** Mostly inside the window, with sub-second times so minute truncation and ties are exercised. */
+    private static Instant time(Random random) {
+        Instant at = START.plusSeconds(random.nextInt(7_400) - 100);
+        return random.nextBoolean() ? at : at.plusNanos(random.nextInt(1_000_000_000));
+    }
+
+    private static List<Long> participants(Random random) {
+        List<Long> participants = new ArrayList<>();
+        for (long userId = 1; userId <= 20; userId++) {
+            if (random.nextInt(4) != 0) {
+                participants.add(userId);
+            }
+        }
+        Collections.shuffle(participants, random);
+        return participants;
+    }
+}
@@ -4,9 +4,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -34,7 +38,7 @@ import org.springframework.test.context.jdbc.Sql;
         "DROP TABLE IF EXISTS t_contest",
         "DROP TABLE IF EXISTS t_user",
         "CREATE TABLE t_user (id BIGINT PRIMARY KEY, username VARCHAR(50) NOT NULL)",
-        "CREATE TABLE t_contest (id BIGINT PRIMARY KEY, title VARCHAR(255), description_markdown CLOB, rule_type VARCHAR(16), visibility VARCHAR(16), lifecycle VARCHAR(16), registration_opens_at TIMESTAMP, registration_closes_at TIMESTAMP, starts_at TIMESTAMP, freeze_at TIMESTAMP, ends_at TIMESTAMP, created_by BIGINT, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE t_contest (id BIGINT PRIMARY KEY, title VARCHAR(255), description_markdown CLOB, rule_type VARCHAR(16), visibility VARCHAR(16), lifecycle VARCHAR(16), registration_opens_at TIMESTAMP, registration_closes_at TIMESTAMP, starts_at TIMESTAMP, freeze_at TIMESTAMP, ends_at TIMESTAMP, created_by BIGINT, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, scoreboard_revision BIGINT DEFAULT 0 NOT NULL, frozen_scoreboard_revision BIGINT DEFAULT 0 NOT NULL)",
         "CREATE TABLE t_contest_registration (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, contest_id BIGINT, user_id BIGINT, status VARCHAR(16), registered_at TIMESTAMP, updated_at TIMESTAMP, managed_by BIGINT, UNIQUE(contest_id,user_id))",
         "CREATE TABLE t_contest_problem (contest_id BIGINT, problem_id BIGINT, problem_version_id BIGINT, label VARCHAR(16), score INT, PRIMARY KEY(contest_id,problem_id))",
         "CREATE TABLE t_problem_version (id BIGINT PRIMARY KEY, problem_id BIGINT, state VARCHAR(20), statement_json CLOB, limits_json CLOB, judge_config_json CLOB)",
@@ -42,8 +46,8 @@ import org.springframework.test.context.jdbc.Sql;
         "CREATE TABLE t_contest_clarification (id BIGINT PRIMARY KEY, contest_id BIGINT, problem_id BIGINT, asked_by BIGINT, question_markdown CLOB, status VARCHAR(16), created_at TIMESTAMP)",
         "CREATE TABLE t_contest_clarification_reply (id BIGINT PRIMARY KEY, clarification_id BIGINT, reply_markdown CLOB, replied_by BIGINT, is_public BOOLEAN, created_at TIMESTAMP)",
         "CREATE TABLE t_contest_scoreboard_snapshot (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, contest_id BIGINT, view_type VARCHAR(16), cutoff_at TIMESTAMP, source_version VARCHAR(160), payload JSON, generated_at TIMESTAMP, UNIQUE(contest_id,view_type,cutoff_at))",
-        "INSERT INTO t_contest VALUES (1,'Weekly','d','ACM','PUBLIC','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 10:00:00','2026-07-10 11:00:00','2026-07-10 12:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP)",
-        "INSERT INTO t_contest VALUES (2,'OI Weekly','d','OI','PUBLIC','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 10:00:00','2026-07-10 11:00:00','2026-07-10 12:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP)",
+        "INSERT INTO t_contest VALUES (1,'Weekly','d','ACM','PUBLIC','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 10:00:00','2026-07-10 11:00:00','2026-07-10 12:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP,0,0)",
+        "INSERT INTO t_contest VALUES (2,'OI Weekly','d','OI','PUBLIC','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 10:00:00','2026-07-10 11:00:00','2026-07-10 12:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP,0,0)",
         "INSERT INTO t_user VALUES (7,'alice'),(8,'bob'),(9,'carol'),(17,'dave'),(18,'erin')",
         "INSERT INTO t_contest_registration(contest_id,user_id,status) VALUES (1,7,'REGISTERED'),(1,8,'REGISTERED')",
         "INSERT INTO t_contest_registration(contest_id,user_id,status) VALUES (2,17,'REGISTERED'),(2,18,'REGISTERED')",
@@ -103,7 +107,7 @@ class ContestContentAndScoreboardIntegrationTest {
         assertEquals(1, jdbc.queryForObject(
                 "SELECT COUNT(*) FROM t_contest_scoreboard_snapshot WHERE contest_id=1",
                 Integer.class));
-        jdbc.update("INSERT INTO t_contest_registration(contest_id,user_id,status) VALUES (1,9,'REGISTERED')");
+        repository.register(1L, 9L, null);
         var refreshedPublicBoard = scoreboards.publicScoreboard(1L, 7L);
         assertEquals(3, refreshedPublicBoard.rows().size());
         assertEquals(1, jdbc.queryForObject(
@@ -115,6 +119,87 @@ class ContestContentAndScoreboardIntegrationTest {
         assertEquals(1, adminBoard.rows().get(1).solved());
     }
 
+    @Test
+    void liveAdministratorBoardIsServedFromMemoryAndAdvancedByJudgedSubmissions() {
+        ContestRepository repository = new ContestRepository(jdbc);
+        Clock clock = fixed("2026-07-10T11:30:00Z");
+        ContestScoreboardEngine engine = new ContestScoreboardEngine(repository, clock, Duration.ofSeconds(30));
+        ContestScoreboardService scoreboards = new ContestScoreboardService(
+                repository, clock, engine, new ObjectMapper().findAndRegisterModules());
+        var before = scoreboards.administratorScoreboard(1L);
+
+        jdbc.update(
+                "INSERT INTO t_submission VALUES (11,42,101,1,8,'java','x',3,NULL,'2026-07-10 10:50:00','2026-07-10 10:50:01',0)");
+        var unchanged = scoreboards.administratorScoreboard(1L);
+        assertEquals(before, unchanged);
+
+        long revision = repository.bumpScoreboardRevision(1L);
+        engine.onSubmissionJudged(new SubmissionJudgedEvent(11L, 8L, 42L, 1L, 3, null, revision));
+        var after = scoreboards.administratorScoreboard(1L);
+        var bob = after.rows().stream().filter(row -> row.userId() == 8L).findFirst().orElseThrow();
+        assertNotEquals(before.sourceVersion(), after.sourceVersion());
+        assertEquals(1, bob.problems().get(0).wrongAttempts());
+        assertEquals(80, bob.penaltyMinutes());
+    }
+
+    @Test
+    void scoreboardWindowsReturnPagesTopRowsAndRowsAroundAUser() {
+        ContestRepository repository = new ContestRepository(jdbc);
+        ContestScoreboardService scoreboards =
+                new ContestScoreboardService(repository, fixed("2026-07-10T11:30:00Z"));
+
+        var aroundBob = scoreboards.publicScoreboardRows(1L, 7L, ContestScoreboardService.RowWindow.around(8L, 0));
+        assertEquals(2, aroundBob.totalRows());
+        assertEquals(1, aroundBob.offset());
+        assertEquals(List.of(8L), aroundBob.rows().stream().map(row -> row.userId()).toList());
+        assertEquals(2, aroundBob.rows().get(0).rank());
+        assertEquals(true, aroundBob.frozen());
+
+        var top = scoreboards.publicScoreboardRows(1L, 7L, ContestScoreboardService.RowWindow.top(1));
+        assertEquals(scoreboards.publicScoreboard(1L, 7L).rows().subList(0, 1), top.rows());
+        assertEquals(0, scoreboards.publicScoreboardRows(1L, 7L, ContestScoreboardService.RowWindow.page(2, 5))
+                .rows()
+                .size());
+        assertThrows(
+                ContestApiException.class,
+                () -> scoreboards.publicScoreboardRows(1L, 7L, ContestScoreboardService.RowWindow.around(9L, 3)));
+
+        var live = scoreboards.administratorScoreboardRows(1L, ContestScoreboardService.RowWindow.page(2, 1));
+        assertEquals(2, live.totalRows());
+        assertEquals(1, live.offset());
+        assertEquals(scoreboards.administratorScoreboard(1L).rows().subList(1, 2), live.rows());
+    }
+
+    @Test
+    void residentBoardServesTheFrozenViewAndResolvesAfterTheContestEnds() {
+        ContestRepository repository = new ContestRepository(jdbc);
+        ContestScoreboardEngine engine =
+                new ContestScoreboardEngine(repository, fixed("2026-07-10T11:30:00Z"), Duration.ofHours(2));
+        ContestScoreboardService frozen = new ContestScoreboardService(
+                repository, fixed("2026-07-10T11:30:00Z"), engine, new ObjectMapper().findAndRegisterModules());
+        frozen.administratorScoreboard(1L);
+
+        var publicBoard = frozen.publicScoreboard(1L, 7L);
+        assertEquals(0, publicBoard.rows().get(1).solved());
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM t_contest_scoreboard_snapshot WHERE contest_id=1",
+                Integer.class));
+        assertThrows(ContestApiException.class, () -> frozen.resolution(1L));
+
+        ContestScoreboardService ended = new ContestScoreboardService(
+                repository, fixed("2026-07-10T12:30:00Z"), engine, new ObjectMapper().findAndRegisterModules());
+        var resolution = ended.resolution(1L);
+        assertEquals(publicBoard.rows(), resolution.frozenRows());
+        assertEquals(1, resolution.steps().size());
+        var step = resolution.steps().get(0);
+        assertEquals(8L, step.userId());
+        assertEquals("A", step.label());
+        assertEquals(2, step.previousRank());
+        assertEquals(2, step.rank());
+        assertEquals(1, step.row().solved());
+        assertEquals(ended.publicScoreboard(1L, 7L).rows().get(1), step.row());
+    }
+
     @Test
     void acmRepositoryIncludesOlePenaltyButExcludesSystemError() {
         jdbc.update(
@@ -199,11 +284,13 @@ class ContestContentAndScoreboardIntegrationTest {
 
     @Test
     void softDeletingAnEffectiveOiSubmissionInvalidatesAndRebuildsTheBoard() {
-        ContestScoreboardService scoreboards = new ContestScoreboardService(
-                new ContestRepository(jdbc), fixed("2026-07-10T11:30:00Z"));
+        ContestRepository repository = new ContestRepository(jdbc);
+        ContestScoreboardService scoreboards =
+                new ContestScoreboardService(repository, fixed("2026-07-10T11:30:00Z"));
         var before = scoreboards.publicScoreboard(2L, 17L);
 
         jdbc.update("UPDATE t_submission SET is_deleted=1 WHERE id=6");
+        repository.bumpScoreboardRevision(2L);
 
         var after = scoreboards.publicScoreboard(2L, 17L);
         assertNotEquals(before.sourceVersion(), after.sourceVersion());
@@ -224,22 +311,67 @@ class ContestContentAndScoreboardIntegrationTest {
         String before = scoreboards.publicScoreboard(2L, 17L).sourceVersion();
 
         jdbc.update("UPDATE t_submission SET score=95 WHERE id=5");
+        repository.bumpScoreboardRevision(2L);
 
         String after = scoreboards.publicScoreboard(2L, 17L).sourceVersion();
         assertNotEquals(before, after);
     }
 
     @Test
-    void participantRenameInvalidatesStableSnapshotSourceVersion() {
+    void participantRenameIsPickedUpByTheNextRevision() {
         ContestRepository repository = new ContestRepository(jdbc);
         ContestScoreboardService scoreboards =
                 new ContestScoreboardService(repository, fixed("2026-07-10T11:30:00Z"));
         String before = scoreboards.publicScoreboard(2L, 17L).sourceVersion();
 
         jdbc.update("UPDATE t_user SET username='renamed' WHERE id=18");
+        repository.bumpScoreboardRevision(2L);
 
-        String after = scoreboards.publicScoreboard(2L, 17L).sourceVersion();
-        assertNotEquals(before, after);
+        var after = scoreboards.publicScoreboard(2L, 17L);
+        assertNotEquals(before, after.sourceVersion());
+        assertEquals("renamed", after.rows().get(0).username());
+    }
+
+    @Test
+    void stableSnapshotIsKeyedByTheRevisionAndServedWithoutReadingFacts() {
+        ContestRepository repository = new ContestRepository(jdbc);
+        ContestScoreboardService scoreboards =
+                new ContestScoreboardService(repository, fixed("2026-07-10T11:30:00Z"));
+        var before = scoreboards.publicScoreboard(1L, 7L);
+        assertEquals("frozen-revision:0", before.sourceVersion());
+
+        jdbc.update("UPDATE t_submission SET status=1 WHERE id=1");
+        assertEquals(before, scoreboards.publicScoreboard(1L, 7L));
+
+        repository.bumpScoreboardRevision(1L);
+        var after = scoreboards.publicScoreboard(1L, 7L);
+        assertEquals("frozen-revision:1", after.sourceVersion());
+        assertEquals(10, after.rows().get(0).penaltyMinutes());
+    }
+
+    @Test
+    void verdictsOnPostFreezeSubmissionsKeepTheFrozenSnapshot() {
+        ContestRepository repository = new ContestRepository(jdbc);
+        ContestScoreboardService scoreboards =
+                new ContestScoreboardService(repository, fixed("2026-07-10T11:45:00Z"));
+        var before = scoreboards.publicScoreboard(1L, 7L);
+
+        jdbc.update(
+                "INSERT INTO t_submission VALUES (21,42,101,1,8,'java','x',1,NULL,'2026-07-10 11:10:00','2026-07-10 11:10:01',0)");
+        jdbc.update(
+                "INSERT INTO t_submission VALUES (22,42,101,1,8,'java','x',3,NULL,'2026-07-10 11:20:00','2026-07-10 11:20:01',0)");
+        assertEquals(2L, repository.bumpScoreboardRevisionForJudged(1L, List.of(21L, 22L)));
+        jdbc.update("UPDATE t_submission SET status=1 WHERE id=1");
+
+        assertEquals(before, scoreboards.publicScoreboard(1L, 7L));
+        assertEquals(0L, repository.frozenScoreboardRevision(1L));
+
+        jdbc.update(
+                "INSERT INTO t_submission VALUES (23,42,101,1,8,'java','x',3,NULL,'2026-07-10 10:50:00','2026-07-10 10:50:01',0)");
+        repository.bumpScoreboardRevisionForJudged(1L, List.of(23L));
+        var after = scoreboards.publicScoreboard(1L, 7L);
+        assertEquals("frozen-revision:1", after.sourceVersion());
+        assertEquals(10, after.rows().get(0).penaltyMinutes());
     }
 
     @Test
@@ -252,6 +384,7 @@ class ContestContentAndScoreboardIntegrationTest {
         String before = scoreboards.publicScoreboard(1L, 7L).sourceVersion();
 
         jdbc.update("UPDATE t_contest_registration SET status=CASE user_id WHEN 7 THEN 'CANCELLED' WHEN 9 THEN 'REGISTERED' ELSE status END WHERE contest_id=1 AND user_id IN (7,9)");
+        repository.bumpScoreboardRevision(1L);
 
         String after = scoreboards.publicScoreboard(1L, 8L).sourceVersion();
         assertNotEquals(before, after);
@@ -266,6 +399,7 @@ class ContestContentAndScoreboardIntegrationTest {
         String before = scoreboards.publicScoreboard(1L, 7L).sourceVersion();
 
         jdbc.update("UPDATE t_submission SET status=CASE id WHEN 1 THEN 1 WHEN 2 THEN 3 ELSE status END WHERE id IN (1,2)");
+        repository.bumpScoreboardRevision(1L);
 
         String after = scoreboards.publicScoreboard(1L, 7L).sourceVersion();
         assertNotEquals(before, after);
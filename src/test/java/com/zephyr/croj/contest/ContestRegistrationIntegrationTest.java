@@ -35,10 +35,10 @@ import org.springframework.transaction.annotation.Transactional;
         "DROP TABLE IF EXISTS t_contest",
         "DROP TABLE IF EXISTS t_user",
         "CREATE TABLE t_user (id BIGINT PRIMARY KEY, status INT NOT NULL, is_deleted INT NOT NULL)",
-        "CREATE TABLE t_contest (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, description_markdown CLOB, rule_type VARCHAR(16) NOT NULL, visibility VARCHAR(16) NOT NULL, lifecycle VARCHAR(16) NOT NULL, registration_opens_at TIMESTAMP NOT NULL, registration_closes_at TIMESTAMP NOT NULL, starts_at TIMESTAMP NOT NULL, freeze_at TIMESTAMP, ends_at TIMESTAMP NOT NULL, created_by BIGINT NOT NULL, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE t_contest (id BIGINT PRIMARY KEY, title VARCHAR(255) NOT NULL, description_markdown CLOB, rule_type VARCHAR(16) NOT NULL, visibility VARCHAR(16) NOT NULL, lifecycle VARCHAR(16) NOT NULL, registration_opens_at TIMESTAMP NOT NULL, registration_closes_at TIMESTAMP NOT NULL, starts_at TIMESTAMP NOT NULL, freeze_at TIMESTAMP, ends_at TIMESTAMP NOT NULL, created_by BIGINT NOT NULL, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, scoreboard_revision BIGINT DEFAULT 0 NOT NULL, frozen_scoreboard_revision BIGINT DEFAULT 0 NOT NULL)",
         "CREATE TABLE t_contest_registration (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, contest_id BIGINT NOT NULL, user_id BIGINT NOT NULL, status VARCHAR(16) NOT NULL, registered_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, managed_by BIGINT, UNIQUE(contest_id,user_id))",
-        "INSERT INTO t_contest VALUES (1,'Public ACM','d','ACM','PUBLIC','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 00:00:00','2026-07-10 01:30:00','2026-07-10 02:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP)",
-        "INSERT INTO t_contest VALUES (2,'Private ACM','d','ACM','PRIVATE','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 00:00:00',NULL,'2026-07-10 02:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP)",
+        "INSERT INTO t_contest VALUES (1,'Public ACM','d','ACM','PUBLIC','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 00:00:00','2026-07-10 01:30:00','2026-07-10 02:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP,0,0)",
+        "INSERT INTO t_contest VALUES (2,'Private ACM','d','ACM','PRIVATE','PUBLISHED','2026-07-01 00:00:00','2026-07-09 00:00:00','2026-07-10 00:00:00',NULL,'2026-07-10 02:00:00',1,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP,0,0)",
         "INSERT INTO t_user VALUES (7,0,0),(8,1,0)",
 }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 class ContestRegistrationIntegrationTest {
@@ -0,0 +1,222 @@
+package com.zephyr.croj.contest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class ScoreboardProjectionTest {
+    private static final Instant START = Instant.parse("2026-07-10T10:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2026-07-10T12:00:00Z");
+    private static final int[] STATUSES = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    @Test
+    void acmProjectionMatchesTheCalculatorForAnyArrivalOrder() {
+        Random random = new Random(20260710L);
+        for (int round = 0; round < 50; round++) {
+            List<Long> participants = participants(random);
+            var problems = List.of(
+                    new AcmScoreboardCalculator.Problem(41L, "A"),
+                    new AcmScoreboardCalculator.Problem(42L, "B"),
+                    new AcmScoreboardCalculator.Problem(43L, "C"));
+            List<AcmScoreboardCalculator.SubmissionFact> facts = new ArrayList<>();
+            for (long id = 1; id <= 120; id++) {
+                facts.add(new AcmScoreboardCalculator.SubmissionFact(
+                        id,
+                        1 + random.nextInt(12),
+                        41 + random.nextInt(4),
+                        STATUSES[random.nextInt(STATUSES.length)],
+                        START.plusSeconds(random.nextInt(7_400) - 100)));
+            }
+            var expected = AcmScoreboardCalculator.calculate(participants, problems, facts, START, CUTOFF);
+            var projection = new AcmScoreboardProjection(participants, problems, START, CUTOFF);
+            Collections.shuffle(facts, random);
+            facts.forEach(fact -> projection.apply(ScoreboardProjection.Fact.of(fact)));
+            facts.subList(0, 20).forEach(fact -> assertFalse(projection.apply(ScoreboardProjection.Fact.of(fact))));
+
+            Map<Long, String> names = names(participants);
+            assertEquals(
+                    expected.rows().stream()
+                            .map(row -> ContestScoreboardService.ScoreboardRow.fromAcm(row, names))
+                            .toList(),
+                    projection.payload(names).rows());
+        }
+    }
+
+    @Test
+    void oiProjectionMatchesTheCalculatorForAnyArrivalOrder() {
+        Random random = new Random(20260711L);
+        for (int round = 0; round < 50; round++) {
+            List<Long> participants = participants(random);
+            var problems = List.of(
+                    new OiScoreboardCalculator.Problem(41L, "A", 100),
+                    new OiScoreboardCalculator.Problem(42L, "B", 50));
+            List<OiScoreboardCalculator.SubmissionFact> facts = new ArrayList<>();
+            for (long id = 1; id <= 120; id++) {
+                long problemId = 41 + random.nextInt(3);
+                Integer score = random.nextInt(6) == 0 ? null : random.nextInt(6) * 10;
+                facts.add(new OiScoreboardCalculator.SubmissionFact(
+                        id,
+                        1 + random.nextInt(12),
+                        problemId,
+                        score,
+                        START.plusSeconds(random.nextInt(120) * 60L - 100)));
+            }
+            var expected = OiScoreboardCalculator.calculate(participants, problems, facts, START, CUTOFF);
+            var projection = new OiScoreboardProjection(participants, problems, START, CUTOFF);
+            Collections.shuffle(facts, random);
+            facts.forEach(fact -> projection.apply(ScoreboardProjection.Fact.of(fact)));
+
+            Map<Long, String> names = names(participants);
+            var payload = projection.payload(names);
+            assertEquals(expected.maximumScore(), payload.maximumScore());
+            assertEquals(
+                    expected.rows().stream()
+                            .map(row -> ContestScoreboardService.ScoreboardRow.fromOi(row, names))
+                            .toList(),
+                    payload.rows());
+        }
+    }
+
+    @Test
+    void resolverRevealsFrozenCellsBottomUpAndEndsAtTheLiveBoard() {
+        Random random = new Random(20260712L);
+        Instant freeze = Instant.parse("2026-07-10T11:00:00Z");
+        for (int round = 0; round < 30; round++) {
+            List<Long> participants = participants(random);
+            var problems = List.of(
+                    new ContestRepository.ContestProblem(41L, 101L, "A", 100, "{}", "{}"),
+                    new ContestRepository.ContestProblem(42L, 102L, "B", 100, "{}", "{}"));
+            var board = new LiveScoreboard(1L, 1L, START);
+            board.install(
+                    ScoreboardProjection.create("ACM", participants, problems, START, CUTOFF),
+                    ScoreboardProjection.create("ACM", participants, problems, START, freeze),
+                    names(participants),
+                    0L,
+                    List.of());
+            for (long id = 1; id <= 80; id++) {
+                board.accept(new ScoreboardProjection.Fact(
+                        id,
+                        1 + random.nextInt(10),
+                        41 + random.nextInt(2),
+                        STATUSES[random.nextInt(STATUSES.length)],
+                        null,
+                        START.plusSeconds(random.nextInt(7_200))),
+                        id);
+            }
+
+            var resolution = board.resolve();
+            var finalRows = board.read(CUTOFF).payload().rows();
+            assertEquals(board.read(freeze).payload().rows(), resolution.frozen().rows());
+            for (var step : resolution.steps()) {
+                assertTrue(step.rank() <= step.previousRank());
+            }
+            for (var row : finalRows) {
+                var revealed = resolution.steps().stream()
+                        .filter(step -> step.userId() == row.userId())
+                        .reduce((first, second) -> second);
+                revealed.ifPresent(step -> {
+                    assertEquals(row.solved(), step.row().solved());
+                    assertEquals(row.penaltyMinutes(), step.row().penaltyMinutes());
+                });
+            }
+            if (!resolution.steps().isEmpty()) {
+                var last = resolution.steps().get(resolution.steps().size() - 1);
+                assertEquals(finalRows.get(last.rank() - 1).userId(), last.userId());
+            }
+        }
+    }
+
+    @Test
+    void rowWindowsMatchTheSameRowsOfTheFullBoard() {
+        Random random = new Random(20260714L);
+        List<Long> participants = participants(random);
+        var problems = List.of(
+                new ContestRepository.ContestProblem(41L, 101L, "A", 100, "{}", "{}"),
+                new ContestRepository.ContestProblem(42L, 102L, "B", 100, "{}", "{}"));
+        var board = new LiveScoreboard(1L, 1L, START);
+        board.install(
+                ScoreboardProjection.create("ACM", participants, problems, START, CUTOFF),
+                null,
+                names(participants),
+                0L,
+                List.of());
+        for (long id = 1; id <= 60; id++) {
+            board.accept(
+                    new ScoreboardProjection.Fact(
+                            id,
+                            1 + random.nextInt(10),
+                            41 + random.nextInt(2),
+                            STATUSES[random.nextInt(STATUSES.length)],
+                            null,
+                            START.plusSeconds(random.nextInt(7_200))),
+                    id);
+        }
+        long someone = participants.get(participants.size() / 2);
+        var page = board.window(CUTOFF, ContestScoreboardService.RowWindow.page(2, 3));
+        var top = board.window(CUTOFF, ContestScoreboardService.RowWindow.top(2));
+        var around = board.window(CUTOFF, ContestScoreboardService.RowWindow.around(someone, 1));
+        var rows = board.read(CUTOFF).payload().rows();
+
+        assertEquals(rows.size(), page.totalRows());
+        assertEquals(rows.subList(3, Math.min(6, rows.size())), page.rows());
+        assertEquals(rows.subList(0, 2), top.rows());
+        int index = rows.indexOf(rows.stream().filter(row -> row.userId() == someone).findFirst().orElseThrow());
+        assertEquals(Math.max(0, index - 1), around.offset());
+        assertEquals(rows.subList(around.offset(), Math.min(index + 2, rows.size())), around.rows());
+        assertEquals(rows.subList(3, Math.min(6, rows.size())),
+                board.window(CUTOFF, ContestScoreboardService.RowWindow.page(2, 3)).rows());
+        assertThrows(
+                ContestApiException.class,
+                () -> board.window(CUTOFF, ContestScoreboardService.RowWindow.around(404L, 1)));
+    }
+
+    @Test
+    void windowCoversEarlierCutoffsOnlyUntilALaterFactArrives() {
+        var projection = new AcmScoreboardProjection(
+                List.of(7L), List.of(new AcmScoreboardCalculator.Problem(41L, "A")), START, CUTOFF);
+        Instant noon = Instant.parse("2026-07-10T11:00:00Z");
+        assertTrue(projection.covers(noon));
+
+        projection.apply(new ScoreboardProjection.Fact(1, 7, 41, 1, null, noon));
+
+        assertFalse(projection.covers(noon));
+        assertTrue(projection.covers(noon.plusSeconds(1)));
+        assertTrue(projection.covers(CUTOFF));
+        assertFalse(projection.covers(START.minusSeconds(1)));
+    }
+
+    @Test
+    void oiProjectionRejectsScoresOutsideThePinnedMaximum() {
+        var projection = new OiScoreboardProjection(
+                List.of(7L), List.of(new OiScoreboardCalculator.Problem(41L, "A", 100)), START, CUTOFF);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> projection.apply(new ScoreboardProjection.Fact(1, 7, 41, 1, 101, START)));
+    }
+
+    private List<Long> participants(Random random) {
+        List<Long> participants = new ArrayList<>();
+        for (long userId = 1; userId <= 10; userId++) {
+            if (random.nextInt(5) != 0) {
+                participants.add(userId);
+            }
+        }
+        return participants;
+    }
+
+    private Map<Long, String> names(List<Long> participants) {
+        return participants.stream().collect(Collectors.toMap(Function.identity(), userId -> "user" + userId));
+    }
+}
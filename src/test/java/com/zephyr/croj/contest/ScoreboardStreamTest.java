@@ -0,0 +1,214 @@
+package com.zephyr.croj.contest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ScoreboardStreamTest {
+    private static final Instant START = Instant.parse("2026-07-10T10:00:00Z");
+    private static final Instant CUTOFF = Instant.parse("2026-07-10T12:00:00Z");
+    private static final int[] STATUSES = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    @Test
+    void snapshotFollowedByDeltasReproducesTheBoard() {
+        Random random = new Random(20260713L);
+        for (int round = 0; round < 30; round++) {
+            List<Long> participants = new ArrayList<>();
+            for (long userId = 1; userId <= 10; userId++) {
+                if (random.nextInt(5) != 0) {
+                    participants.add(userId);
+                }
+            }
+            var problems = List.of(
+                    new ContestRepository.ContestProblem(41L, 101L, "A", 100, "{}", "{}"),
+                    new ContestRepository.ContestProblem(42L, 102L, "B", 100, "{}", "{}"));
+            var board = new LiveScoreboard(1L, 1L, START);
+            board.install(
+                    ScoreboardProjection.create("ACM", participants, problems, START, CUTOFF),
+                    null,
+                    participants.stream().collect(Collectors.toMap(Function.identity(), id -> "user" + id)),
+                    0L,
+                    List.of());
+            RecordingEmitter emitter = new RecordingEmitter();
+            var subscriber = new ScoreboardSubscriber(emitter, 1_000, Runnable::run);
+            assertTrue(board.attach(subscriber, read -> view(read)));
+
+            for (long id = 1; id <= 80; id++) {
+                board.accept(new ScoreboardProjection.Fact(
+                        id,
+                        1 + random.nextInt(12),
+                        41 + random.nextInt(3),
+                        STATUSES[random.nextInt(STATUSES.length)],
+                        null,
+                        START.plusSeconds(random.nextInt(7_200))),
+                        id);
+            }
+
+            assertEquals(ScoreboardSubscriber.SNAPSHOT, emitter.names.get(0));
+            List<ContestScoreboardService.ScoreboardRow> client =
+                    new ArrayList<>(((ContestScoreboardService.ScoreboardView) emitter.data.get(0)).rows());
+            for (int index = 1; index < emitter.data.size(); index++) {
+                assertEquals(ScoreboardSubscriber.DELTA, emitter.names.get(index));
+                var delta = (ContestScoreboardService.ScoreboardDelta) emitter.data.get(index);
+                for (var update : delta.updates()) {
+                    if (update.previousRank() > 0) {
+                        client.remove(update.previousRank() - 1);
+                    }
+                    client.add(update.row().rank() - 1, update.row());
+                }
+            }
+            var expected = board.read(CUTOFF).payload().rows();
+            assertEquals(
+                    expected.stream().map(ContestScoreboardService.ScoreboardRow::userId).toList(),
+                    client.stream().map(ContestScoreboardService.ScoreboardRow::userId).toList());
+            for (int index = 0; index < client.size(); index++) {
+                assertEquals(expected.get(index).problems(), client.get(index).problems());
+                assertEquals(expected.get(index).penaltyMinutes(), client.get(index).penaltyMinutes());
+            }
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithAResyncInsteadOfBlockingTheBoard() {
+        var board = new LiveScoreboard(1L, 1L, START);
+        var problems = List.of(new ContestRepository.ContestProblem(41L, 101L, "A", 100, "{}", "{}"));
+        board.install(
+                ScoreboardProjection.create("ACM", List.of(7L, 8L), problems, START, CUTOFF),
+                null,
+                Map.of(7L, "seven", 8L, "eight"),
+                0L,
+                List.of());
+        List<Runnable> parked = new ArrayList<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+        var subscriber = new ScoreboardSubscriber(emitter, 2, parked::add);
+        board.attach(subscriber, read -> view(read));
+
+        for (long id = 1; id <= 5; id++) {
+            board.accept(new ScoreboardProjection.Fact(id, 7, 41, 2, null, START.plusSeconds(id)), id);
+        }
+        assertTrue(subscriber.closed());
+        parked.forEach(Runnable::run);
+
+        assertEquals(List.of(ScoreboardSubscriber.RESYNC), emitter.names);
+        assertTrue(emitter.completed);
+        assertTrue(board.accept(new ScoreboardProjection.Fact(6, 8, 41, 1, null, START.plusSeconds(6)), 6));
+        assertEquals(1, emitter.names.size());
+        assertFalse(board.read(CUTOFF).payload().rows().isEmpty());
+    }
+
+    @Test
+    void anEndedContestGetsItsFinalSnapshotAndThenCompletes() {
+        var contests = mock(ContestRepository.class);
+        var contest = new ContestRepository.ContestRecord(
+                1L, "Weekly", "d", "ACM", "PUBLIC", "PUBLISHED",
+                START.minusSeconds(86_400), START, START, CUTOFF.minusSeconds(1_800), CUTOFF,
+                9L, START, START);
+        when(contests.findById(1L)).thenReturn(Optional.of(contest));
+        when(contests.scoreboardRevision(1L)).thenReturn(3L);
+        when(contests.registeredParticipants(1L)).thenReturn(List.of(new ContestRepository.Participant(7L, "seven")));
+        when(contests.listProblems(1L))
+                .thenReturn(List.of(new ContestRepository.ContestProblem(41L, 101L, "A", 100, "{}", "{}")));
+        when(contests.submissionFacts(1L, CUTOFF)).thenReturn(List.of());
+        Clock clock = Clock.fixed(CUTOFF.plusSeconds(3_600), ZoneOffset.UTC);
+        List<Long> timeouts = new ArrayList<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+        var streams = new ScoreboardStreams(64, Duration.ofMinutes(30), 1) {
+            @Override
+            SseEmitter emitter(long timeoutMillis) {
+                timeouts.add(timeoutMillis);
+                return emitter;
+            }
+        };
+        var scoreboards = new ContestScoreboardService(
+                contests,
+                clock,
+                new ContestScoreboardEngine(contests, clock, Duration.ofSeconds(30)),
+                new ObjectMapper().findAndRegisterModules(),
+                streams);
+
+        scoreboards.stream(1L, null);
+        awaitCompletion(emitter);
+
+        assertEquals(List.of(Duration.ofMinutes(30).toMillis()), timeouts);
+        assertEquals(List.of(ScoreboardSubscriber.SNAPSHOT), emitter.names);
+        var snapshot = (ContestScoreboardService.ScoreboardView) emitter.data.get(0);
+        assertEquals(CUTOFF, snapshot.cutoffExclusive());
+        assertEquals(
+                List.of(7L),
+                snapshot.rows().stream().map(ContestScoreboardService.ScoreboardRow::userId).toList());
+        streams.destroy();
+    }
+
+    @Test
+    void finishingSendsTheQueuedEventsBeforeCompleting() {
+        List<Runnable> parked = new ArrayList<>();
+        RecordingEmitter emitter = new RecordingEmitter();
+        var subscriber = new ScoreboardSubscriber(emitter, 4, parked::add);
+
+        subscriber.offer(ScoreboardSubscriber.SNAPSHOT, "board");
+        subscriber.finish();
+        subscriber.offer(ScoreboardSubscriber.DELTA, "late");
+        while (!parked.isEmpty()) {
+            parked.remove(0).run();
+        }
+
+        assertEquals(List.of(ScoreboardSubscriber.SNAPSHOT), emitter.names);
+        assertTrue(emitter.completed);
+    }
+
+    private static void awaitCompletion(RecordingEmitter emitter) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!emitter.completed && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(emitter.completed);
+    }
+
+    private ContestScoreboardService.ScoreboardView view(LiveScoreboard.Read read) {
+        return new ContestScoreboardService.ScoreboardView(
+                1L, "ACM", CUTOFF, false, read.sourceVersion(), null, read.payload().rows());
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            var parts = builder.build();
+            String text = parts.iterator().next().getData().toString();
+            names.add(text.substring("event:".length(), text.indexOf('\n')));
+            data.add(parts.stream()
+                    .skip(1)
+                    .findFirst()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .orElse(null));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.zephyr.croj.controller;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -14,7 +17,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.zephyr.croj.common.exception.GlobalExceptionHandler;
 import com.zephyr.croj.config.properties.TestBundleProperties;
 import com.zephyr.croj.problem.AdminTestBundleService;
+import com.zephyr.croj.problem.TestBundleUpload;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockMultipartFile;
@@ -48,10 +57,20 @@ class AdminTestBundleControllerTest {
     }
 
     @Test
-    void bindsTheMultipartArchiveUsingIfMatchAndReturnsTheNextEtag() throws Exception {
+    void spoolsTheMultipartArchiveToDiskUsingIfMatchAndReturnsTheNextEtag() throws Exception {
         byte[] archive = "PK\u0003\u0004zip".getBytes(StandardCharsets.ISO_8859_1);
-        when(service.upload(42, 101, "\"tb-v1-101-DRAFT-none\"", archive))
-                .thenReturn(view("DRAFT", true, "\"tb-v1-101-DRAFT-abc\""));
+        AtomicReference<Path> spooled = new AtomicReference<>();
+        when(service.upload(eq(42L), eq(101L), eq("\"tb-v1-101-DRAFT-none\""), any(TestBundleUpload.class)))
+                .thenAnswer(invocation -> {
+                    TestBundleUpload upload = invocation.getArgument(3);
+                    assertArrayEquals(archive, Files.readAllBytes(upload.path()));
+                    assertEquals(archive.length, upload.size());
+                    assertEquals(
+                            HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(archive)),
+                            upload.sha256());
+                    spooled.set(upload.path());
+                    return view("DRAFT", true, "\"tb-v1-101-DRAFT-abc\"");
+                });
 
         mvc.perform(multipart("/v1/admin/problems/42/versions/101/test-bundle")
                         .file(new MockMultipartFile("file", "tests.zip", "application/zip", archive))
@@ -61,7 +80,7 @@ class AdminTestBundleControllerTest {
                 .andExpect(header().string("ETag", "\"tb-v1-101-DRAFT-abc\""))
                 .andExpect(jsonPath("$.data.attached").value(true));
 
-        verify(service).upload(42, 101, "\"tb-v1-101-DRAFT-none\"", archive);
+        assertFalse(Files.exists(spooled.get()));
     }
 
     @Test
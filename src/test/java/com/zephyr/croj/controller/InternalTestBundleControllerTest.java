@@ -0,0 +1,110 @@
+package com.zephyr.croj.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.zephyr.croj.common.exception.GlobalExceptionHandler;
+import com.zephyr.croj.model.entity.TestBundle;
+import com.zephyr.croj.problem.TestBundleCache;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class InternalTestBundleControllerTest {
+    private static final String ENDPOINT = "/internal/v1/problem-versions/101/test-bundle";
+    private static final String SHA256 = "a".repeat(64);
+    private static final String ETAG = "\"" + SHA256 + "\"";
+
+    private final TestBundleCache cache = mock(TestBundleCache.class);
+    private final byte[] archive = "PK\u0003\u0004 cached test bundle archive".getBytes();
+    private final TestBundle bundle = new TestBundle();
+    private MockMvc mvc;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bundle.setProblemVersionId(101L);
+        bundle.setSha256(SHA256);
+        bundle.setSizeBytes((long) archive.length);
+        when(cache.find(101)).thenReturn(bundle);
+        Path file = Files.write(directory.resolve(SHA256 + ".zip"), archive);
+        when(cache.open(bundle)).thenAnswer(invocation -> new TestBundleCache.CachedBundle(
+                SHA256, archive.length, FileChannel.open(file, StandardOpenOption.READ)));
+        mvc = MockMvcBuilders.standaloneSetup(new InternalTestBundleController(cache))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void servesTheWholeArchiveWithItsDigestAsStrongEtag() throws Exception {
+        byte[] body = mvc.perform(get(ENDPOINT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", archive.length))
+                .andExpect(content().contentType("application/zip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertArrayEquals(archive, body);
+    }
+
+    @Test
+    void aJudgeHoldingTheArchiveGetsNotModifiedWithoutOpeningIt() throws Exception {
+        mvc.perform(get(ENDPOINT).header("If-None-Match", "\"other\", " + ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG));
+
+        verify(cache, never()).open(any());
+    }
+
+    @Test
+    void resumesFromASingleByteRange() throws Exception {
+        byte[] body = mvc.perform(get(ENDPOINT).header("Range", "bytes=4-9").header("If-Range", ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-9/" + archive.length))
+                .andExpect(header().longValue("Content-Length", 6))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        assertArrayEquals(Arrays.copyOfRange(archive, 4, 10), body);
+    }
+
+    @Test
+    void aStaleIfRangeOrSeveralRangesGetTheWholeArchive() throws Exception {
+        mvc.perform(get(ENDPOINT).header("Range", "bytes=4-9").header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", archive.length));
+        mvc.perform(get(ENDPOINT).header("Range", "bytes=0-1,4-9"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", archive.length));
+    }
+
+    @Test
+    void aRangePastTheEndIsNotSatisfiable() throws Exception {
+        mvc.perform(get(ENDPOINT).header("Range", "bytes=" + archive.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + archive.length));
+
+        verify(cache, never()).open(any());
+    }
+}
@@ -41,6 +41,20 @@ class MigrationContractTest {
             "db",
             "migration",
             "V13__contest_scoreboard_lookup.sql");
+    private static final Path CONTEST_SCOREBOARD_REVISION = Path.of(
+            "src", "main", "resources", "db", "migration", "V14__contest_scoreboard_revision.sql");
+    private static final Path OUTBOX_SHARDS = Path.of(
+            "src", "main", "resources", "db", "migration", "V15__outbox_shards.sql");
+    private static final Path PROBLEM_CATALOG = Path.of(
+            "src", "main", "resources", "db", "migration", "V16__problem_catalog.sql");
+    private static final Path PROBLEM_CATALOG_SOURCE = Path.of(
+            "src", "main", "resources", "db", "migration", "V17__problem_catalog_source.sql");
+    private static final Path SUBMISSION_FEED_INDEXES = Path.of(
+            "src", "main", "resources", "db", "migration", "V18__submission_feed_indexes.sql");
+    private static final Path TEST_BUNDLE_BLOBS = Path.of(
+            "src", "main", "resources", "db", "migration", "V19__test_bundle_blobs.sql");
+    private static final Path CONTEST_FROZEN_SCOREBOARD_REVISION = Path.of(
+            "src", "main", "resources", "db", "migration", "V20__contest_frozen_scoreboard_revision.sql");
 
     @Test
     void cleanSchemaCoversTheCompleteFreeOjDomain() throws IOException {
@@ -229,4 +243,89 @@ class MigrationContractTest {
         assertTrue(sql.contains("idx_submission_contest_time"));
         assertTrue(sql.contains("(`contest_id`, `is_deleted`, `create_time`, `id`)"));
     }
+
+    @Test
+    void contestScoreboardRevisionIsAForwardOnlyCounter() throws IOException {
+        assertTrue(Files.isRegularFile(CONTEST_SCOREBOARD_REVISION));
+        String sql = Files.readString(CONTEST_SCOREBOARD_REVISION).toLowerCase();
+        assertTrue(sql.contains("alter table `t_contest`"));
+        assertTrue(sql.contains("add column `scoreboard_revision` bigint not null default 0"));
+        assertFalse(sql.contains("drop "));
+    }
+
+    @Test
+    void outboxShardsAddLeaseTablesWithoutTouchingPublishedRows() throws IOException {
+        assertTrue(Files.isRegularFile(OUTBOX_SHARDS));
+        String sql = Files.readString(OUTBOX_SHARDS).toLowerCase();
+        assertTrue(sql.contains("add column `shard` smallint not null default 0"));
+        assertTrue(sql.contains(
+                "add index `idx_outbox_shard_pending` (`shard`, `published_at`, `next_attempt_at`, `claimed_at`, `created_at`)"));
+        assertTrue(sql.contains("where `published_at` is null"));
+        assertTrue(sql.contains("create table `t_outbox_shard_lease`"));
+        assertTrue(sql.contains("create table `t_outbox_publisher`"));
+        assertFalse(sql.contains("drop "));
+    }
+
+    @Test
+    void problemCatalogIsBackfilledFromPublishedSnapshotsWithListingIndexes() throws IOException {
+        assertTrue(Files.isRegularFile(PROBLEM_CATALOG));
+        String sql = Files.readString(PROBLEM_CATALOG).toLowerCase();
+        assertTrue(sql.contains("create table `t_problem_catalog`"));
+        assertTrue(sql.contains("create table `t_problem_catalog_tag`"));
+        assertTrue(sql.contains("primary key (`tag_id`, `problem_id`)"));
+        assertTrue(sql.contains("key `idx_problem_catalog_difficulty` (`difficulty`, `problem_no`)"));
+        assertTrue(sql.contains("join `t_problem_version` pv on pv.`id` = p.`published_version_id`"));
+        assertTrue(sql.contains("add index `idx_problem_owner` (`create_user_id`, `problem_no`)"));
+        assertTrue(sql.contains("add index `idx_submission_user_problem` (`user_id`, `problem_id`, `status`)"));
+        assertFalse(sql.contains("drop "));
+        assertFalse(sql.contains("update `t_problem"));
+    }
+
+    @Test
+    void problemCatalogSourceIsBackfilledWithoutTouchingProblemsOrVersions() throws IOException {
+        assertTrue(Files.isRegularFile(PROBLEM_CATALOG_SOURCE));
+        String sql = Files.readString(PROBLEM_CATALOG_SOURCE).toLowerCase();
+        assertTrue(sql.contains("add column `source` varchar(255) null"));
+        assertTrue(sql.contains("json_extract(pv.`statement_json`, '$.source')"));
+        assertTrue(sql.contains("where c.`published_version_id` is null"));
+        assertFalse(sql.contains("update `t_problem` "));
+        assertFalse(sql.contains("update `t_problem_version`"));
+        assertFalse(sql.contains("drop "));
+    }
+
+    @Test
+    void submissionFeedIndexesOrderByIdWithinUserAndProblem() throws IOException {
+        assertTrue(Files.isRegularFile(SUBMISSION_FEED_INDEXES));
+        String sql = Files.readString(SUBMISSION_FEED_INDEXES).toLowerCase();
+        assertTrue(sql.contains(
+                "add index `idx_submission_feed_user` (`user_id`, `id`, `problem_id`, `status`, `language`, `is_deleted`)"));
+        assertTrue(sql.contains(
+                "add index `idx_submission_feed_problem` (`problem_id`, `id`, `user_id`, `status`, `language`, `is_deleted`)"));
+        assertFalse(sql.contains("drop "));
+        assertFalse(sql.contains("update "));
+    }
+
+    @Test
+    void testBundleBlobsKeepExistingArchivesAndCompareCasePaths() throws IOException {
+        assertTrue(Files.isRegularFile(TEST_BUNDLE_BLOBS));
+        String sql = Files.readString(TEST_BUNDLE_BLOBS).toLowerCase();
+        assertTrue(sql.contains("add column `layout` varchar(16) not null default 'archive'"));
+        assertTrue(sql.contains("check (`layout` in ('archive', 'blobs'))"));
+        assertTrue(sql.contains("create table `t_test_blob`"));
+        assertTrue(sql.contains("`path` varchar(512) character set utf8mb4 collate utf8mb4_bin not null"));
+        assertTrue(sql.contains("primary key (`problem_version_id`, `path`)"));
+        assertFalse(sql.contains("drop "));
+        assertFalse(sql.contains("update "));
+    }
+
+    @Test
+    void frozenScoreboardRevisionIsASeparateForwardOnlyCounter() throws IOException {
+        assertTrue(Files.isRegularFile(CONTEST_FROZEN_SCOREBOARD_REVISION));
+        String sql = Files.readString(CONTEST_FROZEN_SCOREBOARD_REVISION).toLowerCase();
+        assertTrue(sql.contains("alter table `t_contest`"));
+        assertTrue(sql.contains(
+                "add column `frozen_scoreboard_revision` bigint not null default 0 after `scoreboard_revision`"));
+        assertFalse(sql.contains("drop "));
+        assertFalse(sql.contains("update "));
+    }
 }
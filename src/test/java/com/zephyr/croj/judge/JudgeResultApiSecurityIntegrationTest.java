@@ -4,6 +4,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -83,6 +84,16 @@ class JudgeResultApiSecurityIntegrationTest {
         verifyNoInteractions(results);
     }
 
+    @Test
+    void testBundleDownloadRequiresTheServiceToken() throws Exception {
+        String userToken = tokens.createToken(7L, "ada", List.of("USER"));
+        mvc.perform(get("/internal/v1/problem-versions/101/test-bundle"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/internal/v1/problem-versions/101/test-bundle")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void exactServiceTokenAllowsTheRequest() throws Exception {
         when(results.ingest(any())).thenReturn(new JudgeResultResponse("APPLIED"));
@@ -0,0 +1,152 @@
+package com.zephyr.croj.judge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.contest.ContestRepository;
+import com.zephyr.croj.mapper.JudgeAttemptMapper;
+import com.zephyr.croj.mapper.JudgeResultReceiptMapper;
+import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.mapper.SubmissionMapper;
+import com.zephyr.croj.model.dto.JudgeResultRequest;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import com.zephyr.croj.model.vo.JudgeResultItemResponse;
+import com.zephyr.croj.problem.ProblemCounters;
+import com.zephyr.croj.service.impl.JudgeResultServiceImpl;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:judge-result-batch;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_judge_result_receipt",
+        "DROP TABLE IF EXISTS t_judge_attempt",
+        "DROP TABLE IF EXISTS t_submission",
+        "DROP TABLE IF EXISTS t_problem_version",
+        "CREATE TABLE t_judge_result_receipt (result_id VARCHAR(128) PRIMARY KEY, submission_id BIGINT NOT NULL, attempt_no INT NOT NULL, payload_sha256 CHAR(64) NOT NULL, final_status VARCHAR(32) NOT NULL, received_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
+        "CREATE TABLE t_judge_attempt (submission_id BIGINT NOT NULL, attempt_no INT NOT NULL, status VARCHAR(32) NOT NULL, result_json CLOB, started_at TIMESTAMP, finished_at TIMESTAMP, PRIMARY KEY (submission_id, attempt_no))",
+        "CREATE TABLE t_submission (id BIGINT PRIMARY KEY, problem_id BIGINT NOT NULL, problem_version_id BIGINT, contest_id BIGINT, user_id BIGINT NOT NULL, status INT NOT NULL, run_time INT, memory INT, score INT, judge_info CLOB, error_message CLOB, update_time TIMESTAMP, is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_problem_version (id BIGINT PRIMARY KEY, problem_id BIGINT NOT NULL, state VARCHAR(16) NOT NULL, limits_json CLOB, judge_config_json CLOB)",
+        "INSERT INTO t_problem_version VALUES (101,42,'PUBLISHED','{\"timeLimit\":1000}','{\"judgeMode\":0}'),(102,43,'PUBLISHED','{\"totalScore\":100}','{\"judgeMode\":1}')",
+        "INSERT INTO t_submission(id,problem_id,problem_version_id,contest_id,user_id,status) VALUES (98,42,101,3,6,0),(99,42,101,3,7,0),(100,43,102,NULL,7,0),(101,42,101,NULL,8,1)",
+        "INSERT INTO t_judge_attempt(submission_id,attempt_no,status) VALUES (98,1,'QUEUED'),(99,1,'RUNNING'),(100,1,'QUEUED'),(101,1,'ACCEPTED')"
+})
+class JudgeResultBatchIngestionTest {
+
+    @Autowired private JdbcTemplate jdbc;
+
+    private final ProblemCounters counters = mock(ProblemCounters.class);
+    private final ContestRepository contests = mock(ContestRepository.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final SubmissionMapper submissions = mock(SubmissionMapper.class);
+    private JudgeResultServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new JudgeResultServiceImpl(
+                submissions,
+                mock(JudgeAttemptMapper.class),
+                mock(JudgeResultReceiptMapper.class),
+                counters,
+                mock(ProblemVersionMapper.class),
+                new ObjectMapper(),
+                contests,
+                events,
+                jdbc,
+                new DataSourceTransactionManager(jdbc.getDataSource()));
+    }
+
+    @Test
+    void batchReportsEachItemAsASingleIngestWouldAndKeepsContestRevisionsContiguous() {
+        when(contests.bumpScoreboardRevisionForJudged(3L, List.of(99L, 98L))).thenReturn(14L);
+        JudgeResultRequest stale = result("r-5", 99L, "ACCEPTED");
+        stale.setAttemptNo(2);
+
+        List<JudgeResultItemResponse> responses = service.ingestAll(List.of(
+                result("r-1", 99L, "ACCEPTED"),
+                oi("r-2", 100L, "WRONG_ANSWER", 70),
+                result("r-3", 101L, "ACCEPTED"),
+                result("r-4", 99L, "WRONG_ANSWER"),
+                stale,
+                result("r-6", 98L, "BOGUS"),
+                result("r-7", 98L, "WRONG_ANSWER"),
+                result("r-1", 99L, "ACCEPTED")));
+
+        assertEquals(
+                List.of("APPLIED", "APPLIED", "CONFLICT", "CONFLICT", "CONFLICT", "CONFLICT", "APPLIED", "DUPLICATE"),
+                responses.stream().map(JudgeResultItemResponse::disposition).toList());
+        assertEquals("submission is missing or already terminal", responses.get(2).message());
+        assertEquals("unsupported terminal judge status", responses.get(5).message());
+        assertEquals(List.of(3, 1, 3), jdbc.queryForList(
+                "SELECT status FROM t_submission WHERE id IN (98,99,100) ORDER BY id", Integer.class));
+        assertEquals(70, jdbc.queryForObject("SELECT score FROM t_submission WHERE id=100", Integer.class));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM t_judge_result_receipt", Integer.class));
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM t_judge_attempt WHERE status IN ('QUEUED','RUNNING')", Integer.class));
+        verify(counters, times(1)).accepted(42L);
+        verify(events).publishEvent(new SubmissionJudgedEvent(99L, 7L, 42L, 3L, 1, null, 13L));
+        verify(events).publishEvent(new SubmissionJudgedEvent(100L, 7L, 43L, null, 3, 70, null));
+        verify(events).publishEvent(new SubmissionJudgedEvent(98L, 6L, 42L, 3L, 3, null, 14L));
+        verifyNoInteractions(submissions);
+    }
+
+    @Test
+    void resentResultsAreDuplicatesUnlessTheirPayloadChanged() {
+        when(contests.bumpScoreboardRevisionForJudged(3L, List.of(99L))).thenReturn(1L);
+        service.ingestAll(List.of(result("r-1", 99L, "ACCEPTED")));
+        JudgeResultRequest changed = result("r-1", 99L, "ACCEPTED");
+        changed.setTimeUsedMillis(13);
+
+        List<JudgeResultItemResponse> responses = service.ingestAll(List.of(result("r-1", 99L, "ACCEPTED"), changed));
+
+        assertEquals(new JudgeResultItemResponse("r-1", "DUPLICATE", null), responses.get(0));
+        assertEquals(
+                JudgeResultItemResponse.conflict("r-1", "resultId was already used for a different payload"),
+                responses.get(1));
+        verify(contests, times(1)).bumpScoreboardRevisionForJudged(3L, List.of(99L));
+    }
+
+    private JudgeResultRequest result(String resultId, long submissionId, String status) {
+        JudgeResultRequest request = new JudgeResultRequest();
+        request.setResultId(resultId);
+        request.setSubmissionId(submissionId);
+        request.setAttemptNo(1);
+        request.setStatus(status);
+        request.setExitCode(0);
+        request.setTimeUsedMillis(12);
+        request.setMemoryUsedKb(2048);
+        request.setStdout("ok\n");
+        request.setStderr("");
+        request.setCompileError("");
+        return request;
+    }
+
+    private JudgeResultRequest oi(String resultId, long submissionId, String status, int score) {
+        JudgeResultRequest request = result(resultId, submissionId, status);
+        request.setScore(score);
+        request.setTotalScore(100);
+        return request;
+    }
+}
@@ -13,36 +13,55 @@ import static org.mockito.Mockito.verify;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zephyr.croj.common.exception.JudgeResultConflictException;
+import com.zephyr.croj.contest.ContestRepository;
 import com.zephyr.croj.mapper.JudgeAttemptMapper;
 import com.zephyr.croj.mapper.JudgeResultReceiptMapper;
-import com.zephyr.croj.mapper.ProblemMapper;
 import com.zephyr.croj.mapper.ProblemVersionMapper;
 import com.zephyr.croj.mapper.SubmissionMapper;
 import com.zephyr.croj.model.dto.JudgeResultRequest;
 import com.zephyr.croj.model.entity.JudgeResultReceipt;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.Submission;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import com.zephyr.croj.problem.ProblemCounters;
 import com.zephyr.croj.service.impl.JudgeResultServiceImpl;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class JudgeResultServiceTest {
     @Mock private SubmissionMapper submissions;
     @Mock private JudgeAttemptMapper attempts;
     @Mock private JudgeResultReceiptMapper receipts;
-    @Mock private ProblemMapper problems;
+    @Mock private ProblemCounters counters;
     @Mock private ProblemVersionMapper versions;
+    @Mock private ContestRepository contests;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private PlatformTransactionManager transactionManager;
     private JudgeResultServiceImpl service;
 
     @BeforeEach
     void setUp() {
         service = new JudgeResultServiceImpl(
-                submissions, attempts, receipts, problems, versions, new ObjectMapper());
+                submissions,
+                attempts,
+                receipts,
+                counters,
+                versions,
+                new ObjectMapper(),
+                contests,
+                events,
+                jdbc,
+                transactionManager);
     }
 
     @Test
@@ -61,9 +80,11 @@ class JudgeResultServiceTest {
                         anyString(),
                         anyString()))
                 .thenReturn(1);
-        when(problems.incrementAcceptedCount(42L)).thenReturn(1);
+        when(contests.bumpScoreboardRevisionForJudged(3L, List.of(99L))).thenReturn(12L);
 
         assertEquals("APPLIED", service.ingest(request).disposition());
+        verify(counters).accepted(42L);
+        verify(events).publishEvent(new SubmissionJudgedEvent(99L, 7L, 42L, 3L, 1, null, 12L));
     }
 
     @Test
@@ -82,7 +103,6 @@ class JudgeResultServiceTest {
                         anyString(),
                         anyString()))
                 .thenReturn(1);
-        when(problems.incrementAcceptedCount(42L)).thenReturn(1);
         assertEquals("APPLIED", service.ingest(request).disposition());
         ArgumentCaptor<JudgeResultReceipt> saved = ArgumentCaptor.forClass(JudgeResultReceipt.class);
         org.mockito.Mockito.verify(receipts).insertIgnore(saved.capture());
@@ -230,6 +250,8 @@ class JudgeResultServiceTest {
         submission.setId(99L);
         submission.setProblemId(42L);
         submission.setProblemVersionId(101L);
+        submission.setContestId(3L);
+        submission.setUserId(7L);
         submission.setStatus(0);
         return submission;
     }
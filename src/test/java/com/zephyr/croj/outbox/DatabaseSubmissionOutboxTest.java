@@ -3,16 +3,21 @@ package com.zephyr.croj.outbox;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.config.properties.OutboxProperties;
 import com.zephyr.croj.mapper.OutboxEventMapper;
 import com.zephyr.croj.model.entity.OutboxEvent;
 import com.zephyr.croj.model.entity.Submission;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 class DatabaseSubmissionOutboxTest {
 
@@ -20,7 +25,7 @@ class DatabaseSubmissionOutboxTest {
     void createsAStableSubmissionRequestedEvent() {
         OutboxEventMapper mapper = mock(OutboxEventMapper.class);
         when(mapper.insert(any(OutboxEvent.class))).thenReturn(1);
-        DatabaseSubmissionOutbox outbox = new DatabaseSubmissionOutbox(mapper, new ObjectMapper());
+        DatabaseSubmissionOutbox outbox = new DatabaseSubmissionOutbox(mapper, new ObjectMapper(), new OutboxProperties(), new OutboxWakeup());
         Submission submission = new Submission();
         submission.setId(99L);
         submission.setProblemId(42L);
@@ -33,10 +38,57 @@ class DatabaseSubmissionOutboxTest {
         verify(mapper).insert(event.capture());
         assertEquals("SUBMISSION", event.getValue().getAggregateType());
         assertEquals(99L, event.getValue().getAggregateId());
+        assertEquals(3, event.getValue().getShard());
         assertEquals("SubmissionRequested", event.getValue().getEventType());
         assertTrue(event.getValue().getPayload().contains("\"schemaVersion\":1"));
         assertTrue(event.getValue().getPayload().contains("\"eventId\":\"" + event.getValue().getId() + "\""));
         assertTrue(event.getValue().getPayload().contains("\"attemptNo\":1"));
         assertTrue(event.getValue().getPayload().contains("\"submissionId\":99"));
     }
+
+    @Test
+    void thePublisherIsWokenOnlyAfterTheTransactionCommits() throws InterruptedException {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        when(mapper.insert(any(OutboxEvent.class))).thenReturn(1);
+        OutboxWakeup wakeup = new OutboxWakeup();
+        DatabaseSubmissionOutbox outbox =
+                new DatabaseSubmissionOutbox(mapper, new ObjectMapper(), new OutboxProperties(), wakeup);
+        Submission submission = new Submission();
+        submission.setId(100L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            outbox.enqueue(submission);
+            assertEquals(List.of(), wakeup.await(0L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(mapper).insert(event.capture());
+        assertEquals(List.of(event.getValue().getId()), wakeup.await(0L));
+    }
+
+    @Test
+    void aBatchIsWrittenWithOneStatementAndWakesThePublisherForEveryEvent() throws InterruptedException {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        when(mapper.insertAll(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        OutboxWakeup wakeup = new OutboxWakeup();
+        DatabaseSubmissionOutbox outbox =
+                new DatabaseSubmissionOutbox(mapper, new ObjectMapper(), new OutboxProperties(), wakeup);
+        Submission first = new Submission();
+        first.setId(16L);
+        Submission second = new Submission();
+        second.setId(17L);
+
+        outbox.enqueueAll(List.of(first, second));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(mapper).insertAll(events.capture());
+        assertEquals(List.of(16L, 17L), events.getValue().stream().map(OutboxEvent::getAggregateId).toList());
+        assertEquals(List.of(0, 1), events.getValue().stream().map(OutboxEvent::getShard).toList());
+        assertEquals(events.getValue().stream().map(OutboxEvent::getId).toList(), wakeup.await(0L));
+    }
 }
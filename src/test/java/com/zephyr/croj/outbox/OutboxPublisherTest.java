@@ -1,83 +1,201 @@
 package com.zephyr.croj.outbox;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.zephyr.croj.config.properties.OutboxProperties;
 import com.zephyr.croj.mapper.OutboxEventMapper;
 import com.zephyr.croj.model.entity.OutboxEvent;
+import java.time.Duration;
+import java.util.List;
+import org.apache.rocketmq.client.producer.SendCallback;
 import org.apache.rocketmq.client.producer.SendResult;
 import org.apache.rocketmq.client.producer.SendStatus;
+import org.apache.rocketmq.remoting.exception.RemotingTooMuchRequestException;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.junit.jupiter.api.Test;
 
 class OutboxPublisherTest {
 
+    private static final List<Integer> SHARDS = List.of(3, 7);
+
     @Test
     void claimsAndPublishesSubmissionIdsThenMarksEventsComplete() {
         OutboxEventMapper mapper = mock(OutboxEventMapper.class);
         RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
         OutboxProperties properties = new OutboxProperties();
-        OutboxEvent event = new OutboxEvent();
-        event.setId("event-1");
-        event.setAggregateId(99L);
-        event.setPayload("{\"schemaVersion\":1,\"eventId\":\"event-1\",\"submissionId\":99,\"attemptNo\":1}");
-        SendResult sendResult = mock(SendResult.class);
-        when(sendResult.getSendStatus()).thenReturn(SendStatus.SEND_OK);
-        when(mapper.claimNext(anyString(), eq(30L))).thenReturn(1, 0);
-        when(mapper.findClaimed(anyString())).thenReturn(event);
-        when(rocketMq.syncSend("submission-topic", event.getPayload(), 5000L)).thenReturn(sendResult);
+        OutboxEvent event = event("event-1", 99L, 0);
+        when(mapper.claimBatch(eq(SHARDS), anyString(), eq(30L), eq(50))).thenReturn(1, 0);
+        when(mapper.findClaimed(anyString())).thenReturn(List.of(event));
+        answer(rocketMq, event.getPayload(), SendStatus.SEND_OK);
 
-        new OutboxPublisher(mapper, rocketMq, properties).publishPending();
+        new OutboxPublisher(mapper, rocketMq, properties, leases(SHARDS), new OutboxWakeup()).publishPending();
 
-        verify(rocketMq).syncSend("submission-topic", event.getPayload(), 5000L);
-        verify(mapper).markPublished(eq("event-1"), anyString());
+        verify(rocketMq).asyncSend(eq("submission-topic"), eq(event.getPayload()), any(SendCallback.class), eq(5000L));
+        verify(mapper).markPublished(anyString(), eq(List.of("event-1")));
     }
 
     @Test
     void releasesFailedEventsWithABackoffInsteadOfLosingThem() {
         OutboxEventMapper mapper = mock(OutboxEventMapper.class);
         RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
-        OutboxEvent event = new OutboxEvent();
-        event.setId("event-2");
-        event.setAggregateId(100L);
-        event.setPayload("{\"schemaVersion\":1,\"eventId\":\"event-2\",\"submissionId\":100,\"attemptNo\":1}");
-        event.setAttempts(2);
-        when(mapper.claimNext(anyString(), eq(30L))).thenReturn(1, 0);
-        when(mapper.findClaimed(anyString())).thenReturn(event);
+        OutboxEvent event = event("event-2", 100L, 2);
+        when(mapper.claimBatch(eq(SHARDS), anyString(), eq(30L), eq(50))).thenReturn(1, 0);
+        when(mapper.findClaimed(anyString())).thenReturn(List.of(event));
         doThrow(new IllegalStateException("broker unavailable"))
-                .when(rocketMq).syncSend("submission-topic", event.getPayload(), 5000L);
+                .when(rocketMq)
+                .asyncSend(eq("submission-topic"), eq(event.getPayload()), any(SendCallback.class), eq(5000L));
 
-        new OutboxPublisher(mapper, rocketMq, new OutboxProperties()).publishPending();
+        new OutboxPublisher(mapper, rocketMq, new OutboxProperties(), leases(SHARDS), new OutboxWakeup()).publishPending();
 
         verify(mapper).releaseAfterFailure(
                 eq("event-2"), anyString(), eq(4L), eq("broker unavailable"));
+        verify(mapper, never()).markPublished(anyString(), any());
     }
 
     @Test
     void nonOkBrokerStatusIsRetriedInsteadOfMarkedPublished() {
         OutboxEventMapper mapper = mock(OutboxEventMapper.class);
         RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
-        OutboxEvent event = new OutboxEvent();
-        event.setId("event-3");
-        event.setAggregateId(101L);
-        event.setPayload("{\"schemaVersion\":1,\"eventId\":\"event-3\",\"submissionId\":101,\"attemptNo\":1}");
-        event.setAttempts(0);
-        SendResult sendResult = mock(SendResult.class);
-        when(sendResult.getSendStatus()).thenReturn(SendStatus.FLUSH_DISK_TIMEOUT);
-        when(mapper.claimNext(anyString(), eq(30L))).thenReturn(1, 0);
-        when(mapper.findClaimed(anyString())).thenReturn(event);
-        when(rocketMq.syncSend("submission-topic", event.getPayload(), 5000L)).thenReturn(sendResult);
+        OutboxEvent event = event("event-3", 101L, 0);
+        when(mapper.claimBatch(eq(SHARDS), anyString(), eq(30L), eq(50))).thenReturn(1, 0);
+        when(mapper.findClaimed(anyString())).thenReturn(List.of(event));
+        answer(rocketMq, event.getPayload(), SendStatus.FLUSH_DISK_TIMEOUT);
 
-        new OutboxPublisher(mapper, rocketMq, new OutboxProperties()).publishPending();
+        new OutboxPublisher(mapper, rocketMq, new OutboxProperties(), leases(SHARDS), new OutboxWakeup()).publishPending();
 
         verify(mapper).releaseAfterFailure(
                 eq("event-3"), anyString(), eq(1L), eq("RocketMQ send status: FLUSH_DISK_TIMEOUT"));
-        verify(mapper, never()).markPublished(eq("event-3"), anyString());
+        verify(mapper, never()).markPublished(anyString(), any());
+    }
+
+    @Test
+    void aBatchIsClaimedOnceSentTogetherAndSettledWithOneUpdate() {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(3);
+        OutboxEvent first = event("event-4", 102L, 0);
+        OutboxEvent second = event("event-5", 103L, 0);
+        OutboxEvent third = event("event-6", 104L, 1);
+        when(mapper.claimBatch(eq(SHARDS), anyString(), eq(30L), eq(3))).thenReturn(3, 0);
+        when(mapper.findClaimed(anyString())).thenReturn(List.of(first, second, third));
+        answer(rocketMq, first.getPayload(), SendStatus.SEND_OK);
+        answer(rocketMq, second.getPayload(), SendStatus.SEND_OK);
+        doAnswer(invocation -> {
+                    invocation.getArgument(2, SendCallback.class)
+                            .onException(new RemotingTooMuchRequestException("send queue full"));
+                    return null;
+                })
+                .when(rocketMq)
+                .asyncSend(eq("submission-topic"), eq(third.getPayload()), any(SendCallback.class), eq(5000L));
+
+        new OutboxPublisher(mapper, rocketMq, properties, leases(SHARDS), new OutboxWakeup()).publishPending();
+
+        verify(mapper, times(2)).claimBatch(eq(SHARDS), anyString(), eq(30L), eq(3));
+        verify(mapper).markPublished(anyString(), eq(List.of("event-4", "event-5")));
+        verify(mapper).releaseAfterFailure(eq("event-6"), anyString(), eq(2L), eq("send queue full"));
+    }
+
+    @Test
+    void publishersWithoutShardsLeaveTheOutboxAlone() {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
+
+        new OutboxPublisher(mapper, rocketMq, new OutboxProperties(), leases(List.of()), new OutboxWakeup()).publishPending();
+
+        verify(mapper, never()).claimBatch(any(), anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void theOwnerOfShardZeroRehomesRowsLeftOutsideTheShardRange() {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
+
+        new OutboxPublisher(mapper, rocketMq, new OutboxProperties(), leases(List.of(0, 1)), new OutboxWakeup()).publishPending();
+
+        verify(mapper).rehomeShards(16, 50);
+        verify(mapper).claimBatch(eq(List.of(0, 1)), anyString(), eq(30L), eq(50));
+    }
+
+    @Test
+    void committedEventsArePublishedByIdWithoutWaitingForTheSweep() {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
+        OutboxEvent event = event("event-7", 105L, 0);
+        when(mapper.claimByIds(eq(List.of("event-7")), anyString(), eq(30L))).thenReturn(1);
+        when(mapper.findClaimed(anyString())).thenReturn(List.of(event));
+        answer(rocketMq, event.getPayload(), SendStatus.SEND_OK);
+        OutboxWakeup wakeup = new OutboxWakeup();
+        OutboxShardLeases leases = leases(List.of());
+        OutboxProperties properties = new OutboxProperties();
+        properties.setPollInterval(Duration.ofSeconds(5));
+        OutboxPublisher publisher = new OutboxPublisher(mapper, rocketMq, properties, leases, wakeup);
+
+        publisher.start();
+        try {
+            verify(leases, timeout(2000)).refresh();
+            wakeup.committed("event-7");
+
+            verify(mapper, timeout(2000)).markPublished(anyString(), eq(List.of("event-7")));
+            verify(leases, times(1)).refresh();
+        } finally {
+            publisher.stop();
+        }
+        assertFalse(publisher.isRunning());
+    }
+
+    @Test
+    void committedEventsAreClaimedInBatchSizedChunks() {
+        OutboxEventMapper mapper = mock(OutboxEventMapper.class);
+        RocketMQTemplate rocketMq = mock(RocketMQTemplate.class);
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+
+        new OutboxPublisher(mapper, rocketMq, properties, leases(SHARDS), new OutboxWakeup())
+                .publishCommitted(List.of("a", "b", "c"));
+
+        verify(mapper).claimByIds(eq(List.of("a", "b")), anyString(), eq(30L));
+        verify(mapper).claimByIds(eq(List.of("c")), anyString(), eq(30L));
+        verify(mapper, never()).findClaimed(anyString());
+    }
+
+    private static OutboxShardLeases leases(List<Integer> shards) {
+        OutboxShardLeases leases = mock(OutboxShardLeases.class);
+        when(leases.refresh()).thenReturn(shards);
+        return leases;
+    }
+
+    private static OutboxEvent event(String id, long submissionId, int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateId(submissionId);
+        event.setPayload("{\"schemaVersion\":1,\"eventId\":\"" + id + "\",\"submissionId\":" + submissionId
+                + ",\"attemptNo\":1}");
+        event.setAttempts(attempts);
+        return event;
+    }
+
+    private static void answer(RocketMQTemplate rocketMq, String payload, SendStatus status) {
+        SendResult sendResult = mock(SendResult.class);
+        when(sendResult.getSendStatus()).thenReturn(status);
+        doAnswer(invocation -> {
+                    invocation.getArgument(2, SendCallback.class).onSuccess(sendResult);
+                    return null;
+                })
+                .when(rocketMq)
+                .asyncSend(eq("submission-topic"), eq(payload), any(SendCallback.class), eq(5000L));
     }
 }
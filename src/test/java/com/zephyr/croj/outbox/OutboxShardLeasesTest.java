@@ -0,0 +1,60 @@
+package com.zephyr.croj.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zephyr.croj.config.properties.OutboxProperties;
+import com.zephyr.croj.mapper.OutboxShardLeaseMapper;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class OutboxShardLeasesTest {
+
+    @Test
+    void aPublisherTakesItsFairShareOfFreeShards() {
+        OutboxShardLeaseMapper mapper = mock(OutboxShardLeaseMapper.class);
+        when(mapper.countLivePublishers(15L)).thenReturn(3);
+        when(mapper.ownedShards("me", 16)).thenReturn(List.of(), List.of(0, 1, 2, 3, 4, 5));
+        when(mapper.acquire("me", 16, 15L, 6)).thenReturn(6);
+        OutboxShardLeases leases = new OutboxShardLeases(mapper, new OutboxProperties(), "me");
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), leases.refresh());
+        verify(mapper).ensureShards(IntStream.range(0, 16).boxed().toList());
+        verify(mapper).heartbeat("me");
+        verify(mapper).renew("me", 16, 15L);
+    }
+
+    @Test
+    void surplusShardsAreHandedBackWhenAnotherPublisherJoins() {
+        OutboxShardLeaseMapper mapper = mock(OutboxShardLeaseMapper.class);
+        List<Integer> all = IntStream.range(0, 16).boxed().toList();
+        when(mapper.countLivePublishers(15L)).thenReturn(1, 2);
+        when(mapper.ownedShards("me", 16)).thenReturn(all, all, all.subList(0, 8));
+        OutboxShardLeases leases = new OutboxShardLeases(mapper, new OutboxProperties(), "me");
+
+        assertEquals(all, leases.refresh());
+        assertEquals(all.subList(0, 8), leases.refresh());
+        verify(mapper).release("me", 8);
+        verify(mapper, never()).acquire(anyString(), anyInt(), anyLong(), anyInt());
+        verify(mapper, times(1)).ensureShards(eq(all));
+    }
+
+    @Test
+    void shutdownReleasesEveryLease() {
+        OutboxShardLeaseMapper mapper = mock(OutboxShardLeaseMapper.class);
+
+        new OutboxShardLeases(mapper, new OutboxProperties(), "me").destroy();
+
+        verify(mapper).releaseAll("me");
+        verify(mapper).deletePublisher("me");
+    }
+}
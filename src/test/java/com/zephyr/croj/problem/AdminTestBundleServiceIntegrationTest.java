@@ -9,6 +9,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 import com.zephyr.croj.model.entity.TestBundle;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,11 +33,15 @@ import org.springframework.test.context.jdbc.Sql;
         "DROP TABLE IF EXISTS t_problem_version",
         "DROP TABLE IF EXISTS t_problem",
         "DROP TABLE IF EXISTS t_problem_tag_relation",
-        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, status INT NOT NULL, published_version_id BIGINT, is_deleted INT NOT NULL DEFAULT 0)",
+        "DROP TABLE IF EXISTS t_problem_catalog",
+        "DROP TABLE IF EXISTS t_problem_catalog_tag",
+        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, status INT NOT NULL, published_version_id BIGINT, is_deleted INT NOT NULL DEFAULT 0, problem_no VARCHAR(20) NOT NULL, create_user_id BIGINT NOT NULL)",
         "CREATE TABLE t_problem_version (id BIGINT PRIMARY KEY, problem_id BIGINT NOT NULL, version_no INT NOT NULL, state VARCHAR(20) NOT NULL, statement_json CLOB, limits_json CLOB, judge_config_json CLOB, published_at TIMESTAMP, projection_complete BOOLEAN NOT NULL)",
         "CREATE TABLE t_test_bundle (id BIGINT AUTO_INCREMENT PRIMARY KEY, problem_version_id BIGINT NOT NULL UNIQUE, object_key VARCHAR(512), sha256 CHAR(64), size_bytes BIGINT, manifest_json CLOB)",
         "CREATE TABLE t_problem_tag_relation (problem_id BIGINT NOT NULL, tag_id BIGINT NOT NULL, PRIMARY KEY(problem_id,tag_id))",
-        "INSERT INTO t_problem VALUES (42,1,NULL,0)",
+        "CREATE TABLE t_problem_catalog (problem_id BIGINT PRIMARY KEY, problem_no VARCHAR(20) NOT NULL UNIQUE, create_user_id BIGINT NOT NULL, published_version_id BIGINT, title VARCHAR(255) NOT NULL, source VARCHAR(255), difficulty INT NOT NULL)",
+        "CREATE TABLE t_problem_catalog_tag (tag_id BIGINT NOT NULL, problem_id BIGINT NOT NULL, PRIMARY KEY(tag_id,problem_id))",
+        "INSERT INTO t_problem VALUES (42,1,NULL,0,'P1042',2)",
         "INSERT INTO t_problem_version VALUES (101,42,1,'DRAFT','{\"title\":\"A\",\"description\":\"D\",\"inputDescription\":\"I\",\"outputDescription\":\"O\",\"hints\":[],\"samples\":[],\"source\":null,\"tags\":[]}','{\"timeLimit\":1000,\"memoryLimit\":64,\"totalScore\":100}','{\"judgeMode\":0,\"specialJudge\":false,\"specialJudgeCode\":null,\"specialJudgeLanguage\":null,\"checker\":\"exact\",\"difficulty\":2}',NULL,TRUE)"
 })
 class AdminTestBundleServiceIntegrationTest {
@@ -52,8 +58,8 @@ class AdminTestBundleServiceIntegrationTest {
     }
 
     @Test
-    void attachesThenPublishesWithSuccessiveStrongEtags() {
-        byte[] archive = {80, 75, 3, 4};
+    void attachesThenPublishesWithSuccessiveStrongEtags() throws IOException {
+        TestBundleUpload archive = upload(80, 75, 3, 4);
         doAnswer(invocation -> {
             jdbc.update(
                     "INSERT INTO t_test_bundle(problem_version_id,object_key,sha256,size_bytes,manifest_json) VALUES (101,'key',?,4,?)",
@@ -85,10 +91,11 @@ class AdminTestBundleServiceIntegrationTest {
     }
 
     @Test
-    void rejectsAStaleEtagBeforeTouchingStorage() {
+    void rejectsAStaleEtagBeforeTouchingStorage() throws IOException {
+        TestBundleUpload archive = upload(1);
         TestBundleApiException exception = assertThrows(
                 TestBundleApiException.class,
-                () -> service.upload(42, 101, "\"stale\"", new byte[] {1}));
+                () -> service.upload(42, 101, "\"stale\"", archive));
 
         assertEquals(412, exception.getStatus().value());
         org.mockito.Mockito.verifyNoInteractions(bundles);
@@ -116,17 +123,18 @@ class AdminTestBundleServiceIntegrationTest {
     }
 
     @Test
-    void mapsInvalidZipDetailsToAStableUnprocessableResponse() {
+    void mapsInvalidZipDetailsToAStableUnprocessableResponse() throws IOException {
+        TestBundleUpload archive = upload(1);
         doAnswer(invocation -> {
             throw new com.zephyr.croj.common.exception.BusinessException(
                     com.zephyr.croj.common.enums.ResultCodeEnum.PARAM_ERROR.getCode(),
                     "central directory secret detail");
-        }).when(bundles).attach(anyLong(), anyLong(), any(byte[].class));
+        }).when(bundles).attach(anyLong(), anyLong(), any(TestBundleUpload.class));
         AdminTestBundleService.View initial = service.describe(42, 101);
 
         TestBundleApiException exception = assertThrows(
                 TestBundleApiException.class,
-                () -> service.upload(42, 101, initial.etag(), new byte[] {1}));
+                () -> service.upload(42, 101, initial.etag(), archive));
 
         assertEquals(422, exception.getStatus().value());
         assertEquals("test bundle is invalid or exceeds contract limits", exception.getMessage());
@@ -173,6 +181,14 @@ class AdminTestBundleServiceIntegrationTest {
         assertEquals(404, deleted.getStatus().value());
     }
 
+    private static TestBundleUpload upload(int... bytes) throws IOException {
+        byte[] archive = new byte[bytes.length];
+        for (int index = 0; index < bytes.length; index++) {
+            archive[index] = (byte) bytes[index];
+        }
+        return TestBundleUpload.spool(new ByteArrayInputStream(archive), 1024);
+    }
+
     private String validManifest() {
         return """
                 {"schemaVersion":1,"judgeMode":"ACM","checker":"exact",
@@ -0,0 +1,135 @@
+package com.zephyr.croj.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:problem-counters;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_problem",
+        "DROP TABLE IF EXISTS t_submission",
+        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, submit_count INT NOT NULL DEFAULT 0, accepted_count INT NOT NULL DEFAULT 0)",
+        "CREATE TABLE t_submission (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, problem_id BIGINT NOT NULL, status INT NOT NULL)",
+        "INSERT INTO t_problem(id) VALUES (41)",
+        "INSERT INTO t_problem(id) VALUES (42)"
+})
+class ProblemCountersIntegrationTest {
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void committedIncrementsAreCoalescedIntoOneFlushAndRolledBackOnesNeverCount() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ProblemCounters counters = new ProblemCounters(jdbc, transaction, true);
+
+        for (int index = 0; index < 5; index++) {
+            transaction.executeWithoutResult(status -> counters.submitted(42L));
+        }
+        transaction.executeWithoutResult(status -> counters.accepted(42L));
+        transaction.executeWithoutResult(status -> {
+            counters.submitted(41L);
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(0, 0), counts(42L));
+
+        counters.flush();
+        counters.flush();
+
+        assertEquals(List.of(5, 1), counts(42L));
+        assertEquals(List.of(0, 0), counts(41L));
+    }
+
+    @Test
+    void reconciliationRepairsLostDeltasWithoutCountingPendingOnesTwice() {
+        ProblemCounters counters = new ProblemCounters(jdbc, new TransactionTemplate(transactionManager), true);
+        jdbc.update("INSERT INTO t_submission(problem_id,status) VALUES (42,1),(42,2),(42,1),(41,2)");
+        // 42 lost two submissions and one acceptance in a crash; the third submission is still pending here.
+        jdbc.update("UPDATE t_problem SET submit_count=1, accepted_count=1 WHERE id=42");
+        counters.submitted(42L);
+        counters.accepted(42L);
+        jdbc.update("UPDATE t_problem SET submit_count=7 WHERE id=41");
+
+        counters.reconcile();
+        counters.flush();
+
+        assertEquals(List.of(3, 2), counts(42L));
+        assertEquals(List.of(1, 0), counts(41L));
+    }
+
+    @Test
+    void aSubmissionRecordedWhileReconcilingIsNotCountedTwice() {
+        AtomicReference<ProblemCounters> counters = new AtomicReference<>();
+        AtomicBoolean interleaved = new AtomicBoolean();
+        JdbcTemplate interleaving = new JdbcTemplate(jdbc.getDataSource()) {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) {
+                if (sql.contains("FROM t_submission") && interleaved.compareAndSet(false, true)) {
+                    // 快照之后、计数之前提交了一条新提交。
+                    jdbc.update("INSERT INTO t_submission(problem_id,status) VALUES (42,2)");
+                    counters.get().submitted(42L);
+                }
+                super.query(sql, handler);
+            }
+        };
+        counters.set(new ProblemCounters(interleaving, new TransactionTemplate(transactionManager), true));
+        jdbc.update("INSERT INTO t_submission(problem_id,status) VALUES (42,2),(42,1),(41,2)");
+        jdbc.update("UPDATE t_problem SET submit_count=0, accepted_count=0 WHERE id=42");
+        counters.get().submitted(42L);
+        counters.get().accepted(42L);
+        jdbc.update("UPDATE t_problem SET submit_count=7 WHERE id=41");
+
+        counters.get().reconcile();
+        counters.get().flush();
+
+        assertEquals(List.of(2, 1), counts(42L));
+        assertEquals(List.of(1, 0), counts(41L));
+
+        counters.get().reconcile();
+        counters.get().flush();
+
+        assertEquals(List.of(3, 1), counts(42L));
+    }
+
+    @Test
+    void withoutWriteBehindEveryIncrementIsWrittenInTheCallersTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ProblemCounters counters = new ProblemCounters(jdbc, transaction, false);
+
+        transaction.executeWithoutResult(status -> {
+            counters.submitted(42L);
+            counters.accepted(42L);
+            status.setRollbackOnly();
+        });
+        counters.submitted(42L);
+
+        assertEquals(List.of(1, 0), counts(42L));
+    }
+
+    private List<Integer> counts(long problemId) {
+        return jdbc.queryForObject(
+                "SELECT submit_count, accepted_count FROM t_problem WHERE id=?",
+                (result, row) -> List.of(result.getInt(1), result.getInt(2)),
+                problemId);
+    }
+}
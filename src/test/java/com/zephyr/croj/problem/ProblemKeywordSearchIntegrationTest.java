@@ -0,0 +1,152 @@
+package com.zephyr.croj.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.baomidou.mybatisplus.spring.MybatisSqlSessionFactoryBean;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.config.properties.ProblemSearchProperties;
+import com.zephyr.croj.mapper.ProblemMapper;
+import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.model.dto.ProblemQueryDTO;
+import com.zephyr.croj.model.entity.User;
+import com.zephyr.croj.model.vo.ProblemListItemVO;
+import com.zephyr.croj.service.ProblemTagService;
+import com.zephyr.croj.service.UserService;
+import com.zephyr.croj.service.impl.ProblemServiceImpl;
+import com.zephyr.croj.submission.UserProblemStatuses;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:problem-keyword-search;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_problem",
+        "DROP TABLE IF EXISTS t_problem_catalog",
+        "DROP TABLE IF EXISTS t_problem_catalog_tag",
+        "DROP TABLE IF EXISTS t_problem_tag",
+        "DROP TABLE IF EXISTS t_problem_tag_relation",
+        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, problem_no VARCHAR(20), title VARCHAR(255),"
+                + " source VARCHAR(255), difficulty INT, submit_count INT DEFAULT 0, accepted_count INT DEFAULT 0,"
+                + " status INT, published_version_id BIGINT, create_user_id BIGINT, is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_problem_catalog (problem_id BIGINT PRIMARY KEY, problem_no VARCHAR(20),"
+                + " create_user_id BIGINT, published_version_id BIGINT, title VARCHAR(255), source VARCHAR(255),"
+                + " difficulty INT)",
+        "CREATE TABLE t_problem_catalog_tag (tag_id BIGINT, problem_id BIGINT, PRIMARY KEY (tag_id, problem_id))",
+        "CREATE TABLE t_problem_tag (id BIGINT PRIMARY KEY, name VARCHAR(50), is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_problem_tag_relation (problem_id BIGINT, tag_id BIGINT)",
+        "INSERT INTO t_problem_tag(id,name,is_deleted) VALUES (2,'Graph',0),(3,'Retired',1)",
+        "INSERT INTO t_problem(id,problem_no,title,source,difficulty,status,create_user_id) VALUES"
+                + " (11,'P1001','Two Sum','NOIP 2010',1,0,8),"
+                + " (12,'P1002','Knapsack',NULL,2,1,7),"
+                + " (13,'P1003','Shortest Path','Graph Theory Cup',2,0,8),"
+                + " (14,'P1004','100% Unrelated',NULL,3,0,8),"
+                + " (15,'P1005','Bag of Coins','noip 2012',2,0,7),"
+                + " (16,'P1006','Retired Sum',NULL,1,0,8)",
+        "INSERT INTO t_problem_catalog(problem_id,problem_no,create_user_id,title,source,difficulty) VALUES"
+                + " (11,'P1001',8,'Two Sum','NOIP 2010',1),"
+                + " (13,'P1003',8,'Shortest Path','Graph Theory Cup',2),"
+                + " (14,'P1004',8,'100% Unrelated',NULL,3),"
+                + " (15,'P1005',7,'Bag of Coins','noip 2012',2),"
+                + " (16,'P1006',8,'Retired Sum',NULL,1)",
+        "INSERT INTO t_problem_catalog_tag(tag_id,problem_id) VALUES (1,11),(2,13),(1,15),(3,16)",
+        "INSERT INTO t_problem_tag_relation(problem_id,tag_id) VALUES (11,1),(12,1),(13,2),(15,1),(16,3)"
+})
+class ProblemKeywordSearchIntegrationTest {
+    @Autowired private DataSource dataSource;
+    @Autowired private JdbcTemplate jdbc;
+    private final UserService users = mock(UserService.class);
+
+    @BeforeEach
+    void setUp() {
+        // @Sql 按平台默认编码读取语句，中文标签名用参数写入
+        jdbc.update("INSERT INTO t_problem_tag(id,name,is_deleted) VALUES (1,?,0)", "动态规划");
+        User reader = new User();
+        reader.setId(7L);
+        reader.setRole(0);
+        when(users.getById(7L)).thenReturn(reader);
+    }
+
+    @Test
+    void aKeywordMatchesTheSameProblemsWhetherOrNotTheIndexIsBuilt() throws Exception {
+        ProblemSearchProperties properties = new ProblemSearchProperties();
+        ProblemCatalogSearch ready = new ProblemCatalogSearch(jdbc, properties);
+        ready.refresh();
+        ProblemServiceImpl indexed = service(ready);
+        ProblemServiceImpl database = service(new ProblemCatalogSearch(jdbc, properties));
+
+        for (String keyword : List.of("动态", " noip ", "GRAPH", "sum", "%", "retired", "p100")) {
+            IPage<ProblemListItemVO> fromIndex = indexed.getProblemList(query(keyword), 7L);
+            IPage<ProblemListItemVO> fromDatabase = database.getProblemList(query(keyword), 7L);
+
+            assertEquals(problemNos(fromDatabase), problemNos(fromIndex), keyword);
+            assertEquals(fromDatabase.getTotal(), fromIndex.getTotal(), keyword);
+        }
+        assertEquals(List.of("P1001", "P1002", "P1005"), problemNos(database.getProblemList(query("动态"), 7L)));
+        assertEquals(List.of("P1004"), problemNos(indexed.getProblemList(query("%"), 7L)));
+        assertEquals(List.of("P1001", "P1005"), problemNos(indexed.getProblemList(query(" noip "), 7L)));
+    }
+
+    private ProblemServiceImpl service(ProblemCatalogSearch catalogSearch) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ProblemServiceImpl service = new ProblemServiceImpl(
+                mock(ProblemTagService.class),
+                users,
+                mock(ProblemVersionMapper.class),
+                objectMapper,
+                new PublishedProblemProjections(objectMapper, 1 << 20, null, Duration.ofHours(1)),
+                mock(UserProblemStatuses.class),
+                catalogSearch,
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "baseMapper", mapper());
+        return service;
+    }
+
+    private ProblemMapper mapper() throws Exception {
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
+        MybatisSqlSessionFactoryBean factory = new MybatisSqlSessionFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setMapperLocations(new ClassPathResource("mapper/ProblemMapper.xml"));
+        factory.setPlugins(interceptor);
+        return new SqlSessionTemplate(factory.getObject()).getMapper(ProblemMapper.class);
+    }
+
+    private static ProblemQueryDTO query(String keyword) {
+        ProblemQueryDTO query = new ProblemQueryDTO();
+        query.setKeyword(keyword);
+        query.setCurrent(1);
+        query.setSize(20);
+        return query;
+    }
+
+    private static List<String> problemNos(IPage<ProblemListItemVO> page) {
+        return page.getRecords().stream().map(ProblemListItemVO::getProblemNo).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.zephyr.croj.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ProblemSearchIndexTest {
+    private final ProblemSearchIndex index = ProblemSearchIndex.build(List.of(
+            new ProblemSearchIndex.Entry(3L, "P1003", "最短路径", "NOIP 2018", 3, 8L, List.of(1L)),
+            new ProblemSearchIndex.Entry(1L, "P1001", "Two Sum", null, 1, 8L, List.of(2L)),
+            new ProblemSearchIndex.Entry(2L, "P1002", "路径计数", "ICPC 2024", 2, 9L, List.of(1L, 2L)),
+            new ProblemSearchIndex.Entry(4L, "P1004", "Ｓｕｍ of Paths", null, 3, 7L, List.of())),
+            Map.of(1L, "图论", 2L, "动态规划"));
+
+    @Test
+    void chineseKeywordsMatchWithoutSegmentationInProblemNumberOrder() {
+        assertEquals(List.of("P1002", "P1003"), numbers(query("路径")));
+        assertEquals(List.of("P1003"), numbers(query("短路")));
+        assertEquals(List.of("P1002", "P1003"), numbers(query("路")));
+    }
+
+    @Test
+    void everyGramMatchingIsStillCheckedAsAWholeSubstring() {
+        assertEquals(List.of("P1001", "P1004"), numbers(query("SUM")));
+        assertEquals(List.of(), numbers(query("sum path")));
+        assertEquals(List.of("P1004"), numbers(query("sum of")));
+    }
+
+    @Test
+    void keywordMatchesProblemNumbersSourcesAndTagNames() {
+        assertEquals(List.of("P1003"), numbers(query("1003")));
+        assertEquals(List.of("P1002"), numbers(query("icpc")));
+        assertEquals(List.of("P1001", "P1002"), numbers(query("动态")));
+    }
+
+    @Test
+    void eachFacetIgnoresItsOwnFilterButHonoursTheOther() {
+        ProblemSearchIndex.Result result =
+                index.search(new ProblemSearchIndex.Query("", 3, List.of(1L), null));
+
+        assertEquals(List.of("P1003"), numbers(result));
+        assertEquals(Map.of(2, 1, 3, 1), result.difficultyCounts());
+        assertEquals(List.of(1L), new ArrayList<>(result.tagCounts().keySet()));
+        assertEquals(Map.of(1L, 1), result.tagCounts());
+    }
+
+    @Test
+    void ownerExclusionLeavesTheirProblemsOutOfHitsAndFacets() {
+        ProblemSearchIndex.Result result =
+                index.search(new ProblemSearchIndex.Query(null, null, null, 8L));
+
+        assertEquals(List.of("P1002", "P1004"), numbers(result));
+        assertEquals(Map.of(1L, 1, 2L, 1), result.tagCounts());
+    }
+
+    @Test
+    void updatesReturnACopyAndLeaveTheOriginalUntouched() {
+        ProblemSearchIndex renamed = index.with(
+                new ProblemSearchIndex.Entry(1L, "P1001", "Three Sum", null, 1, 8L, List.of()));
+        ProblemSearchIndex removed = renamed.without(2L);
+
+        assertEquals(List.of("P1001"), numbers(renamed.search(new ProblemSearchIndex.Query("three", null, null, null))));
+        assertEquals(List.of(), numbers(query("three")));
+        assertEquals(3, removed.size());
+        assertEquals(4, index.size());
+        assertSame(removed, removed.without(99L));
+    }
+
+    private ProblemSearchIndex.Result query(String keyword) {
+        return index.search(new ProblemSearchIndex.Query(keyword, null, null, null));
+    }
+
+    private static List<String> numbers(ProblemSearchIndex.Result result) {
+        return result.hits().stream().map(ProblemSearchIndex.Hit::problemNo).toList();
+    }
+}
@@ -13,7 +13,10 @@ import static org.mockito.Mockito.when;
 
 import com.zephyr.croj.common.exception.BusinessException;
 import com.zephyr.croj.mapper.ProblemMapper;
+import com.zephyr.croj.mapper.SubmissionMapper;
+import com.zephyr.croj.model.projection.ProblemUserStatusProjection;
 import java.util.List;
+import java.util.Map;
 import org.apache.ibatis.annotations.Select;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
@@ -38,12 +41,16 @@ import org.springframework.test.context.jdbc.Sql;
         "DROP TABLE IF EXISTS t_problem",
         "DROP TABLE IF EXISTS t_submission",
         "DROP TABLE IF EXISTS t_problem_tag_relation",
-        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, status INT NOT NULL, published_version_id BIGINT, is_deleted INT NOT NULL DEFAULT 0)",
+        "DROP TABLE IF EXISTS t_problem_catalog",
+        "DROP TABLE IF EXISTS t_problem_catalog_tag",
+        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, status INT NOT NULL, published_version_id BIGINT, is_deleted INT NOT NULL DEFAULT 0, problem_no VARCHAR(20) NOT NULL, create_user_id BIGINT NOT NULL)",
         "CREATE TABLE t_problem_version (id BIGINT PRIMARY KEY, problem_id BIGINT NOT NULL, state VARCHAR(20) NOT NULL, statement_json CLOB, limits_json CLOB, judge_config_json CLOB, published_at TIMESTAMP, projection_complete BOOLEAN NOT NULL)",
         "CREATE TABLE t_test_bundle (id BIGINT PRIMARY KEY, problem_version_id BIGINT NOT NULL UNIQUE, object_key VARCHAR(512), sha256 CHAR(64), size_bytes BIGINT, manifest_json CLOB)",
         "CREATE TABLE t_submission (id BIGINT PRIMARY KEY, problem_id BIGINT NOT NULL, user_id BIGINT NOT NULL, status INT NOT NULL, is_deleted INT NOT NULL DEFAULT 0)",
         "CREATE TABLE t_problem_tag_relation (problem_id BIGINT NOT NULL, tag_id BIGINT NOT NULL, PRIMARY KEY(problem_id,tag_id))",
-        "INSERT INTO t_problem VALUES (42,1,NULL,0)",
+        "CREATE TABLE t_problem_catalog (problem_id BIGINT PRIMARY KEY, problem_no VARCHAR(20) NOT NULL UNIQUE, create_user_id BIGINT NOT NULL, published_version_id BIGINT, title VARCHAR(255) NOT NULL, source VARCHAR(255), difficulty INT NOT NULL)",
+        "CREATE TABLE t_problem_catalog_tag (tag_id BIGINT NOT NULL, problem_id BIGINT NOT NULL, PRIMARY KEY(tag_id,problem_id))",
+        "INSERT INTO t_problem VALUES (42,1,NULL,0,'P1042',2)",
         "INSERT INTO t_problem_version VALUES (101,42,'DRAFT','{\"title\":\"A\",\"description\":\"D\",\"inputDescription\":\"I\",\"outputDescription\":\"O\",\"hints\":[],\"samples\":[],\"source\":null,\"tags\":[{\"id\":5,\"name\":\"published\",\"color\":\"#111111\"}]}','{\"timeLimit\":1000,\"memoryLimit\":64,\"totalScore\":100}','{\"judgeMode\":0,\"specialJudge\":false,\"specialJudgeCode\":null,\"specialJudgeLanguage\":null,\"checker\":\"exact\",\"difficulty\":2}',NULL,TRUE)",
         "INSERT INTO t_problem_tag_relation VALUES (42,9)"
 })
@@ -156,6 +163,41 @@ class ProblemVersionPublicationIntegrationTest {
                         Long.class));
     }
 
+    @Test
+    void publicationReplacesTheCatalogRowWithThePublishedTitleSourceDifficultyAndTags() {
+        jdbc.update("INSERT INTO t_problem_catalog VALUES (42,'P1042',2,99,'Stale',NULL,5)");
+        jdbc.update("UPDATE t_problem_version SET statement_json="
+                + "REPLACE(statement_json,'\"source\":null','\"source\":\"ICPC 2024\"') WHERE id=101");
+        jdbc.update("INSERT INTO t_problem_catalog_tag VALUES (9,42)");
+        jdbc.update(
+                "INSERT INTO t_test_bundle VALUES (7,101,'test-bundles/42/101/a.zip',REPEAT('a',64),12,?)",
+                validManifest());
+        ProblemVersionPublicationService service = new ProblemVersionPublicationService(jdbc);
+
+        service.publish(42L, 101L);
+
+        assertEquals(
+                Map.of("PROBLEM_NO", "P1042", "CREATE_USER_ID", 2L, "PUBLISHED_VERSION_ID", 101L,
+                        "TITLE", "A", "SOURCE", "ICPC 2024", "DIFFICULTY", 2),
+                jdbc.queryForMap(
+                        "SELECT problem_no,create_user_id,published_version_id,title,source,difficulty "
+                                + "FROM t_problem_catalog WHERE problem_id=42"));
+        assertEquals(
+                List.of(5L),
+                jdbc.queryForList(
+                        "SELECT tag_id FROM t_problem_catalog_tag WHERE problem_id=42 ORDER BY tag_id",
+                        Long.class));
+    }
+
+    @Test
+    void failedPublicationLeavesTheCatalogUntouched() {
+        ProblemVersionPublicationService service = new ProblemVersionPublicationService(jdbc);
+
+        assertThrows(BusinessException.class, () -> service.publish(42L, 101L));
+
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM t_problem_catalog", Integer.class));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void publicationLocksTheProblemAggregateBeforeItsVersion() {
@@ -200,20 +242,27 @@ class ProblemVersionPublicationIntegrationTest {
 
     @Test
     void submissionStatusDistinguishesAcceptedAttemptedAndNeverSubmitted() throws Exception {
-        Select annotation = ProblemMapper.class
-                .getMethod("getUserSubmitStatus", Long.class, Long.class)
+        Select annotation = SubmissionMapper.class
+                .getMethod("listUserProblemStatuses", long.class)
                 .getAnnotation(Select.class);
-        String sql = String.join(" ", annotation.value())
-                .replace("#{problemId}", "?")
-                .replace("#{userId}", "?");
+        String sql = String.join(" ", annotation.value()).replace("#{userId}", "?");
+        RowMapper<ProblemUserStatusProjection> rows =
+                (rs, rowNum) -> new ProblemUserStatusProjection(rs.getLong("problemId"), rs.getInt("userStatus"));
 
-        assertEquals(0, jdbc.queryForObject(sql, Integer.class, 42L, 7L));
+        assertEquals(List.of(), jdbc.query(sql, rows, 7L));
 
         jdbc.update("INSERT INTO t_submission VALUES (1,42,7,3,0)");
-        assertEquals(2, jdbc.queryForObject(sql, Integer.class, 42L, 7L));
+        jdbc.update("INSERT INTO t_submission VALUES (2,43,7,0,0)");
+        jdbc.update("INSERT INTO t_submission VALUES (3,44,8,1,0)");
+        assertEquals(
+                List.of(new ProblemUserStatusProjection(42L, 2), new ProblemUserStatusProjection(43L, 2)),
+                jdbc.query(sql + " ORDER BY problem_id", rows, 7L));
 
-        jdbc.update("INSERT INTO t_submission VALUES (2,42,7,1,0)");
-        assertEquals(1, jdbc.queryForObject(sql, Integer.class, 42L, 7L));
+        jdbc.update("INSERT INTO t_submission VALUES (4,42,7,1,0)");
+        jdbc.update("INSERT INTO t_submission VALUES (5,43,7,1,1)");
+        assertEquals(
+                List.of(new ProblemUserStatusProjection(42L, 1), new ProblemUserStatusProjection(43L, 2)),
+                jdbc.query(sql + " ORDER BY problem_id", rows, 7L));
     }
 
     private String validManifest() {
@@ -0,0 +1,168 @@
+package com.zephyr.croj.problem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.model.entity.ProblemVersion;
+import com.zephyr.croj.model.vo.ProblemVO;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class PublishedProblemProjectionsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void warmReadsNeitherLoadNorDecodeTheVersionAgain() {
+        var cache = new PublishedProblemProjections(objectMapper, 1 << 20, null, Duration.ofHours(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        PublishedProblemProjection first = cache.get(23L, id -> {
+            loads.incrementAndGet();
+            return published(id, "Two sum");
+        });
+        PublishedProblemProjection second = cache.get(23L, id -> {
+            throw new AssertionError("warm read must not load the version");
+        });
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        ProblemVO left = new ProblemVO();
+        ProblemVO right = new ProblemVO();
+        second.applyTo(left);
+        second.applyTo(right);
+        assertEquals("Two sum", left.getTitle());
+        assertEquals(1000, left.getTimeLimit());
+        assertEquals(100, left.getTotalScore());
+        assertEquals("exact", left.getChecker());
+        assertEquals(5L, left.getTags().get(0).getId());
+        assertNotSame(left.getTags().get(0), right.getTags().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> left.getHints().add("mutated"));
+    }
+
+    @Test
+    void batchReadsLoadOnlyTheMissingVersionsInOneCall() {
+        var cache = new PublishedProblemProjections(objectMapper, 1 << 20, null, Duration.ofHours(1));
+        cache.get(21L, id -> published(id, "cached"));
+        List<Collection<Long>> calls = new ArrayList<>();
+
+        Map<Long, PublishedProblemProjection> result = cache.getAll(List.of(21L, 22L, 23L, 22L), ids -> {
+            calls.add(List.copyOf(ids));
+            return ids.stream().filter(id -> id != 23L).map(id -> published(id, "loaded")).toList();
+        });
+
+        assertEquals(List.of(List.of(22L, 23L)), calls);
+        assertEquals("cached", result.get(21L).title());
+        assertEquals("loaded", result.get(22L).title());
+        assertTrue(!result.containsKey(23L));
+    }
+
+    @Test
+    void localTierEvictsTheLeastRecentlyUsedProjectionOnceTheByteBudgetIsExceeded() {
+        long weight = PublishedProblemProjection.decode(objectMapper, published(1L, "a")).weightBytes();
+        var cache = new PublishedProblemProjections(objectMapper, weight * 2, null, Duration.ofHours(1));
+        cache.get(1L, id -> published(id, "a"));
+        cache.get(2L, id -> published(id, "b"));
+        cache.get(1L, id -> {
+            throw new AssertionError("version 1 is still cached");
+        });
+
+        cache.get(3L, id -> published(id, "c"));
+
+        assertEquals(2, cache.localSize());
+        assertTrue(cache.localBytes() <= weight * 2);
+        AtomicInteger reloads = new AtomicInteger();
+        cache.get(2L, id -> {
+            reloads.incrementAndGet();
+            return published(id, "b");
+        });
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    void versionsThatAreNotCompletePublishedProjectionsAreRejectedAndNotCached() {
+        var cache = new PublishedProblemProjections(objectMapper, 1 << 20, null, Duration.ofHours(1));
+        ProblemVersion draft = published(23L, "draft");
+        draft.setState("DRAFT");
+        ProblemVersion incomplete = published(24L, "incomplete");
+        incomplete.setLimitsJson("{\"memoryLimit\":256}");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(23L, id -> draft));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(24L, id -> incomplete));
+        assertEquals(0, cache.localSize());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisTierLetsAnotherReplicaSkipTheDatabase() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+        var writer = new PublishedProblemProjections(objectMapper, 1 << 20, redis, Duration.ofHours(6));
+
+        writer.get(23L, id -> published(id, "shared"));
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(values).set(eq("croj:problem-projection:v1:23"), json.capture(), eq(Duration.ofHours(6)));
+        when(values.multiGet(List.of("croj:problem-projection:v1:23"))).thenReturn(List.of(json.getValue()));
+        var reader = new PublishedProblemProjections(objectMapper, 1 << 20, redis, Duration.ofHours(6));
+        PublishedProblemProjection projection = reader.get(23L, id -> {
+            throw new AssertionError("shared projection must not hit the database");
+        });
+
+        assertEquals("shared", projection.title());
+        assertEquals(List.of(Map.of("input", "1 2", "output", "3")), projection.samples());
+        assertEquals(1, reader.localSize());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisFailuresFallBackToTheDatabase() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.multiGet(anyList())).thenThrow(new IllegalStateException("redis down"));
+        var cache = new PublishedProblemProjections(objectMapper, 1 << 20, redis, Duration.ofHours(6));
+
+        assertEquals("fallback", cache.get(23L, id -> published(id, "fallback")).title());
+    }
+
+    private static ProblemVersion published(long id, String title) {
+        ProblemVersion version = new ProblemVersion();
+        version.setId(id);
+        version.setProblemId(11L);
+        version.setState("PUBLISHED");
+        version.setProjectionComplete(true);
+        version.setStatementJson("""
+                {"title":"%s","description":"statement","inputDescription":"input",
+                 "outputDescription":"output","hints":["think"],"samples":[{"input":"1 2","output":"3"}],
+                 "source":null,"tags":[{"id":5,"name":"math","color":"#111111"}]}
+                """.formatted(title));
+        version.setLimitsJson("""
+                {"timeLimit":1000,"memoryLimit":256,"totalScore":100}
+                """);
+        version.setJudgeConfigJson("""
+                {"specialJudge":false,"specialJudgeCode":null,"specialJudgeLanguage":null,
+                 "judgeMode":0,"checker":"exact","difficulty":1}
+                """);
+        return version;
+    }
+}
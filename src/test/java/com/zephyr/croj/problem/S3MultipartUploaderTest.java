@@ -0,0 +1,275 @@
+package com.zephyr.croj.problem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.zephyr.croj.config.properties.TestBundleProperties;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsResponse;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.Part;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3MultipartUploaderTest {
+    private final InMemoryS3 s3 = new InMemoryS3();
+
+    @Test
+    void uploadsLargeBodiesAsChecksummedPartsAndSmallOnesInOneRequest() throws Exception {
+        S3MultipartUploader uploader = uploader(Executors.newFixedThreadPool(3));
+        byte[] archive = random(2500);
+        Path file = Files.createTempFile("multipart-", ".zip");
+        try {
+            Files.write(file, archive);
+
+            uploader.upload("large.zip", "application/zip", Map.of(), S3MultipartUploader.Body.of(file, 2500));
+            uploader.upload("small.zip", "application/zip", Map.of(), S3MultipartUploader.Body.of(random(999)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertArrayEquals(archive, s3.objects.get("large.zip"));
+        assertEquals(999, s3.objects.get("small.zip").length);
+        assertEquals(3, s3.partUploads.get());
+        assertEquals(Set.of("large.zip"), s3.completedWithChecksums);
+    }
+
+    @Test
+    void writingTheSameKeyAgainResumesAnInterruptedUpload() {
+        S3MultipartUploader uploader = uploader(Runnable::run);
+        S3MultipartUploader.Body archive = S3MultipartUploader.Body.of(random(4200));
+        s3.failPart = 3;
+
+        assertThrows(
+                SdkClientException.class,
+                () -> uploader.upload("job.package", "application/octet-stream", Map.of(), archive));
+        assertEquals(4, s3.partUploads.get());
+        s3.failPart = 0;
+        uploader.upload("job.package", "application/octet-stream", Map.of(), archive);
+
+        assertArrayEquals(archive.read(0, 4200), s3.objects.get("job.package"));
+        assertEquals(5, s3.partUploads.get());
+        assertEquals(1, s3.createdUploads.get());
+    }
+
+    @Test
+    void aWriterWhoseSharedUploadWasCompletedByAnotherSucceedsOnceTheObjectExists() {
+        S3MultipartUploader first = uploader(Runnable::run);
+        S3MultipartUploader second = uploader(Runnable::run);
+        S3MultipartUploader.Body blob = S3MultipartUploader.Body.of(random(3500));
+        Map<String, String> metadata = Map.of("sha256", "abc");
+        s3.failPart = 2;
+        assertThrows(SdkClientException.class, () -> first.upload("test-blobs/abc", "application/octet-stream", metadata, blob));
+        s3.failPart = 0;
+        // 第一个写入者续传时，第二个写入者续传同一个上传并先完成。
+        s3.beforePart = () -> second.upload("test-blobs/abc", "application/octet-stream", metadata, blob);
+
+        first.upload("test-blobs/abc", "application/octet-stream", metadata, blob);
+
+        assertArrayEquals(blob.read(0, 3500), s3.objects.get("test-blobs/abc"));
+        assertEquals(1, s3.createdUploads.get());
+        s3.uploads.put("gone", new Upload("test-blobs/other", Instant.now(), Map.of(), new ConcurrentHashMap<>()));
+        s3.beforePart = () -> s3.uploads.remove("gone");
+        assertThrows(
+                NoSuchUploadException.class,
+                () -> first.upload("test-blobs/other", "application/octet-stream", metadata, blob));
+    }
+
+    private S3MultipartUploader uploader(Executor parts) {
+        TestBundleProperties properties = new TestBundleProperties();
+        properties.setBucket("hidden-tests");
+        properties.setMultipartThresholdBytes(1000);
+        properties.setMultipartPartBytes(1000);
+        return new S3MultipartUploader(s3, properties, parts);
+    }
+
+    private static byte[] random(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    /** A stand-in for an S3-compatible store that keeps objects and multipart uploads in memory. */
+    private static final class InMemoryS3 implements S3Client {
+        private final ConcurrentMap<String, byte[]> objects = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Map<String, String>> metadata = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Upload> uploads = new ConcurrentHashMap<>();
+        private final Set<String> completedWithChecksums = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger partUploads = new AtomicInteger();
+        private final AtomicInteger createdUploads = new AtomicInteger();
+        private volatile int failPart;
+        private volatile Runnable beforePart;
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            objects.put(request.key(), read(body));
+            metadata.put(request.key(), request.metadata());
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest request) {
+            String uploadId = "upload-" + createdUploads.incrementAndGet();
+            uploads.put(
+                    uploadId, new Upload(request.key(), Instant.now(), request.metadata(), new ConcurrentHashMap<>()));
+            return CreateMultipartUploadResponse.builder().uploadId(uploadId).build();
+        }
+
+        @Override
+        public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+            Runnable hook = beforePart;
+            beforePart = null;
+            if (hook != null) {
+                hook.run();
+            }
+            if (request.partNumber() == failPart) {
+                throw SdkClientException.create("connection reset");
+            }
+            byte[] data = read(body);
+            if (!request.checksumSHA256().equals(sha256(data))) {
+                throw SdkClientException.create("checksum mismatch");
+            }
+            partUploads.incrementAndGet();
+            String eTag = "\"" + request.partNumber() + "-" + data.length + "\"";
+            upload(request.uploadId())
+                    .parts()
+                    .put(request.partNumber(), new StoredPart(data, eTag, request.checksumSHA256()));
+            return UploadPartResponse.builder().eTag(eTag).build();
+        }
+
+        @Override
+        public ListMultipartUploadsResponse listMultipartUploads(ListMultipartUploadsRequest request) {
+            List<MultipartUpload> pending = new ArrayList<>();
+            uploads.forEach((id, upload) -> {
+                if (upload.key().startsWith(request.prefix())) {
+                    pending.add(MultipartUpload.builder()
+                            .key(upload.key())
+                            .uploadId(id)
+                            .initiated(upload.initiated())
+                            .build());
+                }
+            });
+            return ListMultipartUploadsResponse.builder().uploads(pending).build();
+        }
+
+        @Override
+        public ListPartsResponse listParts(ListPartsRequest request) {
+            List<Part> parts = upload(request.uploadId()).parts().entrySet().stream()
+                    .map(entry -> Part.builder()
+                            .partNumber(entry.getKey())
+                            .size((long) entry.getValue().data().length)
+                            .eTag(entry.getValue().eTag())
+                            .checksumSHA256(entry.getValue().checksum())
+                            .build())
+                    .toList();
+            return ListPartsResponse.builder().parts(parts).isTruncated(false).build();
+        }
+
+        @Override
+        public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest request) {
+            Upload upload = upload(request.uploadId());
+            uploads.remove(request.uploadId());
+            ByteArrayOutputStream object = new ByteArrayOutputStream();
+            request.multipartUpload().parts().stream()
+                    .sorted(Comparator.comparing(CompletedPart::partNumber))
+                    .forEach(part -> {
+                        StoredPart stored = upload.parts().get(part.partNumber());
+                        assertEquals(stored.eTag(), part.eTag());
+                        assertEquals(stored.checksum(), part.checksumSHA256());
+                        object.writeBytes(stored.data());
+                    });
+            objects.put(request.key(), object.toByteArray());
+            metadata.put(request.key(), upload.metadata());
+            completedWithChecksums.add(request.key());
+            return CompleteMultipartUploadResponse.builder().build();
+        }
+
+        @Override
+        public HeadObjectResponse headObject(Consumer<HeadObjectRequest.Builder> request) {
+            String key = HeadObjectRequest.builder().applyMutation(request).build().key();
+            byte[] object = objects.get(key);
+            if (object == null) {
+                throw NoSuchKeyException.builder().message("no such key").build();
+            }
+            return HeadObjectResponse.builder()
+                    .contentLength((long) object.length)
+                    .metadata(metadata.get(key))
+                    .build();
+        }
+
+        private Upload upload(String uploadId) {
+            Upload upload = uploads.get(uploadId);
+            if (upload == null) {
+                throw NoSuchUploadException.builder().message("upload was completed or aborted").build();
+            }
+            return upload;
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {}
+
+        private static byte[] read(RequestBody body) {
+            try {
+                return body.contentStreamProvider().newStream().readAllBytes();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        private static String sha256(byte[] data) {
+            try {
+                return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(data));
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    private record Upload(
+            String key, Instant initiated, Map<String, String> metadata, ConcurrentMap<Integer, StoredPart> parts) {}
+
+    private record StoredPart(byte[] data, String eTag, String checksum) {}
+}
@@ -4,13 +4,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.zephyr.croj.config.properties.TestBundleProperties;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 class S3TestBundleStorageTest {
@@ -19,7 +23,7 @@ class S3TestBundleStorageTest {
         S3Client s3 = mock(S3Client.class);
         TestBundleProperties properties = new TestBundleProperties();
         properties.setBucket("hidden-tests");
-        S3TestBundleStorage storage = new S3TestBundleStorage(s3, properties);
+        S3TestBundleStorage storage = new S3TestBundleStorage(s3, properties, new S3MultipartUploader(s3, properties));
         byte[] archive = new byte[] {1, 2, 3};
 
         storage.put("test-bundles/42/101/a.zip", archive, "abc123");
@@ -33,4 +37,45 @@ class S3TestBundleStorageTest {
         assertEquals("abc123", request.getValue().metadata().get("sha256"));
         assertNull(request.getValue().acl());
     }
+
+    @Test
+    void uploadsSpooledArchivesStraightFromTheFile() throws Exception {
+        S3Client s3 = mock(S3Client.class);
+        TestBundleProperties properties = new TestBundleProperties();
+        S3TestBundleStorage storage = new S3TestBundleStorage(s3, properties, new S3MultipartUploader(s3, properties));
+        Path archive = Files.createTempFile("s3-test-bundle-", ".zip");
+        try {
+            Files.write(archive, new byte[] {1, 2, 3, 4});
+
+            storage.put("test-bundles/42/101/b.zip", archive, 4L, "def456");
+
+            ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+            ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+            verify(s3).putObject(request.capture(), body.capture());
+            assertEquals(4L, request.getValue().contentLength());
+            assertEquals("def456", request.getValue().metadata().get("sha256"));
+            assertEquals(4L, body.getValue().optionalContentLength().orElseThrow());
+        } finally {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    @Test
+    void readsWholeObjectsOrASingleByteRange() {
+        S3Client s3 = mock(S3Client.class);
+        TestBundleProperties properties = new TestBundleProperties();
+        properties.setBucket("hidden-tests");
+        S3TestBundleStorage storage = new S3TestBundleStorage(s3, properties, new S3MultipartUploader(s3, properties));
+
+        storage.get("test-bundles/42/101/a.zip", 0, -1);
+        storage.get("test-bundles/42/101/a.zip", 100, 50);
+        storage.get("test-bundles/42/101/a.zip", 100, -1);
+
+        ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3, times(3)).getObject(request.capture());
+        assertEquals("hidden-tests", request.getAllValues().get(0).bucket());
+        assertNull(request.getAllValues().get(0).range());
+        assertEquals("bytes=100-149", request.getAllValues().get(1).range());
+        assertEquals("bytes=100-", request.getAllValues().get(2).range());
+    }
 }
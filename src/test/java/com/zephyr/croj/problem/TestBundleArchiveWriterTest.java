@@ -3,12 +3,15 @@ package com.zephyr.croj.problem;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import org.apache.commons.compress.archivers.zip.UnixStat;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -93,4 +96,40 @@ class TestBundleArchiveWriterTest {
             }
         }
     }
+
+    @Test
+    void streamingFromShortReadsProducesTheSameBytesAsWritingFromMemory() throws Exception {
+        String manifest = """
+                {"schemaVersion":1,"judgeMode":"ACM","checker":"exact",
+                 "limits":{"timeLimitMillis":1000,"memoryLimitMiB":64},
+                 "cases":[
+                  {"id":"1","input":"1.in","output":"1.out","weight":1}
+                 ]}
+                """;
+        byte[] input = new byte[70_001];
+        new Random(7).nextBytes(input);
+        byte[] output = "answer\n".repeat(3_000).getBytes(StandardCharsets.UTF_8);
+        Map<String, TestBundleArchiveWriter.Contents> streamed = Map.of(
+                "1.in", () -> new TricklingInputStream(input),
+                "1.out", () -> new TricklingInputStream(output));
+
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        new TestBundleArchiveWriter().write(manifest, streamed, archive);
+
+        assertArrayEquals(
+                new TestBundleArchiveWriter().write(manifest, Map.of("1.in", input, "1.out", output)),
+                archive.toByteArray());
+    }
+
+    /** Returns at most 1000 bytes per read, like a network or inflater stream. */
+    private static final class TricklingInputStream extends ByteArrayInputStream {
+        private TricklingInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] buffer, int offset, int length) {
+            return super.read(buffer, offset, Math.min(length, 1000));
+        }
+    }
 }
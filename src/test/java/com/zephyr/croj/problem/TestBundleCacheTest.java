@@ -0,0 +1,191 @@
+package com.zephyr.croj.problem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zephyr.croj.config.properties.TestBundleProperties;
+import com.zephyr.croj.mapper.TestBundleMapper;
+import com.zephyr.croj.model.entity.TestBundle;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestBundleCacheTest {
+    private final TestBundleMapper bundles = mock(TestBundleMapper.class);
+    private final TestBundleStorage storage = mock(TestBundleStorage.class);
+    private final TestBundleService service = mock(TestBundleService.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentMissesShareOneDownload() throws Exception {
+        byte[] archive = random(4096);
+        TestBundle bundle = bundle(1, archive);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storage.get("tests/1.zip", 0, -1)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new ByteArrayInputStream(archive);
+        });
+        TestBundleCache cache = cache(1L << 20);
+        ExecutorService judges = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(judges.submit(() -> read(cache, bundle, 0, archive.length)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<byte[]> read : reads) {
+                assertArrayEquals(archive, read.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            judges.shutdownNow();
+        }
+
+        verify(storage, times(1)).get("tests/1.zip", 0, -1);
+        assertArrayEquals(archive, Files.readAllBytes(directory.resolve(bundle.getSha256() + ".zip")));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedArchiveAndIndexesSurvivorsAfterARestart() throws Exception {
+        byte[] first = random(1000);
+        byte[] second = random(1001);
+        byte[] third = random(1002);
+        TestBundle a = stored(1, first);
+        TestBundle b = stored(2, second);
+        TestBundle c = stored(3, third);
+        TestBundleCache cache = cache(2500);
+
+        read(cache, a, 0, 1000);
+        read(cache, b, 0, 1001);
+        assertArrayEquals(slice(first, 10, 20), read(cache, a, 10, 20));
+        read(cache, c, 0, 1002);
+
+        assertFalse(Files.exists(directory.resolve(b.getSha256() + ".zip")));
+        assertTrue(Files.exists(directory.resolve(a.getSha256() + ".zip")));
+        TestBundleCache restarted = cache(2500);
+        assertArrayEquals(first, read(restarted, a, 0, 1000));
+        assertArrayEquals(third, read(restarted, c, 0, 1002));
+        verify(storage, times(1)).get("tests/1.zip", 0, -1);
+        verify(storage, times(1)).get("tests/3.zip", 0, -1);
+    }
+
+    @Test
+    void materializesCaseBlobBundlesInsteadOfReadingAnObject() throws Exception {
+        byte[] archive = random(3000);
+        TestBundle bundle = bundle(4, archive);
+        bundle.setLayout("BLOBS");
+        bundle.setObjectKey(null);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(archive);
+            return null;
+        }).when(service).materialize(eq(bundle), any(OutputStream.class));
+
+        assertArrayEquals(archive, read(cache(1L << 20), bundle, 0, archive.length));
+        verify(storage, never()).get(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void aDownloadThatDoesNotMatchItsDigestIsNotCached() throws Exception {
+        TestBundle bundle = bundle(5, random(500));
+        when(storage.get("tests/5.zip", 0, -1)).thenReturn(new ByteArrayInputStream(random(499)));
+        TestBundleCache cache = cache(1L << 20);
+
+        assertThrows(IllegalStateException.class, () -> cache.open(bundle));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void unknownVersionsAreNotFound() throws Exception {
+        TestBundleApiException exception =
+                assertThrows(TestBundleApiException.class, () -> cache(1L << 20).find(404));
+
+        assertEquals(404, exception.getStatus().value());
+    }
+
+    private TestBundleCache cache(long maxBytes) throws IOException {
+        TestBundleProperties properties = new TestBundleProperties();
+        properties.setCacheDirectory(directory);
+        properties.setCacheMaxBytes(maxBytes);
+        return new TestBundleCache(bundles, storage, service, properties);
+    }
+
+    private TestBundle stored(long versionId, byte[] archive) {
+        TestBundle bundle = bundle(versionId, archive);
+        when(storage.get("tests/" + versionId + ".zip", 0, -1))
+                .thenAnswer(invocation -> new ByteArrayInputStream(archive));
+        return bundle;
+    }
+
+    private static TestBundle bundle(long versionId, byte[] archive) {
+        TestBundle bundle = new TestBundle();
+        bundle.setId(versionId);
+        bundle.setProblemVersionId(versionId);
+        bundle.setObjectKey("tests/" + versionId + ".zip");
+        bundle.setLayout("ARCHIVE");
+        bundle.setSha256(sha256(archive));
+        bundle.setSizeBytes((long) archive.length);
+        return bundle;
+    }
+
+    private static byte[] read(TestBundleCache cache, TestBundle bundle, long offset, long length)
+            throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (TestBundleCache.CachedBundle cached = cache.open(bundle)) {
+            cached.transferTo(offset, length, output);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] slice(byte[] bytes, int offset, int length) {
+        byte[] slice = new byte[length];
+        System.arraycopy(bytes, offset, slice, 0, length);
+        return slice;
+    }
+
+    private static byte[] random(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
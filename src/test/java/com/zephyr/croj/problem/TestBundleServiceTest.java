@@ -1,5 +1,6 @@
 package com.zephyr.croj.problem;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -13,19 +14,32 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zephyr.croj.common.exception.BusinessException;
 import com.zephyr.croj.config.properties.TestBundleProperties;
 import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.mapper.TestBundleFileMapper;
 import com.zephyr.croj.mapper.TestBundleMapper;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.TestBundle;
+import com.zephyr.croj.model.entity.TestBundleFile;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import jakarta.validation.Validation;
@@ -38,6 +52,7 @@ import org.mockito.ArgumentCaptor;
 
 class TestBundleServiceTest {
     private final TestBundleMapper bundles = mock(TestBundleMapper.class);
+    private final TestBundleFileMapper files = mock(TestBundleFileMapper.class);
     private final ProblemVersionMapper versions = mock(ProblemVersionMapper.class);
     private final TestBundleStorage storage = mock(TestBundleStorage.class);
     private TestBundleService service;
@@ -48,7 +63,7 @@ class TestBundleServiceTest {
         properties.setMaxArchiveBytes(64 * 1024);
         properties.setMaxUncompressedBytes(64 * 1024);
         properties.setMaxCases(10);
-        service = new TestBundleService(bundles, versions, storage, new ObjectMapper(), properties);
+        service = new TestBundleService(bundles, files, versions, storage, new ObjectMapper(), properties);
     }
 
     @Test
@@ -245,6 +260,30 @@ class TestBundleServiceTest {
                 new ObjectMapper().readTree(bundle.getManifestJson()));
     }
 
+    @Test
+    void validatesAndStoresASpooledUploadFromDisk() throws Exception {
+        draftVersion();
+        when(bundles.insert(any(TestBundle.class))).thenReturn(1);
+        byte[] archive = bundleZip(
+                validManifest(),
+                Map.of("cases/1.in", "in", "cases/1.out", "ok"));
+
+        try (TestBundleUpload upload = TestBundleUpload.spool(new ByteArrayInputStream(archive), archive.length)) {
+            TestBundle bundle = service.attach(42L, 101L, upload);
+
+            assertEquals(upload.sha256(), bundle.getSha256());
+            assertEquals(archive.length, bundle.getSizeBytes());
+            verify(storage).put(bundle.getObjectKey(), upload.path(), archive.length, upload.sha256());
+        }
+        try (TestBundleUpload truncated = TestBundleUpload.spool(
+                new ByteArrayInputStream(Arrays.copyOf(archive, archive.length - 10)), archive.length)) {
+            assertThrows(BusinessException.class, () -> service.attach(42L, 101L, truncated));
+        }
+        assertThrows(
+                TestBundleApiException.class,
+                () -> TestBundleUpload.spool(new ByteArrayInputStream(archive), archive.length - 1));
+    }
+
     @Test
     void rejectsOiProblemVersionsBeforeObjectStorage() {
         draftVersion(1, false, "exact");
@@ -503,7 +542,7 @@ class TestBundleServiceTest {
     void rejectsMoreCasesThanTheJudgingBatchCanExecute() {
         TestBundleProperties defaults = new TestBundleProperties();
         TestBundleService defaultLimitedService =
-                new TestBundleService(bundles, versions, storage, new ObjectMapper(), defaults);
+                new TestBundleService(bundles, files, versions, storage, new ObjectMapper(), defaults);
         draftVersion();
 
         BusinessException exception = assertThrows(
@@ -536,6 +575,93 @@ class TestBundleServiceTest {
         verifyNoInteractions(storage);
     }
 
+    @Test
+    void reportsTheFirstFailingEntryInArchiveOrderWhenEntriesAreCheckedInParallel() {
+        draftVersion();
+        String manifest = manifestWithCaseCount(8);
+        Map<String, byte[]> late = new LinkedHashMap<>();
+        Map<String, byte[]> early = new LinkedHashMap<>();
+        late.put("manifest.json", manifest.getBytes(StandardCharsets.UTF_8));
+        early.put("manifest.json", manifest.getBytes(StandardCharsets.UTF_8));
+        for (int index = 1; index <= 8; index++) {
+            byte[] input = index == 2
+                    ? new byte[] {(byte) 0xc3, (byte) 0x28}
+                    : "in".getBytes(StandardCharsets.UTF_8);
+            late.put("cases/%d.in".formatted(index), input);
+            late.put("cases/%d.out".formatted(index), "ok".getBytes(StandardCharsets.UTF_8));
+            if (index == 2) {
+                early.put("extra.txt", new byte[0]);
+            }
+            early.put("cases/%d.in".formatted(index), input);
+            early.put("cases/%d.out".formatted(index), "ok".getBytes(StandardCharsets.UTF_8));
+        }
+        late.put("extra.txt", new byte[0]);
+        byte[] contentFailsFirst = zipBytes(late);
+        byte[] directoryFailsFirst = zipBytes(early);
+
+        for (int attempt = 0; attempt < 20; attempt++) {
+            assertEquals(
+                    "test case files must be valid UTF-8",
+                    assertThrows(BusinessException.class,
+                            () -> service.attach(42L, 101L, contentFailsFirst, manifest)).getMessage());
+            assertEquals(
+                    "test bundle contains an undeclared ZIP entry",
+                    assertThrows(BusinessException.class,
+                            () -> service.attach(42L, 101L, directoryFailsFirst, manifest)).getMessage());
+        }
+        verifyNoInteractions(storage);
+    }
+
+    @Test
+    void storesEachCaseFileOnceAcrossVersionsAndRebuildsTheDeterministicArchive() throws Exception {
+        TestBundleProperties properties = new TestBundleProperties();
+        properties.setCaseBlobs(true);
+        BlobStorage blobs = new BlobStorage();
+        InMemoryFiles stored = new InMemoryFiles();
+        TestBundleService blobService = new TestBundleService(
+                bundles, stored, versions, blobs, new ObjectMapper(), properties, Runnable::run);
+        draftVersion(101L);
+        draftVersion(102L);
+        when(bundles.insert(any(TestBundle.class))).thenReturn(1);
+        String manifest = manifestWithCaseCount(3);
+        Map<String, String> cases = new LinkedHashMap<>();
+        for (int index = 1; index <= 3; index++) {
+            cases.put("cases/%d.in".formatted(index), "in-" + index);
+            cases.put("cases/%d.out".formatted(index), "out-" + index);
+        }
+        Map<String, String> fixed = new LinkedHashMap<>(cases);
+        fixed.put("cases/3.out", "fixed");
+
+        TestBundle first = blobService.attach(42L, 101L, bundleZip(manifest, cases), manifest);
+        int uploadedForFirst = blobs.uploads;
+        TestBundle second = blobService.attach(42L, 102L, bundleZip(manifest, fixed), manifest);
+
+        assertEquals(7, uploadedForFirst);
+        assertEquals(8, blobs.uploads);
+        assertEquals("BLOBS", second.getLayout());
+        assertEquals(
+                stored.byVersion.get(101L).get("cases/1.in"),
+                stored.byVersion.get(102L).get("cases/1.in"));
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        fixed.forEach((name, value) -> contents.put(name, value.getBytes(StandardCharsets.UTF_8)));
+        byte[] expected = new TestBundleArchiveWriter().write(second.getManifestJson(), contents);
+        ByteArrayOutputStream materialized = new ByteArrayOutputStream();
+        blobService.materialize(second, materialized);
+
+        assertArrayEquals(expected, materialized.toByteArray());
+        assertEquals(
+                java.util.HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(expected)),
+                second.getSha256());
+        assertEquals(expected.length, second.getSizeBytes());
+        assertEquals(
+                "test-bundles/42/102/" + second.getSha256() + ".zip",
+                second.getObjectKey());
+        assertThrows(IllegalStateException.class, () -> {
+            first.setSha256(second.getSha256());
+            blobService.materialize(first, new ByteArrayOutputStream());
+        });
+    }
+
     @Test
     void rejectsAnArchiveWhoseCentralDirectoryIsTruncated() {
         draftVersion();
@@ -591,15 +717,23 @@ class TestBundleServiceTest {
     }
 
     private void draftVersion(int judgeMode, boolean specialJudge, String checker) {
+        draftVersion(101L, judgeMode, specialJudge, checker);
+    }
+
+    private void draftVersion(long versionId) {
+        draftVersion(versionId, 0, false, "exact");
+    }
+
+    private void draftVersion(long versionId, int judgeMode, boolean specialJudge, String checker) {
         ProblemVersion version = new ProblemVersion();
-        version.setId(101L);
+        version.setId(versionId);
         version.setProblemId(42L);
         version.setState("DRAFT");
         version.setProjectionComplete(true);
         version.setStatementJson(completeStatement());
         version.setLimitsJson("{\"timeLimit\":1000,\"memoryLimit\":64,\"totalScore\":100}");
         version.setJudgeConfigJson(completeJudge(judgeMode, specialJudge, checker));
-        when(versions.selectById(101L)).thenReturn(version);
+        when(versions.selectById(versionId)).thenReturn(version);
     }
 
     private void draftSpecialVersion(int judgeMode, String source, String language) {
@@ -742,4 +876,77 @@ class TestBundleServiceTest {
         zip.write(contents);
         zip.closeArchiveEntry();
     }
+
+    /** Keeps case blobs in memory and refuses whole-archive writes. */
+    private static final class BlobStorage implements TestBundleStorage {
+        private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+        private int uploads;
+
+        @Override
+        public void put(String objectKey, byte[] archive, String sha256) {
+            throw new AssertionError("case blob bundles must not write a ZIP object");
+        }
+
+        @Override
+        public void put(String objectKey, Path archive, long sizeBytes, String sha256) {
+            throw new AssertionError("case blob bundles must not write a ZIP object");
+        }
+
+        @Override
+        public synchronized void putBlob(String sha256, byte[] contents) {
+            uploads++;
+            blobs.put(sha256, contents);
+        }
+
+        @Override
+        public synchronized void putBlob(String sha256, Path contents, long sizeBytes) {
+            try {
+                putBlob(sha256, Files.readAllBytes(contents));
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        @Override
+        public InputStream get(String objectKey, long offset, long length) {
+            throw new AssertionError("case blob bundles must not read a ZIP object");
+        }
+
+        @Override
+        public InputStream openBlob(String sha256) {
+            return new ByteArrayInputStream(blobs.get(sha256));
+        }
+    }
+
+    private static final class InMemoryFiles implements TestBundleFileMapper {
+        private final Map<String, Long> blobs = new HashMap<>();
+        private final Map<Long, Map<String, String>> byVersion = new HashMap<>();
+
+        @Override
+        public List<String> findStoredBlobs(Collection<String> sha256s) {
+            return sha256s.stream().filter(blobs::containsKey).toList();
+        }
+
+        @Override
+        public int registerBlobs(Collection<TestBundleFile> files) {
+            files.forEach(file -> blobs.putIfAbsent(file.getBlobSha256(), file.getSizeBytes()));
+            return files.size();
+        }
+
+        @Override
+        public int insertAll(List<TestBundleFile> files) {
+            files.forEach(file -> byVersion
+                    .computeIfAbsent(file.getProblemVersionId(), version -> new TreeMap<>())
+                    .put(file.getPath(), file.getBlobSha256()));
+            return files.size();
+        }
+
+        @Override
+        public List<TestBundleFile> findByProblemVersionId(long versionId) {
+            List<TestBundleFile> files = new ArrayList<>();
+            byVersion.getOrDefault(versionId, Map.of()).forEach((path, sha256) ->
+                    files.add(new TestBundleFile(versionId, path, sha256, blobs.get(sha256))));
+            return files;
+        }
+    }
 }
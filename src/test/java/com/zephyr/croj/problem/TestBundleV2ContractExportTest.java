@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zephyr.croj.config.properties.TestBundleProperties;
 import com.zephyr.croj.mapper.ProblemVersionMapper;
+import com.zephyr.croj.mapper.TestBundleFileMapper;
 import com.zephyr.croj.mapper.TestBundleMapper;
 import com.zephyr.croj.model.entity.ProblemVersion;
 import com.zephyr.croj.model.entity.TestBundle;
@@ -52,6 +53,7 @@ class TestBundleV2ContractExportTest {
         when(versions.selectById(101L)).thenReturn(version(checkerSource));
         var attached = new TestBundleService(
                         bundles,
+                        mock(TestBundleFileMapper.class),
                         versions,
                         storage,
                         new ObjectMapper(),
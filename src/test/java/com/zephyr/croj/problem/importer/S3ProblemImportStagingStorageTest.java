@@ -7,6 +7,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.zephyr.croj.config.properties.TestBundleProperties;
+import com.zephyr.croj.problem.S3MultipartUploader;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import software.amazon.awssdk.core.ResponseBytes;
@@ -21,7 +22,7 @@ class S3ProblemImportStagingStorageTest {
         S3Client s3 = mock(S3Client.class);
         TestBundleProperties properties = new TestBundleProperties();
         properties.setBucket("hidden-tests");
-        S3ProblemImportStagingStorage storage = new S3ProblemImportStagingStorage(s3, properties);
+        S3ProblemImportStagingStorage storage = new S3ProblemImportStagingStorage(s3, properties, new S3MultipartUploader(s3, properties));
         byte[] bytes = new byte[] {1, 2, 3};
         when(s3.getObjectAsBytes(any(GetObjectRequest.class))).thenReturn(
                 ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), bytes));
@@ -0,0 +1,123 @@
+package com.zephyr.croj.submission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.zephyr.croj.common.enums.ResultCodeEnum;
+import com.zephyr.croj.common.exception.BusinessException;
+import com.zephyr.croj.contest.ContestApiException;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:submission-admission;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_user",
+        "DROP TABLE IF EXISTS t_problem",
+        "DROP TABLE IF EXISTS t_problem_version",
+        "DROP TABLE IF EXISTS t_test_bundle",
+        "DROP TABLE IF EXISTS t_contest",
+        "DROP TABLE IF EXISTS t_contest_registration",
+        "DROP TABLE IF EXISTS t_contest_problem",
+        "CREATE TABLE t_user (id BIGINT PRIMARY KEY, role INT NOT NULL, is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, status INT NOT NULL, create_user_id BIGINT NOT NULL, published_version_id BIGINT, is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_problem_version (id BIGINT PRIMARY KEY, problem_id BIGINT NOT NULL, state VARCHAR(16) NOT NULL)",
+        "CREATE TABLE t_test_bundle (id BIGINT PRIMARY KEY, problem_version_id BIGINT NOT NULL)",
+        "CREATE TABLE t_contest (id BIGINT PRIMARY KEY, lifecycle VARCHAR(16) NOT NULL, registration_opens_at TIMESTAMP NOT NULL, registration_closes_at TIMESTAMP NOT NULL, starts_at TIMESTAMP NOT NULL, freeze_at TIMESTAMP, ends_at TIMESTAMP NOT NULL)",
+        "CREATE TABLE t_contest_registration (contest_id BIGINT NOT NULL, user_id BIGINT NOT NULL, status VARCHAR(16) NOT NULL)",
+        "CREATE TABLE t_contest_problem (contest_id BIGINT NOT NULL, problem_id BIGINT NOT NULL, problem_version_id BIGINT NOT NULL)",
+        "INSERT INTO t_user(id,role) VALUES (7,0),(8,0),(9,1)",
+        "INSERT INTO t_problem(id,status,create_user_id,published_version_id) VALUES (42,0,9,88),(43,1,8,89),(44,0,9,NULL)",
+        "INSERT INTO t_problem_version(id,problem_id,state) VALUES (88,42,'PUBLISHED'),(89,43,'PUBLISHED'),(100,42,'PUBLISHED'),(101,42,'PUBLISHED')",
+        "INSERT INTO t_test_bundle(id,problem_version_id) VALUES (1,88),(2,89),(3,101)",
+        "INSERT INTO t_contest VALUES (5,'PUBLISHED','2026-07-01 00:00:00','2026-07-10 09:00:00','2026-07-10 09:00:00',NULL,'2026-07-10 12:00:00')",
+        "INSERT INTO t_contest_registration VALUES (5,7,'REGISTERED'),(5,8,'CANCELLED')",
+        "INSERT INTO t_contest_problem VALUES (5,42,101),(5,44,100)"
+})
+class SubmissionAdmissionIntegrationTest {
+    private static final Instant RUNNING = Instant.parse("2026-07-10T10:00:00Z");
+
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void practiceDecisionsAreCachedUntilThePublicationChanges() {
+        SubmissionAdmission admission = admission(Clock.fixed(RUNNING, ZoneOffset.UTC), Duration.ofMinutes(1));
+
+        assertEquals(88L, admission.admit(7L, 42L, null));
+        jdbc.update("DELETE FROM t_test_bundle WHERE problem_version_id=88");
+        assertEquals(88L, admission.admit(7L, 42L, null));
+
+        admission.onCatalogChanged(new ProblemCatalogChangedEvent(42L));
+
+        assertBusiness(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY, () -> admission.admit(7L, 42L, null));
+    }
+
+    @Test
+    void practiceChecksKeepTheirOrderAndOwnershipRules() {
+        SubmissionAdmission admission = admission(Clock.fixed(RUNNING, ZoneOffset.UTC), Duration.ZERO);
+
+        assertBusiness(ResultCodeEnum.USER_NOT_EXIST, () -> admission.admit(70L, 404L, null));
+        assertBusiness(ResultCodeEnum.PROBLEM_NOT_EXIST, () -> admission.admit(7L, 404L, null));
+        assertBusiness(ResultCodeEnum.FORBIDDEN, () -> admission.admit(7L, 43L, null));
+        assertEquals(89L, admission.admit(8L, 43L, null));
+        assertEquals(89L, admission.admit(9L, 43L, null));
+        assertBusiness(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY, () -> admission.admit(7L, 44L, null));
+    }
+
+    @Test
+    void contestSubmissionUsesThePinnedVersionWhileTheCachedContestIsRunning() {
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(RUNNING, RUNNING, Instant.parse("2026-07-10T12:00:00Z"));
+        SubmissionAdmission admission = admission(clock, Duration.ofMinutes(1));
+
+        assertEquals(101L, admission.admit(7L, 42L, 5L));
+        jdbc.update("DELETE FROM t_contest_problem");
+        assertEquals(101L, admission.admit(7L, 42L, 5L));
+
+        assertContest(HttpStatus.FORBIDDEN, () -> admission.admit(7L, 42L, 5L));
+    }
+
+    @Test
+    void contestChecksKeepTheirOrder() {
+        SubmissionAdmission admission = admission(Clock.fixed(RUNNING, ZoneOffset.UTC), Duration.ofMinutes(1));
+
+        assertContest(HttpStatus.NOT_FOUND, () -> admission.admit(7L, 42L, 6L));
+        assertContest(HttpStatus.FORBIDDEN, () -> admission.admit(8L, 42L, 5L));
+        assertContest(HttpStatus.UNPROCESSABLE_ENTITY, () -> admission.admit(7L, 43L, 5L));
+        assertContest(HttpStatus.UNPROCESSABLE_ENTITY, () -> admission.admit(7L, 44L, 5L));
+        jdbc.update("INSERT INTO t_contest_registration VALUES (5,8,'REGISTERED')");
+        assertEquals(101L, admission.admit(8L, 42L, 5L));
+    }
+
+    private SubmissionAdmission admission(Clock clock, Duration ttl) {
+        return new SubmissionAdmission(jdbc, clock, ttl, 100);
+    }
+
+    private static void assertBusiness(ResultCodeEnum expected, Runnable admit) {
+        BusinessException exception = assertThrows(BusinessException.class, admit::run);
+        assertEquals(expected.getCode(), exception.getCode());
+    }
+
+    private static void assertContest(HttpStatus expected, Runnable admit) {
+        ContestApiException exception = assertThrows(ContestApiException.class, admit::run);
+        assertEquals(expected, exception.getStatus());
+    }
+}
@@ -0,0 +1,65 @@
+package com.zephyr.croj.submission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.zephyr.croj.config.properties.SubmissionFeedProperties;
+import com.zephyr.croj.model.event.ProblemCatalogChangedEvent;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:submission-display-names;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_user",
+        "DROP TABLE IF EXISTS t_problem",
+        "CREATE TABLE t_user (id BIGINT PRIMARY KEY, username VARCHAR(50) NOT NULL, is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_problem (id BIGINT PRIMARY KEY, problem_no VARCHAR(20) NOT NULL, title VARCHAR(200) NOT NULL, is_deleted INT DEFAULT 0)",
+        "INSERT INTO t_user(id,username,is_deleted) VALUES (7,'alice',0),(8,'bob',1)",
+        "INSERT INTO t_problem(id,problem_no,title,is_deleted) VALUES (42,'P1000','A+B',0),(43,'P1001','Gone',1)"
+})
+class SubmissionDisplayNamesIntegrationTest {
+
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void resolvesEveryDistinctIdOnceIncludingDeletedRows() {
+        SubmissionDisplayNames names = new SubmissionDisplayNames(jdbc, new SubmissionFeedProperties());
+
+        Map<Long, SubmissionDisplayNames.ProblemName> problems = names.problems(List.of(42L, 43L, 42L, 44L));
+        Map<Long, String> usernames = names.usernames(List.of(7L, 8L, 7L));
+
+        assertEquals(new SubmissionDisplayNames.ProblemName("P1000", "A+B"), problems.get(42L));
+        assertEquals("Gone", problems.get(43L).title());
+        assertNull(problems.get(44L));
+        assertEquals(Map.of(7L, "alice", 8L, "bob"), usernames);
+    }
+
+    @Test
+    void cachedNamesAreServedUntilTheProblemChanges() {
+        SubmissionDisplayNames names = new SubmissionDisplayNames(jdbc, new SubmissionFeedProperties());
+        names.problems(List.of(42L));
+        names.usernames(List.of(7L));
+        jdbc.update("UPDATE t_problem SET title='A plus B' WHERE id=42");
+        jdbc.update("UPDATE t_user SET username='alicia' WHERE id=7");
+
+        assertEquals("A+B", names.problems(List.of(42L)).get(42L).title());
+        assertEquals("alice", names.usernames(List.of(7L)).get(7L));
+
+        names.onCatalogChanged(new ProblemCatalogChangedEvent(42L));
+
+        assertEquals("A plus B", names.problems(List.of(42L)).get(42L).title());
+    }
+}
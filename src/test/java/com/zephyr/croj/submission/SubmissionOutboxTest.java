@@ -4,23 +4,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import com.zephyr.croj.contest.ContestService;
+import com.zephyr.croj.common.enums.ResultCodeEnum;
+import com.zephyr.croj.common.exception.BusinessException;
 import com.zephyr.croj.model.dto.SubmissionDTO;
-import com.zephyr.croj.mapper.JudgeAttemptMapper;
-import com.zephyr.croj.mapper.ProblemVersionMapper;
-import com.zephyr.croj.model.entity.Problem;
-import com.zephyr.croj.model.entity.JudgeAttempt;
 import com.zephyr.croj.model.entity.Submission;
-import com.zephyr.croj.model.entity.User;
-import com.zephyr.croj.outbox.SubmissionOutbox;
-import com.zephyr.croj.service.ProblemService;
+import com.zephyr.croj.problem.ProblemCounters;
 import com.zephyr.croj.service.UserService;
 import com.zephyr.croj.service.impl.SubmissionServiceImpl;
 import org.junit.jupiter.api.Test;
@@ -29,32 +23,21 @@ import org.mockito.ArgumentCaptor;
 class SubmissionOutboxTest {
 
     @Test
-    void submissionAndQueueRequestAreRecordedThroughTheSameTransactionalService() {
+    void admittedSubmissionIsWrittenThroughTheWriterAndThenCounted() {
         UserService users = mock(UserService.class);
-        ProblemService problems = mock(ProblemService.class);
-        SubmissionOutbox outbox = mock(SubmissionOutbox.class);
-        JudgeAttemptMapper attempts = mock(JudgeAttemptMapper.class);
-        ContestService contests = mock(ContestService.class);
-        ProblemVersionMapper versions = mock(ProblemVersionMapper.class);
-        when(attempts.insert(any(JudgeAttempt.class))).thenReturn(1);
-        SubmissionServiceImpl service = org.mockito.Mockito.spy(
-                new SubmissionServiceImpl(users, problems, outbox, attempts, contests, versions));
-
-        User user = new User();
-        user.setId(7L);
-        Problem problem = new Problem();
-        problem.setId(42L);
-        problem.setStatus(0);
-        problem.setPublishedVersionId(88L);
-        when(users.getById(7L)).thenReturn(user);
-        when(problems.getById(42L)).thenReturn(problem);
-        when(problems.incrementSubmitCount(42L)).thenReturn(true);
-        when(versions.isJudgeReady(42L, 88L)).thenReturn(true);
+        UserProblemStatuses statuses = mock(UserProblemStatuses.class);
+        ProblemCounters counters = mock(ProblemCounters.class);
+        SubmissionAdmission admission = mock(SubmissionAdmission.class);
+        SubmissionWriter writer = mock(SubmissionWriter.class);
+        SubmissionDisplayNames names = mock(SubmissionDisplayNames.class);
+        SubmissionServiceImpl service = new SubmissionServiceImpl(users, statuses, counters, admission, writer, names);
+
+        when(admission.admit(7L, 42L, null)).thenReturn(88L);
         doAnswer(invocation -> {
             Submission submission = invocation.getArgument(0);
             submission.setId(99L);
-            return true;
-        }).when(service).save(any(Submission.class));
+            return null;
+        }).when(writer).write(any(Submission.class));
 
         SubmissionDTO request = new SubmissionDTO();
         request.setProblemId(42L);
@@ -62,67 +45,51 @@ class SubmissionOutboxTest {
         request.setCode("class Main {}\n");
 
         assertEquals(99L, service.submitCode(request, 7L));
-        verify(problems).incrementSubmitCount(42L);
-        ArgumentCaptor<Submission> queued = ArgumentCaptor.forClass(Submission.class);
-        verify(outbox).enqueue(queued.capture());
-        assertEquals(88L, queued.getValue().getProblemVersionId());
+        verify(counters).submitted(42L);
+        ArgumentCaptor<Submission> written = ArgumentCaptor.forClass(Submission.class);
+        verify(writer).write(written.capture());
+        assertEquals(88L, written.getValue().getProblemVersionId());
+        assertEquals(0, written.getValue().getStatus());
+        verify(statuses).submitted(7L, 42L);
+        verifyNoInteractions(users);
     }
 
     @Test
-    void failedCounterUpdateDoesNotEnqueueTheSubmission() {
+    void failedWriteDoesNotCountTheSubmission() {
         UserService users = mock(UserService.class);
-        ProblemService problems = mock(ProblemService.class);
-        SubmissionOutbox outbox = mock(SubmissionOutbox.class);
-        JudgeAttemptMapper attempts = mock(JudgeAttemptMapper.class);
-        ContestService contests = mock(ContestService.class);
-        ProblemVersionMapper versions = mock(ProblemVersionMapper.class);
-        SubmissionServiceImpl service = org.mockito.Mockito.spy(
-                new SubmissionServiceImpl(users, problems, outbox, attempts, contests, versions));
-        User user = new User();
-        Problem problem = new Problem();
-        problem.setStatus(0);
-        problem.setPublishedVersionId(88L);
-        when(users.getById(7L)).thenReturn(user);
-        when(problems.getById(42L)).thenReturn(problem);
-        when(problems.incrementSubmitCount(42L)).thenReturn(false);
-        when(versions.isJudgeReady(42L, 88L)).thenReturn(true);
-        doReturn(true).when(service).save(any(Submission.class));
+        UserProblemStatuses statuses = mock(UserProblemStatuses.class);
+        ProblemCounters counters = mock(ProblemCounters.class);
+        SubmissionAdmission admission = mock(SubmissionAdmission.class);
+        SubmissionWriter writer = mock(SubmissionWriter.class);
+        SubmissionDisplayNames names = mock(SubmissionDisplayNames.class);
+        SubmissionServiceImpl service = new SubmissionServiceImpl(users, statuses, counters, admission, writer, names);
+        when(admission.admit(7L, 42L, null)).thenReturn(88L);
+        doThrow(new IllegalStateException("outbox unavailable")).when(writer).write(any(Submission.class));
         SubmissionDTO request = new SubmissionDTO();
         request.setProblemId(42L);
         request.setLanguage("java17");
         request.setCode("class Main {}\n");
 
         assertThrows(RuntimeException.class, () -> service.submitCode(request, 7L));
-        verifyNoInteractions(outbox);
+        verifyNoInteractions(statuses, counters);
     }
 
     @Test
     void contestSubmissionPinsTheArrangedProblemVersion() {
         UserService users = mock(UserService.class);
-        ProblemService problems = mock(ProblemService.class);
-        SubmissionOutbox outbox = mock(SubmissionOutbox.class);
-        JudgeAttemptMapper attempts = mock(JudgeAttemptMapper.class);
-        ContestService contests = mock(ContestService.class);
-        ProblemVersionMapper versions = mock(ProblemVersionMapper.class);
-        when(attempts.insert(any(JudgeAttempt.class))).thenReturn(1);
-        SubmissionServiceImpl service = org.mockito.Mockito.spy(
-                new SubmissionServiceImpl(users, problems, outbox, attempts, contests, versions));
-
-        User user = new User();
-        user.setId(7L);
-        Problem problem = new Problem();
-        problem.setId(42L);
-        problem.setStatus(1);
-        when(users.getById(7L)).thenReturn(user);
-        when(problems.getById(42L)).thenReturn(problem);
-        when(problems.checkPermission(42L, 7L)).thenReturn(false);
-        when(problems.incrementSubmitCount(42L)).thenReturn(true);
-        when(contests.validateSubmission(5L, 7L, 42L)).thenReturn(101L);
+        UserProblemStatuses statuses = mock(UserProblemStatuses.class);
+        ProblemCounters counters = mock(ProblemCounters.class);
+        SubmissionAdmission admission = mock(SubmissionAdmission.class);
+        SubmissionWriter writer = mock(SubmissionWriter.class);
+        SubmissionDisplayNames names = mock(SubmissionDisplayNames.class);
+        SubmissionServiceImpl service = new SubmissionServiceImpl(users, statuses, counters, admission, writer, names);
+
+        when(admission.admit(7L, 42L, 5L)).thenReturn(101L);
         doAnswer(invocation -> {
             Submission submission = invocation.getArgument(0);
             submission.setId(99L);
-            return true;
-        }).when(service).save(any(Submission.class));
+            return null;
+        }).when(writer).write(any(Submission.class));
 
         SubmissionDTO request = new SubmissionDTO();
         request.setProblemId(42L);
@@ -132,38 +99,30 @@ class SubmissionOutboxTest {
 
         assertEquals(99L, service.submitCode(request, 7L));
         ArgumentCaptor<Submission> saved = ArgumentCaptor.forClass(Submission.class);
-        verify(service).save(saved.capture());
+        verify(writer).write(saved.capture());
         assertEquals(5L, saved.getValue().getContestId());
         assertEquals(101L, saved.getValue().getProblemVersionId());
-        verify(contests).validateSubmission(5L, 7L, 42L);
-        verify(problems, never()).checkPermission(42L, 7L);
+        verify(admission).admit(7L, 42L, 5L);
     }
 
     @Test
-    void ordinarySubmissionRejectsProblemWithoutAJudgeReadyPublishedVersion() {
+    void rejectedAdmissionWritesNothing() {
         UserService users = mock(UserService.class);
-        ProblemService problems = mock(ProblemService.class);
-        SubmissionOutbox outbox = mock(SubmissionOutbox.class);
-        JudgeAttemptMapper attempts = mock(JudgeAttemptMapper.class);
-        ContestService contests = mock(ContestService.class);
-        ProblemVersionMapper versions = mock(ProblemVersionMapper.class);
-        SubmissionServiceImpl service = org.mockito.Mockito.spy(
-                new SubmissionServiceImpl(users, problems, outbox, attempts, contests, versions));
-        User user = new User();
-        Problem problem = new Problem();
-        problem.setId(42L);
-        problem.setStatus(0);
-        problem.setPublishedVersionId(88L);
-        when(users.getById(7L)).thenReturn(user);
-        when(problems.getById(42L)).thenReturn(problem);
-        when(versions.isJudgeReady(42L, 88L)).thenReturn(false);
+        UserProblemStatuses statuses = mock(UserProblemStatuses.class);
+        ProblemCounters counters = mock(ProblemCounters.class);
+        SubmissionAdmission admission = mock(SubmissionAdmission.class);
+        SubmissionWriter writer = mock(SubmissionWriter.class);
+        SubmissionDisplayNames names = mock(SubmissionDisplayNames.class);
+        SubmissionServiceImpl service = new SubmissionServiceImpl(users, statuses, counters, admission, writer, names);
+        when(admission.admit(7L, 42L, null))
+                .thenThrow(new BusinessException(ResultCodeEnum.PROBLEM_NOT_JUDGE_READY));
         SubmissionDTO request = new SubmissionDTO();
         request.setProblemId(42L);
         request.setLanguage("java17");
         request.setCode("class Main {}\n");
 
-        assertThrows(RuntimeException.class, () -> service.submitCode(request, 7L));
+        assertThrows(BusinessException.class, () -> service.submitCode(request, 7L));
 
-        verifyNoInteractions(outbox);
+        verifyNoInteractions(writer, statuses, counters);
     }
 }
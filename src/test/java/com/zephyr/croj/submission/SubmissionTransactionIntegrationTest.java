@@ -5,12 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import com.zephyr.croj.model.dto.SubmissionDTO;
-import com.zephyr.croj.mapper.ProblemVersionMapper;
-import com.zephyr.croj.model.entity.Problem;
-import com.zephyr.croj.model.entity.User;
-import com.zephyr.croj.service.ProblemService;
 import com.zephyr.croj.service.SubmissionService;
-import com.zephyr.croj.service.UserService;
 import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,7 +33,7 @@ import org.springframework.test.context.jdbc.Sql;
         "DROP TABLE IF EXISTS t_judge_attempt",
         "CREATE TABLE t_submission (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, problem_id BIGINT NOT NULL, problem_version_id BIGINT NOT NULL, user_id BIGINT NOT NULL, language VARCHAR(20) NOT NULL, `code` CLOB NOT NULL, status INT NOT NULL, run_time INT, memory INT, judge_info JSON, score INT, error_message CLOB, create_time TIMESTAMP, update_time TIMESTAMP, is_deleted INT DEFAULT 0)",
         "CREATE TABLE t_judge_attempt (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, submission_id BIGINT NOT NULL, attempt_no INT NOT NULL, status VARCHAR(32) NOT NULL, result_json JSON, started_at TIMESTAMP, finished_at TIMESTAMP, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)",
-        "CREATE TABLE t_outbox_event (id VARCHAR(36) PRIMARY KEY, aggregate_type VARCHAR(64) NOT NULL, aggregate_id BIGINT NOT NULL CHECK (aggregate_id < 0), event_type VARCHAR(128) NOT NULL, payload JSON NOT NULL, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, published_at TIMESTAMP, attempts INT DEFAULT 0, next_attempt_at TIMESTAMP, last_error VARCHAR(1000), claimed_by VARCHAR(64), claimed_at TIMESTAMP)",
+        "CREATE TABLE t_outbox_event (id VARCHAR(36) PRIMARY KEY, aggregate_type VARCHAR(64) NOT NULL, aggregate_id BIGINT NOT NULL CHECK (aggregate_id < 0), shard SMALLINT DEFAULT 0 NOT NULL, event_type VARCHAR(128) NOT NULL, payload JSON NOT NULL, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, published_at TIMESTAMP, attempts INT DEFAULT 0, next_attempt_at TIMESTAMP, last_error VARCHAR(1000), claimed_by VARCHAR(64), claimed_at TIMESTAMP)",
 })
 class SubmissionTransactionIntegrationTest {
 
@@ -49,29 +44,14 @@ class SubmissionTransactionIntegrationTest {
     private JdbcTemplate jdbc;
 
     @MockitoBean
-    private UserService users;
-
-    @MockitoBean
-    private ProblemService problems;
+    private SubmissionAdmission admission;
 
     @MockitoBean
     private RocketMQTemplate rocketMq;
 
-    @MockitoBean
-    private ProblemVersionMapper versions;
-
     @Test
     void outboxInsertFailureRollsBackTheSubmissionInsert() {
-        User user = new User();
-        user.setId(7L);
-        Problem problem = new Problem();
-        problem.setId(42L);
-        problem.setStatus(0);
-        problem.setPublishedVersionId(88L);
-        when(users.getById(7L)).thenReturn(user);
-        when(problems.getById(42L)).thenReturn(problem);
-        when(problems.incrementSubmitCount(42L)).thenReturn(true);
-        when(versions.isJudgeReady(42L, 88L)).thenReturn(true);
+        when(admission.admit(7L, 42L, null)).thenReturn(88L);
         SubmissionDTO request = new SubmissionDTO();
         request.setProblemId(42L);
         request.setLanguage("java17");
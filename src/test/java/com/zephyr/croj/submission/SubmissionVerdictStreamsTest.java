@@ -0,0 +1,112 @@
+package com.zephyr.croj.submission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zephyr.croj.common.exception.BusinessException;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:submission-verdict-streams;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_submission",
+        "CREATE TABLE t_submission (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, status INT NOT NULL, score INT, is_deleted INT DEFAULT 0)",
+        "INSERT INTO t_submission(id,user_id,status,score) VALUES (10,7,0,NULL),(11,7,1,NULL),(12,8,0,NULL)"
+})
+class SubmissionVerdictStreamsTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void judgedSubmissionsAreSentAtOnceAndPendingOnesWhenTheirVerdictCommits() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        SubmissionVerdictStreams streams =
+                new SubmissionVerdictStreams(jdbc, objectMapper, null, 20, () -> emitter, Runnable::run);
+
+        streams.subscribe(7L, List.of(10L, 11L, 10L));
+
+        assertEquals(List.of(new SubmissionVerdictStreams.Verdict(11L, 1, "通过", null)), emitter.data);
+        assertFalse(emitter.completed);
+
+        streams.onSubmissionJudged(new SubmissionJudgedEvent(10L, 7L, 42L, null, 3, null, null));
+        streams.onSubmissionJudged(new SubmissionJudgedEvent(10L, 7L, 42L, null, 3, null, null));
+
+        assertEquals(List.of(SubmissionVerdictStreams.VERDICT, SubmissionVerdictStreams.VERDICT), emitter.names);
+        assertEquals(10L, ((SubmissionVerdictStreams.Verdict) emitter.data.get(1)).submissionId());
+        assertTrue(emitter.completed);
+    }
+
+    @Test
+    void verdictsBroadcastByOtherReplicasArePushed() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        SubmissionVerdictStreams streams =
+                new SubmissionVerdictStreams(jdbc, objectMapper, null, 20, () -> emitter, Runnable::run);
+        streams.subscribe(7L, List.of(10L));
+
+        streams.onBroadcast(broadcast("other-replica", new SubmissionVerdictStreams.Verdict(10L, 1, "通过", null)), null);
+
+        assertEquals(1, emitter.data.size());
+        assertTrue(emitter.completed);
+    }
+
+    @Test
+    void foreignOrMissingSubmissionsCannotBeSubscribed() {
+        SubmissionVerdictStreams streams =
+                new SubmissionVerdictStreams(jdbc, objectMapper, null, 2, RecordingEmitter::new, Runnable::run);
+
+        assertThrows(BusinessException.class, () -> streams.subscribe(7L, List.of(12L)));
+        assertThrows(BusinessException.class, () -> streams.subscribe(7L, List.of(99L)));
+        assertThrows(BusinessException.class, () -> streams.subscribe(7L, List.of(10L, 11L, 12L)));
+    }
+
+    private DefaultMessage broadcast(String origin, SubmissionVerdictStreams.Verdict verdict) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(new SubmissionVerdictStreams.Broadcast(origin, verdict));
+        return new DefaultMessage(SubmissionVerdictStreams.CHANNEL.getBytes(StandardCharsets.UTF_8), body);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            var parts = builder.build();
+            String text = parts.iterator().next().getData().toString();
+            names.add(text.substring("event:".length(), text.indexOf('\n')));
+            data.add(parts.stream()
+                    .skip(1)
+                    .findFirst()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .orElse(null));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
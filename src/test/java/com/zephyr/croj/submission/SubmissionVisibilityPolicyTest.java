@@ -2,17 +2,18 @@ package com.zephyr.croj.submission;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.zephyr.croj.common.exception.BusinessException;
-import com.zephyr.croj.contest.ContestService;
-import com.zephyr.croj.mapper.JudgeAttemptMapper;
-import com.zephyr.croj.mapper.ProblemVersionMapper;
 import com.zephyr.croj.mapper.SubmissionMapper;
+import com.zephyr.croj.model.dto.SubmissionCursorQueryDTO;
 import com.zephyr.croj.model.dto.SubmissionQueryDTO;
 import com.zephyr.croj.model.entity.Submission;
 import com.zephyr.croj.model.entity.User;
-import com.zephyr.croj.outbox.SubmissionOutbox;
-import com.zephyr.croj.service.ProblemService;
+import com.zephyr.croj.model.vo.SubmissionCursorVO;
+import com.zephyr.croj.model.vo.SubmissionVO;
+import com.zephyr.croj.problem.ProblemCounters;
 import com.zephyr.croj.service.UserService;
 import com.zephyr.croj.service.impl.SubmissionServiceImpl;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -30,18 +32,18 @@ import static org.mockito.Mockito.when;
 class SubmissionVisibilityPolicyTest {
 
     @Mock private UserService users;
-    @Mock private ProblemService problems;
-    @Mock private SubmissionOutbox outbox;
-    @Mock private JudgeAttemptMapper attempts;
-    @Mock private ContestService contests;
-    @Mock private ProblemVersionMapper versions;
     @Mock private SubmissionMapper submissions;
+    @Mock private UserProblemStatuses statuses;
+    @Mock private ProblemCounters counters;
+    @Mock private SubmissionAdmission admission;
+    @Mock private SubmissionWriter writer;
+    @Mock private SubmissionDisplayNames names;
 
     private SubmissionServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        service = new SubmissionServiceImpl(users, problems, outbox, attempts, contests, versions);
+        service = new SubmissionServiceImpl(users, statuses, counters, admission, writer, names);
         ReflectionTestUtils.setField(service, "baseMapper", submissions);
     }
 
@@ -71,6 +73,45 @@ class SubmissionVisibilityPolicyTest {
         assertThrows(BusinessException.class, () -> service.getSubmissionById(99L, currentUserId));
     }
 
+    @Test
+    void cursorListingIsRestrictedToSelfAndFetchesOneExtraRowForTheNextCursor() {
+        long currentUserId = 7L;
+        when(users.getById(currentUserId)).thenReturn(user(currentUserId, 0));
+        when(submissions.listSubmissionFeed(currentUserId, null, null, null, 50L, 3))
+                .thenReturn(List.of(feedRow(49L), feedRow(48L), feedRow(47L)));
+        when(names.problems(any())).thenReturn(Map.of(42L, new SubmissionDisplayNames.ProblemName("P1000", "A+B")));
+        when(names.usernames(any())).thenReturn(Map.of(currentUserId, "alice"));
+        SubmissionCursorQueryDTO query = new SubmissionCursorQueryDTO();
+        query.setBeforeId(50L);
+        query.setSize(2);
+
+        SubmissionCursorVO cursor = service.getSubmissionCursor(query, currentUserId);
+
+        assertEquals(2, cursor.getRecords().size());
+        assertEquals(48L, cursor.getNextBeforeId());
+        assertEquals("P1000", cursor.getRecords().get(0).getProblemNo());
+        assertEquals("alice", cursor.getRecords().get(1).getUsername());
+    }
+
+    @Test
+    void ordinaryUserCannotListAnotherUsersSubmissionsByCursor() {
+        long currentUserId = 7L;
+        when(users.getById(currentUserId)).thenReturn(user(currentUserId, 0));
+        SubmissionCursorQueryDTO query = new SubmissionCursorQueryDTO();
+        query.setUserId(8L);
+
+        assertThrows(BusinessException.class, () -> service.getSubmissionCursor(query, currentUserId));
+    }
+
+    private SubmissionVO feedRow(long id) {
+        SubmissionVO vo = new SubmissionVO();
+        vo.setId(id);
+        vo.setProblemId(42L);
+        vo.setUserId(7L);
+        vo.setStatus(1);
+        return vo;
+    }
+
     private User user(long id, int role) {
         User user = new User();
         user.setId(id);
@@ -0,0 +1,150 @@
+package com.zephyr.croj.submission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.zephyr.croj.config.properties.SubmissionWriteProperties;
+import com.zephyr.croj.model.entity.Submission;
+import com.zephyr.croj.outbox.SubmissionOutbox;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:submission-writer;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql(statements = {
+        "DROP TABLE IF EXISTS t_submission",
+        "DROP TABLE IF EXISTS t_judge_attempt",
+        "DROP TABLE IF EXISTS t_outbox_event",
+        "CREATE TABLE t_submission (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, problem_id BIGINT NOT NULL, problem_version_id BIGINT NOT NULL, contest_id BIGINT, user_id BIGINT NOT NULL, language VARCHAR(20) NOT NULL, `code` CLOB NOT NULL, status INT NOT NULL, create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP, is_deleted INT DEFAULT 0)",
+        "CREATE TABLE t_judge_attempt (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, submission_id BIGINT NOT NULL, attempt_no INT NOT NULL, status VARCHAR(32) NOT NULL, UNIQUE (submission_id, attempt_no))",
+        "CREATE TABLE t_outbox_event (aggregate_id BIGINT NOT NULL CHECK (aggregate_id < 1000000))"
+})
+class SubmissionWriterIntegrationTest {
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void writesTheSubmissionItsFirstAttemptAndItsOutboxEventTogether() {
+        SubmissionWriter writer = writer(false, Duration.ZERO);
+        Submission submission = submission(7L, "class Main {}\n");
+        submission.setContestId(5L);
+
+        writer.write(submission);
+
+        assertNotNull(submission.getId());
+        assertEquals(5L, jdbc.queryForObject(
+                "SELECT contest_id FROM t_submission WHERE id=?", Long.class, submission.getId()));
+        assertEquals("QUEUED", jdbc.queryForObject(
+                "SELECT status FROM t_judge_attempt WHERE submission_id=? AND attempt_no=1",
+                String.class, submission.getId()));
+        assertEquals(List.of(submission.getId()), outboxIds());
+    }
+
+    @Test
+    void outboxFailureRollsBackTheSubmissionAndItsAttempt() {
+        jdbc.update("ALTER TABLE t_submission ALTER COLUMN id RESTART WITH 1000000");
+        SubmissionWriter writer = writer(false, Duration.ZERO);
+
+        assertThrows(RuntimeException.class, () -> writer.write(submission(7L, "class Main {}\n")));
+
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM t_submission", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM t_judge_attempt", Integer.class));
+    }
+
+    @Test
+    void concurrentSubmissionsShareCommitsAndABadOneOnlyFailsItsOwnCaller() throws Exception {
+        SubmissionWriter writer = writer(true, Duration.ofMillis(200));
+        writer.start();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Long>> results = new ArrayList<>();
+            for (int index = 0; index < 8; index++) {
+                Submission submission = submission(100L + index, index == 3 ? null : "class Main {}\n");
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    writer.write(submission);
+                    return submission.getId();
+                }, callers));
+            }
+
+            List<Long> ids = new ArrayList<>();
+            int failed = 0;
+            for (CompletableFuture<Long> result : results) {
+                try {
+                    ids.add(result.get());
+                } catch (ExecutionException exception) {
+                    failed++;
+                }
+            }
+
+            assertEquals(1, failed);
+            assertEquals(7, ids.stream().distinct().count());
+            assertEquals(7, jdbc.queryForObject("SELECT COUNT(*) FROM t_submission", Integer.class));
+            assertEquals(7, jdbc.queryForObject("SELECT COUNT(*) FROM t_judge_attempt", Integer.class));
+            assertEquals(ids.stream().sorted().toList(), outboxIds());
+        } finally {
+            callers.shutdownNow();
+            writer.stop();
+        }
+    }
+
+    private SubmissionWriter writer(boolean groupCommit, Duration maxDelay) {
+        SubmissionWriteProperties properties = new SubmissionWriteProperties();
+        properties.setGroupCommit(groupCommit);
+        properties.setMaxDelay(maxDelay);
+        return new SubmissionWriter(jdbc, new JdbcOutbox(jdbc), new TransactionTemplate(transactionManager), properties);
+    }
+
+    private List<Long> outboxIds() {
+        return jdbc.queryForList("SELECT aggregate_id FROM t_outbox_event ORDER BY aggregate_id", Long.class);
+    }
+
+    private static Submission submission(long userId, String code) {
+        Submission submission = new Submission();
+        submission.setProblemId(42L);
+        submission.setProblemVersionId(88L);
+        submission.setUserId(userId);
+        submission.setLanguage("java17");
+        submission.setCode(code);
+        submission.setStatus(0);
+        return submission;
+    }
+
+    private record JdbcOutbox(JdbcTemplate jdbc) implements SubmissionOutbox {
+        @Override
+        public void enqueue(Submission submission) {
+            enqueueAll(List.of(submission));
+        }
+
+        @Override
+        public void enqueueAll(List<Submission> submissions) {
+            jdbc.batchUpdate(
+                    "INSERT INTO t_outbox_event(aggregate_id) VALUES (?)",
+                    submissions,
+                    submissions.size(),
+                    (statement, submission) -> statement.setLong(1, submission.getId()));
+        }
+    }
+}
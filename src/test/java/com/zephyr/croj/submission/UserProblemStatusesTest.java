@@ -0,0 +1,168 @@
+package com.zephyr.croj.submission;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.zephyr.croj.mapper.SubmissionMapper;
+import com.zephyr.croj.model.event.SubmissionJudgedEvent;
+import com.zephyr.croj.model.projection.ProblemUserStatusProjection;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class UserProblemStatusesTest {
+    private final SubmissionMapper submissions = mock(SubmissionMapper.class);
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final RedisConnection connection = mock(RedisConnection.class);
+    private final RedisStringCommands strings = mock(RedisStringCommands.class);
+    private final RedisScriptingCommands scripts = mock(RedisScriptingCommands.class);
+    private final RedisKeyCommands keys = mock(RedisKeyCommands.class);
+    private final UserProblemStatuses statuses = new UserProblemStatuses(submissions, redis, Duration.ofHours(6));
+
+    UserProblemStatusesTest() {
+        when(redis.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+        when(connection.stringCommands()).thenReturn(strings);
+        when(connection.scriptingCommands()).thenReturn(scripts);
+        when(connection.keyCommands()).thenReturn(keys);
+    }
+
+    @Test
+    void missRebuildsFromTheWholeHistoryOnceAndLaterPagesReadOnlyTheBitmap() {
+        when(submissions.listUserProblemStatuses(7L)).thenReturn(List.of(
+                new ProblemUserStatusProjection(11L, 1),
+                new ProblemUserStatusProjection(12L, 2),
+                new ProblemUserStatusProjection(4000L, 1)));
+
+        assertEquals(Map.of(11L, 1, 12L, 2), statuses.statuses(7L, List.of(11L, 12L, 13L)));
+
+        ArgumentCaptor<byte[][]> args = ArgumentCaptor.forClass(byte[][].class);
+        verify(scripts).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2), args.capture());
+        byte[][] rebuild = args.getValue();
+        assertEquals("croj:user-problems:v1:{7}", text(rebuild[0]));
+        assertEquals("croj:user-problems:v1:{7}:rebuild", text(rebuild[1]));
+        assertEquals(String.valueOf(Duration.ofHours(6).toMillis()), text(rebuild[3]));
+        byte[] bitmap = rebuild[2];
+        assertEquals(UserProblemStatuses.solvedBit(4000L) / 8 + 1, bitmap.length);
+
+        when(strings.get(UserProblemStatuses.key(7L))).thenReturn(bitmap);
+        assertEquals(Map.of(4000L, 1, 12L, 2), statuses.statuses(7L, List.of(4000L, 12L, 4001L)));
+        verify(submissions, times(1)).listUserProblemStatuses(7L);
+        verify(submissions, never()).listUserProblemStatusesIn(anyLong(), anyList());
+    }
+
+    @Test
+    void bitmapWrittenOnlyByIncrementalUpdatesIsStillAMiss() {
+        byte[] partial = new byte[8];
+        long attempted = UserProblemStatuses.attemptedBit(11L);
+        partial[(int) (attempted >>> 3)] |= (byte) (0x80 >>> (attempted & 7));
+        when(strings.get(UserProblemStatuses.key(7L))).thenReturn(partial);
+        when(submissions.listUserProblemStatuses(7L)).thenReturn(List.of(new ProblemUserStatusProjection(11L, 1)));
+
+        assertEquals(Map.of(11L, 1), statuses.statuses(7L, List.of(11L)));
+        verify(submissions).listUserProblemStatuses(7L);
+    }
+
+    @Test
+    void acceptedVerdictMarksTheProblemSolvedAndOtherVerdictsOnlyAttempted() {
+        statuses.onSubmissionJudged(new SubmissionJudgedEvent(99L, 7L, 11L, null, 1, null, null));
+        statuses.onSubmissionJudged(new SubmissionJudgedEvent(100L, 7L, 12L, null, 3, null, null));
+
+        ArgumentCaptor<byte[][]> args = ArgumentCaptor.forClass(byte[][].class);
+        verify(scripts, times(2)).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), args.capture());
+        List<String> values = args.getAllValues().stream()
+                .flatMap(Arrays::stream)
+                .map(UserProblemStatusesTest::text)
+                .toList();
+        String ttl = String.valueOf(Duration.ofHours(6).toMillis());
+        assertEquals(List.of(
+                "croj:user-problems:v1:{7}", ttl,
+                String.valueOf(UserProblemStatuses.attemptedBit(11L)),
+                String.valueOf(UserProblemStatuses.solvedBit(11L)),
+                "croj:user-problems:v1:{7}", ttl,
+                String.valueOf(UserProblemStatuses.attemptedBit(12L))), values);
+    }
+
+    @Test
+    void submissionIsMarkedOnlyAfterTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            statuses.submitted(7L, 11L);
+            verifyNoInteractions(scripts);
+
+            List<TransactionSynchronization> synchronizations =
+                    new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(scripts).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+    }
+
+    @Test
+    void failedIncrementalUpdateDropsTheBitmapSoTheNextReadRebuilds() {
+        when(scripts.eval(any(byte[].class), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new IllegalStateException("redis busy"));
+
+        statuses.onSubmissionJudged(new SubmissionJudgedEvent(99L, 7L, 11L, null, 1, null, null));
+
+        ArgumentCaptor<byte[]> deleted = ArgumentCaptor.forClass(byte[].class);
+        verify(keys).del(deleted.capture());
+        assertArrayEquals(UserProblemStatuses.key(7L), deleted.getValue());
+    }
+
+    @Test
+    void redisFailuresAndUnaddressableIdsFallBackToThePageQuery() {
+        when(strings.get(any(byte[].class))).thenThrow(new IllegalStateException("redis down"));
+        when(submissions.listUserProblemStatusesIn(7L, List.of(11L, 12L)))
+                .thenReturn(List.of(new ProblemUserStatusProjection(12L, 2)));
+        when(submissions.listUserProblemStatusesIn(7L, List.of(UserProblemStatuses.MAX_PROBLEM_ID + 1)))
+                .thenReturn(List.of());
+
+        assertEquals(Map.of(12L, 2), statuses.statuses(7L, Arrays.asList(11L, 12L, 11L)));
+        assertEquals(Map.of(), statuses.statuses(7L, List.of(UserProblemStatuses.MAX_PROBLEM_ID + 1)));
+        verify(submissions, never()).listUserProblemStatuses(anyLong());
+    }
+
+    @Test
+    void withoutRedisEveryReadGoesToThePageQueryAndUpdatesAreDropped() {
+        var local = new UserProblemStatuses(submissions, null, Duration.ofHours(6));
+        when(submissions.listUserProblemStatusesIn(7L, List.of(11L)))
+                .thenReturn(List.of(new ProblemUserStatusProjection(11L, 1)));
+
+        assertEquals(Map.of(11L, 1), local.statuses(7L, List.of(11L)));
+        local.onSubmissionJudged(new SubmissionJudgedEvent(99L, 7L, 11L, null, 1, null, null));
+        assertEquals(Map.of(), local.statuses(7L, List.of()));
+        verifyNoInteractions(redis);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}